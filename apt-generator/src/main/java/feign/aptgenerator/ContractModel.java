@@ -0,0 +1,170 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+/**
+ * What a contract does with each annotation, written as the {@code RequestTemplate} and
+ * {@code MethodMetadata} calls its annotation processors would make. Values known at compile time
+ * are computed here, anything that depends on the state of the template is left to the generated
+ * code, so both produce the same metadata.
+ *
+ * <p>
+ * Annotations a contract would reject are reported as {@link Unsupported}, and the interface keeps
+ * being parsed reflectively, which fails with the usual message.
+ */
+abstract class ContractModel {
+
+  static final List<String> HTTP_METHODS = Collections.unmodifiableList(Arrays.asList(
+      "GET", "HEAD", "POST", "PUT", "DELETE", "CONNECT", "OPTIONS", "TRACE", "PATCH"));
+
+  final Elements elements;
+
+  ContractModel(Elements elements) {
+    this.elements = elements;
+  }
+
+  /**
+   * {@link Class#getName() Binary name} of the contract.
+   */
+  abstract String contractName();
+
+  /**
+   * {@link Class#getSimpleName() Simple name} of the contract.
+   */
+  abstract String contractSimpleName();
+
+  /**
+   * @return true if {@code annotation} means the annotated interface is written for this contract.
+   */
+  abstract boolean isUsedBy(AnnotationMirror annotation);
+
+  /**
+   * @return false if the contract has no processor for {@code annotation}, which it then reports in
+   *         a warning.
+   */
+  abstract boolean classAnnotation(MethodReplay replay, AnnotationMirror annotation);
+
+  /**
+   * @return false if the contract has no processor for {@code annotation}, which it then reports in
+   *         a warning.
+   */
+  abstract boolean methodAnnotation(MethodReplay replay, AnnotationMirror annotation);
+
+  /**
+   * @return false if the contract has no processor for {@code annotation}, which it then reports in
+   *         a warning.
+   */
+  abstract boolean parameterAnnotation(MethodReplay replay,
+                                       AnnotationMirror annotation,
+                                       int index);
+
+  static String name(AnnotationMirror annotation) {
+    return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+        .toString();
+  }
+
+  final Object value(AnnotationMirror annotation, String name) {
+    for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements
+        .getElementValuesWithDefaults(annotation).entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals(name)) {
+        return entry.getValue().getValue();
+      }
+    }
+    throw new Unsupported("@" + name(annotation) + " has no " + name + "()");
+  }
+
+  final String string(AnnotationMirror annotation, String name) {
+    return cast(String.class, annotation, name, value(annotation, name));
+  }
+
+  final boolean bool(AnnotationMirror annotation, String name) {
+    return cast(Boolean.class, annotation, name, value(annotation, name));
+  }
+
+  final TypeMirror type(AnnotationMirror annotation, String name) {
+    return cast(TypeMirror.class, annotation, name, value(annotation, name));
+  }
+
+  /**
+   * Name of the enum constant.
+   */
+  final String constant(AnnotationMirror annotation, String name) {
+    return constant(annotation, name, value(annotation, name));
+  }
+
+  final List<String> strings(AnnotationMirror annotation, String name) {
+    final List<String> result = new ArrayList<>();
+    for (final Object value : values(annotation, name)) {
+      result.add(cast(String.class, annotation, name, value));
+    }
+    return result;
+  }
+
+  final List<String> constants(AnnotationMirror annotation, String name) {
+    final List<String> result = new ArrayList<>();
+    for (final Object value : values(annotation, name)) {
+      result.add(constant(annotation, name, value));
+    }
+    return result;
+  }
+
+  private List<Object> values(AnnotationMirror annotation, String name) {
+    final Object value = value(annotation, name);
+    if (!(value instanceof List)) {
+      return Collections.singletonList(value);
+    }
+    final List<Object> result = new ArrayList<>();
+    for (final Object element : (List<?>) value) {
+      result.add(((AnnotationValue) element).getValue());
+    }
+    return result;
+  }
+
+  private static String constant(AnnotationMirror annotation, String name, Object value) {
+    return cast(VariableElement.class, annotation, name, value).getSimpleName().toString();
+  }
+
+  private static <T> T cast(Class<T> type,
+                            AnnotationMirror annotation,
+                            String name,
+                            Object value) {
+    if (!type.isInstance(value)) {
+      // usually an unresolved type, the compiler reports it
+      throw new Unsupported("@" + name(annotation) + " has an invalid " + name + "()");
+    }
+    return type.cast(value);
+  }
+
+  /**
+   * Thrown when the contract would reject the interface, or it can't be replayed from generated
+   * code.
+   */
+  static final class Unsupported extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    Unsupported(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static feign.aptgenerator.MethodReplay.literal;
+import static feign.aptgenerator.MethodReplay.literals;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+/**
+ * Replays {@code feign.Contract.Default}.
+ */
+class DefaultContractModel extends ContractModel {
+
+  /** same as {@code Contract.Default.REQUEST_LINE_PATTERN} */
+  private static final Pattern REQUEST_LINE_PATTERN = Pattern.compile("^([A-Z]+)[ ]*(.*)$");
+
+  private static final String HEADERS = "feign.Headers";
+  private static final String REQUEST_LINE = "feign.RequestLine";
+  private static final String BODY = "feign.Body";
+  private static final String PARAM = "feign.Param";
+  private static final String QUERY_MAP = "feign.QueryMap";
+  private static final String HEADER_MAP = "feign.HeaderMap";
+
+  private static final String TYPE_HEADERS = "  private static void typeHeaders("
+      + "feign.MethodMetadata data, java.lang.String... values) {\n"
+      + "    final java.util.Map<java.lang.String, java.util.Collection<java.lang.String>> headers"
+      + " =\n        headers(values);\n"
+      + "    headers.putAll(data.template().headers());\n"
+      + "    data.template().headers(null); // to clear\n"
+      + "    data.template().headers(headers);\n"
+      + "  }\n";
+
+  DefaultContractModel(Elements elements) {
+    super(elements);
+  }
+
+  @Override
+  String contractName() {
+    return "feign.Contract$Default";
+  }
+
+  @Override
+  String contractSimpleName() {
+    return "Default";
+  }
+
+  @Override
+  boolean isUsedBy(AnnotationMirror annotation) {
+    return name(annotation).equals(REQUEST_LINE);
+  }
+
+  @Override
+  boolean classAnnotation(MethodReplay replay, AnnotationMirror annotation) {
+    if (!name(annotation).equals(HEADERS)) {
+      return false;
+    }
+    final List<String> headers = strings(annotation, "value");
+    replay.check(!headers.isEmpty(), "Headers annotation was empty on type %s.",
+        replay.configKey());
+    replay.helper("typeHeaders", TYPE_HEADERS)
+        .statement("typeHeaders(data, " + literals(headers) + ");");
+    return true;
+  }
+
+  @Override
+  boolean methodAnnotation(MethodReplay replay, AnnotationMirror annotation) {
+    switch (name(annotation)) {
+      case REQUEST_LINE:
+        final String requestLine = string(annotation, "value");
+        replay.check(!requestLine.isEmpty(), "RequestLine annotation was empty on method %s.",
+            replay.configKey());
+        final Matcher requestLineMatcher = REQUEST_LINE_PATTERN.matcher(requestLine);
+        replay.check(requestLineMatcher.find(),
+            "RequestLine annotation didn't start with an HTTP verb on method %s",
+            replay.configKey());
+        final String httpMethod = requestLineMatcher.group(1);
+        replay.check(HTTP_METHODS.contains(httpMethod), "No HttpMethod %s", httpMethod);
+        replay.httpMethod = httpMethod;
+        replay.statement("data.template().method(feign.Request.HttpMethod." + httpMethod + ");")
+            .statement("data.template().uri(" + literal(requestLineMatcher.group(2)) + ");")
+            .statement("data.template().decodeSlash(" + bool(annotation, "decodeSlash") + ");")
+            .statement("data.template().collectionFormat(feign.CollectionFormat."
+                + constant(annotation, "collectionFormat") + ");");
+        return true;
+      case BODY:
+        final String body = string(annotation, "value");
+        replay.check(!body.isEmpty(), "Body annotation was empty on method %s.",
+            replay.configKey());
+        if (body.indexOf('{') == -1) {
+          replay.statement("data.template().body(" + literal(body) + ");");
+        } else {
+          replay.statement("data.template().bodyTemplate(" + literal(body) + ");");
+        }
+        return true;
+      case HEADERS:
+        final List<String> headers = strings(annotation, "value");
+        replay.check(!headers.isEmpty(), "Headers annotation was empty on method %s.",
+            replay.configKey());
+        replay.statement("data.template().headers(headers(" + literals(headers) + "));");
+        return true;
+      default:
+        // not used by this contract
+        return false;
+    }
+  }
+
+  @Override
+  boolean parameterAnnotation(MethodReplay replay, AnnotationMirror annotation, int index) {
+    switch (name(annotation)) {
+      case PARAM:
+        final String name = string(annotation, "value");
+        replay.check(!name.isEmpty(), "Param annotation was empty on param %s.", index);
+        replay.statement("nameParam(data, " + literal(name) + ", " + index + ");");
+        final TypeMirror expander = type(annotation, "expander");
+        if (!expander.toString().equals("feign.Param.ToStringExpander")) {
+          replay.statement("data.indexToExpanderClass().put(" + index + ", "
+              + replay.classLiteral(expander) + ");");
+        }
+        replay.statement("if (!data.template().hasRequestVariable(" + literal(name) + ")) {")
+            .statement("  data.formParams().add(" + literal(name) + ");")
+            .statement("}");
+        return true;
+      case QUERY_MAP:
+        replay.check(!replay.queryMap, "QueryMap annotation was present on multiple parameters.");
+        replay.queryMap = true;
+        replay.statement("data.queryMapIndex(" + index + ");")
+            .statement("data.queryMapEncoded(" + bool(annotation, "encoded") + ");");
+        return true;
+      case HEADER_MAP:
+        replay.check(!replay.headerMap,
+            "HeaderMap annotation was present on multiple parameters.");
+        replay.headerMap = true;
+        replay.statement("data.headerMapIndex(" + index + ");");
+        return true;
+      default:
+        // not used by this contract
+        return false;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Finds the feign interfaces the processors of this module generate code for.
+ */
+final class FeignInterfaces {
+
+  private FeignInterfaces() {}
+
+  /**
+   * Interfaces that are, or declare methods, annotated with one of {@code annotations}.
+   */
+  static Set<TypeElement> annotatedWith(Set<? extends TypeElement> annotations,
+                                        RoundEnvironment roundEnv) {
+    final Set<TypeElement> result = new LinkedHashSet<>();
+    for (final TypeElement annotation : annotations) {
+      for (final Element annotated : roundEnv.getElementsAnnotatedWith(annotation)) {
+        final Element type = annotated instanceof TypeElement
+            ? annotated
+            : annotated.getEnclosingElement();
+        if (type.getKind() == ElementKind.INTERFACE) {
+          result.add((TypeElement) type);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return false if {@code element} or one of its enclosing elements is private.
+   */
+  static boolean isAccessibleFromPackage(Element element) {
+    for (Element e = element; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+      if (e.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
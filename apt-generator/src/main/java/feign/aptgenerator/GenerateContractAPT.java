@@ -0,0 +1,103 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import com.google.auto.service.AutoService;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code FeignMetadata_<Contract>_<Interface>} class for each interface written for
+ * {@code Contract.Default}, {@code JAXRSContract} or {@code SpringContract}. The contract then
+ * builds {@link feign.MethodMetadata} from these instead of reading annotations at runtime.
+ *
+ * <p>
+ * Interfaces the contract would reject are skipped with a note, so they keep failing with the usual
+ * message when parsed at runtime.
+ */
+@SupportedAnnotationTypes({
+    "feign.RequestLine",
+    "javax.ws.rs.*",
+    "org.springframework.web.bind.annotation.*"
+})
+@AutoService(Processor.class)
+public class GenerateContractAPT extends AbstractProcessor {
+
+  private final Set<String> generated = new LinkedHashSet<>();
+  private List<ContractModel> contracts;
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    contracts = Arrays.asList(
+        new DefaultContractModel(processingEnv.getElementUtils()),
+        new JAXRSContractModel(processingEnv.getElementUtils()),
+        new SpringContractModel(processingEnv.getElementUtils()));
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (final TypeElement type : FeignInterfaces.annotatedWith(annotations, roundEnv)) {
+      if (!type.getTypeParameters().isEmpty()
+          || !FeignInterfaces.isAccessibleFromPackage(type)) {
+        // parameterized types are rejected by all contracts, private ones can't be referenced
+        continue;
+      }
+      for (final ContractModel contract : contracts) {
+        final MetadataSourceWriter metadata =
+            new MetadataSourceWriter(processingEnv, type, contract);
+        if (!metadata.isUsedByContract() || !generated.add(metadata.qualifiedName())) {
+          continue;
+        }
+        final String source;
+        try {
+          source = metadata.write();
+        } catch (final ContractModel.Unsupported e) {
+          processingEnv.getMessager().printMessage(Kind.NOTE,
+              "Skipping " + contract.contractSimpleName() + " metadata generation: "
+                  + e.getMessage(),
+              type);
+          continue;
+        }
+        try {
+          final JavaFileObject metadataFile = processingEnv.getFiler()
+              .createSourceFile(metadata.qualifiedName(), type);
+          try (Writer writer = metadataFile.openWriter()) {
+            writer.append(source);
+          }
+        } catch (final IOException | RuntimeException e) {
+          processingEnv.getMessager().printMessage(Kind.ERROR,
+              "Unable to generate metadata for " + type + ": " + e.getMessage(), type);
+        }
+      }
+    }
+
+    // other processors may still be interested in these annotations
+    return false;
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import com.google.auto.service.AutoService;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code FeignProxy_<Interface>} class for each interface with feign annotated methods.
+ * Each generated method calls its {@link feign.InvocationHandlerFactory.MethodHandler} through a
+ * field, instead of going through {@link java.lang.reflect.Proxy} and a {@code Map} lookup.
+ *
+ * @see GeneratedProxyFactory
+ */
+@SupportedAnnotationTypes({
+    "feign.RequestLine",
+    "javax.ws.rs.*",
+    "org.springframework.web.bind.annotation.*"
+})
+@AutoService(Processor.class)
+public class GenerateProxyAPT extends AbstractProcessor {
+
+  private final Set<String> generated = new LinkedHashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    final Set<TypeElement> clientsToGenerate =
+        FeignInterfaces.annotatedWith(annotations, roundEnv);
+
+    for (final TypeElement type : clientsToGenerate) {
+      if (!type.getTypeParameters().isEmpty()) {
+        // feign doesn't target parameterized types, only interfaces extending them
+        continue;
+      }
+      if (!FeignInterfaces.isAccessibleFromPackage(type)) {
+        processingEnv.getMessager().printMessage(Kind.NOTE,
+            "Skipping proxy generation, private interfaces cannot be implemented", type);
+        continue;
+      }
+      final ProxySourceWriter proxy = new ProxySourceWriter(processingEnv, type);
+      if (!generated.add(proxy.qualifiedName())) {
+        continue;
+      }
+      try {
+        final JavaFileObject proxyFile = processingEnv.getFiler()
+            .createSourceFile(proxy.qualifiedName(), type);
+        try (Writer writer = proxyFile.openWriter()) {
+          writer.append(proxy.write());
+        }
+      } catch (final IOException | RuntimeException e) {
+        processingEnv.getMessager().printMessage(Kind.ERROR,
+            "Unable to generate proxy for " + type + ": " + e.getMessage(), type);
+      }
+    }
+
+    // other processors may still be interested in these annotations
+    return false;
+  }
+}
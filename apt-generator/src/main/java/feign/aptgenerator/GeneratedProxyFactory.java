@@ -0,0 +1,98 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import feign.Experimental;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.ProxyFactory;
+import feign.Target;
+
+/**
+ * Uses the classes generated by {@link GenerateProxyAPT} when they are present, falling back to
+ * {@link ProxyFactory.Default} otherwise.
+ *
+ * <pre>
+ * GitHub github = Feign.builder()
+ *     .proxyFactory(new GeneratedProxyFactory())
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ *
+ * Generated classes call {@link MethodHandler method handlers} directly, so they are only used with
+ * the default {@link InvocationHandlerFactory}. Custom factories, for example the one installed by
+ * {@code HystrixFeign}, always get a reflective proxy.
+ */
+@Experimental
+public final class GeneratedProxyFactory implements ProxyFactory {
+
+  private static final ClassValue<Optional<Constructor<?>>> CONSTRUCTORS =
+      new ClassValue<Optional<Constructor<?>>>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> type) {
+          try {
+            final String proxyClassName = ProxyNames.proxyClassName(type.getName());
+            final Class<?> proxyClass =
+                Class.forName(proxyClassName, true, type.getClassLoader());
+            return Optional.of(proxyClass.getConstructor(Target.class, Map.class));
+          } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return Optional.empty();
+          }
+        }
+      };
+
+  private final ProxyFactory fallback;
+
+  public GeneratedProxyFactory() {
+    this(new ProxyFactory.Default());
+  }
+
+  /**
+   * @param fallback used for interfaces without a generated proxy.
+   */
+  public GeneratedProxyFactory(ProxyFactory fallback) {
+    this.fallback = fallback;
+  }
+
+  @Override
+  public <T> T create(Target<T> target,
+                      Map<Method, MethodHandler> dispatch,
+                      InvocationHandlerFactory invocationHandlerFactory) {
+    if (invocationHandlerFactory.getClass() != InvocationHandlerFactory.Default.class) {
+      return fallback.create(target, dispatch, invocationHandlerFactory);
+    }
+    final Optional<Constructor<?>> constructor = CONSTRUCTORS.get(target.type());
+    if (!constructor.isPresent()) {
+      return fallback.create(target, dispatch, invocationHandlerFactory);
+    }
+    try {
+      return target.type().cast(constructor.get().newInstance(target, dispatch));
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException(e.getCause());
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @return true if a generated proxy is available for {@code type}.
+   */
+  public static boolean isGenerated(Class<?> type) {
+    return CONSTRUCTORS.get(type).isPresent();
+  }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static feign.aptgenerator.MethodReplay.literal;
+import static feign.aptgenerator.MethodReplay.literals;
+import java.util.ArrayList;
+import java.util.List;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.util.Elements;
+
+/**
+ * Replays {@code feign.jaxrs.JAXRSContract}.
+ */
+class JAXRSContractModel extends ContractModel {
+
+  private static final String ACCEPT = "\"Accept\"";
+  private static final String CONTENT_TYPE = "\"Content-Type\"";
+
+  private static final String HTTP_METHOD = "javax.ws.rs.HttpMethod";
+  private static final String PATH = "javax.ws.rs.Path";
+  private static final String CONSUMES = "javax.ws.rs.Consumes";
+  private static final String PRODUCES = "javax.ws.rs.Produces";
+  private static final String PATH_PARAM = "javax.ws.rs.PathParam";
+  private static final String QUERY_PARAM = "javax.ws.rs.QueryParam";
+  private static final String HEADER_PARAM = "javax.ws.rs.HeaderParam";
+  private static final String FORM_PARAM = "javax.ws.rs.FormParam";
+
+  /** same as the one in {@code JAXRSContract} */
+  private static final String PATH_PARAM_PATTERN = "\\{\\s*(.+?)\\s*(:.+?)?\\}";
+
+  JAXRSContractModel(Elements elements) {
+    super(elements);
+  }
+
+  @Override
+  String contractName() {
+    return "feign.jaxrs.JAXRSContract";
+  }
+
+  @Override
+  String contractSimpleName() {
+    return "JAXRSContract";
+  }
+
+  @Override
+  boolean isUsedBy(AnnotationMirror annotation) {
+    return name(annotation).equals(PATH) || httpMethod(annotation) != null;
+  }
+
+  @Override
+  boolean classAnnotation(MethodReplay replay, AnnotationMirror annotation) {
+    switch (name(annotation)) {
+      case PATH:
+        String pathValue = string(annotation, "value");
+        if (!pathValue.isEmpty()) {
+          if (!pathValue.startsWith("/")) {
+            pathValue = "/" + pathValue;
+          }
+          if (pathValue.endsWith("/")) {
+            pathValue = pathValue.substring(0, pathValue.length() - 1);
+          }
+          pathValue = pathValue.replaceAll(PATH_PARAM_PATTERN, "\\{$1\\}");
+          replay.statement("data.template().uri(" + literal(pathValue) + ");");
+        }
+        return true;
+      case CONSUMES:
+        consumes(replay, annotation);
+        return true;
+      case PRODUCES:
+        produces(replay, annotation);
+        return true;
+      default:
+        // not used by this contract
+        return false;
+    }
+  }
+
+  @Override
+  boolean methodAnnotation(MethodReplay replay, AnnotationMirror annotation) {
+    final String httpMethod = httpMethod(annotation);
+    if (httpMethod != null) {
+      replay.check(replay.httpMethod == null,
+          "Method %s contains multiple HTTP methods. Found: %s and %s", replay.configKey(),
+          replay.httpMethod, httpMethod);
+      replay.check(HTTP_METHODS.contains(httpMethod), "No HttpMethod %s", httpMethod);
+      replay.httpMethod = httpMethod;
+      replay.statement("data.template().method(feign.Request.HttpMethod." + httpMethod + ");");
+      return true;
+    }
+    switch (name(annotation)) {
+      case PATH:
+        final String pathValue = string(annotation, "value");
+        if (pathValue.isEmpty()) {
+          return true;
+        }
+        final String path = pathValue.replaceAll(PATH_PARAM_PATTERN, "\\{$1\\}");
+        if (path.startsWith("/")) {
+          replay.statement("data.template().uri(" + literal(path) + ", true);");
+        } else {
+          replay.statement("data.template().uri(data.template().url().endsWith(\"/\") ? "
+              + literal(path) + " : " + literal("/" + path) + ", true);");
+        }
+        return true;
+      case CONSUMES:
+        consumes(replay, annotation);
+        return true;
+      case PRODUCES:
+        produces(replay, annotation);
+        return true;
+      default:
+        // not used by this contract
+        return false;
+    }
+  }
+
+  @Override
+  boolean parameterAnnotation(MethodReplay replay, AnnotationMirror annotation, int index) {
+    final String annotationName = name(annotation);
+    switch (annotationName) {
+      case PATH_PARAM:
+      case QUERY_PARAM:
+      case HEADER_PARAM:
+      case FORM_PARAM:
+        break;
+      default:
+        // not used by this contract
+        return false;
+    }
+    final String name = string(annotation, "value");
+    replay.check(!name.isEmpty(), "%s.value() was empty on parameter %s",
+        annotationName.substring(annotationName.lastIndexOf('.') + 1), index);
+    switch (annotationName) {
+      case QUERY_PARAM:
+        replay.statement("data.template().query(" + literal(name) + ", "
+            + literal(String.format("{%s}", name)) + ");");
+        break;
+      case HEADER_PARAM:
+        replay.statement("data.template().header(" + literal(name) + ", "
+            + literal(String.format("{%s}", name)) + ");");
+        break;
+      case FORM_PARAM:
+        replay.statement("data.formParams().add(" + literal(name) + ");");
+        break;
+      default:
+    }
+    replay.statement("nameParam(data, " + literal(name) + ", " + index + ");");
+    return true;
+  }
+
+  private void produces(MethodReplay replay, AnnotationMirror produces) {
+    final List<String> serverProduces = nonEmpty(strings(produces, "value"));
+    replay.check(!serverProduces.isEmpty(), "Produces.value() was empty on %s",
+        replay.configKey());
+    replay.statement("data.template().header(" + ACCEPT
+        + ", java.util.Collections.<java.lang.String>emptyList());")
+        .statement("data.template().header(" + ACCEPT + ", " + literals(serverProduces) + ");");
+  }
+
+  private void consumes(MethodReplay replay, AnnotationMirror consumes) {
+    final List<String> serverConsumes = nonEmpty(strings(consumes, "value"));
+    replay.check(!serverConsumes.isEmpty(), "Consumes.value() was empty on %s",
+        replay.configKey());
+    replay.statement(
+        "data.template().header(" + CONTENT_TYPE + ", " + literals(serverConsumes) + ");");
+  }
+
+  private static List<String> nonEmpty(List<String> values) {
+    final List<String> result = new ArrayList<>(values.size());
+    for (final String value : values) {
+      if (!value.isEmpty()) {
+        result.add(value);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the value of {@code @HttpMethod} on the type of {@code annotation}, if present.
+   */
+  private String httpMethod(AnnotationMirror annotation) {
+    for (final AnnotationMirror meta : annotation.getAnnotationType().asElement()
+        .getAnnotationMirrors()) {
+      if (name(meta).equals(HTTP_METHOD)) {
+        return string(meta, "value");
+      }
+    }
+    return null;
+  }
+}
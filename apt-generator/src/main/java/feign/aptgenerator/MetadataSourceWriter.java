@@ -0,0 +1,297 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static feign.aptgenerator.MethodReplay.literal;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Writes the source of a generated {@code feign.MethodMetadataFactory}, see
+ * {@link GenerateContractAPT}. Follows {@code Contract.BaseContract.parseAndValidateMetadata}: type
+ * annotations of the parent interface, then of the interface, then method and parameter
+ * annotations.
+ */
+class MetadataSourceWriter {
+
+  private final Elements elements;
+  private final Types types;
+  private final TypeElement type;
+  private final ContractModel contract;
+  private final String packageName;
+  private final String simpleName;
+  private final Map<String, String> helpers = new LinkedHashMap<>();
+
+  MetadataSourceWriter(ProcessingEnvironment processingEnv, TypeElement type,
+      ContractModel contract) {
+    this.elements = processingEnv.getElementUtils();
+    this.types = processingEnv.getTypeUtils();
+    this.type = type;
+    this.contract = contract;
+    final String className = ProxyNames.metadataClassName(contract.contractSimpleName(),
+        elements.getBinaryName(type).toString());
+    final int lastDot = className.lastIndexOf('.');
+    this.packageName = lastDot == -1 ? "" : className.substring(0, lastDot);
+    this.simpleName = className.substring(lastDot + 1);
+  }
+
+  String qualifiedName() {
+    return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+  }
+
+  /**
+   * @return true if the interface, its parent or one of their methods has an annotation of the
+   *         contract.
+   */
+  boolean isUsedByContract() {
+    for (final Element element : annotatedElements()) {
+      for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+        if (contract.isUsedBy(annotation)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @throws ContractModel.Unsupported if the contract would reject the interface.
+   */
+  String write() {
+    final TypeElement parent = parent();
+    final List<ExecutableElement> methods = methods(parent);
+
+    final StringBuilder body = new StringBuilder();
+    for (int i = 0; i < methods.size(); i++) {
+      writeMethod(body, "m" + i, parent, methods.get(i));
+    }
+
+    final StringBuilder out = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      out.append("package ").append(packageName).append(";\n\n");
+    }
+    out.append("public final class ").append(simpleName)
+        .append(" extends feign.MethodMetadataFactory {\n\n")
+        .append("  public ").append(simpleName).append("() {\n")
+        .append("    super(").append(literal(contract.contractName())).append(");\n")
+        .append("  }\n\n")
+        .append("  @Override\n")
+        .append("  public java.util.List<feign.MethodMetadata> create() {\n")
+        .append("    final java.util.List<feign.MethodMetadata> result =\n")
+        .append("        new java.util.ArrayList<feign.MethodMetadata>(")
+        .append(methods.size()).append(");\n");
+    for (int i = 0; i < methods.size(); i++) {
+      out.append("    result.add(m").append(i).append("());\n");
+    }
+    out.append("    return result;\n")
+        .append("  }\n")
+        .append(body);
+    for (final String helper : helpers.values()) {
+      out.append('\n').append(helper);
+    }
+    return out.append("}\n").toString();
+  }
+
+  void helper(String name, String source) {
+    helpers.putIfAbsent(name, source);
+  }
+
+  String classLiteral(TypeMirror type) {
+    final TypeMirror erasure = types.erasure(type);
+    TypeMirror component = erasure;
+    while (component.getKind() == TypeKind.ARRAY) {
+      component = ((ArrayType) component).getComponentType();
+    }
+    if (component.getKind() == TypeKind.DECLARED
+        && !FeignInterfaces.isAccessibleFromPackage(types.asElement(component))) {
+      throw new ContractModel.Unsupported(component + " is private");
+    }
+    if (component.getKind() != TypeKind.DECLARED && !component.getKind().isPrimitive()) {
+      throw new ContractModel.Unsupported("Unexpected type " + type);
+    }
+    return erasure + ".class";
+  }
+
+  private void writeMethod(StringBuilder out,
+                           String name,
+                           TypeElement parent,
+                           ExecutableElement method) {
+    final MethodReplay replay = new MethodReplay(this, configKey(method));
+    final String contractName = literal(contract.contractSimpleName());
+    if (parent != null) {
+      classAnnotations(replay, parent, "data.targetType().getInterfaces()[0]");
+    }
+    classAnnotations(replay, type, "data.targetType()");
+    for (final AnnotationMirror annotation : method.getAnnotationMirrors()) {
+      if (!contract.methodAnnotation(replay, annotation) && isRuntimeVisible(annotation)) {
+        replay.statement("unusedMethodAnnotation(data, "
+            + literal(annotation.getAnnotationType().asElement().getSimpleName().toString())
+            + ", " + contractName + ");");
+      }
+    }
+    if (!replay.ignored) {
+      replay.check(replay.httpMethod != null,
+          "Method %s not annotated with HTTP method type (ex. GET, POST)", replay.configKey());
+      final List<? extends VariableElement> parameters = method.getParameters();
+      for (int i = 0; i < parameters.size(); i++) {
+        boolean used = false;
+        for (final AnnotationMirror annotation : parameters.get(i).getAnnotationMirrors()) {
+          used |= contract.parameterAnnotation(replay, annotation, i);
+        }
+        if (!used) {
+          replay.statement("unusedParameterAnnotations(data, " + i + ", " + contractName + ");");
+        }
+        replay.statement("parameter(data, " + i + ");");
+      }
+    }
+
+    out.append("\n  private static feign.MethodMetadata ").append(name).append("() {\n")
+        .append("    final feign.MethodMetadata data = metadata(")
+        .append(classLiteral(type.asType())).append(", ")
+        .append(literal(method.getSimpleName().toString()));
+    for (final VariableElement parameter : method.getParameters()) {
+      out.append(", ").append(classLiteral(parameter.asType()));
+    }
+    out.append(");\n")
+        .append(replay.code());
+    if (replay.ignored) {
+      out.append("    return data;\n");
+    } else {
+      out.append("    return validate(data);\n");
+    }
+    out.append("  }\n");
+  }
+
+  /**
+   * Replays the annotations of {@code element}, or the warning the contract records when it uses
+   * none of them.
+   *
+   * @param targetType expression for the class of {@code element} in the generated code.
+   */
+  private void classAnnotations(MethodReplay replay, TypeElement element, String targetType) {
+    boolean used = false;
+    for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      used |= contract.classAnnotation(replay, annotation);
+    }
+    if (!used) {
+      replay.statement("unusedClassAnnotations(data, " + targetType + ", "
+          + literal(contract.contractSimpleName()) + ");");
+    }
+  }
+
+  /**
+   * @return true if {@code annotation} is retained at runtime, where contracts see it.
+   */
+  private static boolean isRuntimeVisible(AnnotationMirror annotation) {
+    final Retention retention =
+        annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+    return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+  }
+
+  /**
+   * Same checks as {@code BaseContract}, which only supports a single level of inheritance.
+   */
+  private TypeElement parent() {
+    if (!type.getTypeParameters().isEmpty()) {
+      throw new ContractModel.Unsupported("Parameterized types unsupported");
+    }
+    final List<? extends TypeMirror> interfaces = type.getInterfaces();
+    if (interfaces.size() > 1) {
+      throw new ContractModel.Unsupported("Only single inheritance supported");
+    }
+    if (interfaces.isEmpty()) {
+      return null;
+    }
+    final TypeElement parent = (TypeElement) types.asElement(interfaces.get(0));
+    if (!parent.getInterfaces().isEmpty()) {
+      throw new ContractModel.Unsupported("Only single-level inheritance supported");
+    }
+    return parent;
+  }
+
+  /**
+   * Abstract methods of the interface and its parent, same as the ones {@code BaseContract} parses,
+   * except overrides which it rejects.
+   */
+  private List<ExecutableElement> methods(TypeElement parent) {
+    final List<ExecutableElement> result = new ArrayList<>();
+    final Set<String> configKeys = new HashSet<>();
+    for (final TypeElement declaring : parent == null
+        ? Collections.singletonList(type)
+        : Arrays.asList(type, parent)) {
+      for (final ExecutableElement method : ElementFilter
+          .methodsIn(declaring.getEnclosedElements())) {
+        if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+          continue;
+        }
+        if (!configKeys.add(configKey(method))) {
+          throw new ContractModel.Unsupported("Overrides unsupported: " + configKey(method));
+        }
+        result.add(method);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Same as {@code Feign.configKey}, which uses simple names of parameter types resolved against
+   * the interface.
+   */
+  private String configKey(ExecutableElement method) {
+    final ExecutableType resolved =
+        (ExecutableType) types.asMemberOf((DeclaredType) type.asType(), method);
+    final StringBuilder builder = new StringBuilder()
+        .append(type.getSimpleName())
+        .append('#').append(method.getSimpleName()).append('(');
+    final List<? extends TypeMirror> parameterTypes = resolved.getParameterTypes();
+    for (int i = 0; i < parameterTypes.size(); i++) {
+      builder.append(i > 0 ? "," : "").append(rawSimpleName(parameterTypes.get(i)));
+    }
+    return builder.append(')').toString();
+  }
+
+  private String rawSimpleName(TypeMirror type) {
+    switch (type.getKind()) {
+      case ARRAY:
+        return rawSimpleName(((ArrayType) type).getComponentType()) + "[]";
+      case DECLARED:
+        return ((DeclaredType) type).asElement().getSimpleName().toString();
+      case TYPEVAR:
+        return "Object";
+      default:
+        return type.toString();
+    }
+  }
+
+  private List<Element> annotatedElements() {
+    final List<Element> result = new ArrayList<>();
+    final List<TypeElement> declaring = new ArrayList<>();
+    declaring.add(type);
+    for (final TypeMirror parent : type.getInterfaces()) {
+      declaring.add((TypeElement) types.asElement(parent));
+    }
+    for (final TypeElement element : declaring) {
+      result.add(element);
+      result.addAll(element.getEnclosedElements());
+    }
+    return result;
+  }
+}
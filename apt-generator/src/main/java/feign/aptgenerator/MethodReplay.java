@@ -0,0 +1,124 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Statements replaying the contract for one method, plus what the contract would check while
+ * processing it.
+ */
+final class MethodReplay {
+
+  private final StringBuilder code = new StringBuilder();
+  private final MetadataSourceWriter writer;
+  private final String configKey;
+  String httpMethod;
+  boolean ignored;
+  boolean queryMap;
+  boolean headerMap;
+
+  MethodReplay(MetadataSourceWriter writer, String configKey) {
+    this.writer = writer;
+    this.configKey = configKey;
+  }
+
+  String configKey() {
+    return configKey;
+  }
+
+  /**
+   * Adds a statement to the generated method, {@code data} is its {@code MethodMetadata}.
+   */
+  MethodReplay statement(String statement) {
+    code.append("    ").append(statement).append('\n');
+    return this;
+  }
+
+  /**
+   * Adds a private static method to the generated class, once.
+   */
+  MethodReplay helper(String name, String source) {
+    writer.helper(name, source);
+    return this;
+  }
+
+  /**
+   * Something the contract checks with {@code checkState}.
+   */
+  void check(boolean condition, String message, Object... args) {
+    if (!condition) {
+      throw new ContractModel.Unsupported(String.format(message, args));
+    }
+  }
+
+  /**
+   * Class literal for {@code type}, which must be accessible from the generated class.
+   */
+  String classLiteral(TypeMirror type) {
+    return writer.classLiteral(type);
+  }
+
+  String code() {
+    return code.toString();
+  }
+
+  /**
+   * Java source for {@code value}.
+   */
+  static String literal(String value) {
+    final StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          if (c < 0x20 || c > 0x7e) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    return out.append('"').toString();
+  }
+
+  /**
+   * Comma separated {@link #literal(String) literals}.
+   */
+  static String literals(Iterable<String> values) {
+    final StringBuilder out = new StringBuilder();
+    for (final String value : values) {
+      if (out.length() > 0) {
+        out.append(", ");
+      }
+      out.append(literal(value));
+    }
+    return out.toString();
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+/**
+ * Naming shared by the processors and the runtime lookups of generated classes. Kept free of feign
+ * types so the processors can run without feign on the processor path.
+ */
+final class ProxyNames {
+
+  private static final String PREFIX = "FeignProxy_";
+  private static final String METADATA_PREFIX = "FeignMetadata_";
+
+  private ProxyNames() {}
+
+  /**
+   * Name of the class generated for the interface with the given binary name, for example
+   * {@code example.github.FeignProxy_GitHubExample_GitHub} for
+   * {@code example.github.GitHubExample$GitHub}.
+   */
+  static String proxyClassName(String binaryName) {
+    final int lastDot = binaryName.lastIndexOf('.');
+    final String packagePrefix = binaryName.substring(0, lastDot + 1);
+    return packagePrefix + PREFIX + binaryName.substring(lastDot + 1).replace('$', '_');
+  }
+
+  /**
+   * Name of the {@code feign.MethodMetadataFactory} generated for the contract and interface, for
+   * example {@code example.github.FeignMetadata_Default_GitHubExample_GitHub}. Must match the name
+   * {@code MethodMetadataFactory} looks up.
+   */
+  static String metadataClassName(String contractSimpleName, String binaryName) {
+    final int lastDot = binaryName.lastIndexOf('.');
+    return binaryName.substring(0, lastDot + 1) + METADATA_PREFIX + contractSimpleName + '_'
+        + binaryName.substring(lastDot + 1).replace('$', '_');
+  }
+}
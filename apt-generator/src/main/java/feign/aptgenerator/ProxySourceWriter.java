@@ -0,0 +1,279 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Writes the source of a generated proxy, see {@link GenerateProxyAPT}.
+ */
+class ProxySourceWriter {
+
+  private final Elements elements;
+  private final Types types;
+  private final TypeElement type;
+  private final String packageName;
+  private final String simpleName;
+
+  ProxySourceWriter(ProcessingEnvironment processingEnv, TypeElement type) {
+    this.elements = processingEnv.getElementUtils();
+    this.types = processingEnv.getTypeUtils();
+    this.type = type;
+    final String proxyName =
+        ProxyNames.proxyClassName(elements.getBinaryName(type).toString());
+    final int lastDot = proxyName.lastIndexOf('.');
+    this.packageName = lastDot == -1 ? "" : proxyName.substring(0, lastDot);
+    this.simpleName = proxyName.substring(lastDot + 1);
+  }
+
+  String qualifiedName() {
+    return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+  }
+
+  String write() {
+    final String typeName = type.getQualifiedName().toString();
+    final List<ExecutableElement> methods = proxiedMethods();
+    final DeclaredType declaredType = (DeclaredType) type.asType();
+
+    final StringBuilder out = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      out.append("package ").append(packageName).append(";\n\n");
+    }
+    out.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+        .append("public final class ").append(simpleName).append(" implements ")
+        .append(typeName).append(" {\n\n")
+        .append("  private final feign.Target<?> target;\n");
+    for (int i = 0; i < methods.size(); i++) {
+      out.append("  private final feign.InvocationHandlerFactory.MethodHandler m").append(i)
+          .append(";\n");
+    }
+
+    out.append("\n  public ").append(simpleName).append("(feign.Target<?> target,\n")
+        .append("      java.util.Map<java.lang.reflect.Method, ")
+        .append("feign.InvocationHandlerFactory.MethodHandler> dispatch) {\n")
+        .append("    this.target = target;\n")
+        .append("    try {\n");
+    for (int i = 0; i < methods.size(); i++) {
+      final ExecutableElement method = methods.get(i);
+      out.append("      this.m").append(i).append(" = handler(dispatch, ").append(typeName)
+          .append(".class.getMethod(\"").append(method.getSimpleName()).append('"');
+      for (final VariableElement parameter : method.getParameters()) {
+        out.append(", ").append(types.erasure(parameter.asType())).append(".class");
+      }
+      out.append("));\n");
+    }
+    out.append("    } catch (java.lang.NoSuchMethodException e) {\n")
+        .append("      throw new java.lang.IllegalStateException(e);\n")
+        .append("    }\n")
+        .append("  }\n\n");
+
+    out.append("  private static feign.InvocationHandlerFactory.MethodHandler handler(\n")
+        .append("      java.util.Map<java.lang.reflect.Method, ")
+        .append("feign.InvocationHandlerFactory.MethodHandler> dispatch,\n")
+        .append("      java.lang.reflect.Method method) {\n")
+        .append("    feign.InvocationHandlerFactory.MethodHandler handler = ")
+        .append("dispatch.get(method);\n")
+        .append("    if (handler == null) {\n")
+        .append("      throw new java.lang.IllegalStateException(\"no handler for \" + method);\n")
+        .append("    }\n")
+        .append("    return handler;\n")
+        .append("  }\n");
+
+    for (int i = 0; i < methods.size(); i++) {
+      writeMethod(out, "m" + i, methods.get(i),
+          (ExecutableType) types.asMemberOf(declaredType, methods.get(i)));
+    }
+
+    out.append("\n  @Override\n")
+        .append("  public boolean equals(java.lang.Object obj) {\n")
+        .append("    return obj instanceof ").append(simpleName)
+        .append(" && target.equals(((").append(simpleName).append(") obj).target);\n")
+        .append("  }\n\n")
+        .append("  @Override\n")
+        .append("  public int hashCode() {\n")
+        .append("    return target.hashCode();\n")
+        .append("  }\n\n")
+        .append("  @Override\n")
+        .append("  public java.lang.String toString() {\n")
+        .append("    return target.toString();\n")
+        .append("  }\n")
+        .append("}\n");
+    return out.toString();
+  }
+
+  private void writeMethod(StringBuilder out,
+                           String handler,
+                           ExecutableElement method,
+                           ExecutableType resolved) {
+    out.append("\n  @Override\n  public ");
+    if (!method.getTypeParameters().isEmpty()) {
+      out.append('<');
+      for (int i = 0; i < method.getTypeParameters().size(); i++) {
+        final TypeParameterElement typeParameter = method.getTypeParameters().get(i);
+        if (i > 0) {
+          out.append(", ");
+        }
+        out.append(typeParameter.getSimpleName());
+        final List<? extends TypeMirror> bounds = typeParameter.getBounds();
+        if (!bounds.isEmpty() && !isObject(bounds.get(0))) {
+          out.append(" extends ");
+          for (int b = 0; b < bounds.size(); b++) {
+            out.append(b > 0 ? " & " : "").append(bounds.get(b));
+          }
+        }
+      }
+      out.append("> ");
+    }
+    final TypeMirror returnType = resolved.getReturnType();
+    out.append(returnType).append(' ').append(method.getSimpleName()).append('(');
+
+    final List<? extends TypeMirror> parameterTypes = resolved.getParameterTypes();
+    for (int i = 0; i < parameterTypes.size(); i++) {
+      if (i > 0) {
+        out.append(", ");
+      }
+      if (method.isVarArgs() && i == parameterTypes.size() - 1) {
+        out.append(((ArrayType) parameterTypes.get(i)).getComponentType()).append("...");
+      } else {
+        out.append(parameterTypes.get(i));
+      }
+      out.append(" p").append(i);
+    }
+    out.append(')');
+
+    final List<TypeMirror> declared = checkedExceptions(resolved.getThrownTypes());
+    if (!resolved.getThrownTypes().isEmpty()) {
+      out.append(" throws ");
+      for (int i = 0; i < resolved.getThrownTypes().size(); i++) {
+        out.append(i > 0 ? ", " : "").append(resolved.getThrownTypes().get(i));
+      }
+    }
+    out.append(" {\n    try {\n      ");
+
+    final StringBuilder call = new StringBuilder(handler).append(".invoke(");
+    if (parameterTypes.isEmpty()) {
+      // matches java.lang.reflect.Proxy, which passes null for methods without parameters
+      call.append("null");
+    } else {
+      call.append("new java.lang.Object[] {");
+      for (int i = 0; i < parameterTypes.size(); i++) {
+        call.append(i > 0 ? ", " : "").append('p').append(i);
+      }
+      call.append('}');
+    }
+    call.append(')');
+
+    if (returnType.getKind() == TypeKind.VOID) {
+      out.append(call).append(";\n");
+    } else {
+      out.append("return (").append(returnType).append(") ").append(call).append(";\n");
+    }
+    out.append("    } catch (java.lang.RuntimeException | java.lang.Error e) {\n")
+        .append("      throw e;\n");
+    boolean throwsThrowable = false;
+    for (final TypeMirror exception : declared) {
+      out.append("    } catch (").append(exception).append(" e) {\n")
+          .append("      throw e;\n");
+      throwsThrowable |= isType(exception, Throwable.class);
+    }
+    if (!throwsThrowable) {
+      out.append("    } catch (java.lang.Throwable e) {\n")
+          .append("      throw new java.lang.reflect.UndeclaredThrowableException(e);\n");
+    }
+    out.append("    }\n  }\n");
+  }
+
+  /**
+   * Abstract methods of the interface and its super interfaces, except the ones declared by
+   * {@link Object}, which the proxy implements itself.
+   */
+  private List<ExecutableElement> proxiedMethods() {
+    final List<ExecutableElement> result = new ArrayList<>();
+    for (final ExecutableElement method : ElementFilter
+        .methodsIn(elements.getAllMembers(type))) {
+      if (!method.getModifiers().contains(Modifier.ABSTRACT)
+          || method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+          || isObjectMethod(method)) {
+        continue;
+      }
+      result.add(method);
+    }
+    return result;
+  }
+
+  private boolean isObjectMethod(ExecutableElement method) {
+    final String name = method.getSimpleName().toString();
+    final List<? extends VariableElement> parameters = method.getParameters();
+    return (name.equals("equals") && parameters.size() == 1
+        && isObject(parameters.get(0).asType()))
+        || (name.equals("hashCode") && parameters.isEmpty())
+        || (name.equals("toString") && parameters.isEmpty());
+  }
+
+  /**
+   * Declared exceptions that need their own catch clause: unchecked exceptions are already
+   * rethrown, as are subtypes of another declared exception.
+   */
+  private List<TypeMirror> checkedExceptions(List<? extends TypeMirror> thrownTypes) {
+    final TypeMirror runtimeException =
+        elements.getTypeElement(RuntimeException.class.getName()).asType();
+    final TypeMirror error = elements.getTypeElement(Error.class.getName()).asType();
+    final List<TypeMirror> result = new ArrayList<>();
+    for (final TypeMirror thrown : thrownTypes) {
+      if (thrown.getKind() != TypeKind.DECLARED
+          || types.isSubtype(thrown, runtimeException)
+          || types.isSubtype(thrown, error)) {
+        continue;
+      }
+      boolean covered = false;
+      for (final TypeMirror other : thrownTypes) {
+        if (other != thrown && !types.isSameType(other, thrown)
+            && types.isSubtype(thrown, other)) {
+          covered = true;
+          break;
+        }
+      }
+      if (!covered && !containsSameType(result, thrown)) {
+        result.add(thrown);
+      }
+    }
+    return result;
+  }
+
+  private boolean containsSameType(List<TypeMirror> list, TypeMirror type) {
+    for (final TypeMirror existing : list) {
+      if (types.isSameType(existing, type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isObject(TypeMirror type) {
+    return isType(type, Object.class);
+  }
+
+  private boolean isType(TypeMirror type, Class<?> clazz) {
+    return type.getKind() == TypeKind.DECLARED
+        && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName()
+            .contentEquals(clazz.getName());
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static feign.aptgenerator.MethodReplay.literal;
+import java.util.Arrays;
+import java.util.List;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.util.Elements;
+
+/**
+ * Replays {@code feign.spring.SpringContract}.
+ */
+class SpringContractModel extends ContractModel {
+
+  private static final String ACCEPT = "\"Accept\"";
+  private static final String CONTENT_TYPE = "\"Content-Type\"";
+
+  private static final String PACKAGE = "org.springframework.web.bind.annotation.";
+  private static final String REQUEST_MAPPING = PACKAGE + "RequestMapping";
+  private static final List<String> MAPPINGS = Arrays.asList(
+      PACKAGE + "GetMapping",
+      PACKAGE + "PostMapping",
+      PACKAGE + "PutMapping",
+      PACKAGE + "DeleteMapping",
+      PACKAGE + "PatchMapping");
+  private static final String RESPONSE_BODY = PACKAGE + "ResponseBody";
+  private static final String EXCEPTION_HANDLER = PACKAGE + "ExceptionHandler";
+  private static final String PATH_VARIABLE = PACKAGE + "PathVariable";
+  private static final String REQUEST_BODY = PACKAGE + "RequestBody";
+  private static final String REQUEST_PARAM = PACKAGE + "RequestParam";
+
+  private static final String APPEND_MAPPING = "  private static void appendMapping("
+      + "feign.MethodMetadata data, java.lang.String mapping) {\n"
+      + "    java.lang.String methodAnnotationValue = mapping;\n"
+      + "    if (!methodAnnotationValue.startsWith(\"/\") "
+      + "&& !data.template().url().endsWith(\"/\")) {\n"
+      + "      methodAnnotationValue = \"/\" + methodAnnotationValue;\n"
+      + "    }\n"
+      + "    if (data.template().url().endsWith(\"/\") "
+      + "&& methodAnnotationValue.startsWith(\"/\")) {\n"
+      + "      methodAnnotationValue = methodAnnotationValue.substring(1);\n"
+      + "    }\n"
+      + "    data.template().uri(data.template().url() + methodAnnotationValue);\n"
+      + "  }\n";
+
+  private static final String REQUEST_PARAM_HELPER = "  private static void requestParam("
+      + "feign.MethodMetadata data, java.lang.String name) {\n"
+      + "    java.util.Collection<java.lang.String> query = "
+      + "data.template().queries().get(name);\n"
+      + "    if (query == null) {\n"
+      + "      query = new java.util.ArrayList<java.lang.String>();\n"
+      + "    }\n"
+      + "    query.add(java.lang.String.format(\"{%s}\", name));\n"
+      + "    data.template().query(name, query);\n"
+      + "  }\n";
+
+  SpringContractModel(Elements elements) {
+    super(elements);
+  }
+
+  @Override
+  String contractName() {
+    return "feign.spring.SpringContract";
+  }
+
+  @Override
+  String contractSimpleName() {
+    return "SpringContract";
+  }
+
+  @Override
+  boolean isUsedBy(AnnotationMirror annotation) {
+    final String name = name(annotation);
+    return name.equals(REQUEST_MAPPING) || MAPPINGS.contains(name);
+  }
+
+  @Override
+  boolean classAnnotation(MethodReplay replay, AnnotationMirror annotation) {
+    if (!name(annotation).equals(REQUEST_MAPPING)) {
+      return false;
+    }
+    appendMappings(replay, strings(annotation, "value"));
+    method(replay, constants(annotation, "method"));
+    produces(replay, strings(annotation, "produces"));
+    consumes(replay, strings(annotation, "consumes"));
+    return true;
+  }
+
+  @Override
+  boolean methodAnnotation(MethodReplay replay, AnnotationMirror annotation) {
+    final String name = name(annotation);
+    if (name.equals(REQUEST_MAPPING)) {
+      appendMappings(replay, strings(annotation, "value"));
+      method(replay, constants(annotation, "method"));
+    } else if (MAPPINGS.contains(name)) {
+      appendMappings(replay, strings(annotation, "value"));
+      final String simpleName = name.substring(PACKAGE.length());
+      method(replay, Arrays.asList(
+          simpleName.substring(0, simpleName.length() - "Mapping".length()).toUpperCase()));
+      produces(replay, strings(annotation, "produces"));
+      consumes(replay, strings(annotation, "consumes"));
+    } else if (name.equals(RESPONSE_BODY)) {
+      consumes(replay, Arrays.asList("application/json"));
+    } else if (name.equals(EXCEPTION_HANDLER)) {
+      replay.ignored = true;
+      replay.statement("data.ignoreMethod();");
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  boolean parameterAnnotation(MethodReplay replay, AnnotationMirror annotation, int index) {
+    final String name = name(annotation);
+    if (name.equals(PATH_VARIABLE)) {
+      replay.statement(
+          "nameParam(data, " + literal(string(annotation, "value")) + ", " + index + ");");
+    } else if (name.equals(REQUEST_BODY)) {
+      produces(replay, Arrays.asList("application/json"));
+    } else if (name.equals(REQUEST_PARAM)) {
+      final String param = literal(string(annotation, "value"));
+      replay.helper("requestParam", REQUEST_PARAM_HELPER)
+          .statement("requestParam(data, " + param + ");")
+          .statement("nameParam(data, " + param + ", " + index + ");");
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  private static void appendMappings(MethodReplay replay, List<String> mappings) {
+    for (final String mapping : mappings) {
+      replay.helper("appendMapping", APPEND_MAPPING)
+          .statement("appendMapping(data, " + literal(mapping) + ");");
+    }
+  }
+
+  /**
+   * The contract only sets the http method when there is exactly one.
+   */
+  private static void method(MethodReplay replay, List<String> methods) {
+    if (methods.size() == 1) {
+      replay.check(HTTP_METHODS.contains(methods.get(0)), "No HttpMethod %s", methods.get(0));
+      replay.httpMethod = methods.get(0);
+      replay.statement("data.template().method(feign.Request.HttpMethod." + methods.get(0) + ");");
+    }
+  }
+
+  private static void produces(MethodReplay replay, List<String> produces) {
+    if (!produces.isEmpty()) {
+      replay.statement("data.template().removeHeader(" + ACCEPT + ");")
+          .statement("data.template().header(" + ACCEPT + ", " + literal(produces.get(0)) + ");");
+    }
+  }
+
+  private static void consumes(MethodReplay replay, List<String> consumes) {
+    if (!consumes.isEmpty()) {
+      replay.statement("data.template().removeHeader(" + CONTENT_TYPE + ");")
+          .statement(
+              "data.template().header(" + CONTENT_TYPE + ", " + literal(consumes.get(0)) + ");");
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.Test;
+import java.io.File;
+
+/**
+ * Test for {@link GenerateContractAPT}
+ */
+public class GenerateContractAPTTest {
+
+  private final File main = new File("../example-github/src/main/java/").getAbsoluteFile();
+
+  @Test
+  public void generatesMetadataForDefaultContract() throws Exception {
+    final Compilation compilation =
+        javac()
+            .withProcessors(new GenerateContractAPT())
+            .compile(JavaFileObjects.forResource(
+                new File(main, "example/github/GitHubExample.java")
+                    .toURI()
+                    .toURL()));
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("example.github.FeignMetadata_Default_GitHubExample_GitHub")
+        .contentsAsUtf8String()
+        .contains("super(\"feign.Contract$Default\");");
+  }
+
+  @Test
+  public void skipsInterfacesTheContractRejects() {
+    final Compilation compilation =
+        javac()
+            .withProcessors(new GenerateContractAPT())
+            .compile(JavaFileObjects.forSourceLines("test.Api",
+                "package test;",
+                "public interface Api {",
+                "  @feign.RequestLine(\"FETCH /\") String get();",
+                "}"));
+    assertThat(compilation).succeeded();
+    assertThat(compilation).hadNoteContaining("Skipping Default metadata generation");
+  }
+
+  @Test
+  public void escapesLiterals() {
+    final Compilation compilation =
+        javac()
+            .withProcessors(new GenerateContractAPT())
+            .compile(JavaFileObjects.forSourceLines("test.Api",
+                "package test;",
+                "public interface Api {",
+                "  @feign.RequestLine(\"POST /\")",
+                "  @feign.Body(\"{\\\"name\\\": \\\"\\u00e9\\\\n\\\"}\")",
+                "  void post();",
+                "}"));
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.FeignMetadata_Default_Api")
+        .contentsAsUtf8String()
+        .contains("data.template().bodyTemplate(\"{\\\"name\\\": \\\"\\u00e9\\\\n\\\"}\");");
+  }
+}
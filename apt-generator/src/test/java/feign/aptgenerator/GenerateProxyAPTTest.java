@@ -0,0 +1,71 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.Test;
+import java.io.File;
+
+/**
+ * Test for {@link GenerateProxyAPT}
+ */
+public class GenerateProxyAPTTest {
+
+  private final File main = new File("../example-github/src/main/java/").getAbsoluteFile();
+
+  @Test
+  public void generatesProxyForNestedInterface() throws Exception {
+    final Compilation compilation =
+        javac()
+            .withProcessors(new GenerateProxyAPT())
+            .compile(JavaFileObjects.forResource(
+                new File(main, "example/github/GitHubExample.java")
+                    .toURI()
+                    .toURL()));
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("example.github.FeignProxy_GitHubExample_GitHub")
+        .contentsAsUtf8String()
+        .contains("implements example.github.GitHubExample.GitHub");
+  }
+
+  @Test
+  public void skipsPrivateInterfaces() {
+    final Compilation compilation =
+        javac()
+            .withProcessors(new GenerateProxyAPT())
+            .compile(JavaFileObjects.forSourceLines("test.Outer",
+                "package test;",
+                "public class Outer {",
+                "  private interface Api {",
+                "    @feign.RequestLine(\"GET /\") String get();",
+                "  }",
+                "}"));
+    assertThat(compilation).succeeded();
+    assertThat(compilation).hadNoteContaining("Skipping proxy generation");
+  }
+
+  @Test
+  public void proxyClassName() {
+    org.assertj.core.api.Assertions
+        .assertThat(ProxyNames.proxyClassName("example.github.GitHubExample$GitHub"))
+        .isEqualTo("example.github.FeignProxy_GitHubExample_GitHub");
+    org.assertj.core.api.Assertions
+        .assertThat(ProxyNames.proxyClassName("Api"))
+        .isEqualTo("FeignProxy_Api");
+  }
+}
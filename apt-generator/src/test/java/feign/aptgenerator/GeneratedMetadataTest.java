@@ -0,0 +1,128 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import feign.*;
+
+/**
+ * Metadata generated for the interfaces below must be the same the contract parses from their
+ * annotations.
+ */
+public class GeneratedMetadataTest {
+
+  @Headers("Accept: application/json")
+  interface Parent {
+
+    @RequestLine("GET /parent/{id}")
+    List<String> parent(@Param("id") String id);
+  }
+
+  @Headers({"Accept: text/plain", "X-Tenant: {tenant}"})
+  interface Api extends Parent {
+
+    @RequestLine(value = "GET /search?q={q}", collectionFormat = CollectionFormat.CSV)
+    String search(@Param("q") List<String> q,
+                  @Param(value = "tenant", expander = Upper.class) String tenant);
+
+    @RequestLine("POST /login")
+    @Headers("Content-Type: application/x-www-form-urlencoded")
+    @Body("user={user}&password={password}")
+    void login(@Param("user") String user, @Param("password") String password);
+
+    @RequestLine("POST /form")
+    void form(@Param("user") String user, @Param("tenant") String tenant);
+
+    @RequestLine("PUT /{id}")
+    Map<String, Object> put(@Param("id") int id, Map<String, Object> body, Request.Options options);
+
+    @RequestLine("GET /maps")
+    void maps(URI uri,
+              @QueryMap(encoded = true) Map<String, Object> query,
+              @HeaderMap Map<String, Object> headers);
+  }
+
+  interface Unannotated {
+
+    @Deprecated
+    @SuppressWarnings("unused")
+    @RequestLine("DELETE /{id}")
+    void delete(@Param("id") @Deprecated String id, @Deprecated String reason);
+  }
+
+  /** Parses reflectively, with the simple name the warnings mention. */
+  static class Default extends Contract.Default {
+  }
+
+  public static class Upper implements Param.Expander {
+
+    @Override
+    public String expand(Object value) {
+      return value.toString().toUpperCase();
+    }
+  }
+
+  @Test
+  public void sameAsParsedMetadata() throws Exception {
+    assertSameAsParsed(Api.class);
+  }
+
+  @Test
+  public void sameWarningsForUnusedAnnotations() throws Exception {
+    assertSameAsParsed(Unannotated.class);
+  }
+
+  private void assertSameAsParsed(Class<?> type) throws Exception {
+    assertThat(Class.forName(getClass().getPackage().getName()
+        + ".FeignMetadata_Default_GeneratedMetadataTest_" + type.getSimpleName())).isNotNull();
+
+    final List<MethodMetadata> generated =
+        new Contract.Default().parseAndValidateMetadata(type);
+    final List<MethodMetadata> parsed =
+        new Default().parseAndValidateMetadata(type);
+
+    assertThat(generated).hasSameSizeAs(parsed);
+    for (final MethodMetadata expected : parsed) {
+      final MethodMetadata actual = generated.stream()
+          .filter(metadata -> metadata.configKey().equals(expected.configKey()))
+          .findFirst()
+          .orElseThrow(() -> new AssertionError("missing " + expected.configKey()));
+
+      assertThat(actual.returnType()).isEqualTo(expected.returnType());
+      assertThat(actual.method()).isEqualTo(expected.method());
+      assertThat(actual.urlIndex()).isEqualTo(expected.urlIndex());
+      assertThat(actual.bodyIndex()).isEqualTo(expected.bodyIndex());
+      assertThat(actual.bodyType()).isEqualTo(expected.bodyType());
+      assertThat(actual.queryMapIndex()).isEqualTo(expected.queryMapIndex());
+      assertThat(actual.queryMapEncoded()).isEqualTo(expected.queryMapEncoded());
+      assertThat(actual.headerMapIndex()).isEqualTo(expected.headerMapIndex());
+      assertThat(actual.formParams()).isEqualTo(expected.formParams());
+      assertThat(actual.indexToName()).isEqualTo(expected.indexToName());
+      assertThat(actual.indexToExpanderClass()).isEqualTo(expected.indexToExpanderClass());
+      assertThat(actual.template().method()).isEqualTo(expected.template().method());
+      assertThat(actual.template().url()).isEqualTo(expected.template().url());
+      assertThat(actual.template().headers()).isEqualTo(expected.template().headers());
+      assertThat(actual.template().queries()).isEqualTo(expected.template().queries());
+      assertThat(actual.template().bodyTemplate()).isEqualTo(expected.template().bodyTemplate());
+      assertThat(actual.template().collectionFormat())
+          .isEqualTo(expected.template().collectionFormat());
+      assertThat(actual.template().decodeSlash()).isEqualTo(expected.template().decodeSlash());
+      assertThat(actual.warnings()).isEqualTo(expected.warnings());
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.aptgenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.IOException;
+import java.util.Collections;
+import java.lang.reflect.Proxy;
+import org.junit.Test;
+import feign.Client;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.Param;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.Util;
+
+public class GeneratedProxyFactoryTest {
+
+  interface Api {
+
+    @RequestLine("GET /echo/{value}")
+    String echo(@Param("value") String value) throws IOException;
+
+    @RequestLine("GET /length/{value}")
+    int length(@Param("value") String value);
+
+    @RequestLine("POST /")
+    void post(String body);
+  }
+
+  private final Client echoClient = (request, options) -> Response.builder()
+      .status(200)
+      .reason("OK")
+      .request(request)
+      .headers(Collections.emptyMap())
+      .body(request.url().substring(request.url().lastIndexOf('/') + 1), Util.UTF_8)
+      .build();
+
+  private Feign.Builder builder() {
+    return Feign.builder()
+        .client(echoClient)
+        .decoder((response, type) -> {
+          final String body = Util.toString(response.body().asReader(Util.UTF_8));
+          return type == int.class ? body.length() : body;
+        })
+        .proxyFactory(new GeneratedProxyFactory());
+  }
+
+  @Test
+  public void usesGeneratedProxy() throws Exception {
+    final Api api = builder().target(Api.class, "http://localhost");
+
+    assertThat(GeneratedProxyFactory.isGenerated(Api.class)).isTrue();
+    assertThat(Proxy.isProxyClass(api.getClass())).isFalse();
+    assertThat(api.echo("feign")).isEqualTo("feign");
+    assertThat(api.length("feign")).isEqualTo(5);
+    api.post("body");
+  }
+
+  @Test
+  public void equalsAndToStringUseTarget() {
+    final Api api = builder().target(Api.class, "http://localhost");
+    final Api same = builder().target(Api.class, "http://localhost");
+    final Api other = builder().target(Api.class, "http://other");
+
+    assertThat(api).isEqualTo(same).hasSameHashCodeAs(same).isNotEqualTo(other);
+    assertThat(api.toString()).isEqualTo("HardCodedTarget(type=Api, url=http://localhost)");
+  }
+
+  @Test
+  public void propagatesExceptions() {
+    final Api api = builder()
+        .client((request, options) -> {
+          throw new IOException("connection refused");
+        })
+        .retryer(Retryer.NEVER_RETRY)
+        .target(Api.class, "http://localhost");
+
+    assertThatThrownBy(() -> api.echo("feign"))
+        .isInstanceOf(RetryableException.class)
+        .hasMessageContaining("connection refused");
+  }
+
+  @Test
+  public void customInvocationHandlerFactoryUsesReflectiveProxy() {
+    final Api api = builder()
+        .invocationHandlerFactory(new InvocationHandlerFactory.Default()::create)
+        .target(Api.class, "http://localhost");
+
+    assertThat(Proxy.isProxyClass(api.getClass())).isTrue();
+  }
+
+  interface NotAnnotated {
+  }
+
+  @Test
+  public void isGeneratedFalseWithoutProxy() {
+    assertThat(GeneratedProxyFactory.isGenerated(NotAnnotated.class)).isFalse();
+  }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import feign.Client;
+import feign.Feign;
+import feign.Response;
+import feign.Target.HardCodedTarget;
+
+/**
+ * Measures the per-call cost of turning method arguments into a request, without considering
+ * network. Run with {@code -prof gc} to compare the bytes allocated per operation
+ * ({@code gc.alloc.rate.norm}) between releases.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class BuildTemplateBenchmarks {
+
+  private FeignTestInterface api;
+
+  @Setup
+  public void setup() {
+    Map<String, Collection<String>> headers = new LinkedHashMap<>();
+    Client fakeClient = (request, options) -> Response.builder()
+        .body((byte[]) null)
+        .status(200)
+        .headers(headers)
+        .reason("ok")
+        .request(request)
+        .build();
+    api = Feign.builder().client(fakeClient).build().newInstance(
+        new HardCodedTarget<FeignTestInterface>(FeignTestInterface.class, "http://localhost"));
+  }
+
+  /**
+   * Literal uri and query, no arguments to resolve.
+   */
+  @Benchmark
+  public Response literal() {
+    return api.query();
+  }
+
+  /**
+   * One path and two query expressions.
+   */
+  @Benchmark
+  public Response pathAndQueryParams() {
+    return api.mixedParams(1, "denominator.io", "CNAME");
+  }
+
+  /**
+   * A literal and a templated header.
+   */
+  @Benchmark
+  public void headerParams() {
+    api.headers("abc123");
+  }
+
+  /**
+   * Expressions resolved into a {@link feign.Body} template.
+   */
+  @Benchmark
+  public void bodyTemplate() {
+    api.form("netflix", "denominator", "password");
+  }
+}
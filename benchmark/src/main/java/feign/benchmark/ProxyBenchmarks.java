@@ -0,0 +1,91 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import feign.Client;
+import feign.Feign;
+import feign.ProxyFactory;
+import feign.Response;
+import feign.aptgenerator.GeneratedProxyFactory;
+
+/**
+ * Compares dispatch through {@link java.lang.reflect.Proxy} with the classes generated by
+ * {@code feign-apt-generator}, without considering network.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ProxyBenchmarks {
+
+  private FeignTestInterface reflective;
+  private FeignTestInterface generated;
+
+  @Setup
+  public void setup() {
+    if (!GeneratedProxyFactory.isGenerated(FeignTestInterface.class)) {
+      throw new IllegalStateException("feign-apt-generator didn't run on FeignTestInterface");
+    }
+    reflective = target(new ProxyFactory.Default());
+    generated = target(new GeneratedProxyFactory());
+  }
+
+  private static FeignTestInterface target(ProxyFactory proxyFactory) {
+    Client fakeClient = (request, options) -> Response.builder()
+        .body((byte[]) null)
+        .status(200)
+        .headers(Collections.emptyMap())
+        .reason("ok")
+        .request(request)
+        .build();
+    return Feign.builder()
+        .client(fakeClient)
+        .proxyFactory(proxyFactory)
+        .target(FeignTestInterface.class, "http://localhost");
+  }
+
+  @Benchmark
+  public Response reflectiveProxy() {
+    return reflective.query();
+  }
+
+  @Benchmark
+  public Response generatedProxy() {
+    return generated.query();
+  }
+
+  @Benchmark
+  public Response reflectiveProxyWithArgs() {
+    return reflective.mixedParams(1, "denominator.io", "CNAME");
+  }
+
+  @Benchmark
+  public Response generatedProxyWithArgs() {
+    return generated.mixedParams(1, "denominator.io", "CNAME");
+  }
+}
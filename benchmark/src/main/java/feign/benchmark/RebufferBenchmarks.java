@@ -0,0 +1,124 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import feign.BufferPool;
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Measures reading a whole response body into memory, as done when logging responses, returning
+ * {@link Response} and decoding errors. Run with {@code -prof gc} to compare the bytes allocated
+ * per operation ({@code gc.alloc.rate.norm}) with and without the shared {@link BufferPool}.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class RebufferBenchmarks {
+
+  /**
+   * pooled: the default shared pool. unpooled: a new buffer for each copy.
+   */
+  @Param({"pooled", "unpooled"})
+  private String pool;
+
+  @Param({"512", "16384"})
+  private int size;
+
+  private BufferPool original;
+  private byte[] data;
+  private Request request;
+  private RebufferingLogger logger;
+
+  @Setup
+  public void setup() {
+    original = BufferPool.shared();
+    if ("unpooled".equals(pool)) {
+      BufferPool.setShared(BufferPool.unpooled(BufferPool.DEFAULT_BUFFER_SIZE));
+    }
+    data = new byte[size];
+    new Random(size).nextBytes(data);
+    request = Request.create(Request.HttpMethod.GET, "http://localhost", Collections.emptyMap(),
+        null, Util.UTF_8, null);
+    logger = new RebufferingLogger();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BufferPool.setShared(original);
+  }
+
+  /**
+   * Length not known up front, as with chunked responses.
+   */
+  @Benchmark
+  public byte[] unknownLength() throws IOException {
+    return Util.toByteArray(new ByteArrayInputStream(data));
+  }
+
+  /**
+   * Length known from the response.
+   */
+  @Benchmark
+  public byte[] knownLength() throws IOException {
+    return Util.toByteArray(new ByteArrayInputStream(data), data.length);
+  }
+
+  /**
+   * Rebuffering done by {@link Logger} at {@link Logger.Level#HEADERS} and above.
+   */
+  @Benchmark
+  public Response logAndRebuffer() throws IOException {
+    Response response = Response.builder()
+        .status(200)
+        .request(request)
+        .headers(Collections.emptyMap())
+        .body(new ByteArrayInputStream(data), null)
+        .build();
+    return logger.rebuffer(response);
+  }
+
+  private static final class RebufferingLogger extends Logger {
+
+    Response rebuffer(Response response) throws IOException {
+      return logAndRebufferResponse("Api#get()", Logger.Level.HEADERS, response, 1);
+    }
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {}
+  }
+}
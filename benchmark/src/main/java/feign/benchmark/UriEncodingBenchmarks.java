@@ -0,0 +1,97 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+import feign.Util;
+import feign.template.UriUtils;
+
+/**
+ * Measures pct-encoding of the values expanded into uris, queries and headers. Run with
+ * {@code -prof gc} to compare the bytes allocated per operation.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class UriEncodingBenchmarks {
+
+  /**
+   * ascii: an identifier, nothing to encode. reserved: ascii with reserved characters. utf8: non
+   * us-ascii characters. encoded: a value that is already pct-encoded.
+   */
+  @Param({"ascii", "reserved", "utf8", "encoded"})
+  private String input;
+
+  private String value;
+
+  @Setup
+  public void setup() {
+    switch (input) {
+      case "ascii":
+        value = "3f2504e0-4f89-11d3-9a0c-0305e82c3301";
+        break;
+      case "reserved":
+        value = "name=James Bond;location=England&Britain?";
+        break;
+      case "utf8":
+        value = "Z\u00fcrich Stra\u00dfe \u6771\u4eac";
+        break;
+      case "encoded":
+        value = "Z%C3%BCrich%20Stra%C3%9Fe";
+        break;
+      default:
+        throw new IllegalArgumentException(input);
+    }
+  }
+
+  /**
+   * As used for expressions.
+   */
+  @Benchmark
+  public String encode() {
+    return UriUtils.encode(value, Util.UTF_8);
+  }
+
+  /**
+   * As used for unresolved literals, keeping reserved characters.
+   */
+  @Benchmark
+  public String encodeAllowReserved() {
+    return UriUtils.encode(value, Util.UTF_8, true);
+  }
+
+  /**
+   * As used when joining query values, appending to an existing builder.
+   */
+  @Benchmark
+  public StringBuilder encodeInto() {
+    StringBuilder builder = new StringBuilder(64);
+    UriUtils.encode(value, Util.UTF_8, builder);
+    return builder;
+  }
+}
@@ -33,6 +33,7 @@ import feign.Client;
 import feign.Contract;
 import feign.Feign;
 import feign.MethodMetadata;
+import feign.MethodMetadataCache;
 import feign.Request;
 import feign.Response;
 import feign.Target.HardCodedTarget;
@@ -46,6 +47,7 @@ import feign.Target.HardCodedTarget;
 public class WhatShouldWeCacheBenchmarks {
 
   private Contract feignContract;
+  private Contract reflectiveContract;
   private Contract cachedContact;
   private Client fakeClient;
   private Feign cachedFakeFeign;
@@ -54,6 +56,8 @@ public class WhatShouldWeCacheBenchmarks {
   @Setup
   public void setup() {
     feignContract = new Contract.Default();
+    // subclasses don't use the metadata generated by feign-apt-generator
+    reflectiveContract = new Contract.Default() {};
     cachedContact = new Contract() {
       private final List<MethodMetadata> cached =
           new Default().parseAndValidateMetadata(FeignTestInterface.class);
@@ -80,10 +84,28 @@ public class WhatShouldWeCacheBenchmarks {
   }
 
   /**
-   * How fast is parsing an api interface?
+   * How fast is parsing an api interface, using the metadata generated at compile time?
    */
   @Benchmark
   public List<MethodMetadata> parseFeignContract() {
+    MethodMetadataCache.shared().clear();
+    return feignContract.parseAndValidateMetadata(FeignTestInterface.class);
+  }
+
+  /**
+   * How fast is parsing an api interface when reading its annotations?
+   */
+  @Benchmark
+  public List<MethodMetadata> parseFeignContract_reflective() {
+    MethodMetadataCache.shared().clear();
+    return reflectiveContract.parseAndValidateMetadata(FeignTestInterface.class);
+  }
+
+  /**
+   * How fast is getting the metadata of an api interface that was already parsed?
+   */
+  @Benchmark
+  public List<MethodMetadata> parseFeignContract_cached() {
     return feignContract.parseAndValidateMetadata(FeignTestInterface.class);
   }
 
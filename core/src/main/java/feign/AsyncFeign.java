@@ -15,6 +15,9 @@ package feign;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.function.Supplier;
@@ -30,10 +33,10 @@ import feign.codec.ErrorDecoder;
  * session cookies or tokens) is explicit, as calls for the same session may be done across several
  * threads. <br>
  * <br>
- * {@link Retryer} is not supported in this model, as that is a blocking API.
+ * {@link Retryer} is not supported in this model, as that is a blocking API: calls are retried by
+ * an {@link AsyncRetryer}, which schedules the next attempt on a shared timer instead of sleeping.
  * {@link ExceptionPropagationPolicy} is made redundant as {@link RetryableException} is never
  * thrown. <br>
- * Alternative approaches to retrying can be handled through {@link AsyncClient clients}. <br>
  * <br>
  * Target interface methods must return {@link CompletableFuture} with a non-wildcard type. As the
  * completion is done by the {@link AsyncClient}, it is important that any subsequent processing on
@@ -62,6 +65,9 @@ public abstract class AsyncFeign<C> extends Feign {
     private final Builder builder;
     private Supplier<C> defaultContextSupplier = () -> null;
     private AsyncClient<C> client;
+    private ExecutorService executorService;
+    private AsyncRetryer retryer;
+    private final List<Capability> capabilities = new ArrayList<>();
 
     private final Logger.Level logLevel = Logger.Level.NONE;
     private final Logger logger = new NoOpLogger();
@@ -86,6 +92,40 @@ public abstract class AsyncFeign<C> extends Feign {
       return this;
     }
 
+    /**
+     * Runs the default, blocking {@link Client} on {@code executorService} when no
+     * {@link #client(AsyncClient) async client} is set, instead of a cached pool of platform
+     * threads. Each call in flight holds one of its threads, so an executor starting a virtual
+     * thread per task suits many concurrent calls. The executor is not shut down by Feign.
+     */
+    @Experimental
+    public AsyncBuilder<C> executorService(ExecutorService executorService) {
+      this.executorService = executorService;
+      return this;
+    }
+
+    /**
+     * Retries calls of methods returning {@link CompletableFuture} that fail with an
+     * {@link IOException} or a {@link RetryableException}. Calls aren't retried by default.
+     */
+    @Experimental
+    public AsyncBuilder<C> retryer(AsyncRetryer retryer) {
+      this.retryer = retryer;
+      // the blocking retryer is only involved when the client throws, let the async one decide
+      builder.retryer(Retryer.NEVER_RETRY);
+      return this;
+    }
+
+    /**
+     * Like {@link #retryer(AsyncRetryer)}, adapting a {@link Retryer}.
+     *
+     * @see AsyncRetryer#from(Retryer)
+     */
+    @Experimental
+    public AsyncBuilder<C> retryer(Retryer retryer) {
+      return retryer(AsyncRetryer.from(retryer));
+    }
+
     /**
      * @see Builder#mapAndDecode(ResponseMapper, Decoder)
      */
@@ -118,6 +158,16 @@ public abstract class AsyncFeign<C> extends Feign {
       return this;
     }
 
+    /**
+     * @see Builder#addCapability(Capability)
+     */
+    @Experimental
+    public AsyncBuilder<C> addCapability(Capability capability) {
+      this.capabilities.add(capability);
+      builder.addCapability(new SynchronousComponents(capability));
+      return this;
+    }
+
     public AsyncBuilder<C> doNotCloseAfterDecode() {
       this.closeAfterDecode = false;
       return this;
@@ -142,7 +192,7 @@ public abstract class AsyncFeign<C> extends Feign {
     private AsyncBuilder<C> lazyInits() {
       if (client == null) {
         client = new AsyncClient.Default<>(new Client.Default(null, null),
-            LazyInitializedExecutorService.instance);
+            executorService != null ? executorService : LazyInitializedExecutorService.instance);
       }
 
       return this;
@@ -228,8 +278,68 @@ public abstract class AsyncFeign<C> extends Feign {
     }
   }
 
+  /**
+   * Passes the components of the synchronous {@link Feign} AsyncFeign builds on to a capability,
+   * except its client and decoder, which stand in for the {@link AsyncClient} and decoder the
+   * capability enriches.
+   */
+  private static final class SynchronousComponents implements Capability {
+
+    private final List<Capability> capability;
+
+    SynchronousComponents(Capability capability) {
+      this.capability = Collections.singletonList(capability);
+    }
+
+    @Override
+    public Retryer enrich(Retryer retryer) {
+      return Capability.enrich(retryer, Retryer.class, capability);
+    }
+
+    @Override
+    public RequestInterceptor enrich(RequestInterceptor requestInterceptor) {
+      return Capability.enrich(requestInterceptor, RequestInterceptor.class, capability);
+    }
+
+    @Override
+    public Logger enrich(Logger logger) {
+      return Capability.enrich(logger, Logger.class, capability);
+    }
+
+    @Override
+    public Contract enrich(Contract contract) {
+      return Capability.enrich(contract, Contract.class, capability);
+    }
+
+    @Override
+    public Options enrich(Options options) {
+      return Capability.enrich(options, Options.class, capability);
+    }
+
+    @Override
+    public Encoder enrich(Encoder encoder) {
+      return Capability.enrich(encoder, Encoder.class, capability);
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+      return Capability.enrich(invocationHandlerFactory, InvocationHandlerFactory.class,
+          capability);
+    }
+
+    @Override
+    public QueryMapEncoder enrich(QueryMapEncoder queryMapEncoder) {
+      return Capability.enrich(queryMapEncoder, QueryMapEncoder.class, capability);
+    }
+  }
+
   private final ThreadLocal<AsyncInvocation<C>> activeContext;
 
+  /**
+   * {@code null} when calls aren't retried.
+   */
+  final AsyncRetryer retryer;
+
   private final Feign feign;
 
   private final Supplier<C> defaultContextSupplier;
@@ -244,7 +354,9 @@ public abstract class AsyncFeign<C> extends Feign {
     this.activeContext = new ThreadLocal<>();
 
     this.defaultContextSupplier = asyncBuilder.defaultContextSupplier;
-    this.client = asyncBuilder.client;
+    this.retryer = asyncBuilder.retryer;
+    this.client = Capability.enrich(asyncBuilder.client, AsyncClient.class,
+        asyncBuilder.capabilities);
 
     this.logLevel = asyncBuilder.logLevel;
     this.logger = asyncBuilder.logger;
@@ -252,7 +364,7 @@ public abstract class AsyncFeign<C> extends Feign {
     this.responseHandler = new AsyncResponseHandler(
         asyncBuilder.logLevel,
         asyncBuilder.logger,
-        asyncBuilder.decoder,
+        Capability.enrich(asyncBuilder.decoder, Decoder.class, asyncBuilder.capabilities),
         asyncBuilder.errorDecoder,
         asyncBuilder.decode404,
         asyncBuilder.closeAfterDecode);
@@ -272,6 +384,7 @@ public abstract class AsyncFeign<C> extends Feign {
 
     final AsyncInvocation<C> invocationContext = activeContext.get();
 
+    invocationContext.setRequest(request);
     invocationContext.setResponseFuture(
         client.execute(request, options, Optional.ofNullable(invocationContext.context())));
 
@@ -25,6 +25,7 @@ class AsyncInvocation<C> {
   private final C context;
   private final MethodInfo methodInfo;
   private final long startNanos;
+  private Request request;
   private CompletableFuture<Response> responseFuture;
 
   AsyncInvocation(C context, MethodInfo methodInfo) {
@@ -54,6 +55,17 @@ class AsyncInvocation<C> {
     return methodInfo.isAsyncReturnType();
   }
 
+  void setRequest(Request request) {
+    this.request = request;
+  }
+
+  /**
+   * The request sent, {@code null} if the call failed before sending it.
+   */
+  Request request() {
+    return request;
+  }
+
   void setResponseFuture(CompletableFuture<Response> responseFuture) {
     this.responseFuture = responseFuture;
   }
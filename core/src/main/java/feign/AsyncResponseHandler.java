@@ -25,7 +25,7 @@ import feign.codec.ErrorDecoder;
 
 /**
  * The response handler that is used to provide asynchronous support on top of standard response
- * handling
+ * handling. {@link SynchronousMethodHandler} calls its synchronous form directly.
  */
 @Experimental
 class AsyncResponseHandler {
@@ -60,8 +60,26 @@ class AsyncResponseHandler {
                       Response response,
                       Type returnType,
                       long elapsedTime) {
+    try {
+      resultFuture.complete(handleResponse(configKey, response, returnType, elapsedTime));
+    } catch (final Exception e) {
+      resultFuture.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Synchronous form of {@link #handleResponse(CompletableFuture, String, Response, Type, long)},
+   * returning the result or throwing the exception the future would have been completed with.
+   */
+  Object handleResponse(String configKey,
+                        Response response,
+                        Type returnType,
+                        long elapsedTime)
+      throws Exception {
     // copied fairly liberally from SynchronousMethodHandler
     boolean shouldClose = true;
+    // returned, not thrown, by the error decoder, so it is thrown as is after closing the body
+    Exception error = null;
 
     try {
       if (logLevel != Level.NONE) {
@@ -70,44 +88,43 @@ class AsyncResponseHandler {
       }
       if (Response.class == returnType) {
         if (response.body() == null) {
-          resultFuture.complete(response);
+          return response;
         } else if (response.body().length() == null
             || response.body().length() > MAX_RESPONSE_BUFFER_SIZE) {
           shouldClose = false;
-          resultFuture.complete(response);
+          return response;
         } else {
           // Ensure the response body is disconnected
-          final byte[] bodyData = Util.toByteArray(response.body().asInputStream());
-          resultFuture.complete(response.toBuilder().body(bodyData).build());
+          final byte[] bodyData =
+              Util.toByteArray(response.body().asInputStream(), response.body().length());
+          return response.toBuilder().body(bodyData).build();
         }
       } else if (response.status() >= 200 && response.status() < 300) {
         if (isVoidType(returnType)) {
-          resultFuture.complete(null);
+          return null;
         } else {
           final Object result = decode(response, returnType);
           shouldClose = closeAfterDecode;
-          resultFuture.complete(result);
+          return result;
         }
       } else if (decode404 && response.status() == 404 && !isVoidType(returnType)) {
         final Object result = decode(response, returnType);
         shouldClose = closeAfterDecode;
-        resultFuture.complete(result);
+        return result;
       } else {
-        resultFuture.completeExceptionally(errorDecoder.decode(configKey, response));
+        error = errorDecoder.decode(configKey, response);
       }
     } catch (final IOException e) {
       if (logLevel != Level.NONE) {
         logger.logIOException(configKey, logLevel, e, elapsedTime);
       }
-      resultFuture.completeExceptionally(errorReading(response.request(), response, e));
-    } catch (final Exception e) {
-      resultFuture.completeExceptionally(e);
+      throw errorReading(response.request(), response, e);
     } finally {
       if (shouldClose) {
         ensureClosed(response.body());
       }
     }
-
+    throw error;
   }
 
   Object decode(Response response, Type type) throws IOException {
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+/**
+ * Decides whether {@link AsyncFeign} retries a failed call, and after which delay. Unlike
+ * {@link Retryer}, it returns the delay instead of sleeping: the call is sent again from a shared
+ * timer, without holding a thread in the meantime. Cloned for each call, so implementations may
+ * keep state, such as the number of attempts.
+ *
+ * @see AsyncFeign.AsyncBuilder#retryer(AsyncRetryer)
+ */
+@Experimental
+public interface AsyncRetryer extends Cloneable {
+
+  /**
+   * If retry is permitted, returns the milliseconds to wait before it. Otherwise propagates the
+   * exception.
+   *
+   * @param e the failure of the last attempt, an {@link java.io.IOException} being wrapped like
+   *        {@link Client} failures are.
+   */
+  long nextDelayMillis(RetryableException e);
+
+  AsyncRetryer clone();
+
+  /**
+   * Adapts a {@link Retryer}. {@link Retryer.Default}, its subclasses that don't override
+   * {@link Retryer#continueOrPropagate(RetryableException) continueOrPropagate}, and
+   * {@link Retryer#NEVER_RETRY} are asked for their delay without sleeping. Other retryers can only
+   * tell by sleeping in it; they're called on a separate pool of threads, so that they don't block
+   * the client or the timer.
+   */
+  static AsyncRetryer from(Retryer retryer) {
+    if (retryer == Retryer.NEVER_RETRY) {
+      return NEVER_RETRY;
+    }
+    return new RetryerAdapter(retryer);
+  }
+
+  /**
+   * Implementation that never retries calls. It propagates the RetryableException.
+   */
+  AsyncRetryer NEVER_RETRY = new AsyncRetryer() {
+
+    @Override
+    public long nextDelayMillis(RetryableException e) {
+      throw e;
+    }
+
+    @Override
+    public AsyncRetryer clone() {
+      return this;
+    }
+  };
+}
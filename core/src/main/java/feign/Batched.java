@@ -0,0 +1,63 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Combines concurrent calls of a single-item method into one call of a bulk method of the same
+ * interface. The bulk method, named by {@link #value()}, takes a {@code List} of the arguments of
+ * the calls, and returns either a {@code Map} from argument to result, or a {@code List} of results
+ * in the order of the arguments.
+ *
+ * <pre>
+ * interface Inventory {
+ *   &#64;Batched("getItems")
+ *   &#64;RequestLine("GET /items/{id}")
+ *   Item getItem(&#64;Param("id") String id);
+ *
+ *   &#64;RequestLine("POST /items/search")
+ *   Map&lt;String, Item&gt; getItems(List&lt;String&gt; ids);
+ * }
+ * </pre>
+ *
+ * The first call opens a batch, which is sent once it has {@link #maxSize()} distinct arguments, or
+ * {@link #maxDelayMillis()} later. Blocking calls wait for the batch; with {@link AsyncFeign},
+ * methods returning {@code CompletableFuture} complete when it does, provided the bulk method
+ * returns a {@code CompletableFuture} too. A failure of the bulk call fails every call of the
+ * batch.
+ */
+@Experimental
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Batched {
+
+  /**
+   * Name of the bulk method, which takes a single {@code List} parameter.
+   */
+  String value();
+
+  /**
+   * Number of distinct arguments after which a batch is sent without waiting further.
+   */
+  int maxSize() default 100;
+
+  /**
+   * How long the first call of a batch waits for others to join it.
+   */
+  long maxDelayMillis() default 10;
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import static feign.Util.checkState;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects the calls of a {@link Batched} method, and answers them with a call of its bulk method.
+ */
+final class Batcher {
+
+  /**
+   * Calls the bulk method.
+   */
+  interface Bulk {
+
+    /**
+     * @return the result of the bulk method, a {@code CompletableFuture} of it for asynchronous
+     *         batchers.
+     */
+    Object invoke(List<Object> arguments) throws Throwable;
+  }
+
+  private final Bulk bulk;
+  private final int maxSize;
+  private final long maxDelayMillis;
+  private Batch open; // guarded by this
+
+  Batcher(Batched batched, Bulk bulk) {
+    this.bulk = bulk;
+    this.maxSize = batched.maxSize();
+    this.maxDelayMillis = batched.maxDelayMillis();
+  }
+
+  /**
+   * The bulk method {@code method} is batched with, checking they fit together.
+   */
+  static Method bulkMethod(Class<?> type, Method method) {
+    final Batched batched = method.getAnnotation(Batched.class);
+    final String configKey = Feign.configKey(type, method);
+    checkState(method.getParameterCount() == 1,
+        "@Batched method %s must have a single parameter", configKey);
+    checkState(batched.maxSize() > 0, "@Batched maxSize of %s must be positive", configKey);
+    checkState(batched.maxDelayMillis() >= 0,
+        "@Batched maxDelayMillis of %s can't be negative", configKey);
+
+    Method bulkMethod = null;
+    for (Method candidate : type.getMethods()) {
+      if (candidate.getName().equals(batched.value())
+          && candidate.getParameterCount() == 1
+          && candidate.getParameterTypes()[0].isAssignableFrom(List.class)) {
+        checkState(bulkMethod == null, "@Batched bulk method %s of %s is overloaded",
+            batched.value(), configKey);
+        bulkMethod = candidate;
+      }
+    }
+    checkState(bulkMethod != null, "@Batched method %s needs a bulk method %s(List) on %s",
+        configKey, batched.value(), type.getSimpleName());
+
+    final boolean async = isAsync(method);
+    checkState(async == isAsync(bulkMethod),
+        "@Batched method %s and its bulk method must both return CompletableFuture, or neither",
+        configKey);
+    final Class<?> result = Types.getRawType(async
+        ? ((ParameterizedType) bulkMethod.getGenericReturnType()).getActualTypeArguments()[0]
+        : bulkMethod.getGenericReturnType());
+    checkState(Map.class.isAssignableFrom(result) || List.class.isAssignableFrom(result),
+        "@Batched bulk method %s must return a Map or a List", Feign.configKey(type, bulkMethod));
+    return bulkMethod;
+  }
+
+  static boolean isAsync(Method method) {
+    return method.getReturnType() == CompletableFuture.class;
+  }
+
+  /**
+   * Joins the open batch, sending it from the calling thread if it's the first one, and waits for
+   * the result.
+   */
+  Object invoke(Object argument) throws Throwable {
+    final Batch batch;
+    final CompletableFuture<Object> result;
+    final boolean first;
+    synchronized (this) {
+      if (open == null) {
+        open = new Batch();
+      }
+      batch = open;
+      first = batch.isEmpty();
+      result = batch.add(argument);
+      if (batch.size() >= maxSize) {
+        open = null;
+        batch.full.countDown();
+      }
+    }
+
+    if (first) {
+      try {
+        batch.full.await(maxDelayMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        // send now, the callers that joined are waiting
+        Thread.currentThread().interrupt();
+      }
+      close(batch);
+      try {
+        batch.complete(bulk.invoke(batch.arguments()));
+      } catch (Throwable e) {
+        batch.fail(e);
+      }
+    }
+
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Joins the open batch, without waiting: the batch is sent from the scheduler once its delay
+   * elapsed, or from the calling thread if it fills it.
+   */
+  CompletableFuture<Object> submit(Object argument) {
+    final Batch batch;
+    final CompletableFuture<Object> result;
+    boolean full = false;
+    synchronized (this) {
+      if (open == null) {
+        open = new Batch();
+        final Batch scheduled = open;
+        scheduled.timeout = SharedExecutors.scheduler()
+            .schedule(() -> send(scheduled), maxDelayMillis, TimeUnit.MILLISECONDS);
+      }
+      batch = open;
+      result = batch.add(argument);
+      if (batch.size() >= maxSize) {
+        open = null;
+        full = true;
+      }
+    }
+    if (full) {
+      batch.timeout.cancel(false);
+      send(batch);
+    }
+    return result;
+  }
+
+  private void send(Batch batch) {
+    close(batch);
+    if (!batch.sent.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      ((CompletableFuture<?>) bulk.invoke(batch.arguments())).whenComplete((value, throwable) -> {
+        if (throwable != null) {
+          batch.fail(throwable instanceof CompletionException && throwable.getCause() != null
+              ? throwable.getCause()
+              : throwable);
+        } else {
+          batch.complete(value);
+        }
+      });
+    } catch (Throwable e) {
+      batch.fail(e);
+    }
+  }
+
+  private synchronized void close(Batch batch) {
+    if (open == batch) {
+      open = null;
+    }
+  }
+
+  /**
+   * Calls waiting for the same bulk call, by argument.
+   */
+  private static final class Batch {
+
+    private final Map<Object, List<CompletableFuture<Object>>> calls = new LinkedHashMap<>();
+    private final CountDownLatch full = new CountDownLatch(1);
+    private final AtomicBoolean sent = new AtomicBoolean();
+    private ScheduledFuture<?> timeout;
+
+    // add, size and isEmpty are called under the lock of the Batcher
+    CompletableFuture<Object> add(Object argument) {
+      final CompletableFuture<Object> result = new CompletableFuture<>();
+      calls.computeIfAbsent(argument, key -> new ArrayList<>(1)).add(result);
+      return result;
+    }
+
+    int size() {
+      return calls.size();
+    }
+
+    boolean isEmpty() {
+      return calls.isEmpty();
+    }
+
+    // once closed, a batch doesn't change anymore
+    List<Object> arguments() {
+      return new ArrayList<>(calls.keySet());
+    }
+
+    void complete(Object bulkResult) {
+      if (bulkResult instanceof Map) {
+        final Map<?, ?> results = (Map<?, ?>) bulkResult;
+        calls.forEach((argument, callers) -> complete(callers, results.get(argument)));
+      } else if (bulkResult instanceof Collection) {
+        final Collection<?> results = (Collection<?>) bulkResult;
+        if (results.size() != calls.size()) {
+          fail(new IllegalStateException("Bulk method returned " + results.size()
+              + " results for " + calls.size() + " arguments"));
+          return;
+        }
+        final Iterator<?> result = results.iterator();
+        calls.values().forEach(callers -> complete(callers, result.next()));
+      } else if (bulkResult == null) {
+        calls.values().forEach(callers -> complete(callers, null));
+      } else {
+        fail(new IllegalStateException("Bulk method returned neither a Map nor a List: "
+            + bulkResult.getClass().getName()));
+      }
+    }
+
+    void fail(Throwable throwable) {
+      calls.values().forEach(callers -> callers.forEach(
+          caller -> caller.completeExceptionally(throwable)));
+    }
+
+    private static void complete(List<CompletableFuture<Object>> callers, Object result) {
+      callers.forEach(caller -> caller.complete(result));
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+
+/**
+ * Lends out scratch buffers, so that copying a body doesn't allocate a new one each time. Feign
+ * uses the {@link #shared() shared} pool wherever it reads a whole body into memory, such as
+ * {@link Util#toByteArray(java.io.InputStream)}, when logging a response and when decoding errors.
+ *
+ * <p>
+ * Buffers are only ever used as scratch space: their contents are copied out before they are
+ * {@link #release(byte[]) released}, and never handed to callers.
+ */
+@Experimental
+public abstract class BufferPool {
+
+  /** Size of the buffers lent by the default pool. */
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private static volatile BufferPool shared =
+      striped(DEFAULT_BUFFER_SIZE, Runtime.getRuntime().availableProcessors() * 2);
+
+  /**
+   * The pool used by Feign's own buffering.
+   */
+  public static BufferPool shared() {
+    return shared;
+  }
+
+  /**
+   * Replaces the {@link #shared() shared} pool, for example with {@link #unpooled(int)} to turn
+   * pooling off.
+   */
+  public static void setShared(BufferPool pool) {
+    shared = checkNotNull(pool, "pool");
+  }
+
+  /**
+   * A pool keeping at most one free buffer per stripe, which threads pick by their id. Memory held
+   * is bounded by {@code stripes * bufferSize} bytes, however many threads there are, which suits
+   * large numbers of short lived and virtual threads better than thread locals would.
+   *
+   * @param bufferSize of each buffer.
+   * @param stripes number of free buffers to keep, rounded up to a power of two.
+   */
+  public static BufferPool striped(int bufferSize, int stripes) {
+    return new Striped(bufferSize, stripes);
+  }
+
+  /**
+   * A pool that allocates a new buffer on each {@link #acquire()}.
+   */
+  public static BufferPool unpooled(int bufferSize) {
+    return new Unpooled(bufferSize);
+  }
+
+  /**
+   * Size of the buffers returned by {@link #acquire()}.
+   */
+  public abstract int bufferSize();
+
+  /**
+   * A buffer of {@link #bufferSize()} bytes, with undefined contents. It should be
+   * {@link #release(byte[]) released} once it is no longer used.
+   */
+  public abstract byte[] acquire();
+
+  /**
+   * Returns a buffer obtained from {@link #acquire()} to the pool. The caller must not use it
+   * afterwards.
+   */
+  public abstract void release(byte[] buffer);
+
+  private static final class Striped extends BufferPool {
+
+    private final int bufferSize;
+    private final AtomicReferenceArray<byte[]> free;
+    private final int mask;
+
+    Striped(int bufferSize, int stripes) {
+      checkArgument(bufferSize > 0, "bufferSize must be positive");
+      checkArgument(stripes > 0, "stripes must be positive");
+      this.bufferSize = bufferSize;
+      int size = Integer.highestOneBit(stripes);
+      if (size < stripes) {
+        size <<= 1;
+      }
+      this.free = new AtomicReferenceArray<>(size);
+      this.mask = size - 1;
+    }
+
+    @Override
+    public int bufferSize() {
+      return bufferSize;
+    }
+
+    @Override
+    public byte[] acquire() {
+      byte[] buffer = free.getAndSet(stripe(), null);
+      return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    @Override
+    public void release(byte[] buffer) {
+      if (buffer != null && buffer.length == bufferSize) {
+        // when the stripe is already full, leave the buffer to the garbage collector
+        free.compareAndSet(stripe(), null, buffer);
+      }
+    }
+
+    @SuppressWarnings("deprecation")
+    private int stripe() {
+      long id = Thread.currentThread().getId();
+      int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @Override
+    public String toString() {
+      return "BufferPool.striped(" + bufferSize + ", " + free.length() + ")";
+    }
+  }
+
+  private static final class Unpooled extends BufferPool {
+
+    private final int bufferSize;
+
+    Unpooled(int bufferSize) {
+      checkArgument(bufferSize > 0, "bufferSize must be positive");
+      this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public int bufferSize() {
+      return bufferSize;
+    }
+
+    @Override
+    public byte[] acquire() {
+      return new byte[bufferSize];
+    }
+
+    @Override
+    public void release(byte[] buffer) {}
+
+    @Override
+    public String toString() {
+      return "BufferPool.unpooled(" + bufferSize + ")";
+    }
+  }
+}
@@ -52,6 +52,22 @@ public interface Capability {
             (component, enrichedComponent) -> enrichedComponent);
   }
 
+  /**
+   * Like {@link #enrich(Object, List)}, but picks the {@code enrich} method of each capability by
+   * the type of component, rather than by the class of {@code componentToEnrich}. That class may
+   * implement several component types, such as both {@link Client} and {@link AsyncClient}.
+   */
+  @Experimental
+  static <E> E enrich(E componentToEnrich,
+                      Class<? super E> componentType,
+                      List<Capability> capabilities) {
+    E enriched = componentToEnrich;
+    for (Capability capability : capabilities) {
+      enriched = invoke(enriched, capability, componentType);
+    }
+    return enriched;
+  }
+
   static <E> E invoke(E target, Capability capability) {
     return Arrays.stream(capability.getClass().getMethods())
         .filter(method -> method.getName().equals("enrich"))
@@ -68,10 +84,35 @@ public interface Capability {
         .orElse(target);
   }
 
+  @SuppressWarnings("unchecked")
+  static <E> E invoke(E target, Capability capability, Class<? super E> componentType) {
+    // async clients have their own hook, so classes implementing both client types stay unambiguous
+    final String enrichMethod = componentType == AsyncClient.class ? "enrichAsync" : "enrich";
+    return Arrays.stream(capability.getClass().getMethods())
+        .filter(method -> method.getName().equals(enrichMethod))
+        .filter(method -> method.getParameterCount() == 1
+            && method.getParameterTypes()[0] == componentType)
+        .findFirst()
+        .map(method -> {
+          try {
+            return (E) method.invoke(capability, target);
+          } catch (IllegalAccessException | IllegalArgumentException
+              | InvocationTargetException e) {
+            throw new RuntimeException("Unable to enrich " + target, e);
+          }
+        })
+        .orElse(target);
+  }
+
   default Client enrich(Client client) {
     return client;
   }
 
+  @Experimental
+  default <C> AsyncClient<C> enrichAsync(AsyncClient<C> client) {
+    return client;
+  }
+
   default Retryer enrich(Retryer retryer) {
     return retryer;
   }
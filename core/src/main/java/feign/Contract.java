@@ -79,11 +79,7 @@ public interface Contract {
      * Called indirectly by {@link #parseAndValidateMetadata(Class)}.
      */
     protected MethodMetadata parseAndValidateMetadata(Class<?> targetType, Method method) {
-      final MethodMetadata data = new MethodMetadata();
-      data.targetType(targetType);
-      data.method(method);
-      data.returnType(Types.resolve(targetType, targetType, method.getGenericReturnType()));
-      data.configKey(Feign.configKey(targetType, method));
+      final MethodMetadata data = newMetadata(targetType, method);
 
       if (targetType.getInterfaces().length == 1) {
         processAnnotationOnClass(data, targetType.getInterfaces()[0]);
@@ -110,28 +106,62 @@ public interface Contract {
         if (parameterAnnotations[i] != null) {
           isHttpAnnotation = processAnnotationsOnParameter(data, parameterAnnotations[i], i);
         }
+        processParameter(data, isHttpAnnotation, i, parameterTypes[i], genericParameterTypes[i]);
+      }
+      checkMaps(data, parameterTypes, genericParameterTypes);
+      return data;
+    }
 
-        if (isHttpAnnotation) {
-          data.ignoreParamater(i);
-        }
+    /**
+     * Metadata for {@code method} before any annotation is processed.
+     */
+    static MethodMetadata newMetadata(Class<?> targetType, Method method) {
+      final MethodMetadata data = new MethodMetadata();
+      data.targetType(targetType);
+      data.method(method);
+      data.returnType(Types.resolve(targetType, targetType, method.getGenericReturnType()));
+      data.configKey(Feign.configKey(targetType, method));
+      return data;
+    }
 
-        if (parameterTypes[i] == URI.class) {
-          data.urlIndex(i);
-        } else if (!isHttpAnnotation && parameterTypes[i] != Request.Options.class) {
-          if (data.isAlreadyProcessed(i)) {
-            checkState(data.formParams().isEmpty() || data.bodyIndex() == null,
-                "Body parameters cannot be used with form parameters.%s", data.warnings());
-          } else {
-            checkState(data.formParams().isEmpty(),
-                "Body parameters cannot be used with form parameters.%s", data.warnings());
-            checkState(data.bodyIndex() == null,
-                "Method has too many Body parameters: %s%s", method, data.warnings());
-            data.bodyIndex(i);
-            data.bodyType(Types.resolve(targetType, targetType, genericParameterTypes[i]));
-          }
+    /**
+     * Called after the annotations of parameter {@code i} were processed, decides if it is the url,
+     * the body or neither.
+     */
+    static void processParameter(MethodMetadata data,
+                                 boolean isHttpAnnotation,
+                                 int i,
+                                 Class<?> parameterType,
+                                 Type genericParameterType) {
+      if (isHttpAnnotation) {
+        data.ignoreParamater(i);
+      }
+
+      if (data.optionsIndex() == null && Request.Options.class.isAssignableFrom(parameterType)) {
+        data.optionsIndex(i);
+      }
+
+      if (parameterType == URI.class) {
+        data.urlIndex(i);
+      } else if (!isHttpAnnotation && parameterType != Request.Options.class) {
+        if (data.isAlreadyProcessed(i)) {
+          checkState(data.formParams().isEmpty() || data.bodyIndex() == null,
+              "Body parameters cannot be used with form parameters.%s", data.warnings());
+        } else {
+          checkState(data.formParams().isEmpty(),
+              "Body parameters cannot be used with form parameters.%s", data.warnings());
+          checkState(data.bodyIndex() == null,
+              "Method has too many Body parameters: %s%s", data.method(), data.warnings());
+          data.bodyIndex(i);
+          data.bodyType(
+              Types.resolve(data.targetType(), data.targetType(), genericParameterType));
         }
       }
+    }
 
+    static void checkMaps(MethodMetadata data,
+                          Class<?>[] parameterTypes,
+                          Type[] genericParameterTypes) {
       if (data.headerMapIndex() != null) {
         checkMapString("HeaderMap", parameterTypes[data.headerMapIndex()],
             genericParameterTypes[data.headerMapIndex()]);
@@ -142,8 +172,6 @@ public interface Contract {
           checkMapKeys("QueryMap", genericParameterTypes[data.queryMapIndex()]);
         }
       }
-
-      return data;
     }
 
     private static void checkMapString(String name, Class<?> type, Type genericType) {
@@ -215,6 +243,10 @@ public interface Contract {
      * links a parameter name to its index in the method signature.
      */
     protected void nameParam(MethodMetadata data, String name, int i) {
+      addParamName(data, name, i);
+    }
+
+    static void addParamName(MethodMetadata data, String name, int i) {
       final Collection<String> names =
           data.indexToName().containsKey(i) ? data.indexToName().get(i) : new ArrayList<String>();
       names.add(name);
@@ -226,6 +258,14 @@ public interface Contract {
 
     static final Pattern REQUEST_LINE_PATTERN = Pattern.compile("^([A-Z]+)[ ]*(.*)$");
 
+    /**
+     * Subclasses may register more processors, so only this exact class is cached.
+     */
+    @Override
+    protected boolean cacheable() {
+      return getClass() == Default.class;
+    }
+
     public Default() {
       super.registerClassAnnotation(Headers.class, (header, data) -> {
         final String[] headersOnType = header.value();
@@ -296,7 +336,7 @@ public interface Contract {
       });
     }
 
-    private static Map<String, Collection<String>> toMap(String[] input) {
+    static Map<String, Collection<String>> toMap(String[] input) {
       final Map<String, Collection<String>> result =
           new LinkedHashMap<String, Collection<String>>(input.length);
       for (final String header : input) {
@@ -32,8 +32,36 @@ public abstract class DeclarativeContract extends BaseContract {
   private final Map<Class<Annotation>, DeclarativeContract.ParameterAnnotationProcessor<Annotation>> parameterAnnotationProcessors =
       new HashMap<>();
 
+  /**
+   * Uses the {@link MethodMetadataFactory} generated at compile time for this contract and
+   * {@code targetType} when there is one, otherwise parses the annotations of {@code targetType}.
+   */
   @Override
   public final List<MethodMetadata> parseAndValidateMetadata(Class<?> targetType) {
+    if (!cacheable()) {
+      return parse(targetType);
+    }
+    return MethodMetadataCache.shared().get(getClass(), targetType, this::parse);
+  }
+
+  /**
+   * Whether the metadata this contract parses may be kept in the {@link MethodMetadataCache} and
+   * handed to every other instance of its class. Only return true when all instances of the class
+   * register the same processors, whatever their constructor arguments or state. False by default.
+   */
+  protected boolean cacheable() {
+    return false;
+  }
+
+  private List<MethodMetadata> parse(Class<?> targetType) {
+    final MethodMetadataFactory generated = MethodMetadataFactory.find(getClass(), targetType);
+    if (generated != null) {
+      try {
+        return generated.create();
+      } catch (IllegalStateException e) {
+        // parse again, so the message includes the warnings collected along the way
+      }
+    }
     // any implementations must register processors
     return super.parseAndValidateMetadata(targetType);
   }
@@ -58,22 +86,28 @@ public abstract class DeclarativeContract extends BaseContract {
               .filter(processor -> processor.test(annotation))
               .forEach(processor -> processor.process(annotation, data)));
     } else {
-      if (targetType.getAnnotations().length == 0) {
-        data.addWarning(String.format(
-            "Class %s has no annotations, it may affect contract %s",
-            targetType.getSimpleName(),
-            getClass().getSimpleName()));
-      } else {
-        data.addWarning(String.format(
-            "Class %s has annotations %s that are not used by contract %s",
-            targetType.getSimpleName(),
-            Arrays.stream(targetType.getAnnotations())
-                .map(annotation -> annotation.annotationType()
-                    .getSimpleName())
-                .collect(Collectors.toList()),
-            getClass().getSimpleName()));
-      }
+      data.addWarning(unusedClassAnnotations(targetType, getClass().getSimpleName()));
+    }
+  }
+
+  /**
+   * Warning for a class none of whose annotations are used by {@code contract}.
+   */
+  static String unusedClassAnnotations(Class<?> targetType, String contract) {
+    if (targetType.getAnnotations().length == 0) {
+      return String.format(
+          "Class %s has no annotations, it may affect contract %s",
+          targetType.getSimpleName(),
+          contract);
     }
+    return String.format(
+        "Class %s has annotations %s that are not used by contract %s",
+        targetType.getSimpleName(),
+        Arrays.stream(targetType.getAnnotations())
+            .map(annotation -> annotation.annotationType()
+                .getSimpleName())
+            .collect(Collectors.toList()),
+        contract);
   }
 
   /**
@@ -92,15 +126,23 @@ public abstract class DeclarativeContract extends BaseContract {
     if (!processors.isEmpty()) {
       processors.forEach(processor -> processor.process(annotation, data));
     } else {
-      data.addWarning(String.format(
-          "Method %s has an annotation %s that is not used by contract %s",
-          method.getName(),
-          annotation.annotationType()
-              .getSimpleName(),
+      data.addWarning(unusedMethodAnnotation(method,
+          annotation.annotationType().getSimpleName(),
           getClass().getSimpleName()));
     }
   }
 
+  /**
+   * Warning for a method annotation not used by {@code contract}.
+   */
+  static String unusedMethodAnnotation(Method method, String annotation, String contract) {
+    return String.format(
+        "Method %s has an annotation %s that is not used by contract %s",
+        method.getName(),
+        annotation,
+        contract);
+  }
+
 
   /**
    * @param data metadata collected so far relating to the current java method.
@@ -125,29 +167,37 @@ public abstract class DeclarativeContract extends BaseContract {
           .process(annotation, data, paramIndex));
 
     } else {
-      final Parameter parameter = data.method().getParameters()[paramIndex];
-      String parameterName = parameter.isNamePresent()
-          ? parameter.getName()
-          : parameter.getType().getSimpleName();
-      if (annotations.length == 0) {
-        data.addWarning(String.format(
-            "Parameter %s has no annotations, it may affect contract %s",
-            parameterName,
-            getClass().getSimpleName()));
-      } else {
-        data.addWarning(String.format(
-            "Parameter %s has annotations %s that are not used by contract %s",
-            parameterName,
-            Arrays.stream(annotations)
-                .map(annotation -> annotation.annotationType()
-                    .getSimpleName())
-                .collect(Collectors.toList()),
-            getClass().getSimpleName()));
-      }
+      data.addWarning(unusedParameterAnnotations(data.method().getParameters()[paramIndex],
+          annotations, getClass().getSimpleName()));
     }
     return false;
   }
 
+  /**
+   * Warning for a parameter none of whose {@code annotations} are used by {@code contract}.
+   */
+  static String unusedParameterAnnotations(Parameter parameter,
+                                           Annotation[] annotations,
+                                           String contract) {
+    String parameterName = parameter.isNamePresent()
+        ? parameter.getName()
+        : parameter.getType().getSimpleName();
+    if (annotations.length == 0) {
+      return String.format(
+          "Parameter %s has no annotations, it may affect contract %s",
+          parameterName,
+          contract);
+    }
+    return String.format(
+        "Parameter %s has annotations %s that are not used by contract %s",
+        parameterName,
+        Arrays.stream(annotations)
+            .map(annotation -> annotation.annotationType()
+                .getSimpleName())
+            .collect(Collectors.toList()),
+        contract);
+  }
+
   /**
    * Called while class annotations are being processed
    *
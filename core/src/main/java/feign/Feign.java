@@ -111,6 +111,7 @@ public abstract class Feign {
     private Options options = new Options();
     private InvocationHandlerFactory invocationHandlerFactory =
         new InvocationHandlerFactory.Default();
+    private ProxyFactory proxyFactory = new ProxyFactory.Default();
     private boolean decode404;
     private boolean closeAfterDecode = true;
     private ExceptionPropagationPolicy propagationPolicy = NONE;
@@ -225,6 +226,17 @@ public abstract class Feign {
       return this;
     }
 
+    /**
+     * Allows you to override how the instance returned by {@link Feign#newInstance(Target)} is
+     * created, for example to use classes generated at compile time instead of
+     * {@link java.lang.reflect.Proxy}.
+     */
+    @Experimental
+    public Builder proxyFactory(ProxyFactory proxyFactory) {
+      this.proxyFactory = proxyFactory;
+      return this;
+    }
+
     /**
      * This flag indicates that the response should not be automatically closed upon completion of
      * decoding the message. This should be set if you plan on processing the response into a
@@ -270,19 +282,20 @@ public abstract class Feign {
     }
 
     public Feign build() {
-      Client client = Capability.enrich(this.client, capabilities);
-      Retryer retryer = Capability.enrich(this.retryer, capabilities);
+      Client client = Capability.enrich(this.client, Client.class, capabilities);
+      Retryer retryer = Capability.enrich(this.retryer, Retryer.class, capabilities);
       List<RequestInterceptor> requestInterceptors = this.requestInterceptors.stream()
-          .map(ri -> Capability.enrich(ri, capabilities))
+          .map(ri -> Capability.enrich(ri, RequestInterceptor.class, capabilities))
           .collect(Collectors.toList());
-      Logger logger = Capability.enrich(this.logger, capabilities);
-      Contract contract = Capability.enrich(this.contract, capabilities);
-      Options options = Capability.enrich(this.options, capabilities);
-      Encoder encoder = Capability.enrich(this.encoder, capabilities);
-      Decoder decoder = Capability.enrich(this.decoder, capabilities);
-      InvocationHandlerFactory invocationHandlerFactory =
-          Capability.enrich(this.invocationHandlerFactory, capabilities);
-      QueryMapEncoder queryMapEncoder = Capability.enrich(this.queryMapEncoder, capabilities);
+      Logger logger = Capability.enrich(this.logger, Logger.class, capabilities);
+      Contract contract = Capability.enrich(this.contract, Contract.class, capabilities);
+      Options options = Capability.enrich(this.options, Options.class, capabilities);
+      Encoder encoder = Capability.enrich(this.encoder, Encoder.class, capabilities);
+      Decoder decoder = Capability.enrich(this.decoder, Decoder.class, capabilities);
+      InvocationHandlerFactory invocationHandlerFactory = Capability.enrich(
+          this.invocationHandlerFactory, InvocationHandlerFactory.class, capabilities);
+      QueryMapEncoder queryMapEncoder =
+          Capability.enrich(this.queryMapEncoder, QueryMapEncoder.class, capabilities);
 
       SynchronousMethodHandler.Factory synchronousMethodHandlerFactory =
           new SynchronousMethodHandler.Factory(client, retryer, requestInterceptors, logger,
@@ -290,7 +303,8 @@ public abstract class Feign {
       ParseHandlersByName handlersByName =
           new ParseHandlersByName(contract, options, encoder, decoder, queryMapEncoder,
               errorDecoder, synchronousMethodHandlerFactory);
-      return new ReflectiveFeign(handlersByName, invocationHandlerFactory, queryMapEncoder);
+      return new ReflectiveFeign(handlersByName, invocationHandlerFactory, proxyFactory,
+          queryMapEncoder);
     }
   }
 
@@ -156,7 +156,7 @@ public class FeignException extends RuntimeException {
     byte[] body = {};
     try {
       if (response.body() != null) {
-        body = Util.toByteArray(response.body().asInputStream());
+        body = Util.toByteArray(response.body().asInputStream(), response.body().length());
       }
     } catch (IOException ignored) { // NOPMD
     }
@@ -13,9 +13,15 @@
  */
 package feign;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.io.SequenceInputStream;
 import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.FileHandler;
 import java.util.logging.LogRecord;
 import java.util.logging.SimpleFormatter;
@@ -26,6 +32,10 @@ import static feign.Util.*;
  */
 public abstract class Logger {
 
+  // volatile, as one logger is often shared by clients built on other threads
+  private volatile int maxLoggedBodyBytes = -1;
+  private volatile boolean logOnClose;
+
   protected static String methodTag(String configKey) {
     return new StringBuilder().append('[').append(configKey.substring(0, configKey.indexOf('(')))
         .append("] ").toString();
@@ -41,6 +51,37 @@ public abstract class Logger {
    */
   protected abstract void log(String configKey, String format, Object... args);
 
+  /**
+   * Logs at most the first {@code maxBytes} of a response body, instead of reading the whole body
+   * into memory before it is decoded. Bodies that fit are rebuffered as usual; the rest of a larger
+   * body streams through to the {@link feign.codec.Decoder} as it is read. Below
+   * {@link Level#FULL}, or when {@code maxBytes} is zero, no body bytes are read ahead at all.
+   *
+   * @param maxBytes the number of body bytes to log, at least zero.
+   * @return this logger.
+   */
+  @Experimental
+  public Logger teeResponseBody(int maxBytes) {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+    }
+    this.maxLoggedBodyBytes = maxBytes;
+    return this;
+  }
+
+  /**
+   * When a response body {@link #teeResponseBody(int) streams through}, logs its final size and how
+   * long it took to read once the decoder closes it, instead of ending the response log as soon as
+   * the logged bytes are read.
+   *
+   * @return this logger.
+   */
+  @Experimental
+  public Logger logOnClose(boolean logOnClose) {
+    this.logOnClose = logOnClose;
+    return this;
+  }
+
   protected void logRequest(String configKey, Level logLevel, Request request) {
     log(configKey, "---> %s %s HTTP/1.1", request.httpMethod().name(), request.url());
     if (logLevel.ordinal() >= Level.HEADERS.ordinal()) {
@@ -62,6 +103,15 @@ public abstract class Logger {
           log(configKey, ""); // CRLF
           log(configKey, "%s", bodyText != null ? bodyText : "Binary data");
         }
+      } else if (request.requestBody() != null && request.requestBody().isStreaming()) {
+        // written as it is sent, so it can't be read here
+        long contentLength = request.requestBody().contentLength();
+        if (contentLength < 0) {
+          log(configKey, "---> END HTTP (streaming body)");
+        } else {
+          log(configKey, "---> END HTTP (streaming %s-byte body)", contentLength);
+        }
+        return;
       }
       log(configKey, "---> END HTTP (%s-byte body)", bodyLength);
     }
@@ -96,7 +146,11 @@ public abstract class Logger {
         if (logLevel.ordinal() >= Level.FULL.ordinal()) {
           log(configKey, ""); // CRLF
         }
-        byte[] bodyData = Util.toByteArray(response.body().asInputStream());
+        if (maxLoggedBodyBytes >= 0) {
+          return logAndTeeResponse(configKey, logLevel, response);
+        }
+        byte[] bodyData =
+            Util.toByteArray(response.body().asInputStream(), response.body().length());
         bodyLength = bodyData.length;
         if (logLevel.ordinal() >= Level.FULL.ordinal() && bodyLength > 0) {
           log(configKey, "%s", decodeOrDefault(bodyData, UTF_8, "Binary data"));
@@ -110,6 +164,144 @@ public abstract class Logger {
     return response;
   }
 
+  private Response logAndTeeResponse(String configKey, Level logLevel, Response response)
+      throws IOException {
+    int limit = logLevel.ordinal() >= Level.FULL.ordinal() ? maxLoggedBodyBytes : 0;
+    InputStream body = response.body().asInputStream();
+    if (limit == 0) {
+      return streamThrough(configKey, response, body, 0);
+    }
+    // one more than logged, to tell a body that fits from one that continues
+    int capacity = limit + 1L > Integer.MAX_VALUE - 8 ? Integer.MAX_VALUE - 8 : limit + 1;
+    Integer length = response.body().length();
+    byte[] head;
+    if (length == null || length < 0) {
+      // grown as bytes arrive, so a short body of unknown length stays cheap
+      head = new byte[Math.min(capacity, BufferPool.DEFAULT_BUFFER_SIZE)];
+    } else {
+      head = new byte[length < capacity ? length + 1 : capacity];
+    }
+    int headLength = 0;
+    boolean eof = false;
+    while (!eof && headLength < capacity) {
+      if (headLength == head.length) {
+        // unknown length, or the body is longer than its length said
+        head = Arrays.copyOf(head, (int) Math.min(capacity, head.length * 2L));
+      }
+      int read = body.read(head, headLength, head.length - headLength);
+      if (read == -1) {
+        eof = true;
+      } else {
+        headLength += read;
+      }
+    }
+    if (eof && headLength <= limit) {
+      body.close();
+      byte[] bodyData = headLength == head.length ? head : Arrays.copyOf(head, headLength);
+      if (headLength > 0) {
+        log(configKey, "%s", decodeOrDefault(bodyData, UTF_8, "Binary data"));
+      }
+      log(configKey, "<--- END HTTP (%s-byte body)", headLength);
+      return response.toBuilder().body(bodyData).build();
+    }
+
+    byte[] logged = Arrays.copyOf(head, trimPartialCharacter(head, Math.min(limit, headLength)));
+    log(configKey, "%s...", decodeOrDefault(logged, UTF_8, "Binary data"));
+    InputStream rest = new SequenceInputStream(
+        new ByteArrayInputStream(head, 0, headLength), body);
+    return streamThrough(configKey, response, rest, limit);
+  }
+
+  /**
+   * Hands {@code body} on to the decoder, ending the response log now or once it is closed.
+   */
+  private Response streamThrough(String configKey,
+                                 Response response,
+                                 InputStream body,
+                                 int loggedBytes) {
+    if (logOnClose) {
+      body = new LogOnCloseInputStream(configKey, body);
+    } else {
+      log(configKey, "<--- END HTTP (streaming body, %s bytes logged)", loggedBytes);
+    }
+    return response.toBuilder().body(body, response.body().length()).build();
+  }
+
+  /**
+   * Length of the first {@code length} bytes without a trailing UTF-8 sequence cut in half, so a
+   * truncated text body isn't logged as binary data.
+   */
+  private static int trimPartialCharacter(byte[] data, int length) {
+    for (int i = length - 1; i >= 0 && i >= length - 4; i--) {
+      int b = data[i] & 0xff;
+      if ((b & 0xc0) == 0x80) {
+        continue; // continuation byte, keep looking for the start of the sequence
+      }
+      int sequenceLength = b >= 0xf0 ? 4 : b >= 0xe0 ? 3 : b >= 0xc0 ? 2 : 1;
+      return i + sequenceLength > length ? i : length;
+    }
+    return length;
+  }
+
+  /**
+   * Ends the response log with the number of bytes the decoder read, once it closes the body.
+   */
+  private final class LogOnCloseInputStream extends FilterInputStream {
+
+    private final String configKey;
+    private final long start = System.nanoTime();
+    private long count;
+    private boolean closed;
+
+    LogOnCloseInputStream(String configKey, InputStream in) {
+      super(in);
+      this.configKey = configKey;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read > 0) {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        if (!closed) {
+          closed = true;
+          log(configKey, "<--- END HTTP (%s-byte body read in %sms)", count,
+              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+      }
+    }
+  }
+
   protected IOException logIOException(String configKey,
                                        Level logLevel,
                                        IOException ioe,
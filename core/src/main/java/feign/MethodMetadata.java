@@ -29,9 +29,10 @@ public final class MethodMetadata implements Serializable {
   private Integer bodyIndex;
   private Integer headerMapIndex;
   private Integer queryMapIndex;
+  private Integer optionsIndex;
   private boolean queryMapEncoded;
   private transient Type bodyType;
-  private final RequestTemplate template = new RequestTemplate();
+  private final RequestTemplate template;
   private final List<String> formParams = new ArrayList<String>();
   private final Map<Integer, Collection<String>> indexToName =
       new LinkedHashMap<Integer, Collection<String>>();
@@ -46,9 +47,42 @@ public final class MethodMetadata implements Serializable {
   private transient final List<String> warnings = new ArrayList<>();
 
   MethodMetadata() {
+    template = new RequestTemplate();
     template.methodMetadata(this);
   }
 
+  /**
+   * Deep copy of {@code toCopy}, so that changes to one, as done by delegating contracts, are not
+   * seen by the other.
+   */
+  MethodMetadata(MethodMetadata toCopy) {
+    configKey = toCopy.configKey;
+    returnType = toCopy.returnType;
+    urlIndex = toCopy.urlIndex;
+    bodyIndex = toCopy.bodyIndex;
+    headerMapIndex = toCopy.headerMapIndex;
+    queryMapIndex = toCopy.queryMapIndex;
+    optionsIndex = toCopy.optionsIndex;
+    queryMapEncoded = toCopy.queryMapEncoded;
+    bodyType = toCopy.bodyType;
+    template = RequestTemplate.from(toCopy.template);
+    template.methodMetadata(this);
+    formParams.addAll(toCopy.formParams);
+    for (Map.Entry<Integer, Collection<String>> entry : toCopy.indexToName.entrySet()) {
+      indexToName.put(entry.getKey(), new ArrayList<String>(entry.getValue()));
+    }
+    indexToExpanderClass.putAll(toCopy.indexToExpanderClass);
+    indexToEncoded.putAll(toCopy.indexToEncoded);
+    if (toCopy.indexToExpander != null) {
+      indexToExpander = new LinkedHashMap<Integer, Expander>(toCopy.indexToExpander);
+    }
+    parameterToIgnore = (BitSet) toCopy.parameterToIgnore.clone();
+    ignored = toCopy.ignored;
+    targetType = toCopy.targetType;
+    method = toCopy.method;
+    warnings.addAll(toCopy.warnings);
+  }
+
   /**
    * Used as a reference to this method. For example, {@link Logger#log(String, String, Object...)
    * logging} or {@link ReflectiveFeign reflective dispatch}.
@@ -100,6 +134,21 @@ public final class MethodMetadata implements Serializable {
     return this;
   }
 
+  /**
+   * Index of the {@link Request.Options} parameter, which overrides the client's options for one
+   * call.
+   */
+  @Experimental
+  public Integer optionsIndex() {
+    return optionsIndex;
+  }
+
+  @Experimental
+  public MethodMetadata optionsIndex(Integer optionsIndex) {
+    this.optionsIndex = optionsIndex;
+    return this;
+  }
+
   public Integer queryMapIndex() {
     return queryMapIndex;
   }
@@ -0,0 +1,234 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Remembers the {@link MethodMetadata} a {@link DeclarativeContract} parsed for an interface, so
+ * that each interface is parsed once per contract type, no matter how many clients are built for
+ * it. Only contracts that are {@link DeclarativeContract#cacheable() cacheable} use it.
+ *
+ * <p>
+ * Entries are kept by the interface class itself, through a {@link ClassValue}, so that caching
+ * never prevents an interface, or the class loader that defined it, from being unloaded. At most
+ * {@link #maximumSize()} entries are kept; the oldest are dropped first. Every lookup returns a
+ * copy of the cached metadata, which the caller is free to change.
+ */
+@Experimental
+public final class MethodMetadataCache {
+
+  static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  private static final MethodMetadataCache SHARED = new MethodMetadataCache(DEFAULT_MAXIMUM_SIZE);
+
+  private final ClassValue<Entries> entries = new ClassValue<Entries>() {
+    @Override
+    protected Entries computeValue(Class<?> type) {
+      return new Entries();
+    }
+  };
+
+  /** Insertion order of the cached entries, without holding on to their classes. */
+  private final ArrayDeque<Key> order = new ArrayDeque<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final int maximumSize;
+
+  MethodMetadataCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * The cache shared by all {@link DeclarativeContract declarative contracts}.
+   */
+  public static MethodMetadataCache shared() {
+    return SHARED;
+  }
+
+  /**
+   * Metadata of {@code targetType} as parsed by {@code contract}, calling {@code parser} and
+   * caching its result on a miss.
+   */
+  List<MethodMetadata> get(Class<? extends Contract> contract,
+                           Class<?> targetType,
+                           Function<Class<?>, List<MethodMetadata>> parser) {
+    final List<MethodMetadata> cached = entries.get(targetType).find(contract);
+    if (cached != null) {
+      hits.increment();
+      return copyOf(cached);
+    }
+    misses.increment();
+    final List<MethodMetadata> parsed = parser.apply(targetType);
+    if (maximumSize > 0) {
+      put(contract, targetType, copyOf(parsed));
+    }
+    return parsed;
+  }
+
+  private synchronized void put(Class<? extends Contract> contract,
+                                Class<?> targetType,
+                                List<MethodMetadata> metadata) {
+    if (!entries.get(targetType).add(contract, metadata)) {
+      return; // parsed concurrently by another thread
+    }
+    order.addLast(new Key(contract, targetType));
+    expungeStaleKeys();
+    while (order.size() > maximumSize) {
+      remove(order.removeFirst());
+    }
+  }
+
+  /** Called holding the cache lock. Drops keys whose contract or interface was unloaded. */
+  private void expungeStaleKeys() {
+    for (Iterator<Key> keys = order.iterator(); keys.hasNext();) {
+      final Key key = keys.next();
+      if (key.contract.get() == null || key.targetType.get() == null) {
+        keys.remove();
+        remove(key);
+      }
+    }
+  }
+
+  private void remove(Key key) {
+    final Class<?> targetType = key.targetType.get();
+    if (targetType != null) {
+      entries.get(targetType).remove(key.contract.get());
+    }
+  }
+
+  /**
+   * Number of lookups answered from the cache.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Number of lookups that had to parse the interface.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Number of cached entries, one per contract type and interface.
+   */
+  public synchronized int size() {
+    expungeStaleKeys();
+    return order.size();
+  }
+
+  public int maximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Drops all entries, so that interfaces are parsed again. Counts are kept.
+   */
+  public synchronized void clear() {
+    for (Key key : order) {
+      remove(key);
+    }
+    order.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "MethodMetadataCache{size=" + size() + ", maximumSize=" + maximumSize
+        + ", hitCount=" + hitCount() + ", missCount=" + missCount() + "}";
+  }
+
+  private static List<MethodMetadata> copyOf(List<MethodMetadata> metadata) {
+    final List<MethodMetadata> copy = new ArrayList<>(metadata.size());
+    for (MethodMetadata md : metadata) {
+      copy.add(new MethodMetadata(md));
+    }
+    return copy;
+  }
+
+  private static final class Key {
+
+    private final WeakReference<Class<?>> contract;
+    private final WeakReference<Class<?>> targetType;
+
+    Key(Class<?> contract, Class<?> targetType) {
+      this.contract = new WeakReference<>(contract);
+      this.targetType = new WeakReference<>(targetType);
+    }
+  }
+
+  /**
+   * Metadata of one interface by contract type. There is rarely more than one contract per
+   * interface, so lookups scan an array that is replaced on each change.
+   */
+  private static final class Entries {
+
+    private volatile Entry[] entries = new Entry[0];
+
+    List<MethodMetadata> find(Class<?> contract) {
+      for (Entry entry : entries) {
+        if (entry.contract.get() == contract) {
+          return entry.metadata;
+        }
+      }
+      return null;
+    }
+
+    /** Called holding the cache lock. */
+    boolean add(Class<?> contract, List<MethodMetadata> metadata) {
+      if (find(contract) != null) {
+        return false;
+      }
+      final Entry[] current = entries;
+      final Entry[] updated = Arrays.copyOf(current, current.length + 1);
+      updated[current.length] = new Entry(contract, metadata);
+      entries = updated;
+      return true;
+    }
+
+    /**
+     * Called holding the cache lock. A null {@code contract} removes entries of contracts that were
+     * unloaded.
+     */
+    void remove(Class<?> contract) {
+      final List<Entry> kept = new ArrayList<>(entries.length);
+      for (Entry entry : entries) {
+        if (entry.contract.get() != contract) {
+          kept.add(entry);
+        }
+      }
+      entries = kept.toArray(new Entry[0]);
+    }
+  }
+
+  private static final class Entry {
+
+    /** Weak, as the contract may come from a class loader the interface doesn't know of. */
+    private final WeakReference<Class<?>> contract;
+    private final List<MethodMetadata> metadata;
+
+    Entry(Class<?> contract, List<MethodMetadata> metadata) {
+      this.contract = new WeakReference<>(contract);
+      this.metadata = metadata;
+    }
+  }
+}
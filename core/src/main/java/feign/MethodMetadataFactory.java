@@ -0,0 +1,188 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import feign.Contract.BaseContract;
+
+/**
+ * Creates the {@link MethodMetadata} of one interface without reading its annotations.
+ * Implementations are generated at compile time by {@code feign-apt-generator}: each replays the
+ * changes {@link #contract() its contract} would make to {@link MethodMetadata} while parsing the
+ * interface.
+ *
+ * <p>
+ * A {@link DeclarativeContract} uses the generated factory when one exists for its exact class, so
+ * subclasses that register more annotations keep parsing reflectively.
+ */
+@Experimental
+public abstract class MethodMetadataFactory {
+
+  private static final String PREFIX = "FeignMetadata_";
+
+  private static final ClassValue<Map<String, Optional<MethodMetadataFactory>>> GENERATED =
+      new ClassValue<Map<String, Optional<MethodMetadataFactory>>>() {
+        @Override
+        protected Map<String, Optional<MethodMetadataFactory>> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private final String contract;
+
+  /**
+   * @param contract {@link Class#getName() name} of the contract this factory stands for.
+   */
+  protected MethodMetadataFactory(String contract) {
+    this.contract = contract;
+  }
+
+  /**
+   * {@link Class#getName() name} of the contract this factory stands for.
+   */
+  public final String contract() {
+    return contract;
+  }
+
+  /**
+   * New metadata for each method of the interface, as the contract would return from
+   * {@link Contract#parseAndValidateMetadata(Class)}.
+   */
+  public abstract List<MethodMetadata> create();
+
+  /**
+   * Metadata for a method before any annotation is processed.
+   */
+  protected static MethodMetadata metadata(Class<?> targetType,
+                                           String name,
+                                           Class<?>... parameterTypes) {
+    try {
+      return BaseContract.newMetadata(targetType, targetType.getMethod(name, parameterTypes));
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(
+          "Generated metadata is out of date with " + targetType.getName(), e);
+    }
+  }
+
+  /**
+   * @see BaseContract#nameParam(MethodMetadata, String, int)
+   */
+  protected static void nameParam(MethodMetadata data, String name, int i) {
+    BaseContract.addParamName(data, name, i);
+  }
+
+  /**
+   * Headers in {@code name: value} format, grouped by name.
+   */
+  protected static Map<String, Collection<String>> headers(String... headers) {
+    return Contract.Default.toMap(headers);
+  }
+
+  /**
+   * Called when none of the annotations of {@code targetType} are used by {@code contract}.
+   *
+   * @param contract {@link Class#getSimpleName() simple name} of the contract.
+   */
+  protected static void unusedClassAnnotations(MethodMetadata data,
+                                               Class<?> targetType,
+                                               String contract) {
+    data.addWarning(DeclarativeContract.unusedClassAnnotations(targetType, contract));
+  }
+
+  /**
+   * Called for each annotation of the method not used by {@code contract}.
+   *
+   * @param annotation {@link Class#getSimpleName() simple name} of the annotation type.
+   * @param contract {@link Class#getSimpleName() simple name} of the contract.
+   */
+  protected static void unusedMethodAnnotation(MethodMetadata data,
+                                               String annotation,
+                                               String contract) {
+    data.addWarning(
+        DeclarativeContract.unusedMethodAnnotation(data.method(), annotation, contract));
+  }
+
+  /**
+   * Called when none of the annotations of parameter {@code i} are used by {@code contract}.
+   *
+   * @param contract {@link Class#getSimpleName() simple name} of the contract.
+   */
+  protected static void unusedParameterAnnotations(MethodMetadata data, int i, String contract) {
+    final Method method = data.method();
+    data.addWarning(DeclarativeContract.unusedParameterAnnotations(method.getParameters()[i],
+        method.getParameterAnnotations()[i], contract));
+  }
+
+  /**
+   * Called after the annotations of parameter {@code i} were replayed.
+   */
+  protected static void parameter(MethodMetadata data, int i) {
+    final Method method = data.method();
+    BaseContract.processParameter(data, false, i, method.getParameterTypes()[i],
+        method.getGenericParameterTypes()[i]);
+  }
+
+  /**
+   * Called after all parameters were replayed.
+   */
+  protected static MethodMetadata validate(MethodMetadata data) {
+    final Method method = data.method();
+    BaseContract.checkMaps(data, method.getParameterTypes(), method.getGenericParameterTypes());
+    return data;
+  }
+
+  /**
+   * @return the factory generated for {@code contract} and {@code targetType}, or null.
+   */
+  static MethodMetadataFactory find(Class<? extends Contract> contract, Class<?> targetType) {
+    return GENERATED.get(targetType)
+        .computeIfAbsent(contract.getName(), name -> load(contract, targetType))
+        .orElse(null);
+  }
+
+  private static Optional<MethodMetadataFactory> load(Class<? extends Contract> contract,
+                                                      Class<?> targetType) {
+    final String className = className(contract.getSimpleName(), targetType.getName());
+    try {
+      final Class<?> factoryClass = Class.forName(className, true, targetType.getClassLoader());
+      if (!MethodMetadataFactory.class.isAssignableFrom(factoryClass)) {
+        return Optional.empty();
+      }
+      final MethodMetadataFactory factory =
+          (MethodMetadataFactory) factoryClass.getConstructor().newInstance();
+      return factory.contract.equals(contract.getName())
+          ? Optional.of(factory)
+          : Optional.empty();
+    } catch (ClassNotFoundException e) {
+      return Optional.empty();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to create " + className, e);
+    }
+  }
+
+  /**
+   * Name of the class generated for the contract and interface, for example
+   * {@code example.github.FeignMetadata_Default_GitHubExample_GitHub}.
+   */
+  static String className(String contractSimpleName, String binaryName) {
+    final int lastDot = binaryName.lastIndexOf('.');
+    return binaryName.substring(0, lastDot + 1) + PREFIX + contractSimpleName + '_'
+        + binaryName.substring(lastDot + 1).replace('$', '_');
+  }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import feign.InvocationHandlerFactory.MethodHandler;
+
+/**
+ * Creates the instance returned by {@link Feign#newInstance(Target)}, which dispatches each
+ * interface method to its {@link MethodHandler}.
+ */
+@Experimental
+public interface ProxyFactory {
+
+  /**
+   * @param target the api being bound.
+   * @param dispatch handlers for every non-{@link Object} method on {@link Target#type()}.
+   * @param invocationHandlerFactory configured via
+   *        {@link Feign.Builder#invocationHandlerFactory(InvocationHandlerFactory)}.
+   * @return an instance of {@link Target#type()}.
+   */
+  <T> T create(Target<T> target,
+               Map<Method, MethodHandler> dispatch,
+               InvocationHandlerFactory invocationHandlerFactory);
+
+  /**
+   * Creates a {@link java.lang.reflect.Proxy} backed by the {@link InvocationHandler} of the
+   * {@code invocationHandlerFactory}.
+   */
+  final class Default implements ProxyFactory {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T create(Target<T> target,
+                        Map<Method, MethodHandler> dispatch,
+                        InvocationHandlerFactory invocationHandlerFactory) {
+      InvocationHandler handler = invocationHandlerFactory.create(target, dispatch);
+      return (T) Proxy.newProxyInstance(target.type().getClassLoader(),
+          new Class<?>[] {target.type()}, handler);
+    }
+  }
+}
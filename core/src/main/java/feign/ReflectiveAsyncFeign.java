@@ -13,10 +13,11 @@
  */
 package feign;
 
+import java.io.IOException;
 import java.lang.reflect.*;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 
 @Experimental
 public class ReflectiveAsyncFeign<C> extends AsyncFeign<C> {
@@ -24,6 +25,7 @@ public class ReflectiveAsyncFeign<C> extends AsyncFeign<C> {
   private class AsyncFeignInvocationHandler<T> implements InvocationHandler {
 
     private final Map<Method, MethodInfo> methodInfoLookup = new ConcurrentHashMap<>();
+    private final Map<Method, Batcher> batchers = new HashMap<>();
 
     private final Class<T> type;
     private final T instance;
@@ -33,6 +35,14 @@ public class ReflectiveAsyncFeign<C> extends AsyncFeign<C> {
       this.type = type;
       this.instance = instance;
       this.context = context;
+      for (final Method method : type.getMethods()) {
+        if (method.isAnnotationPresent(Batched.class)) {
+          // bulk calls go through this handler, which sets up their invocation context
+          final Method bulkMethod = Batcher.bulkMethod(type, method);
+          batchers.put(method, new Batcher(method.getAnnotation(Batched.class),
+              arguments -> invoke(null, bulkMethod, new Object[] {arguments})));
+        }
+      }
     }
 
     @Override
@@ -52,10 +62,23 @@ public class ReflectiveAsyncFeign<C> extends AsyncFeign<C> {
         return toString();
       }
 
+      final Batcher batcher = batchers.get(method);
+      if (batcher != null) {
+        return Batcher.isAsync(method) ? batcher.submit(args[0]) : batcher.invoke(args[0]);
+      }
+
       final MethodInfo methodInfo =
           methodInfoLookup.computeIfAbsent(method, m -> new MethodInfo(type, m));
 
-      setInvocationContext(new AsyncInvocation<C>(context, methodInfo));
+      if (retryer != null && methodInfo.isAsyncReturnType()) {
+        return new RetryingCall(method, args, methodInfo, retryer.clone()).start();
+      }
+      return send(method, args, new AsyncInvocation<C>(context, methodInfo));
+    }
+
+    private Object send(Method method, Object[] args, AsyncInvocation<C> invocation)
+        throws Throwable {
+      setInvocationContext(invocation);
       try {
         return method.invoke(instance, args);
       } catch (final InvocationTargetException e) {
@@ -69,6 +92,101 @@ public class ReflectiveAsyncFeign<C> extends AsyncFeign<C> {
       }
     }
 
+    /**
+     * Retries a call returning {@link CompletableFuture}: the next attempt is scheduled on
+     * {@link SharedExecutors#scheduler()} once the {@link AsyncRetryer} permits it, so no thread
+     * sleeps in between.
+     */
+    private final class RetryingCall {
+
+      private final Method method;
+      private final Object[] args;
+      private final MethodInfo methodInfo;
+      private final AsyncRetryer retryer;
+      private final CompletableFuture<Object> result = new CompletableFuture<>();
+      private volatile CompletableFuture<?> attempt;
+
+      RetryingCall(Method method, Object[] args, MethodInfo methodInfo, AsyncRetryer retryer) {
+        this.method = method;
+        this.args = args;
+        this.methodInfo = methodInfo;
+        this.retryer = retryer;
+      }
+
+      CompletableFuture<Object> start() throws Throwable {
+        // like calls that aren't retried, the first attempt throws synchronous failures
+        sendAttempt();
+        result.whenComplete((r, t) -> {
+          final CompletableFuture<?> current = attempt;
+          if (result.isCancelled() && current != null) {
+            current.cancel(true);
+          }
+        });
+        return result;
+      }
+
+      private void sendAttempt() throws Throwable {
+        final AsyncInvocation<C> invocation = new AsyncInvocation<>(context, methodInfo);
+        final CompletableFuture<?> current =
+            (CompletableFuture<?>) send(method, args, invocation);
+        attempt = current;
+        current.whenComplete((r, t) -> {
+          if (t == null) {
+            result.complete(r);
+          } else {
+            onFailure(invocation, t);
+          }
+        });
+      }
+
+      private void retry() {
+        if (result.isDone()) {
+          return;
+        }
+        try {
+          sendAttempt();
+        } catch (final Throwable t) {
+          result.completeExceptionally(t);
+        }
+        if (result.isCancelled()) {
+          attempt.cancel(true);
+        }
+      }
+
+      private void onFailure(AsyncInvocation<C> invocation, Throwable t) {
+        final Throwable cause =
+            t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        final RetryableException retryable;
+        if (cause instanceof RetryableException) {
+          retryable = (RetryableException) cause;
+        } else if (cause instanceof IOException && invocation.request() != null) {
+          retryable = (RetryableException) FeignException
+              .errorExecuting(invocation.request(), (IOException) cause);
+        } else {
+          result.completeExceptionally(cause);
+          return;
+        }
+
+        if (retryer instanceof RetryerAdapter && ((RetryerAdapter) retryer).isBlocking()) {
+          SharedExecutors.blocking().execute(() -> scheduleRetry(retryable, cause));
+        } else {
+          scheduleRetry(retryable, cause);
+        }
+      }
+
+      private void scheduleRetry(RetryableException retryable, Throwable cause) {
+        final long delayMillis;
+        try {
+          delayMillis = retryer.nextDelayMillis(retryable);
+        } catch (final RuntimeException e) {
+          result.completeExceptionally(e == retryable ? cause : e);
+          return;
+        }
+        SharedExecutors.scheduler().schedule(this::retry, Math.max(0, delayMillis),
+            TimeUnit.MILLISECONDS);
+      }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public boolean equals(Object obj) {
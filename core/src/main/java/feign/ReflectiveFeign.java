@@ -30,12 +30,14 @@ public class ReflectiveFeign extends Feign {
 
   private final ParseHandlersByName targetToHandlersByName;
   private final InvocationHandlerFactory factory;
+  private final ProxyFactory proxyFactory;
   private final QueryMapEncoder queryMapEncoder;
 
   ReflectiveFeign(ParseHandlersByName targetToHandlersByName, InvocationHandlerFactory factory,
-      QueryMapEncoder queryMapEncoder) {
+      ProxyFactory proxyFactory, QueryMapEncoder queryMapEncoder) {
     this.targetToHandlersByName = targetToHandlersByName;
     this.factory = factory;
+    this.proxyFactory = checkNotNull(proxyFactory, "proxyFactory");
     this.queryMapEncoder = queryMapEncoder;
   }
 
@@ -61,9 +63,16 @@ public class ReflectiveFeign extends Feign {
         methodToHandler.put(method, nameToHandler.get(Feign.configKey(target.type(), method)));
       }
     }
-    InvocationHandler handler = factory.create(target, methodToHandler);
-    T proxy = (T) Proxy.newProxyInstance(target.type().getClassLoader(),
-        new Class<?>[] {target.type()}, handler);
+    for (Map.Entry<Method, MethodHandler> entry : methodToHandler.entrySet()) {
+      if (entry.getKey().isAnnotationPresent(Batched.class)) {
+        final MethodHandler bulk =
+            methodToHandler.get(Batcher.bulkMethod(target.type(), entry.getKey()));
+        final Batcher batcher = new Batcher(entry.getKey().getAnnotation(Batched.class),
+            arguments -> bulk.invoke(new Object[] {arguments}));
+        entry.setValue(argv -> batcher.invoke(argv[0]));
+      }
+    }
+    T proxy = proxyFactory.create(target, methodToHandler, factory);
 
     for (DefaultMethodHandler defaultMethodHandler : defaultMethodHandlers) {
       defaultMethodHandler.bindTo(proxy);
@@ -179,68 +188,99 @@ public class ReflectiveFeign extends Feign {
 
     protected final MethodMetadata metadata;
     protected final Target<?> target;
-    private final Map<Integer, Expander> indexToExpander = new LinkedHashMap<Integer, Expander>();
+
+    /*
+     * index-addressed view of metadata.indexToName() and its expanders, computed once so that
+     * create() does not need to walk maps or box indexes on every invocation.
+     */
+    private final int[] argIndexes;
+    private final String[][] argNames;
+    private final Expander[] argExpanders;
+    private final int variableCount;
+    // -1 when the method has no such parameter
+    private final int urlIndex;
+    private final int queryMapIndex;
+    private final int headerMapIndex;
 
     private BuildTemplateByResolvingArgs(MethodMetadata metadata, QueryMapEncoder queryMapEncoder,
         Target target) {
       this.metadata = metadata;
       this.target = target;
       this.queryMapEncoder = queryMapEncoder;
+
+      Map<Integer, Expander> indexToExpander = new LinkedHashMap<Integer, Expander>();
       if (metadata.indexToExpander() != null) {
         indexToExpander.putAll(metadata.indexToExpander());
-        return;
-      }
-      if (metadata.indexToExpanderClass().isEmpty()) {
-        return;
-      }
-      for (Entry<Integer, Class<? extends Expander>> indexToExpanderClass : metadata
-          .indexToExpanderClass().entrySet()) {
-        try {
-          indexToExpander
-              .put(indexToExpanderClass.getKey(), indexToExpanderClass.getValue().newInstance());
-        } catch (InstantiationException e) {
-          throw new IllegalStateException(e);
-        } catch (IllegalAccessException e) {
-          throw new IllegalStateException(e);
+      } else {
+        for (Entry<Integer, Class<? extends Expander>> indexToExpanderClass : metadata
+            .indexToExpanderClass().entrySet()) {
+          try {
+            indexToExpander
+                .put(indexToExpanderClass.getKey(), indexToExpanderClass.getValue().newInstance());
+          } catch (InstantiationException e) {
+            throw new IllegalStateException(e);
+          } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+          }
         }
       }
+
+      int size = metadata.indexToName().size();
+      this.argIndexes = new int[size];
+      this.argNames = new String[size][];
+      this.argExpanders = new Expander[size];
+      int slot = 0;
+      int names = 0;
+      for (Entry<Integer, Collection<String>> entry : metadata.indexToName().entrySet()) {
+        argIndexes[slot] = entry.getKey();
+        argNames[slot] = entry.getValue().toArray(new String[0]);
+        argExpanders[slot] = indexToExpander.get(entry.getKey());
+        names += argNames[slot].length;
+        slot++;
+      }
+      this.variableCount = names;
+      this.urlIndex = indexOrAbsent(metadata.urlIndex());
+      this.queryMapIndex = indexOrAbsent(metadata.queryMapIndex());
+      this.headerMapIndex = indexOrAbsent(metadata.headerMapIndex());
+    }
+
+    private static int indexOrAbsent(Integer index) {
+      return index != null ? index : -1;
     }
 
     @Override
     public RequestTemplate create(Object[] argv) {
       RequestTemplate mutable = RequestTemplate.from(metadata.template());
       mutable.feignTarget(target);
-      if (metadata.urlIndex() != null) {
-        int urlIndex = metadata.urlIndex();
+      if (urlIndex >= 0) {
         checkArgument(argv[urlIndex] != null, "URI parameter %s was null", urlIndex);
         mutable.target(String.valueOf(argv[urlIndex]));
       }
-      Map<String, Object> varBuilder = new LinkedHashMap<String, Object>();
-      for (Entry<Integer, Collection<String>> entry : metadata.indexToName().entrySet()) {
-        int i = entry.getKey();
-        Object value = argv[entry.getKey()];
+      Map<String, Object> varBuilder = new LinkedHashMap<String, Object>(
+          Math.max(16, (int) (variableCount / .75f) + 1));
+      for (int slot = 0; slot < argIndexes.length; slot++) {
+        Object value = argv[argIndexes[slot]];
         if (value != null) { // Null values are skipped.
-          if (indexToExpander.containsKey(i)) {
-            value = expandElements(indexToExpander.get(i), value);
+          if (argExpanders[slot] != null) {
+            value = expandElements(argExpanders[slot], value);
           }
-          for (String name : entry.getValue()) {
+          for (String name : argNames[slot]) {
             varBuilder.put(name, value);
           }
         }
       }
 
       RequestTemplate template = resolve(argv, mutable, varBuilder);
-      if (metadata.queryMapIndex() != null) {
+      if (queryMapIndex >= 0) {
         // add query map parameters after initial resolve so that they take
         // precedence over any predefined values
-        Object value = argv[metadata.queryMapIndex()];
+        Object value = argv[queryMapIndex];
         Map<String, Object> queryMap = toQueryMap(value);
         template = addQueryMapQueryParameters(queryMap, template);
       }
 
-      if (metadata.headerMapIndex() != null) {
-        template =
-            addHeaderMapHeaders((Map<String, Object>) argv[metadata.headerMapIndex()], template);
+      if (headerMapIndex >= 0) {
+        template = addHeaderMapHeaders((Map<String, Object>) argv[headerMapIndex], template);
       }
 
       return template;
@@ -13,6 +13,9 @@
  */
 package feign;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
 import java.util.Collection;
@@ -20,6 +23,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import static feign.Util.checkArgument;
 import static feign.Util.checkNotNull;
 import static feign.Util.valuesOrEmpty;
@@ -182,14 +186,24 @@ public final class Request {
 
   /**
    * If present, this is the replayable body to send to the server. In some cases, this may be
-   * interpretable as text.
+   * interpretable as text. {@literal null} when the body is {@link Body#isStreaming() streamed}.
    *
    * @see #charset()
+   * @see #requestBody()
    */
   public byte[] body() {
     return body.data;
   }
 
+  /**
+   * The body to send to the server, clients should {@link Body#writeTo(OutputStream) write} it when
+   * it is {@link Body#isStreaming() streamed}.
+   */
+  @Experimental
+  public Body requestBody() {
+    return body;
+  }
+
   public boolean isBinary() {
     return body.isBinary();
   }
@@ -378,6 +392,10 @@ public final class Request {
 
     private Charset encoding;
     private byte[] data;
+    private BodyWriter writer;
+    private long contentLength = -1;
+    private boolean replayable = true;
+    private AtomicBoolean written;
 
     private Body() {
       super();
@@ -392,15 +410,42 @@ public final class Request {
       this.encoding = encoding;
     }
 
+    private Body(BodyWriter writer, long contentLength, boolean replayable, Charset encoding) {
+      this.writer = checkNotNull(writer, "writer");
+      this.contentLength = contentLength;
+      this.replayable = replayable;
+      this.encoding = encoding;
+      if (!replayable) {
+        this.written = new AtomicBoolean();
+      }
+    }
+
     public Optional<Charset> getEncoding() {
       return Optional.ofNullable(this.encoding);
     }
 
     public int length() {
       /* calculate the content length based on the data provided */
+      if (data != null) {
+        return data.length;
+      }
+      return contentLength > 0 && contentLength <= Integer.MAX_VALUE ? (int) contentLength : 0;
+    }
+
+    /**
+     * Number of bytes that will be written, {@code -1} if a streamed body doesn't know it up front.
+     */
+    @Experimental
+    public long contentLength() {
+      if (writer != null) {
+        return contentLength;
+      }
       return data != null ? data.length : 0;
     }
 
+    /**
+     * @return {@literal null} when the body is {@link #isStreaming() streamed}.
+     */
     public byte[] asBytes() {
       return data;
     }
@@ -415,6 +460,44 @@ public final class Request {
       return encoding == null || data == null;
     }
 
+    /**
+     * If the body is written by a {@link BodyWriter} as it is sent, instead of being held in
+     * memory.
+     */
+    @Experimental
+    public boolean isStreaming() {
+      return writer != null;
+    }
+
+    /**
+     * If the body can be sent more than once, for example when the request is retried. Bodies held
+     * in memory always are.
+     */
+    @Experimental
+    public boolean isReplayable() {
+      return replayable;
+    }
+
+    /**
+     * Writes the body to the connection. Closing {@code out} is left to the caller.
+     *
+     * @throws IllegalStateException if the body is not {@link #isReplayable() replayable} and was
+     *         written before.
+     */
+    @Experimental
+    public void writeTo(OutputStream out) throws IOException {
+      if (writer == null) {
+        if (data != null) {
+          out.write(data);
+        }
+        return;
+      }
+      if (written != null && !written.compareAndSet(false, true)) {
+        throw new IllegalStateException("Request body can only be written once");
+      }
+      writer.writeTo(new UnclosableOutputStream(out));
+    }
+
     public static Body create(String data) {
       return new Body(data.getBytes());
     }
@@ -431,6 +514,24 @@ public final class Request {
       return new Body(data, charset);
     }
 
+    /**
+     * Creates a new Request Body written by {@code writer} as the request is sent.
+     *
+     * @param writer of the body.
+     * @param contentLength number of bytes written, {@code -1} if not known.
+     * @param replayable if {@code writer} can be called more than once, which is required to retry
+     *        the request.
+     * @param charset of the written data, {@literal null} if binary.
+     * @return a new streaming Request.Body.
+     */
+    @Experimental
+    public static Body create(BodyWriter writer,
+                              long contentLength,
+                              boolean replayable,
+                              Charset charset) {
+      return new Body(writer, contentLength, replayable, charset);
+    }
+
     /**
      * Creates a new Request Body with charset encoded data.
      *
@@ -451,4 +552,38 @@ public final class Request {
     }
 
   }
+
+  /**
+   * Writes a request body straight to the connection, so that it is never held in memory as a
+   * whole.
+   */
+  @Experimental
+  @FunctionalInterface
+  public interface BodyWriter {
+
+    /**
+     * @param out of the connection, closed by the client once the body is written.
+     */
+    void writeTo(OutputStream out) throws IOException;
+  }
+
+  /**
+   * Keeps writers, such as serializers that close their target, from closing the connection.
+   */
+  private static final class UnclosableOutputStream extends FilterOutputStream {
+
+    UnclosableOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.flush();
+    }
+  }
 }
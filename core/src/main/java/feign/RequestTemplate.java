@@ -168,8 +168,23 @@ public final class RequestTemplate implements Serializable {
 
     StringBuilder uri = new StringBuilder();
 
-    /* create a new template form this one, but explicitly */
-    RequestTemplate resolved = RequestTemplate.from(this);
+    /*
+     * create a new template form this one, but explicitly. queries and headers are not copied, as
+     * only their resolved values are kept.
+     */
+    RequestTemplate resolved =
+        new RequestTemplate(
+            this.target,
+            this.fragment,
+            this.uriTemplate,
+            this.bodyTemplate,
+            this.method,
+            this.charset,
+            this.body,
+            this.decodeSlash,
+            this.collectionFormat,
+            this.methodMetadata,
+            this.feignTarget);
 
     if (this.uriTemplate == null) {
       /* create a new uri template using the default root */
@@ -186,10 +201,6 @@ public final class RequestTemplate implements Serializable {
      * resolved template.
      */
     if (!this.queries.isEmpty()) {
-      /*
-       * since we only want to keep resolved query values, reset any queries on the resolved copy
-       */
-      resolved.queries(Collections.emptyMap());
       StringBuilder query = new StringBuilder();
       Iterator<QueryTemplate> queryTemplates = this.queries.values().iterator();
 
@@ -222,11 +233,6 @@ public final class RequestTemplate implements Serializable {
 
     /* headers */
     if (!this.headers.isEmpty()) {
-      /*
-       * same as the query string, we only want to keep resolved values, so clear the header map on
-       * the resolved instance
-       */
-      resolved.headers(Collections.emptyMap());
       for (HeaderTemplate headerTemplate : this.headers.values()) {
         /* resolve the header */
         String header = headerTemplate.expand(variables);
@@ -843,6 +849,41 @@ public final class RequestTemplate implements Serializable {
     return this;
   }
 
+  /**
+   * Sets a Body that {@code writer} writes to the connection as the request is sent, instead of
+   * holding it in memory. Clients send it chunked when {@code contentLength} is not known.
+   *
+   * @param writer of the body.
+   * @param contentLength number of bytes written, {@code -1} if not known.
+   * @param replayable if {@code writer} can be called more than once. Requests with a body that
+   *        isn't replayable are not retried.
+   * @return a RequestTemplate for chaining.
+   */
+  @Experimental
+  public RequestTemplate body(Request.BodyWriter writer, long contentLength, boolean replayable) {
+    return body(writer, contentLength, replayable, null);
+  }
+
+  /**
+   * Sets a Body that {@code writer} writes, in {@code charset}, to the connection as the request is
+   * sent.
+   *
+   * @param writer of the body.
+   * @param contentLength number of bytes written, {@code -1} if not known.
+   * @param replayable if {@code writer} can be called more than once.
+   * @param charset of the written text, {@literal null} if binary.
+   * @return a RequestTemplate for chaining.
+   * @see #body(Request.BodyWriter, long, boolean)
+   */
+  @Experimental
+  public RequestTemplate body(Request.BodyWriter writer,
+                              long contentLength,
+                              boolean replayable,
+                              Charset charset) {
+    this.body(Request.Body.create(writer, contentLength, replayable, charset));
+    return this;
+  }
+
   /**
    * Set the Body for this request.
    *
@@ -858,8 +899,8 @@ public final class RequestTemplate implements Serializable {
     this.bodyTemplate = null;
 
     header(CONTENT_LENGTH, Collections.emptyList());
-    if (body.length() > 0) {
-      header(CONTENT_LENGTH, String.valueOf(body.length()));
+    if (body.contentLength() > 0) {
+      header(CONTENT_LENGTH, String.valueOf(body.contentLength()));
     }
 
     return this;
@@ -881,7 +922,7 @@ public final class RequestTemplate implements Serializable {
   /**
    * The Request Body.
    *
-   * @return the request body.
+   * @return the request body, {@literal null} when it is streamed.
    */
   public byte[] body() {
     return body.asBytes();
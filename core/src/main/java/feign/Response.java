@@ -15,6 +15,7 @@ package feign;
 
 import static feign.Util.*;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -110,6 +111,19 @@ public final class Response implements Closeable {
       return this;
     }
 
+    /**
+     * Uses {@code buffers} as the body, without copying them. The remaining bytes of each buffer
+     * are the content, and they must not be changed afterwards.
+     *
+     * @see Response#body
+     * @see ByteBufferBody
+     */
+    @Experimental
+    public Builder body(List<ByteBuffer> buffers) {
+      this.body = ByteBuffersBody.orNull(buffers);
+      return this;
+    }
+
     /**
      * @see Response#request
      */
@@ -235,6 +249,147 @@ public final class Response implements Closeable {
     Reader asReader(Charset charset) throws IOException;
   }
 
+  /**
+   * A body held in {@link ByteBuffer}s, which may be direct. Decoders that can read buffers should
+   * use {@link #asByteBuffers()} rather than copying them through {@link #asInputStream()}.
+   */
+  @Experimental
+  public interface ByteBufferBody extends Body {
+
+    /**
+     * Read-only views of the body, in order. Each call returns new views, so the body is
+     * {@link #isRepeatable() repeatable}.
+     */
+    List<ByteBuffer> asByteBuffers();
+  }
+
+  private static final class ByteBuffersBody implements ByteBufferBody {
+
+    private final List<ByteBuffer> buffers;
+    private final Integer length;
+
+    private ByteBuffersBody(List<ByteBuffer> buffers) {
+      this.buffers = buffers;
+      long total = 0;
+      for (ByteBuffer buffer : buffers) {
+        total += buffer.remaining();
+      }
+      this.length = total <= Integer.MAX_VALUE ? (int) total : null;
+    }
+
+    private static Body orNull(List<ByteBuffer> buffers) {
+      if (buffers == null) {
+        return null;
+      }
+      return new ByteBuffersBody(new ArrayList<>(buffers));
+    }
+
+    @Override
+    public Integer length() {
+      return length;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+      return true;
+    }
+
+    @Override
+    public List<ByteBuffer> asByteBuffers() {
+      List<ByteBuffer> views = new ArrayList<>(buffers.size());
+      for (ByteBuffer buffer : buffers) {
+        views.add(buffer.asReadOnlyBuffer());
+      }
+      return Collections.unmodifiableList(views);
+    }
+
+    @Override
+    public InputStream asInputStream() {
+      return new ByteBuffersInputStream(asByteBuffers());
+    }
+
+    @Override
+    public Reader asReader(Charset charset) {
+      checkNotNull(charset, "charset should not be null");
+      return new InputStreamReader(asInputStream(), charset);
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public String toString() {
+      try {
+        return decodeOrDefault(toByteArray(asInputStream()), UTF_8, "Binary data");
+      } catch (IOException e) {
+        return super.toString();
+      }
+    }
+  }
+
+  /**
+   * Reads buffers in order, leaving their contents where they are.
+   */
+  private static final class ByteBuffersInputStream extends InputStream {
+
+    private final Iterator<ByteBuffer> buffers;
+    private ByteBuffer current;
+
+    ByteBuffersInputStream(List<ByteBuffer> buffers) {
+      this.buffers = buffers.iterator();
+    }
+
+    /**
+     * The next buffer with bytes remaining, or {@code null} at the end of the body.
+     */
+    private ByteBuffer current() {
+      while (current == null || !current.hasRemaining()) {
+        if (!buffers.hasNext()) {
+          return null;
+        }
+        current = buffers.next();
+      }
+      return current;
+    }
+
+    @Override
+    public int read() {
+      ByteBuffer buffer = current();
+      return buffer == null ? -1 : buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      ByteBuffer buffer = current();
+      if (buffer == null) {
+        return -1;
+      }
+      int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      ByteBuffer buffer = current();
+      if (buffer == null || n <= 0) {
+        return 0;
+      }
+      int count = (int) Math.min(n, buffer.remaining());
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      ByteBuffer buffer = current();
+      return buffer == null ? 0 : buffer.remaining();
+    }
+  }
+
   private static final class InputStreamBody implements Response.Body {
 
     private final InputStream inputStream;
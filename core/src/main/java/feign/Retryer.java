@@ -53,21 +53,9 @@ public interface Retryer extends Cloneable {
     }
 
     public void continueOrPropagate(RetryableException e) {
-      if (attempt++ >= maxAttempts) {
-        throw e;
-      }
-
-      long interval;
-      if (e.retryAfter() != null) {
-        interval = e.retryAfter().getTime() - currentTimeMillis();
-        if (interval > maxPeriod) {
-          interval = maxPeriod;
-        }
-        if (interval < 0) {
-          return;
-        }
-      } else {
-        interval = nextMaxInterval();
+      final long interval = nextDelayMillis(e);
+      if (interval < 0) {
+        return;
       }
       try {
         Thread.sleep(interval);
@@ -78,6 +66,22 @@ public interface Retryer extends Cloneable {
       sleptForMillis += interval;
     }
 
+    /**
+     * Counts an attempt, and returns the time to wait before the next one, without sleeping.
+     * Negative when the {@link RetryableException#retryAfter() retry after} date already passed.
+     */
+    long nextDelayMillis(RetryableException e) {
+      if (attempt++ >= maxAttempts) {
+        throw e;
+      }
+
+      if (e.retryAfter() != null) {
+        final long interval = e.retryAfter().getTime() - currentTimeMillis();
+        return interval > maxPeriod ? maxPeriod : interval;
+      }
+      return nextMaxInterval();
+    }
+
     /**
      * Calculates the time interval to a retry attempt. <br>
      * The interval increases exponentially with each attempt, at a rate of nextInterval *= 1.5
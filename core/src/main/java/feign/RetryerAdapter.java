@@ -0,0 +1,69 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+/**
+ * Adapts a {@link Retryer} to {@link AsyncRetryer}, see {@link AsyncRetryer#from(Retryer)}.
+ */
+final class RetryerAdapter implements AsyncRetryer {
+
+  private final Retryer retryer;
+  private final boolean blocking;
+
+  RetryerAdapter(Retryer retryer) {
+    this.retryer = retryer;
+    this.blocking = isBlocking(retryer.getClass());
+  }
+
+  /**
+   * Whether the retryer sleeps, and must be called on {@link SharedExecutors#blocking()}.
+   */
+  boolean isBlocking() {
+    return blocking;
+  }
+
+  /**
+   * Any retryer but a {@link Retryer.Default} sleeps, as does a subclass of it that overrides
+   * {@code continueOrPropagate}. Other subclasses only tell time or compute delays differently.
+   */
+  private static boolean isBlocking(Class<?> type) {
+    if (!Retryer.Default.class.isAssignableFrom(type)) {
+      return true;
+    }
+    for (; type != Retryer.Default.class; type = type.getSuperclass()) {
+      try {
+        type.getDeclaredMethod("continueOrPropagate", RetryableException.class);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // not overridden here
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public long nextDelayMillis(RetryableException e) {
+    if (!isBlocking()) {
+      return ((Retryer.Default) retryer).nextDelayMillis(e);
+    }
+    retryer.continueOrPropagate(e);
+    // it already slept
+    return 0;
+  }
+
+  @Override
+  public AsyncRetryer clone() {
+    return new RetryerAdapter(retryer.clone());
+  }
+}
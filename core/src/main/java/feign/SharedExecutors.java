@@ -0,0 +1,64 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Daemon threads shared by Feign's own components, so that each feature doesn't start threads of
+ * its own. Meant for Feign modules rather than applications; neither executor may be shut down.
+ */
+@Experimental
+public final class SharedExecutors {
+
+  private SharedExecutors() {}
+
+  /**
+   * A single thread running delayed tasks, such as retries, hedges and batches. Tasks must only
+   * hand work on, never block.
+   */
+  public static ScheduledExecutorService scheduler() {
+    return Scheduler.EXECUTOR;
+  }
+
+  /**
+   * Threads for tasks that block, such as writing a request body or a retryer that sleeps. A thread
+   * is started for each task that finds no idle one.
+   */
+  public static Executor blocking() {
+    return Blocking.EXECUTOR;
+  }
+
+  private static ThreadFactory daemon(String name) {
+    return runnable -> {
+      final Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static final class Scheduler {
+
+    static final ScheduledExecutorService EXECUTOR =
+        Executors.newSingleThreadScheduledExecutor(daemon("feign-scheduler"));
+  }
+
+  private static final class Blocking {
+
+    static final Executor EXECUTOR = Executors.newCachedThreadPool(daemon("feign-blocking"));
+  }
+}
@@ -15,10 +15,7 @@ package feign;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Stream;
 import feign.InvocationHandlerFactory.MethodHandler;
 import feign.Request.Options;
 import feign.codec.Decoder;
@@ -40,6 +37,8 @@ final class SynchronousMethodHandler implements MethodHandler {
   private final Logger.Level logLevel;
   private final RequestTemplate.Factory buildTemplateFromArgs;
   private final Options options;
+  // index of the Options argument, or -1, so that invoke doesn't search argv
+  private final int optionsIndex;
   private final ExceptionPropagationPolicy propagationPolicy;
 
   // only one of decoder and asyncResponseHandler will be non-null
@@ -65,6 +64,7 @@ final class SynchronousMethodHandler implements MethodHandler {
     this.metadata = checkNotNull(metadata, "metadata for %s", target);
     this.buildTemplateFromArgs = checkNotNull(buildTemplateFromArgs, "metadata for %s", target);
     this.options = checkNotNull(options, "options for %s", target);
+    this.optionsIndex = optionsIndex(metadata);
     this.propagationPolicy = propagationPolicy;
 
     if (forceDecoding) {
@@ -80,6 +80,7 @@ final class SynchronousMethodHandler implements MethodHandler {
   }
 
   @Override
+  @SuppressWarnings("deprecation")
   public Object invoke(Object[] argv) throws Throwable {
     RequestTemplate template = buildTemplateFromArgs.create(argv);
     Options options = findOptions(argv);
@@ -89,6 +90,10 @@ final class SynchronousMethodHandler implements MethodHandler {
         return executeAndDecode(template, options);
       } catch (RetryableException e) {
         try {
+          if (!template.requestBody().isReplayable()) {
+            // the body may already be partly sent, and can't be written again
+            throw e;
+          }
           retryer.continueOrPropagate(e);
         } catch (RetryableException th) {
           Throwable cause = th.getCause();
@@ -118,10 +123,9 @@ final class SynchronousMethodHandler implements MethodHandler {
     try {
       response = client.execute(request, options);
       // ensure the request is set. TODO: remove in Feign 12
-      response = response.toBuilder()
-          .request(request)
-          .requestTemplate(template)
-          .build();
+      if (response.request() != request) {
+        response = response.toBuilder().request(request).build();
+      }
     } catch (IOException e) {
       if (logLevel != Logger.Level.NONE) {
         logger.logIOException(metadata.configKey(), logLevel, e, elapsedTime(start));
@@ -134,22 +138,8 @@ final class SynchronousMethodHandler implements MethodHandler {
     if (decoder != null)
       return decoder.decode(response, metadata.returnType());
 
-    CompletableFuture<Object> resultFuture = new CompletableFuture<>();
-    asyncResponseHandler.handleResponse(resultFuture, metadata.configKey(), response,
-        metadata.returnType(),
-        elapsedTime);
-
-    try {
-      if (!resultFuture.isDone())
-        throw new IllegalStateException("Response handling not done");
-
-      return resultFuture.join();
-    } catch (CompletionException e) {
-      Throwable cause = e.getCause();
-      if (cause != null)
-        throw cause;
-      throw e;
-    }
+    return asyncResponseHandler.handleResponse(metadata.configKey(), response,
+        metadata.returnType(), elapsedTime);
   }
 
   long elapsedTime(long start) {
@@ -163,15 +153,32 @@ final class SynchronousMethodHandler implements MethodHandler {
     return target.apply(template);
   }
 
+  /**
+   * Contracts that don't extend {@link Contract.BaseContract} may not record the index, so it's
+   * looked up in the parameter types of the method instead.
+   */
+  private static int optionsIndex(MethodMetadata metadata) {
+    if (metadata.optionsIndex() != null) {
+      return metadata.optionsIndex();
+    }
+    if (metadata.method() == null) {
+      return -1;
+    }
+    final Class<?>[] parameterTypes = metadata.method().getParameterTypes();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (Options.class.isAssignableFrom(parameterTypes[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   Options findOptions(Object[] argv) {
-    if (argv == null || argv.length == 0) {
+    if (optionsIndex < 0 || argv == null) {
       return this.options;
     }
-    return Stream.of(argv)
-        .filter(Options.class::isInstance)
-        .map(Options.class::cast)
-        .findFirst()
-        .orElse(this.options);
+    Object options = argv[optionsIndex];
+    return options != null ? (Options) options : this.options;
   }
 
   static class Factory {
@@ -31,6 +31,7 @@ import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -80,6 +81,8 @@ public class Util {
    */
   public static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
   private static final int BUF_SIZE = 0x800; // 2K chars (4K bytes)
+  /** Larger lengths, such as announced by a HEAD response, aren't trusted enough to allocate. */
+  private static final int MAX_PREALLOCATED_LENGTH = 1 << 20;
 
 
   /**
@@ -299,16 +302,78 @@ public class Util {
    * Adapted from {@code com.google.common.io.ByteStreams.toByteArray()}.
    */
   public static byte[] toByteArray(InputStream in) throws IOException {
+    return toByteArray(in, null);
+  }
+
+  /**
+   * Reads {@code in} to its end, and closes it. When {@code expectedLength} is known, for example
+   * from {@link Response.Body#length()}, the array is allocated at that size up front. Otherwise,
+   * bytes are read through a buffer of the {@link BufferPool#shared() shared pool} and copied to an
+   * array of their exact size when they fit in it.
+   *
+   * @param in to read.
+   * @param expectedLength number of bytes {@code in} holds, {@literal null} if not known.
+   */
+  @Experimental
+  public static byte[] toByteArray(InputStream in, Integer expectedLength) throws IOException {
     checkNotNull(in, "in");
     try {
-      ByteArrayOutputStream out = new ByteArrayOutputStream();
-      copy(in, out);
-      return out.toByteArray();
+      if (expectedLength != null && expectedLength >= 0
+          && expectedLength <= MAX_PREALLOCATED_LENGTH) {
+        byte[] data = new byte[expectedLength];
+        int count = readFully(in, data);
+        if (count < data.length) {
+          return Arrays.copyOf(data, count);
+        }
+        int next = in.read();
+        if (next == -1) {
+          return data;
+        }
+        // longer than expected
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + BUF_SIZE);
+        out.write(data);
+        out.write(next);
+        copy(in, out);
+        return out.toByteArray();
+      }
+
+      BufferPool pool = BufferPool.shared();
+      byte[] buffer = pool.acquire();
+      try {
+        int count = readFully(in, buffer);
+        if (count < buffer.length) {
+          return Arrays.copyOf(buffer, count);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(buffer.length * 2);
+        do {
+          out.write(buffer, 0, count);
+        } while ((count = in.read(buffer)) != -1);
+        return out.toByteArray();
+      } finally {
+        pool.release(buffer);
+      }
     } finally {
       ensureClosed(in);
     }
   }
 
+  /**
+   * Reads until {@code buffer} is full or {@code in} ends.
+   *
+   * @return the number of bytes read.
+   */
+  private static int readFully(InputStream in, byte[] buffer) throws IOException {
+    int count = 0;
+    while (count < buffer.length) {
+      int r = in.read(buffer, count, buffer.length - count);
+      if (r == -1) {
+        break;
+      }
+      count += r;
+    }
+    return count;
+  }
+
   /**
    * Adapted from {@code com.google.common.io.ByteStreams.copy()}.
    */
@@ -316,17 +381,22 @@ public class Util {
       throws IOException {
     checkNotNull(from, "from");
     checkNotNull(to, "to");
-    byte[] buf = new byte[BUF_SIZE];
-    long total = 0;
-    while (true) {
-      int r = from.read(buf);
-      if (r == -1) {
-        break;
+    BufferPool pool = BufferPool.shared();
+    byte[] buf = pool.acquire();
+    try {
+      long total = 0;
+      while (true) {
+        int r = from.read(buf);
+        if (r == -1) {
+          break;
+        }
+        to.write(buf, 0, r);
+        total += r;
       }
-      to.write(buf, 0, r);
-      total += r;
+      return total;
+    } finally {
+      pool.release(buf);
     }
-    return total;
   }
 
   public static String decodeOrDefault(byte[] data, Charset charset, String defaultValue) {
@@ -0,0 +1,250 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.cache;
+
+import static feign.cache.CacheHeaders.cacheControl;
+import static feign.cache.CacheHeaders.contains;
+import static feign.cache.CacheHeaders.date;
+import static feign.cache.CacheHeaders.first;
+import static feign.cache.CacheHeaders.seconds;
+import static feign.cache.CacheHeaders.values;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * An immutable copy of a response, along with what's needed to tell whether it's still fresh.
+ */
+final class CacheEntry {
+
+  /**
+   * Statuses that can be cached without explicit permission, from RFC 7231, section 6.1.
+   */
+  private static final Set<Integer> CACHEABLE_STATUSES =
+      new HashSet<>(Arrays.asList(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501));
+
+  /**
+   * Headers of a {@code 304} that don't describe the cached body.
+   */
+  private static final Set<String> NOT_UPDATED_HEADERS = caseInsensitiveSet(
+      "Content-Length", "Content-Encoding", "Transfer-Encoding", "Content-Range");
+
+  private final int status;
+  private final String reason;
+  private final Map<String, Collection<String>> headers;
+  private final byte[] body;
+  private final Map<String, Collection<String>> varyingRequestHeaders;
+  private final long responseMillis;
+  private final long freshnessMillis;
+  private final long initialAgeMillis;
+
+  private CacheEntry(int status, String reason, Map<String, Collection<String>> headers,
+      byte[] body, Map<String, Collection<String>> varyingRequestHeaders, long responseMillis) {
+    this.status = status;
+    this.reason = reason;
+    this.headers = headers;
+    this.body = body;
+    this.varyingRequestHeaders = varyingRequestHeaders;
+    this.responseMillis = responseMillis;
+    this.freshnessMillis = freshnessMillis(headers, responseMillis);
+    this.initialAgeMillis = initialAgeMillis(headers, responseMillis);
+  }
+
+  /**
+   * Whether {@code response} may be stored: a cacheable status, no {@code no-store} and either an
+   * explicit lifetime or a validator to revalidate it with.
+   */
+  static boolean isStorable(Response response) {
+    final Map<String, Collection<String>> headers = response.headers();
+    final Map<String, String> cacheControl = cacheControl(headers);
+    return CACHEABLE_STATUSES.contains(response.status())
+        && !cacheControl.containsKey("no-store")
+        && !values(headers, "Vary").contains("*")
+        && (cacheControl.containsKey("max-age")
+            || contains(headers, "Expires")
+            || contains(headers, "ETag")
+            || contains(headers, "Last-Modified"));
+  }
+
+  /**
+   * Copies {@code response}, reading its body into memory and closing it.
+   */
+  static CacheEntry of(Request request, Response response, long responseMillis)
+      throws IOException {
+    byte[] body = null;
+    try {
+      if (response.body() != null) {
+        body = Util.toByteArray(response.body().asInputStream(), response.body().length());
+      }
+    } finally {
+      Util.ensureClosed(response.body());
+    }
+    final Map<String, Collection<String>> varyingRequestHeaders = new LinkedHashMap<>();
+    for (String vary : values(response.headers(), "Vary")) {
+      for (String name : vary.split(",")) {
+        if (!name.trim().isEmpty()) {
+          varyingRequestHeaders.put(name.trim(), values(request.headers(), name.trim()));
+        }
+      }
+    }
+    return new CacheEntry(response.status(), response.reason(), copyOf(response.headers()), body,
+        varyingRequestHeaders, responseMillis);
+  }
+
+  /**
+   * This entry, updated with the headers of the {@code 304} received when revalidating it.
+   */
+  CacheEntry revalidated(Response notModified, long responseMillis) {
+    final Map<String, Collection<String>> updated = copyOf(headers);
+    for (Map.Entry<String, Collection<String>> header : notModified.headers().entrySet()) {
+      if (!NOT_UPDATED_HEADERS.contains(header.getKey())) {
+        updated.put(header.getKey(), header.getValue());
+      }
+    }
+    return new CacheEntry(status, reason, updated, body, varyingRequestHeaders, responseMillis);
+  }
+
+  /**
+   * Whether {@code request} has the same values as the stored request for the headers this entry
+   * varies on.
+   */
+  boolean matches(Request request) {
+    for (Map.Entry<String, Collection<String>> vary : varyingRequestHeaders.entrySet()) {
+      if (!new ArrayList<>(values(request.headers(), vary.getKey()))
+          .equals(new ArrayList<>(vary.getValue()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether this entry can answer {@code request} without asking the server, given the request's
+   * own {@code Cache-Control} directives.
+   */
+  boolean isFresh(Map<String, String> requestCacheControl, long nowMillis) {
+    if (requestCacheControl.containsKey("no-cache")) {
+      return false;
+    }
+    final long ageMillis = ageMillis(nowMillis);
+    final long maxAge = seconds(requestCacheControl, "max-age");
+    if (maxAge != -1 && ageMillis > maxAge * 1000) {
+      return false;
+    }
+    return ageMillis < freshnessMillis;
+  }
+
+  boolean hasValidators() {
+    return contains(headers, "ETag") || contains(headers, "Last-Modified");
+  }
+
+  /**
+   * {@code request}, asking the server to answer {@code 304} if this entry is still valid.
+   */
+  Request conditional(Request request) {
+    final Map<String, Collection<String>> conditionalHeaders = copyOf(request.headers());
+    final Collection<String> etags = values(headers, "ETag");
+    if (!etags.isEmpty()) {
+      conditionalHeaders.put("If-None-Match", etags);
+    }
+    final String lastModified = first(headers, "Last-Modified");
+    if (lastModified != null) {
+      conditionalHeaders.put("If-Modified-Since", Collections.singletonList(lastModified));
+    }
+    return Request.create(request.httpMethod(), request.url(), conditionalHeaders,
+        request.requestBody(), request.requestTemplate());
+  }
+
+  /**
+   * A response answering {@code request} with the content of this entry.
+   */
+  Response toResponse(Request request, long nowMillis) {
+    final Map<String, Collection<String>> responseHeaders = copyOf(headers);
+    responseHeaders.put("Age",
+        Collections.singletonList(String.valueOf(ageMillis(nowMillis) / 1000)));
+    return Response.builder()
+        .status(status)
+        .reason(reason)
+        .headers(responseHeaders)
+        .body(body)
+        .request(request)
+        .build();
+  }
+
+  private long ageMillis(long nowMillis) {
+    return initialAgeMillis + Math.max(0, nowMillis - responseMillis);
+  }
+
+  /**
+   * How long the response stays fresh, from RFC 7234, section 4.2.1. Responses without explicit
+   * lifetime are always revalidated, rather than given a heuristic one.
+   */
+  private static long freshnessMillis(Map<String, Collection<String>> headers,
+                                      long responseMillis) {
+    final Map<String, String> cacheControl = cacheControl(headers);
+    if (cacheControl.containsKey("no-cache")) {
+      return 0;
+    }
+    final long maxAge = seconds(cacheControl, "max-age");
+    if (maxAge != -1) {
+      return maxAge * 1000;
+    }
+    final long expires = date(first(headers, "Expires"));
+    if (expires == -1) {
+      return 0;
+    }
+    final long date = date(first(headers, "Date"));
+    return Math.max(0, expires - (date != -1 ? date : responseMillis));
+  }
+
+  /**
+   * The age of the response when received, from RFC 7234, section 4.2.3.
+   */
+  private static long initialAgeMillis(Map<String, Collection<String>> headers,
+                                       long responseMillis) {
+    final long date = date(first(headers, "Date"));
+    final long apparentAge = date != -1 ? Math.max(0, responseMillis - date) : 0;
+    long age = 0;
+    try {
+      final String value = first(headers, "Age");
+      age = value != null ? Math.max(0, Long.parseLong(value.trim()) * 1000) : 0;
+    } catch (NumberFormatException e) {
+      // an invalid Age is ignored
+    }
+    return Math.max(apparentAge, age);
+  }
+
+  private static Map<String, Collection<String>> copyOf(Map<String, Collection<String>> headers) {
+    final Map<String, Collection<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    copy.putAll(headers);
+    return copy;
+  }
+
+  private static Set<String> caseInsensitiveSet(String... values) {
+    final Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    set.addAll(Arrays.asList(values));
+    return set;
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.cache;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the caching related headers of requests and responses.
+ */
+final class CacheHeaders {
+
+  private CacheHeaders() {}
+
+  /**
+   * Values of header {@code name}, whatever the case of the keys of {@code headers}.
+   */
+  static Collection<String> values(Map<String, Collection<String>> headers, String name) {
+    for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey()) && header.getValue() != null) {
+        return header.getValue();
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  static String first(Map<String, Collection<String>> headers, String name) {
+    for (String value : values(headers, name)) {
+      return value;
+    }
+    return null;
+  }
+
+  static boolean contains(Map<String, Collection<String>> headers, String name) {
+    return !values(headers, name).isEmpty();
+  }
+
+  /**
+   * The {@code Cache-Control} directives, keyed by lower case name. Directives without argument map
+   * to an empty string.
+   */
+  static Map<String, String> cacheControl(Map<String, Collection<String>> headers) {
+    final Map<String, String> directives = new LinkedHashMap<>();
+    for (String value : values(headers, "Cache-Control")) {
+      int start = 0;
+      boolean quoted = false;
+      for (int i = 0; i <= value.length(); i++) {
+        if (i < value.length() && value.charAt(i) == '"') {
+          quoted = !quoted;
+        } else if (i == value.length() || (value.charAt(i) == ',' && !quoted)) {
+          directive(value.substring(start, i), directives);
+          start = i + 1;
+        }
+      }
+    }
+    return directives;
+  }
+
+  private static void directive(String directive, Map<String, String> directives) {
+    final int equals = directive.indexOf('=');
+    final String name = (equals == -1 ? directive : directive.substring(0, equals)).trim();
+    if (name.isEmpty()) {
+      return;
+    }
+    String argument = equals == -1 ? "" : directive.substring(equals + 1).trim();
+    if (argument.length() > 1 && argument.startsWith("\"") && argument.endsWith("\"")) {
+      argument = argument.substring(1, argument.length() - 1);
+    }
+    directives.putIfAbsent(name.toLowerCase(Locale.ROOT), argument);
+  }
+
+  /**
+   * The number of seconds of a directive such as {@code max-age}, {@code -1} when absent or
+   * invalid.
+   */
+  static long seconds(Map<String, String> directives, String name) {
+    final String argument = directives.get(name);
+    if (argument == null) {
+      return -1;
+    }
+    try {
+      return Math.max(0, Long.parseLong(argument));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * An http date in epoch milliseconds, {@code -1} when absent or invalid.
+   */
+  static long date(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+          .toInstant()
+          .toEpochMilli();
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+}
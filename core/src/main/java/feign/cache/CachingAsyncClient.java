@@ -0,0 +1,68 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.cache;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import feign.cache.ResponseCache.Exchange;
+
+/**
+ * The {@link AsyncClient} of {@link HttpCacheCapability}. Answers from the cache complete
+ * immediately, on the calling thread.
+ */
+final class CachingAsyncClient<C> implements AsyncClient<C> {
+
+  private final AsyncClient<C> delegate;
+  private final ResponseCache cache;
+
+  CachingAsyncClient(AsyncClient<C> delegate, ResponseCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public CompletableFuture<Response> execute(Request request,
+                                             Options options,
+                                             Optional<C> requestContext) {
+    final Exchange exchange = cache.exchange(request);
+    if (exchange.cached() != null) {
+      return CompletableFuture.completedFuture(exchange.cached());
+    }
+    final CompletableFuture<Response> result = new CompletableFuture<>();
+    final CompletableFuture<Response> upstream =
+        delegate.execute(exchange.request(), options, requestContext);
+    upstream.whenComplete((response, throwable) -> {
+      if (throwable != null) {
+        result.completeExceptionally(throwable);
+        return;
+      }
+      try {
+        result.complete(exchange.complete(response));
+      } catch (IOException | RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    });
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        upstream.cancel(true);
+      }
+    });
+    return result;
+  }
+}
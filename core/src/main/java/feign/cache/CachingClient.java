@@ -0,0 +1,44 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.cache;
+
+import java.io.IOException;
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import feign.cache.ResponseCache.Exchange;
+
+/**
+ * The {@link Client} of {@link HttpCacheCapability}.
+ */
+final class CachingClient implements Client {
+
+  private final Client delegate;
+  private final ResponseCache cache;
+
+  CachingClient(Client delegate, ResponseCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public Response execute(Request request, Options options) throws IOException {
+    final Exchange exchange = cache.exchange(request);
+    if (exchange.cached() != null) {
+      return exchange.cached();
+    }
+    return exchange.complete(delegate.execute(exchange.request(), options));
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.cache;
+
+import java.time.Clock;
+import feign.AsyncClient;
+import feign.Capability;
+import feign.Client;
+import feign.Experimental;
+
+/**
+ * Caches responses in memory, following their {@code Cache-Control}, {@code Expires}, {@code ETag}
+ * and {@code Last-Modified} headers. Fresh responses are answered without a request; stale ones are
+ * revalidated with {@code If-None-Match} or {@code If-Modified-Since}, and a {@code 304} is turned
+ * back into the cached response.
+ *
+ * <pre>
+ * HttpCacheCapability cache = new HttpCacheCapability();
+ * GitHub github = Feign.builder()
+ *     .addCapability(cache)
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ *
+ * This is a private cache: it stores responses to {@code GET} requests, including authorized ones,
+ * by url, and honors {@code Vary}. Successful {@code POST}, {@code PUT}, {@code PATCH} and
+ * {@code DELETE} requests evict the entry of their url. Responses without explicit lifetime are
+ * stored only if they have a validator, and revalidated on each use. Once {@link #maximumSize()}
+ * entries are stored, the least recently used is evicted. Bodies are read into memory when stored.
+ *
+ * Works with both {@link feign.Feign} and {@link feign.AsyncFeign}; share an instance between
+ * clients to share the cache.
+ */
+@Experimental
+public final class HttpCacheCapability implements Capability {
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private final ResponseCache cache;
+
+  public HttpCacheCapability() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param maximumSize number of responses to keep.
+   */
+  public HttpCacheCapability(int maximumSize) {
+    this(maximumSize, Clock.systemUTC());
+  }
+
+  HttpCacheCapability(int maximumSize, Clock clock) {
+    this.cache = new ResponseCache(maximumSize, clock);
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return new CachingClient(client, cache);
+  }
+
+  @Override
+  public <C> AsyncClient<C> enrichAsync(AsyncClient<C> client) {
+    return new CachingAsyncClient<>(client, cache);
+  }
+
+  /**
+   * Number of calls answered from the cache, without a request.
+   */
+  public long hitCount() {
+    return cache.hitCount();
+  }
+
+  /**
+   * Number of cacheable calls without a usable entry, sent to the server.
+   */
+  public long missCount() {
+    return cache.missCount();
+  }
+
+  /**
+   * Number of conditional requests sent to check whether a stale entry is still valid.
+   */
+  public long revalidationCount() {
+    return cache.revalidationCount();
+  }
+
+  /**
+   * Number of entries evicted to stay within {@link #maximumSize()}.
+   */
+  public long evictionCount() {
+    return cache.evictionCount();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public int maximumSize() {
+    return cache.maximumSize();
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  @Override
+  public String toString() {
+    return cache.toString();
+  }
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.cache;
+
+import static feign.cache.CacheHeaders.cacheControl;
+import static feign.cache.CacheHeaders.contains;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.Util;
+
+/**
+ * The in-memory store of {@link HttpCacheCapability}: {@code GET} responses by url, evicting the
+ * least recently used once full.
+ */
+final class ResponseCache {
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final Map<String, CacheEntry> entries;
+  private final int maximumSize;
+  private final Clock clock;
+
+  ResponseCache(int maximumSize, Clock clock) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+    }
+    this.maximumSize = maximumSize;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+        if (size() <= ResponseCache.this.maximumSize) {
+          return false;
+        }
+        evictions.increment();
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Looks {@code request} up, telling whether it can be answered from the cache, must be
+   * revalidated, or sent as is.
+   */
+  Exchange exchange(Request request) {
+    if (request.httpMethod() != HttpMethod.GET) {
+      return new Exchange(request, null, null, false);
+    }
+    final Map<String, String> cacheControl = cacheControl(request.headers());
+    if (cacheControl.containsKey("no-store") || isConditional(request)) {
+      // the caller handles validation itself
+      return new Exchange(request, null, null, false);
+    }
+
+    final long now = clock.millis();
+    CacheEntry entry = get(request.url());
+    if (entry != null && !entry.matches(request)) {
+      entry = null;
+    }
+    if (entry != null && entry.isFresh(cacheControl, now)) {
+      hits.increment();
+      return new Exchange(request, null, entry.toResponse(request, now), true);
+    }
+    if (entry != null && entry.hasValidators()) {
+      revalidations.increment();
+      return new Exchange(request, entry, null, true);
+    }
+    misses.increment();
+    return new Exchange(request, null, null, true);
+  }
+
+  private static boolean isConditional(Request request) {
+    return contains(request.headers(), "If-None-Match")
+        || contains(request.headers(), "If-Modified-Since")
+        || contains(request.headers(), "If-Match")
+        || contains(request.headers(), "If-Unmodified-Since")
+        || contains(request.headers(), "If-Range");
+  }
+
+  private synchronized CacheEntry get(String url) {
+    return entries.get(url);
+  }
+
+  private synchronized void put(String url, CacheEntry entry) {
+    entries.put(url, entry);
+  }
+
+  private synchronized void remove(String url) {
+    entries.remove(url);
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  int maximumSize() {
+    return maximumSize;
+  }
+
+  long hitCount() {
+    return hits.sum();
+  }
+
+  long missCount() {
+    return misses.sum();
+  }
+
+  long revalidationCount() {
+    return revalidations.sum();
+  }
+
+  long evictionCount() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "ResponseCache{size=" + size() + ", maximumSize=" + maximumSize
+        + ", hits=" + hitCount() + ", misses=" + missCount()
+        + ", revalidations=" + revalidationCount() + ", evictions=" + evictionCount() + "}";
+  }
+
+  /**
+   * A call going through the cache.
+   */
+  final class Exchange {
+
+    private final Request request;
+    private final CacheEntry revalidating;
+    private final Response cached;
+    private final boolean cacheable;
+
+    private Exchange(Request request, CacheEntry revalidating, Response cached,
+        boolean cacheable) {
+      this.request = request;
+      this.revalidating = revalidating;
+      this.cached = cached;
+      this.cacheable = cacheable;
+    }
+
+    /**
+     * The answer from the cache, {@code null} if a request must be sent.
+     */
+    Response cached() {
+      return cached;
+    }
+
+    /**
+     * The request to send, conditional when revalidating.
+     */
+    Request request() {
+      return revalidating != null ? revalidating.conditional(request) : request;
+    }
+
+    /**
+     * Updates the cache with the {@code response} received, and returns the answer to the call.
+     */
+    Response complete(Response response) throws IOException {
+      if (!cacheable) {
+        if (isUnsafe(request.httpMethod()) && response.status() < 400) {
+          // the resource changed, RFC 7234, section 4.4
+          remove(request.url());
+        }
+        return response;
+      }
+
+      final long now = clock.millis();
+      if (revalidating != null && response.status() == 304) {
+        Util.ensureClosed(response.body());
+        final CacheEntry revalidated = revalidating.revalidated(response, now);
+        put(request.url(), revalidated);
+        return revalidated.toResponse(request, now);
+      }
+      if (!CacheEntry.isStorable(response)) {
+        if (revalidating != null && response.status() < 500) {
+          remove(request.url());
+        }
+        return response;
+      }
+      final CacheEntry entry = CacheEntry.of(request, response, now);
+      put(request.url(), entry);
+      return entry.toResponse(request, now);
+    }
+  }
+
+  private static boolean isUnsafe(HttpMethod method) {
+    return method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.DELETE
+        || method == HttpMethod.PATCH;
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import feign.Experimental;
+import feign.RequestTemplate;
+
+/**
+ * An {@link Encoder} that can also serialize straight to the connection as the request is sent,
+ * instead of into a byte array held by the template. For example: <br>
+ *
+ * <pre>
+ * public class GsonEncoder implements StreamingEncoder {
+ *   private final Gson gson;
+ *
+ *   &#064;Override
+ *   public void encode(Object object, Type bodyType, OutputStream output) throws IOException {
+ *     Writer writer = new OutputStreamWriter(output, UTF_8);
+ *     gson.toJson(object, bodyType, writer);
+ *     writer.flush();
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>
+ * Used as a plain {@link Encoder}, the body is still held by the template, so
+ * {@link RequestTemplate#body()} and the {@code Content-Length} header stay available to
+ * interceptors, metrics and clients. Streaming is opted into with
+ * {@link #streamed(StreamingEncoder)}: <br>
+ *
+ * <pre>
+ * api = Feign.builder()
+ *     .encoder(StreamingEncoder.streamed(new GsonEncoder()))
+ *     .target(MyApi.class, "http://api");
+ * </pre>
+ *
+ * <p>
+ * Streamed bodies are written each time the request is sent, so serialization errors surface while
+ * the request is executed. Implementations should throw {@link EncodeException} for those, leaving
+ * {@link IOException} to failures of {@code output}.
+ * </p>
+ */
+@Experimental
+public interface StreamingEncoder extends Encoder {
+
+  /**
+   * Writes {@code object} to {@code output}, in the request charset.
+   *
+   * @param object what to encode as the request body.
+   * @param bodyType the type the object should be encoded as. {@link #MAP_STRING_WILDCARD}
+   *        indicates form encoding.
+   * @param output of the connection. Closing it is left to the client.
+   * @throws EncodeException when {@code object} can't be serialized.
+   * @throws IOException when writing to {@code output} failed.
+   */
+  void encode(Object object, Type bodyType, OutputStream output) throws IOException;
+
+  /**
+   * Sets the bytes written by {@link #encode(Object, Type, OutputStream)} as the body.
+   */
+  @Override
+  default void encode(Object object, Type bodyType, RequestTemplate template) {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try {
+      encode(object, bodyType, output);
+    } catch (IOException e) {
+      throw new EncodeException(e.getMessage(), e);
+    }
+    template.body(output.toByteArray(), template.requestCharset());
+  }
+
+  /**
+   * Sets a replayable body of unknown length, written by
+   * {@link #encode(Object, Type, OutputStream)} each time the request is sent. Clients send it
+   * chunked, and {@link RequestTemplate#body()} returns {@literal null}.
+   */
+  default void encodeStreamed(Object object, Type bodyType, RequestTemplate template) {
+    template.body(output -> encode(object, bodyType, output), -1, true,
+        template.requestCharset());
+  }
+
+  /**
+   * Returns an {@link Encoder} that streams the bodies of {@code encoder}.
+   *
+   * @see #encodeStreamed(Object, Type, RequestTemplate)
+   */
+  static Encoder streamed(StreamingEncoder encoder) {
+    return encoder::encodeStreamed;
+  }
+}
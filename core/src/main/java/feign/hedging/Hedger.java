@@ -0,0 +1,246 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hedging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.SharedExecutors;
+import feign.Util;
+
+/**
+ * The state of {@link HedgingCapability}, shared by its clients: latencies by method, and the
+ * budget of hedged requests.
+ */
+final class Hedger {
+
+  /**
+   * Hedges the budget can save up, so that a burst of slow calls can still be hedged.
+   */
+  static final long MAXIMUM_SAVED_HEDGES = 10;
+  private static final long TOKENS_PER_HEDGE = 1000;
+
+  private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+  private final AtomicLong budget = new AtomicLong();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder wins = new LongAdder();
+  private final double percentile;
+  private final long tokensPerCall;
+
+  Hedger(double percentile, double budgetRatio) {
+    this.percentile = percentile;
+    this.tokensPerCall = Math.round(budgetRatio * TOKENS_PER_HEDGE);
+  }
+
+  /**
+   * Starts tracking a call of {@code request}, {@code null} if it shouldn't be hedged: only
+   * {@code GET} and {@code HEAD} requests of a known method are.
+   */
+  Call start(Request request) {
+    if (request.httpMethod() != HttpMethod.GET && request.httpMethod() != HttpMethod.HEAD) {
+      return null;
+    }
+    final RequestTemplate template = request.requestTemplate();
+    if (template == null || template.methodMetadata() == null) {
+      return null;
+    }
+    final LatencyWindow window = latencies.computeIfAbsent(
+        template.methodMetadata().configKey(), key -> new LatencyWindow(percentile));
+    deposit();
+    return new Call(window);
+  }
+
+  private void deposit() {
+    final long maximum = MAXIMUM_SAVED_HEDGES * TOKENS_PER_HEDGE;
+    budget.getAndUpdate(tokens -> Math.min(maximum, tokens + tokensPerCall));
+  }
+
+  private boolean withdraw() {
+    return budget.getAndUpdate(
+        tokens -> tokens >= TOKENS_PER_HEDGE ? tokens - TOKENS_PER_HEDGE
+            : tokens) >= TOKENS_PER_HEDGE;
+  }
+
+  long hedgeCount() {
+    return hedges.sum();
+  }
+
+  long winCount() {
+    return wins.sum();
+  }
+
+  /**
+   * The hedging delay of a method, {@code -1} while it has too few samples.
+   */
+  long delayNanos(String configKey) {
+    final LatencyWindow window = latencies.get(configKey);
+    return window != null ? window.percentileNanos() : -1;
+  }
+
+  /**
+   * A call, whose first attempt may be followed by a hedge.
+   */
+  final class Call {
+
+    private final LatencyWindow window;
+    private final long delayNanos;
+    private final long startNanos = System.nanoTime();
+
+    private Call(LatencyWindow window) {
+      this.window = window;
+      this.delayNanos = window.percentileNanos();
+    }
+
+    /**
+     * Whether the method has enough samples to know when to hedge.
+     */
+    boolean isHedgeable() {
+      return delayNanos >= 0;
+    }
+
+    void succeeded() {
+      window.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Sends a first attempt, then a hedge if it didn't answer within the delay and the budget
+     * allows. Completes with the first response; the other one is cancelled if {@code cancelLoser},
+     * and closed if it arrives anyway.
+     *
+     * <p>
+     * Each attempt's own latency is recorded as it answers, the loser's too, so that hedging
+     * doesn't hide the slow calls it was sent for. A first attempt cancelled by a winning hedge
+     * counts as long as it ran until then, a lower bound of what it would have taken.
+     */
+    CompletableFuture<Response> race(Supplier<CompletableFuture<Response>> attempt,
+                                     boolean cancelLoser) {
+      if (!isHedgeable()) {
+        final CompletableFuture<Response> only = attempt.get();
+        only.whenComplete((response, throwable) -> {
+          if (throwable == null) {
+            succeeded();
+          }
+        });
+        return only;
+      }
+      return new Race(attempt, cancelLoser).start();
+    }
+
+    private final class Race {
+
+      private final CompletableFuture<Response> result = new CompletableFuture<>();
+      private final AtomicInteger pending = new AtomicInteger(1);
+      private final AtomicBoolean decided = new AtomicBoolean();
+      private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+      private final Supplier<CompletableFuture<Response>> attempt;
+      private final boolean cancelLoser;
+      private volatile CompletableFuture<Response> first;
+      private volatile CompletableFuture<Response> hedge;
+      private volatile long hedgeStartNanos;
+
+      Race(Supplier<CompletableFuture<Response>> attempt, boolean cancelLoser) {
+        this.attempt = attempt;
+        this.cancelLoser = cancelLoser;
+      }
+
+      CompletableFuture<Response> start() {
+        first = attempt.get();
+        first.whenComplete((response, throwable) -> settle(response, throwable, false));
+        final ScheduledFuture<?> timer =
+            SharedExecutors.scheduler().schedule(this::hedge, delayNanos, TimeUnit.NANOSECONDS);
+        result.whenComplete((response, throwable) -> {
+          timer.cancel(false);
+          if (result.isCancelled()) {
+            cancel(first);
+            cancel(hedge);
+          }
+        });
+        return result;
+      }
+
+      private void hedge() {
+        if (result.isDone() || pending.getAndUpdate(n -> n > 0 ? n + 1 : n) == 0) {
+          return;
+        }
+        if (!withdraw()) {
+          settle(null, null, true);
+          return;
+        }
+        hedges.increment();
+        hedgeStartNanos = System.nanoTime();
+        try {
+          hedge = attempt.get();
+        } catch (RuntimeException e) {
+          settle(null, e, true);
+          return;
+        }
+        hedge.whenComplete((response, throwable) -> settle(response, throwable, true));
+        if (result.isCancelled()) {
+          cancel(hedge);
+        }
+      }
+
+      /**
+       * Settles an attempt; a {@code null} response and throwable withdraw a hedge never sent.
+       */
+      private void settle(Response response, Throwable throwable, boolean isHedge) {
+        if (throwable != null) {
+          firstFailure.compareAndSet(null, throwable);
+        }
+        final boolean last = pending.decrementAndGet() == 0;
+        if (response != null) {
+          // recorded and counted before completing, so that the caller sees it
+          window.record(System.nanoTime() - (isHedge ? hedgeStartNanos : startNanos));
+          if (decided.compareAndSet(false, true)) {
+            if (isHedge) {
+              wins.increment();
+            }
+            if (cancelLoser && isHedge) {
+              if (first.cancel(true)) {
+                window.record(System.nanoTime() - startNanos);
+              }
+            } else if (cancelLoser) {
+              cancel(hedge);
+            }
+            if (!result.complete(response)) {
+              Util.ensureClosed(response);
+            }
+          } else {
+            Util.ensureClosed(response);
+          }
+        } else if (last && !decided.get() && firstFailure.get() != null) {
+          result.completeExceptionally(firstFailure.get());
+        }
+      }
+
+      private void cancel(CompletableFuture<Response> attempt) {
+        if (attempt != null) {
+          attempt.cancel(true);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hedging;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * The {@link AsyncClient} of {@link HedgingCapability}. The losing attempt is cancelled, and its
+ * response closed if it arrives anyway.
+ */
+final class HedgingAsyncClient<C> implements AsyncClient<C> {
+
+  private final AsyncClient<C> delegate;
+  private final Hedger hedger;
+
+  HedgingAsyncClient(AsyncClient<C> delegate, Hedger hedger) {
+    this.delegate = delegate;
+    this.hedger = hedger;
+  }
+
+  @Override
+  public CompletableFuture<Response> execute(Request request,
+                                             Options options,
+                                             Optional<C> requestContext) {
+    final Hedger.Call call = hedger.start(request);
+    if (call == null) {
+      return delegate.execute(request, options, requestContext);
+    }
+    return call.race(() -> delegate.execute(request, options, requestContext), true);
+  }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hedging;
+
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import feign.AsyncClient;
+import feign.Capability;
+import feign.Client;
+import feign.Experimental;
+import feign.SharedExecutors;
+
+/**
+ * Sends a second copy of a {@code GET} or {@code HEAD} request when the first one takes longer than
+ * usual for its method, and answers with whichever responds first. This trims the latency added by
+ * a single slow server, at the cost of some extra requests.
+ *
+ * <pre>
+ * GitHub github = Feign.builder()
+ *     .addCapability(new HedgingCapability())
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ *
+ * The delay before hedging is a percentile, by default the 95th, of the latest latencies of the
+ * method, tracked by {@link feign.MethodMetadata#configKey() config key}. A method isn't hedged
+ * until 20 of its calls were measured. Hedges are capped by a budget, by default 5% of the calls,
+ * which can save up for 10 hedges.
+ *
+ * Only use it for methods whose requests are safe to send twice. With {@link AsyncClient}, the
+ * losing request is cancelled; with {@link Client}, hedged calls run on an executor and the losing
+ * response is closed when it arrives.
+ */
+@Experimental
+public final class HedgingCapability implements Capability {
+
+  public static final double DEFAULT_PERCENTILE = 0.95;
+  public static final double DEFAULT_BUDGET = 0.05;
+
+  private final Hedger hedger;
+  private final Executor executor;
+
+  public HedgingCapability() {
+    this(DEFAULT_PERCENTILE, DEFAULT_BUDGET);
+  }
+
+  /**
+   * @param percentile of the latencies of a method after which to hedge, such as {@code 0.95}.
+   * @param budget hedges allowed per call, such as {@code 0.05} for at most 5% extra requests.
+   */
+  public HedgingCapability(double percentile, double budget) {
+    this(percentile, budget, SharedExecutors.blocking());
+  }
+
+  /**
+   * @param executor runs the attempts of hedged {@link Client} calls.
+   */
+  public HedgingCapability(double percentile, double budget, Executor executor) {
+    checkArgument(percentile > 0 && percentile < 1, "percentile must be between 0 and 1: %s",
+        percentile);
+    checkArgument(budget > 0 && budget <= 1, "budget must be between 0 and 1: %s", budget);
+    this.hedger = new Hedger(percentile, budget);
+    this.executor = checkNotNull(executor, "executor");
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return new HedgingClient(client, hedger, executor);
+  }
+
+  @Override
+  public <C> AsyncClient<C> enrichAsync(AsyncClient<C> client) {
+    return new HedgingAsyncClient<>(client, hedger);
+  }
+
+  /**
+   * Number of hedged requests sent.
+   */
+  public long hedgeCount() {
+    return hedger.hedgeCount();
+  }
+
+  /**
+   * Number of hedged requests that answered before the request they hedged.
+   */
+  public long hedgeWinCount() {
+    return hedger.winCount();
+  }
+
+  /**
+   * Current delay before hedging calls of the method with {@code configKey}, in milliseconds,
+   * {@code -1} while it has too few samples.
+   */
+  public long hedgeDelayMillis(String configKey) {
+    final long delayNanos = hedger.delayNanos(configKey);
+    return delayNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(delayNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "HedgingCapability{hedges=" + hedgeCount() + ", wins=" + hedgeWinCount() + "}";
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hedging;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * The {@link Client} of {@link HedgingCapability}. Once a method can be hedged, its attempts run on
+ * the executor while the calling thread waits for the first response. The losing attempt can't be
+ * interrupted, its response is closed when it arrives.
+ */
+final class HedgingClient implements Client {
+
+  private final Client delegate;
+  private final Hedger hedger;
+  private final Executor executor;
+
+  HedgingClient(Client delegate, Hedger hedger, Executor executor) {
+    this.delegate = delegate;
+    this.hedger = hedger;
+    this.executor = executor;
+  }
+
+  @Override
+  public Response execute(Request request, Options options) throws IOException {
+    final Hedger.Call call = hedger.start(request);
+    if (call == null) {
+      return delegate.execute(request, options);
+    }
+    if (!call.isHedgeable()) {
+      final Response response = delegate.execute(request, options);
+      call.succeeded();
+      return response;
+    }
+
+    final CompletableFuture<Response> result = call.race(() -> {
+      final CompletableFuture<Response> attempt = new CompletableFuture<>();
+      executor.execute(() -> {
+        try {
+          attempt.complete(delegate.execute(request, options));
+        } catch (Throwable e) {
+          attempt.completeExceptionally(e);
+        }
+      });
+      return attempt;
+    }, false);
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.cancel(true);
+      throw new InterruptedIOException("interrupted waiting for a hedged request");
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw new IOException(cause.getMessage(), cause);
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw (Error) cause;
+    }
+  }
+}
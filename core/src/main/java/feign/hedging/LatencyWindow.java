@@ -0,0 +1,62 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The latest latencies of a method, and a percentile of them. The percentile is recomputed every
+ * {@value #RECOMPUTE_EVERY} samples rather than on each call.
+ */
+final class LatencyWindow {
+
+  static final int SIZE = 512;
+  static final int MINIMUM_SAMPLES = 20;
+  static final int RECOMPUTE_EVERY = 32;
+
+  private final long[] samples = new long[SIZE];
+  private final AtomicLong recorded = new AtomicLong();
+  private final double percentile;
+  private volatile long percentileNanos = -1;
+
+  LatencyWindow(double percentile) {
+    this.percentile = percentile;
+  }
+
+  void record(long nanos) {
+    final long count = recorded.getAndIncrement();
+    // racing writers may lose a sample, which doesn't matter for a percentile
+    samples[(int) (count % SIZE)] = nanos;
+    if (count + 1 >= MINIMUM_SAMPLES
+        && (count + 1 == MINIMUM_SAMPLES || (count + 1) % RECOMPUTE_EVERY == 0)) {
+      recompute(Math.min(count + 1, SIZE));
+    }
+  }
+
+  /**
+   * The percentile of the recorded latencies, {@code -1} until {@value #MINIMUM_SAMPLES} were
+   * recorded.
+   */
+  long percentileNanos() {
+    return percentileNanos;
+  }
+
+  private void recompute(long count) {
+    final long[] sorted = Arrays.copyOf(samples, (int) count);
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percentile * count) - 1;
+    percentileNanos = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import static feign.Util.checkArgument;
+import feign.Experimental;
+
+/**
+ * Additive increase, multiplicative decrease: the limit grows by one after each successful request
+ * made while at least half of it was used, and shrinks by {@code backoffRatio} when a request is
+ * dropped. Doesn't look at latencies, except that requests slower than {@code timeoutNanos} count
+ * as dropped.
+ */
+@Experimental
+public final class AimdLimit implements ConcurrencyLimit {
+
+  private final AtomicLimit limit;
+  private final double backoffRatio;
+  private final long timeoutNanos;
+
+  public AimdLimit() {
+    this(20, 1000, 0.9, Long.MAX_VALUE);
+  }
+
+  public AimdLimit(int initialLimit, int maxLimit, double backoffRatio, long timeoutNanos) {
+    checkArgument(initialLimit > 0 && initialLimit <= maxLimit,
+        "initialLimit must be between 1 and maxLimit: %s", initialLimit);
+    checkArgument(backoffRatio > 0 && backoffRatio < 1,
+        "backoffRatio must be between 0 and 1: %s", backoffRatio);
+    this.limit = new AtomicLimit(initialLimit, 1, maxLimit);
+    this.backoffRatio = backoffRatio;
+    this.timeoutNanos = timeoutNanos;
+  }
+
+  @Override
+  public int limit() {
+    return (int) limit.get();
+  }
+
+  @Override
+  public void onSample(long rttNanos, int inFlight, boolean dropped) {
+    if (dropped || rttNanos > timeoutNanos) {
+      limit.update(current -> current * backoffRatio);
+    } else if (inFlight * 2 >= limit()) {
+      limit.update(current -> current + 1);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "AimdLimit{limit=" + limit() + "}";
+  }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A limit held as a {@code double}, updated with compare-and-set so that concurrent samples don't
+ * lock.
+ */
+final class AtomicLimit {
+
+  private final AtomicLong bits;
+  private final double minimum;
+  private final double maximum;
+
+  AtomicLimit(double initial, double minimum, double maximum) {
+    this.bits = new AtomicLong(Double.doubleToRawLongBits(initial));
+    this.minimum = minimum;
+    this.maximum = maximum;
+  }
+
+  double get() {
+    return Double.longBitsToDouble(bits.get());
+  }
+
+  void update(DoubleUnaryOperator update) {
+    bits.updateAndGet(current -> Double.doubleToRawLongBits(Math.max(minimum,
+        Math.min(maximum, update.applyAsDouble(Double.longBitsToDouble(current))))));
+  }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import feign.Experimental;
+
+/**
+ * An algorithm adjusting the number of requests a target may have in flight, from the samples of
+ * completed requests. Implementations are called concurrently on every request, and should not
+ * lock.
+ *
+ * @see AimdLimit
+ * @see VegasLimit
+ * @see GradientLimit
+ */
+@Experimental
+public interface ConcurrencyLimit {
+
+  /**
+   * The number of requests allowed in flight.
+   */
+  int limit();
+
+  /**
+   * Adjusts the limit after a request completed.
+   *
+   * @param rttNanos time the request took, until its response headers arrived.
+   * @param inFlight requests in flight when it completed, including itself.
+   * @param dropped whether the request failed in a way that hints at overload, such as a timeout or
+   *        a {@code 503}.
+   */
+  void onSample(long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import static feign.Util.checkNotNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import feign.AsyncClient;
+import feign.Capability;
+import feign.Client;
+import feign.Experimental;
+import feign.Request;
+
+/**
+ * Limits the requests in flight to each target, and rejects the others right away with a
+ * {@link ConcurrencyLimitExceededException}, instead of letting calls pile up on a degraded target.
+ * The limit adapts to the measured latencies and failures, following a {@link ConcurrencyLimit}
+ * algorithm, {@link VegasLimit} by default.
+ *
+ * <pre>
+ * GitHub github = Feign.builder()
+ *     .addCapability(new ConcurrencyLimitCapability(GradientLimit::new))
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ *
+ * Targets are told apart by the scheme, host and port of their urls, each getting its own limit
+ * from the supplier. Timeouts and other {@code IOException}s, and {@code 429} and {@code 503}
+ * responses count as dropped requests. Works with both {@link feign.Feign} and
+ * {@link feign.AsyncFeign}; state is updated without locking.
+ */
+@Experimental
+public final class ConcurrencyLimitCapability implements Capability {
+
+  private final ConcurrentMap<String, Limiter> limiters = new ConcurrentHashMap<>();
+  private final Supplier<? extends ConcurrencyLimit> limits;
+
+  public ConcurrencyLimitCapability() {
+    this(VegasLimit::new);
+  }
+
+  /**
+   * @param limits creates the limit of each target.
+   */
+  public ConcurrencyLimitCapability(Supplier<? extends ConcurrencyLimit> limits) {
+    this.limits = checkNotNull(limits, "limits");
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return new LimitedClient(client, this);
+  }
+
+  @Override
+  public <C> AsyncClient<C> enrichAsync(AsyncClient<C> client) {
+    return new LimitedAsyncClient<>(client, this);
+  }
+
+  /**
+   * Current limit of {@code target}, such as {@code https://api.github.com}, {@code -1} if it
+   * wasn't called yet.
+   */
+  public int limit(String target) {
+    final Limiter limiter = limiters.get(target);
+    return limiter != null ? limiter.limit() : -1;
+  }
+
+  /**
+   * Requests currently in flight to {@code target}.
+   */
+  public int inFlight(String target) {
+    final Limiter limiter = limiters.get(target);
+    return limiter != null ? limiter.inFlight() : 0;
+  }
+
+  /**
+   * Number of requests rejected, across targets.
+   */
+  public long rejectedCount() {
+    return limiters.values().stream().mapToLong(Limiter::rejectedCount).sum();
+  }
+
+  Limiter limiter(Request request) {
+    final String target = target(request.url());
+    final Limiter limiter = limiters.get(target);
+    return limiter != null
+        ? limiter
+        : limiters.computeIfAbsent(target, key -> new Limiter(limits.get()));
+  }
+
+  /**
+   * The scheme and authority of {@code url}, without parsing it all.
+   */
+  static String target(String url) {
+    final int authority = url.indexOf("://");
+    if (authority == -1) {
+      return url;
+    }
+    for (int i = authority + 3; i < url.length(); i++) {
+      final char c = url.charAt(i);
+      if (c == '/' || c == '?' || c == '#') {
+        return url.substring(0, i);
+      }
+    }
+    return url;
+  }
+
+  static boolean isDropped(int status) {
+    return status == 429 || status == 503;
+  }
+
+  @Override
+  public String toString() {
+    return "ConcurrencyLimitCapability" + limiters;
+  }
+}
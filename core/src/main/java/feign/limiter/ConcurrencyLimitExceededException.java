@@ -0,0 +1,42 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import feign.Request;
+import feign.RetryableException;
+
+/**
+ * Thrown instead of sending a request when its target already has as many requests in flight as its
+ * {@link ConcurrencyLimit} allows. As a {@link RetryableException}, the request is retried
+ * according to the {@link feign.Retryer}.
+ */
+public class ConcurrencyLimitExceededException extends RetryableException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int limit;
+
+  public ConcurrencyLimitExceededException(int limit, Request request) {
+    super(-1, "Concurrency limit of " + limit + " reached executing " + request.httpMethod() + " "
+        + request.url(), request.httpMethod(), null, request);
+    this.limit = limit;
+  }
+
+  /**
+   * The limit in effect when the request was rejected.
+   */
+  public int limit() {
+    return limit;
+  }
+}
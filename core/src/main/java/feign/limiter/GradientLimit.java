@@ -0,0 +1,94 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import static feign.Util.checkArgument;
+import java.util.concurrent.atomic.AtomicLong;
+import feign.Experimental;
+
+/**
+ * Follows the gradient between the long term average latency and the latest one: when requests get
+ * slower than usual, the limit shrinks in proportion, down to half of it; otherwise it grows by the
+ * square root of the limit, leaving room for some queueing. Changes are smoothed, and a dropped
+ * request halves the limit.
+ */
+@Experimental
+public final class GradientLimit implements ConcurrencyLimit {
+
+  /**
+   * How much slower than the average requests may get before the limit shrinks.
+   */
+  private static final double TOLERANCE = 1.5;
+  private static final double SMOOTHING = 0.2;
+
+  private final AtomicLimit limit;
+  private final AtomicLong longRttBits = new AtomicLong(Double.doubleToRawLongBits(0));
+  private final double longRttWeight;
+
+  public GradientLimit() {
+    this(20, 1000, 600);
+  }
+
+  /**
+   * @param longWindow number of samples the long term average latency covers.
+   */
+  public GradientLimit(int initialLimit, int maxLimit, int longWindow) {
+    checkArgument(initialLimit > 0 && initialLimit <= maxLimit,
+        "initialLimit must be between 1 and maxLimit: %s", initialLimit);
+    checkArgument(longWindow > 0, "longWindow must be positive: %s", longWindow);
+    this.limit = new AtomicLimit(initialLimit, 1, maxLimit);
+    this.longRttWeight = 2.0 / (longWindow + 1);
+  }
+
+  @Override
+  public int limit() {
+    return (int) limit.get();
+  }
+
+  @Override
+  public void onSample(long rttNanos, int inFlight, boolean dropped) {
+    if (dropped) {
+      limit.update(current -> current * (1 - SMOOTHING) + current / 2 * SMOOTHING);
+      return;
+    }
+    final double longRtt = Double.longBitsToDouble(longRttBits.updateAndGet(bits -> {
+      final double average = Double.longBitsToDouble(bits);
+      if (average == 0) {
+        return Double.doubleToRawLongBits(rttNanos);
+      }
+      double updated = average * (1 - longRttWeight) + rttNanos * longRttWeight;
+      if (updated / rttNanos > 2) {
+        // recover faster once the target got much quicker than it used to be
+        updated *= 0.95;
+      }
+      return Double.doubleToRawLongBits(updated);
+    }));
+
+    limit.update(current -> {
+      if (inFlight * 2 < current) {
+        // too few requests to tell anything about the limit
+        return current;
+      }
+      final double gradient =
+          Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / Math.max(rttNanos, 1)));
+      final double target = current * gradient + Math.sqrt(current);
+      return current * (1 - SMOOTHING) + target * SMOOTHING;
+    });
+  }
+
+  @Override
+  public String toString() {
+    return "GradientLimit{limit=" + limit() + "}";
+  }
+}
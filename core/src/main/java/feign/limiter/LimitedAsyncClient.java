@@ -0,0 +1,76 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * The {@link AsyncClient} of {@link ConcurrencyLimitCapability}. A rejected request fails its
+ * future, rather than throwing.
+ */
+final class LimitedAsyncClient<C> implements AsyncClient<C> {
+
+  private final AsyncClient<C> delegate;
+  private final ConcurrencyLimitCapability capability;
+
+  LimitedAsyncClient(AsyncClient<C> delegate, ConcurrencyLimitCapability capability) {
+    this.delegate = delegate;
+    this.capability = capability;
+  }
+
+  @Override
+  public CompletableFuture<Response> execute(Request request,
+                                             Options options,
+                                             Optional<C> requestContext) {
+    final Limiter limiter = capability.limiter(request);
+    try {
+      limiter.acquire(request);
+    } catch (ConcurrencyLimitExceededException e) {
+      final CompletableFuture<Response> rejected = new CompletableFuture<>();
+      rejected.completeExceptionally(e);
+      return rejected;
+    }
+
+    final long start = System.nanoTime();
+    final CompletableFuture<Response> response;
+    try {
+      response = delegate.execute(request, options, requestContext);
+    } catch (RuntimeException | Error e) {
+      limiter.release();
+      throw e;
+    }
+    response.whenComplete((r, throwable) -> {
+      final Throwable cause =
+          throwable instanceof CompletionException && throwable.getCause() != null
+              ? throwable.getCause()
+              : throwable;
+      if (cause == null) {
+        limiter.release(System.nanoTime() - start,
+            ConcurrencyLimitCapability.isDropped(r.status()));
+      } else if (cause instanceof IOException) {
+        limiter.release(System.nanoTime() - start, true);
+      } else {
+        limiter.release();
+      }
+    });
+    return response;
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import java.io.IOException;
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * The {@link Client} of {@link ConcurrencyLimitCapability}.
+ */
+final class LimitedClient implements Client {
+
+  private final Client delegate;
+  private final ConcurrencyLimitCapability capability;
+
+  LimitedClient(Client delegate, ConcurrencyLimitCapability capability) {
+    this.delegate = delegate;
+    this.capability = capability;
+  }
+
+  @Override
+  public Response execute(Request request, Options options) throws IOException {
+    final Limiter limiter = capability.limiter(request);
+    limiter.acquire(request);
+    final long start = System.nanoTime();
+    final Response response;
+    try {
+      response = delegate.execute(request, options);
+    } catch (IOException e) {
+      limiter.release(System.nanoTime() - start, true);
+      throw e;
+    } catch (RuntimeException | Error e) {
+      limiter.release();
+      throw e;
+    }
+    limiter.release(System.nanoTime() - start,
+        ConcurrencyLimitCapability.isDropped(response.status()));
+    return response;
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import feign.Request;
+
+/**
+ * The requests in flight to a target, kept within its {@link ConcurrencyLimit}.
+ */
+final class Limiter {
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+  private final ConcurrencyLimit limit;
+
+  Limiter(ConcurrencyLimit limit) {
+    this.limit = limit;
+  }
+
+  /**
+   * Takes a slot for {@code request}, which must be {@link #release released}.
+   *
+   * @throws ConcurrencyLimitExceededException if none is left.
+   */
+  void acquire(Request request) {
+    for (;;) {
+      final int current = inFlight.get();
+      final int max = limit.limit();
+      if (current >= max) {
+        rejected.increment();
+        throw new ConcurrencyLimitExceededException(max, request);
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Gives the slot back, adjusting the limit with the outcome of the request.
+   */
+  void release(long rttNanos, boolean dropped) {
+    limit.onSample(rttNanos, inFlight.getAndDecrement(), dropped);
+  }
+
+  /**
+   * Gives the slot back, when the outcome says nothing about the target, such as a cancellation.
+   */
+  void release() {
+    inFlight.decrementAndGet();
+  }
+
+  int inFlight() {
+    return inFlight.get();
+  }
+
+  int limit() {
+    return limit.limit();
+  }
+
+  long rejectedCount() {
+    return rejected.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "Limiter{inFlight=" + inFlight() + ", limit=" + limit + "}";
+  }
+}
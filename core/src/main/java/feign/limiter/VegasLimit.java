@@ -0,0 +1,86 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import static feign.Util.checkArgument;
+import java.util.concurrent.atomic.AtomicLong;
+import feign.Experimental;
+
+/**
+ * Estimates the requests queued at the target from how much slower they are than the fastest one
+ * seen, {@code queue = limit * (1 - minRtt / rtt)}, as TCP Vegas does. The limit grows while the
+ * queue is short, and shrinks once it's longer than a few requests or when a request is dropped.
+ * The fastest latency is measured again every {@code probeInterval} samples, so that the limit
+ * follows a target whose latency changed for good.
+ */
+@Experimental
+public final class VegasLimit implements ConcurrencyLimit {
+
+  private final AtomicLimit limit;
+  private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong samples = new AtomicLong();
+  private final long probeInterval;
+
+  public VegasLimit() {
+    this(20, 1000, 1000);
+  }
+
+  public VegasLimit(int initialLimit, int maxLimit, long probeInterval) {
+    checkArgument(initialLimit > 0 && initialLimit <= maxLimit,
+        "initialLimit must be between 1 and maxLimit: %s", initialLimit);
+    checkArgument(probeInterval > 0, "probeInterval must be positive: %s", probeInterval);
+    this.limit = new AtomicLimit(initialLimit, 1, maxLimit);
+    this.probeInterval = probeInterval;
+  }
+
+  @Override
+  public int limit() {
+    return (int) limit.get();
+  }
+
+  @Override
+  public void onSample(long rttNanos, int inFlight, boolean dropped) {
+    if (samples.incrementAndGet() % probeInterval == 0) {
+      minRttNanos.set(rttNanos);
+    } else {
+      minRttNanos.accumulateAndGet(rttNanos, Math::min);
+    }
+    final long minRtt = minRttNanos.get();
+
+    limit.update(current -> {
+      final double log = Math.max(1, Math.log10(current));
+      if (dropped) {
+        return current - log;
+      }
+      if (inFlight * 2 < current) {
+        // too few requests to tell anything about the limit
+        return current;
+      }
+      final double queue = current * (1 - (double) minRtt / Math.max(rttNanos, 1));
+      if (queue <= log) {
+        return current + 6 * log;
+      } else if (queue < 3 * log) {
+        return current + log;
+      } else if (queue > 6 * log) {
+        return current - log;
+      }
+      return current;
+    });
+  }
+
+  @Override
+  public String toString() {
+    return "VegasLimit{limit=" + limit() + ", minRttNanos=" + minRttNanos.get() + "}";
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The scheme, host and port of a request url: what connections are pooled by. Parsed once per
+ * origin, requests only look up the prefix of their url.
+ */
+final class Address {
+
+  final String origin;
+  final boolean https;
+  final String host;
+  final int port;
+  /** Value of the {@code Host} header. */
+  final String hostHeader;
+
+  private Address(String origin, boolean https, String host, int port, String hostHeader) {
+    this.origin = origin;
+    this.https = https;
+    this.host = host;
+    this.port = port;
+    this.hostHeader = hostHeader;
+  }
+
+  InetSocketAddress socketAddress() {
+    // resolved per connection, not per request
+    return new InetSocketAddress(host, port);
+  }
+
+  /**
+   * Index in {@code url} where its origin ends and the path starts.
+   *
+   * @throws IllegalArgumentException if {@code url} isn't an absolute http or https url.
+   */
+  static int originEnd(String url) {
+    int schemeEnd = url.indexOf("://");
+    if (schemeEnd != 4 && schemeEnd != 5) {
+      throw new IllegalArgumentException("Unsupported url: " + url);
+    }
+    for (int i = schemeEnd + 3; i < url.length(); i++) {
+      char c = url.charAt(i);
+      if (c == '/' || c == '?' || c == '#') {
+        return i;
+      }
+    }
+    return url.length();
+  }
+
+  /**
+   * The request target to send for {@code url}: its path and query, without the fragment.
+   */
+  static String target(String url, int originEnd) {
+    int fragment = url.indexOf('#', originEnd);
+    int end = fragment == -1 ? url.length() : fragment;
+    if (originEnd == end) {
+      return "/";
+    }
+    String target = url.substring(originEnd, end);
+    return target.charAt(0) == '?' ? "/" + target : target;
+  }
+
+  static Address parse(String origin) {
+    boolean https;
+    if (origin.regionMatches(true, 0, "https://", 0, 8)) {
+      https = true;
+    } else if (origin.regionMatches(true, 0, "http://", 0, 7)) {
+      https = false;
+    } else {
+      throw new IllegalArgumentException("Unsupported url: " + origin);
+    }
+    String authority = origin.substring(https ? 8 : 7);
+    int at = authority.lastIndexOf('@');
+    if (at != -1) {
+      authority = authority.substring(at + 1);
+    }
+    String host = authority;
+    int port = https ? 443 : 80;
+    int portStart = authority.lastIndexOf(':');
+    if (portStart != -1 && portStart > authority.lastIndexOf(']')) {
+      host = authority.substring(0, portStart);
+      if (portStart + 1 < authority.length()) {
+        try {
+          port = Integer.parseInt(authority.substring(portStart + 1));
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("Invalid port in url: " + origin);
+        }
+      }
+    }
+    if (host.isEmpty() || port < 1 || port > 65535) {
+      throw new IllegalArgumentException("Invalid host or port in url: " + origin);
+    }
+    String hostHeader = port == (https ? 443 : 80) ? host : host + ":" + port;
+    if (host.startsWith("[") && host.endsWith("]")) {
+      host = host.substring(1, host.length() - 1);
+    }
+    return new Address(origin, https, host, port, hostHeader);
+  }
+
+  @Override
+  public String toString() {
+    return origin;
+  }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * A {@link SocketChannel} to one {@link Address}, reused for many exchanges. Reads and writes are
+ * blocking, through the channel's socket so they honor timeouts. For https, TLS is layered on top
+ * of that socket.
+ */
+final class Connection implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  final Address address;
+  /** The pool this connection counts against. */
+  ConnectionPool.HostPool host;
+  final SocketChannel channel;
+  final Socket socket;
+  final InputStream in;
+  final OutputStream out;
+  /** Set when the connection served a previous exchange. */
+  boolean reused;
+  /** Set once the response to the current exchange started to arrive. */
+  boolean responseStarted;
+  long idleSince;
+  private volatile boolean closed;
+
+  private Connection(Address address, SocketChannel channel, Socket socket) throws IOException {
+    this.address = address;
+    this.channel = channel;
+    this.socket = socket;
+    this.in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+    this.out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+  }
+
+  static Connection open(Address address,
+                         int connectTimeoutMillis,
+                         SSLSocketFactory sslSocketFactory,
+                         HostnameVerifier hostnameVerifier)
+      throws IOException {
+    SocketChannel channel = SocketChannel.open();
+    try {
+      Socket socket = channel.socket();
+      socket.setTcpNoDelay(true);
+      socket.connect(address.socketAddress(), connectTimeoutMillis);
+      if (address.https) {
+        socket = handshake(address, socket, connectTimeoutMillis, sslSocketFactory,
+            hostnameVerifier);
+      }
+      return new Connection(address, channel, socket);
+    } catch (IOException | RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw e;
+    }
+  }
+
+  private static SSLSocket handshake(Address address,
+                                     Socket socket,
+                                     int timeoutMillis,
+                                     SSLSocketFactory sslSocketFactory,
+                                     HostnameVerifier hostnameVerifier)
+      throws IOException {
+    SSLSocket sslSocket =
+        (SSLSocket) sslSocketFactory.createSocket(socket, address.host, address.port, true);
+    if (hostnameVerifier == null) {
+      // what HttpsURLConnection checks by default
+      SSLParameters parameters = sslSocket.getSSLParameters();
+      parameters.setEndpointIdentificationAlgorithm("HTTPS");
+      sslSocket.setSSLParameters(parameters);
+    }
+    sslSocket.setSoTimeout(timeoutMillis);
+    sslSocket.startHandshake();
+    if (hostnameVerifier != null
+        && !hostnameVerifier.verify(address.host, sslSocket.getSession())) {
+      throw new SSLPeerUnverifiedException("Hostname " + address.host + " not verified");
+    }
+    return sslSocket;
+  }
+
+  void readTimeout(int readTimeoutMillis) throws IOException {
+    socket.setSoTimeout(readTimeoutMillis);
+  }
+
+  /**
+   * Whether an idle connection can still be used: the peer hasn't closed it, or sent anything it
+   * wasn't asked for.
+   */
+  boolean isHealthy() {
+    if (closed || !channel.isOpen()) {
+      return false;
+    }
+    try {
+      if (in.available() > 0) {
+        return false;
+      }
+      synchronized (channel.blockingLock()) {
+        channel.configureBlocking(false);
+        try {
+          // data here would be garbage or a TLS close_notify, either way not reusable
+          return channel.read(ByteBuffer.allocate(1)) == 0;
+        } finally {
+          channel.configureBlocking(true);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      socket.close();
+    } catch (IOException ignored) { // NOPMD
+    }
+    try {
+      channel.close();
+    } catch (IOException ignored) { // NOPMD
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Connection{" + address + ", " + socket.getLocalPort() + "}";
+  }
+}
@@ -0,0 +1,379 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Connections per origin, limited per origin and in total. Requests that find the pool at its limit
+ * wait, in order, for a connection to be handed back or closed. Idle connections expire after a
+ * while, and are checked before they're reused.
+ */
+final class ConnectionPool implements Closeable {
+
+  private final int maxConnections;
+  private final int maxConnectionsPerHost;
+  private final long idleTimeoutNanos;
+  private final SSLSocketFactory sslSocketFactory;
+  private final HostnameVerifier hostnameVerifier;
+  private final ConcurrentMap<String, HostPool> hosts = new ConcurrentHashMap<>();
+
+  // guarded by this
+  private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+  private int total;
+  private long nextSweep;
+  private boolean closed;
+
+  ConnectionPool(int maxConnections, int maxConnectionsPerHost, long idleTimeoutNanos,
+      SSLSocketFactory sslSocketFactory, HostnameVerifier hostnameVerifier) {
+    this.maxConnections = maxConnections;
+    this.maxConnectionsPerHost = maxConnectionsPerHost;
+    this.idleTimeoutNanos = idleTimeoutNanos;
+    this.sslSocketFactory = sslSocketFactory;
+    this.hostnameVerifier = hostnameVerifier;
+    this.nextSweep = System.nanoTime() + idleTimeoutNanos;
+  }
+
+  HostPool host(String url, int originEnd) {
+    String origin = url.substring(0, originEnd);
+    HostPool host = hosts.get(origin);
+    if (host == null) {
+      host = hosts.computeIfAbsent(origin, o -> new HostPool(Address.parse(o)));
+    }
+    return host;
+  }
+
+  /**
+   * Leases a connection to {@code host}. Completes right away with an idle connection, or with
+   * {@code null} when the caller may {@link #connect connect} a new one. Otherwise completes once a
+   * connection frees up, unless the caller {@link #abandon(CompletableFuture) abandons} it first.
+   */
+  CompletableFuture<Connection> acquire(HostPool host) {
+    long now = System.nanoTime();
+    List<Connection> toClose = new ArrayList<>();
+    CompletableFuture<Connection> result;
+    synchronized (this) {
+      if (closed) {
+        result = new CompletableFuture<>();
+        result.completeExceptionally(new IOException("Connection pool closed"));
+        return result;
+      }
+      if (now - nextSweep >= 0) {
+        nextSweep = now + Math.max(idleTimeoutNanos / 4, TimeUnit.MILLISECONDS.toNanos(100));
+        evictExpired(now, toClose);
+      }
+      Connection idle = host.idle.pollFirst();
+      if (idle != null) {
+        host.leased++;
+        host.reused++;
+        result = CompletableFuture.completedFuture(idle);
+      } else if (reserve(host, toClose)) {
+        result = CompletableFuture.completedFuture(null);
+      } else {
+        Waiter waiter = new Waiter(host);
+        waiters.add(waiter);
+        host.pending++;
+        result = waiter;
+      }
+    }
+    closeAll(toClose);
+    return result;
+  }
+
+  /**
+   * Stops waiting for a connection.
+   *
+   * @return false if {@code lease} wasn't waiting anymore, it already has a connection.
+   */
+  boolean abandon(CompletableFuture<Connection> lease) {
+    synchronized (this) {
+      if (!(lease instanceof Waiter) || !waiters.remove(lease)) {
+        return false;
+      }
+      HostPool host = ((Waiter) lease).host;
+      host.pending--;
+      host.timeouts++;
+      return true;
+    }
+  }
+
+  /**
+   * Readies a leased connection: connects a new one, or checks an idle one still works. An idle
+   * connection that doesn't is replaced.
+   */
+  Connection connect(HostPool host, Connection leased, int connectTimeoutMillis)
+      throws IOException {
+    if (leased != null) {
+      if (System.nanoTime() - leased.idleSince < idleTimeoutNanos && leased.isHealthy()) {
+        return leased;
+      }
+      replaceStale(host, leased);
+    }
+    try {
+      Connection connection =
+          Connection.open(host.address, connectTimeoutMillis, sslSocketFactory, hostnameVerifier);
+      connection.host = host;
+      synchronized (this) {
+        host.created++;
+      }
+      return connection;
+    } catch (IOException | RuntimeException e) {
+      release(host, null, false);
+      throw e;
+    }
+  }
+
+  private void replaceStale(HostPool host, Connection stale) {
+    stale.close();
+    synchronized (this) {
+      // keeps its slot, for the connection replacing it
+      host.reused--;
+      host.evicted++;
+    }
+  }
+
+  /**
+   * Hands back a leased connection, to be reused if {@code reusable}, otherwise closed.
+   */
+  void release(Connection connection, boolean reusable) {
+    release(connection.host, connection, reusable);
+  }
+
+  /**
+   * Hands back a lease: the connection it was granted, or with {@code connection} null, its slot
+   * for a new one.
+   */
+  void release(HostPool host, Connection connection, boolean reusable) {
+    List<Connection> toClose = new ArrayList<>();
+    List<Waiter> granted = new ArrayList<>();
+    Connection handedOver = null;
+    synchronized (this) {
+      host.leased--;
+      if (reusable && !closed && !connection.isClosed()) {
+        Waiter waiter = firstWaiter(host);
+        if (waiter != null) {
+          waiters.remove(waiter);
+          host.pending--;
+          host.leased++;
+          host.reused++;
+          connection.reused = true;
+          connection.idleSince = System.nanoTime();
+          handedOver = connection;
+          granted.add(waiter);
+        } else if (hasWaiterBlockedOnTotal()) {
+          // another origin is waiting for room in the pool
+          toClose.add(connection);
+          total--;
+          grantCapacity(toClose, granted);
+        } else {
+          connection.reused = true;
+          connection.idleSince = System.nanoTime();
+          host.idle.addFirst(connection);
+        }
+      } else {
+        if (connection != null) {
+          toClose.add(connection);
+        }
+        total--;
+        grantCapacity(toClose, granted);
+      }
+    }
+    closeAll(toClose);
+    for (Waiter waiter : granted) {
+      waiter.complete(waiter.host == host ? handedOver : null);
+    }
+  }
+
+  /** Reserves a slot for a new connection to {@code host}, if there's room. */
+  private boolean reserve(HostPool host, List<Connection> toClose) {
+    if (host.open() >= maxConnectionsPerHost) {
+      return false;
+    }
+    if (total >= maxConnections && !evictIdle(toClose)) {
+      return false;
+    }
+    total++;
+    host.leased++;
+    return true;
+  }
+
+  /** Closes the least recently used idle connection, of any origin, to make room. */
+  private boolean evictIdle(List<Connection> toClose) {
+    Connection oldest = null;
+    for (HostPool host : hosts.values()) {
+      Connection candidate = host.idle.peekLast();
+      if (candidate != null && (oldest == null || candidate.idleSince - oldest.idleSince < 0)) {
+        oldest = candidate;
+      }
+    }
+    if (oldest == null) {
+      return false;
+    }
+    oldest.host.idle.removeLast();
+    oldest.host.evicted++;
+    toClose.add(oldest);
+    total--;
+    return true;
+  }
+
+  private void grantCapacity(List<Connection> toClose, List<Waiter> granted) {
+    for (Iterator<Waiter> i = waiters.iterator(); i.hasNext() && total < maxConnections;) {
+      Waiter waiter = i.next();
+      if (waiter.host.open() < maxConnectionsPerHost && reserve(waiter.host, toClose)) {
+        i.remove();
+        waiter.host.pending--;
+        granted.add(waiter);
+      }
+    }
+  }
+
+  private Waiter firstWaiter(HostPool host) {
+    for (Waiter waiter : waiters) {
+      if (waiter.host == host) {
+        return waiter;
+      }
+    }
+    return null;
+  }
+
+  private boolean hasWaiterBlockedOnTotal() {
+    for (Waiter waiter : waiters) {
+      if (waiter.host.open() < maxConnectionsPerHost) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void evictExpired(long now, List<Connection> toClose) {
+    for (HostPool host : hosts.values()) {
+      for (Connection oldest; (oldest = host.idle.peekLast()) != null
+          && now - oldest.idleSince >= idleTimeoutNanos;) {
+        host.idle.removeLast();
+        host.evicted++;
+        toClose.add(oldest);
+        total--;
+      }
+    }
+  }
+
+  /**
+   * Closes idle connections that expired, without waiting for the next request to notice.
+   */
+  void evictExpired() {
+    List<Connection> toClose = new ArrayList<>();
+    List<Waiter> granted = new ArrayList<>();
+    synchronized (this) {
+      evictExpired(System.nanoTime(), toClose);
+      grantCapacity(toClose, granted);
+    }
+    closeAll(toClose);
+    for (Waiter waiter : granted) {
+      waiter.complete(null);
+    }
+  }
+
+  PoolStats stats(HostPool host) {
+    synchronized (this) {
+      return new PoolStats(host.leased, host.idle.size(), host.pending, host.created, host.reused,
+          host.evicted, host.timeouts);
+    }
+  }
+
+  Map<String, PoolStats> statsByOrigin() {
+    Map<String, PoolStats> result = new LinkedHashMap<>();
+    synchronized (this) {
+      for (HostPool host : hosts.values()) {
+        result.put(host.address.origin, stats(host));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    List<Connection> toClose = new ArrayList<>();
+    List<Waiter> abandoned;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (HostPool host : hosts.values()) {
+        total -= host.idle.size();
+        toClose.addAll(host.idle);
+        host.idle.clear();
+        host.pending = 0;
+      }
+      abandoned = new ArrayList<>(waiters);
+      waiters.clear();
+    }
+    closeAll(toClose);
+    for (Waiter waiter : abandoned) {
+      waiter.completeExceptionally(new IOException("Connection pool closed"));
+    }
+  }
+
+  private static void closeAll(List<Connection> connections) {
+    for (Connection connection : connections) {
+      connection.close();
+    }
+  }
+
+  /**
+   * Connections to one origin.
+   */
+  static final class HostPool {
+
+    final Address address;
+    // guarded by the pool
+    final ArrayDeque<Connection> idle = new ArrayDeque<>();
+    int leased;
+    int pending;
+    long created;
+    long reused;
+    long evicted;
+    long timeouts;
+
+    HostPool(Address address) {
+      this.address = address;
+    }
+
+    int open() {
+      return leased + idle.size();
+    }
+  }
+
+  private static final class Waiter extends CompletableFuture<Connection> {
+
+    final HostPool host;
+
+    Waiter(HostPool host) {
+      this.host = host;
+    }
+  }
+}
@@ -0,0 +1,657 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import static feign.Util.CONTENT_ENCODING;
+import static feign.Util.CONTENT_LENGTH;
+import static feign.Util.ENCODING_DEFLATE;
+import static feign.Util.ENCODING_GZIP;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+
+/**
+ * Writes HTTP/1.1 requests to, and reads responses from, a {@link Connection}.
+ */
+final class Http1 {
+
+  private static final byte[] CRLF = {'\r', '\n'};
+  private static final int MAX_LINE_LENGTH = 64 * 1024;
+  private static final int MAX_HEADER_LINES = 1000;
+  /** Bytes of an unread body discarded, to keep its connection, when the body is closed. */
+  private static final int MAX_DISCARD = 64 * 1024;
+  private static final int CHUNK_SIZE = 8192;
+
+  private Http1() {}
+
+  /**
+   * Writes {@code request} and its body.
+   *
+   * @return false if the request asked for the connection to be closed after the response.
+   */
+  static boolean writeRequest(Connection connection, Request request, String target)
+      throws IOException {
+    Map<String, Collection<String>> headers = request.headers();
+    Collection<String> contentEncodingValues = headers.get(CONTENT_ENCODING);
+    boolean gzipEncodedRequest =
+        contentEncodingValues != null && contentEncodingValues.contains(ENCODING_GZIP);
+    boolean deflateEncodedRequest =
+        contentEncodingValues != null && contentEncodingValues.contains(ENCODING_DEFLATE);
+    boolean compressed = gzipEncodedRequest || deflateEncodedRequest;
+
+    StringBuilder head = new StringBuilder(256)
+        .append(request.httpMethod().name()).append(' ').append(target).append(" HTTP/1.1\r\n");
+    boolean hasHost = false;
+    boolean hasAccept = false;
+    boolean keepAlive = true;
+    long contentLength = -1;
+    for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+      String field = header.getKey();
+      if (field.equalsIgnoreCase("Transfer-Encoding")) {
+        continue; // decided below
+      }
+      if (field.equalsIgnoreCase(CONTENT_LENGTH)) {
+        if (!compressed) {
+          for (String value : header.getValue()) {
+            contentLength = parseContentLength(value, contentLength);
+          }
+        }
+        continue;
+      }
+      hasHost |= field.equalsIgnoreCase("Host");
+      hasAccept |= field.equalsIgnoreCase("Accept");
+      for (String value : header.getValue()) {
+        if (field.equalsIgnoreCase("Connection") && containsToken(value, "close")) {
+          keepAlive = false;
+        }
+        appendHeader(head, field, value);
+      }
+    }
+    if (!hasHost) {
+      appendHeader(head, "Host", connection.address.hostHeader);
+    }
+    // Some servers choke on the default accept string.
+    if (!hasAccept) {
+      appendHeader(head, "Accept", "*/*");
+    }
+
+    Request.Body body = request.requestBody();
+    boolean hasBody = body != null && (request.body() != null || body.isStreaming());
+    boolean chunked = false;
+    if (hasBody) {
+      if (compressed) {
+        chunked = true;
+      } else if (contentLength == -1) {
+        contentLength = body.contentLength();
+        chunked = contentLength == -1;
+      }
+    } else if (contentLength == -1 && permitsRequestBody(request.httpMethod())) {
+      contentLength = 0;
+    }
+    if (chunked) {
+      appendHeader(head, "Transfer-Encoding", "chunked");
+    } else if (contentLength != -1) {
+      appendHeader(head, CONTENT_LENGTH, Long.toString(contentLength));
+    }
+    head.append("\r\n");
+
+    OutputStream out = connection.out;
+    out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+    if (hasBody) {
+      OutputStream bodyOut = chunked
+          ? new ChunkedOutputStream(out)
+          : new FixedLengthOutputStream(out, contentLength);
+      if (gzipEncodedRequest) {
+        bodyOut = new GZIPOutputStream(bodyOut);
+      } else if (deflateEncodedRequest) {
+        bodyOut = new DeflaterOutputStream(bodyOut);
+      }
+      body.writeTo(bodyOut);
+      // finishes compression and framing, leaves the connection open
+      bodyOut.close();
+    }
+    out.flush();
+    return keepAlive;
+  }
+
+  private static boolean permitsRequestBody(HttpMethod method) {
+    return method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH;
+  }
+
+  private static long parseContentLength(String value, long previous) throws ProtocolException {
+    long length;
+    try {
+      length = Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      throw new ProtocolException("Invalid Content-Length: " + value);
+    }
+    if (length < 0 || (previous != -1 && previous != length)) {
+      throw new ProtocolException("Invalid Content-Length: " + value);
+    }
+    return length;
+  }
+
+  private static void appendHeader(StringBuilder head, String field, String value) {
+    if (value == null) {
+      value = "";
+    }
+    checkHeaderPart(field, field);
+    checkHeaderPart(field, value);
+    head.append(field).append(": ").append(value).append("\r\n");
+  }
+
+  private static void checkHeaderPart(String field, String part) {
+    for (int i = 0; i < part.length(); i++) {
+      char c = part.charAt(i);
+      if (c == '\r' || c == '\n' || c == '\0') {
+        throw new IllegalArgumentException("Illegal character in header " + field);
+      }
+    }
+  }
+
+  /**
+   * Reads the response to {@code request}, skipping interim {@code 1xx} responses. The connection
+   * is handed back to {@code pool} once its body is read, or right away when it has none.
+   */
+  static Response readResponse(Connection connection,
+                               Request request,
+                               boolean keepAlive,
+                               ConnectionPool pool)
+      throws IOException {
+    InputStream in = connection.in;
+    String statusLine;
+    int status;
+    do {
+      statusLine = readLine(in);
+      if (statusLine == null) {
+        throw new EOFException("Connection closed before a response was received");
+      }
+      connection.responseStarted = true;
+      status = parseStatus(statusLine);
+    } while (status >= 100 && status < 200 && status != 101 && skipHeaders(in));
+
+    Map<String, Collection<String>> headers = readHeaders(in);
+    String reason = statusLine.length() > 13 ? statusLine.substring(13) : null;
+    boolean http10 = statusLine.startsWith("HTTP/1.0");
+    Collection<String> connectionHeader = headers.get("Connection");
+    if (http10 ? !containsToken(connectionHeader, "keep-alive")
+        : containsToken(connectionHeader, "close")) {
+      keepAlive = false;
+    }
+
+    Response.Builder response = Response.builder()
+        .status(status)
+        .reason(reason)
+        .headers(headers)
+        .request(request);
+    if (request.httpMethod() == HttpMethod.HEAD || status == 204 || status == 304
+        || status == 101) {
+      pool.release(connection, keepAlive && status != 101);
+      return response.build();
+    }
+    if (containsToken(headers.get("Transfer-Encoding"), "chunked")) {
+      return response.body(new ChunkedInputStream(connection, keepAlive, pool), null).build();
+    }
+    long contentLength = -1;
+    Collection<String> contentLengthValues = headers.get(CONTENT_LENGTH);
+    if (contentLengthValues != null) {
+      for (String value : contentLengthValues) {
+        contentLength = parseContentLength(value, contentLength);
+      }
+    }
+    if (contentLength == 0) {
+      pool.release(connection, keepAlive);
+      return response.build();
+    }
+    if (contentLength == -1) {
+      // delimited by the server closing the connection
+      return response.body(new UntilClosedInputStream(connection, pool), null).build();
+    }
+    return response.body(new FixedLengthInputStream(connection, keepAlive, pool, contentLength),
+        contentLength <= Integer.MAX_VALUE ? (int) contentLength : null).build();
+  }
+
+  private static int parseStatus(String statusLine) throws ProtocolException {
+    // HTTP/1.1 200 OK
+    if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12
+        || statusLine.charAt(8) != ' '
+        || (statusLine.length() > 12 && statusLine.charAt(12) != ' ')) {
+      throw new ProtocolException("Unexpected status line: " + statusLine);
+    }
+    int status = 0;
+    for (int i = 9; i < 12; i++) {
+      char c = statusLine.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new ProtocolException("Unexpected status line: " + statusLine);
+      }
+      status = status * 10 + (c - '0');
+    }
+    return status;
+  }
+
+  private static boolean skipHeaders(InputStream in) throws IOException {
+    readHeaders(in);
+    return true;
+  }
+
+  private static Map<String, Collection<String>> readHeaders(InputStream in) throws IOException {
+    Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    List<String> previous = null;
+    for (int lines = 0;; lines++) {
+      String line = readLine(in);
+      if (line == null) {
+        throw new EOFException("Connection closed while reading response headers");
+      }
+      if (line.isEmpty()) {
+        return headers;
+      }
+      if (lines == MAX_HEADER_LINES) {
+        throw new ProtocolException("Too many response headers");
+      }
+      char first = line.charAt(0);
+      if ((first == ' ' || first == '\t') && previous != null) {
+        // obsolete line folding continues the previous value
+        int last = previous.size() - 1;
+        previous.set(last, previous.get(last) + ' ' + line.trim());
+        continue;
+      }
+      int colon = line.indexOf(':');
+      if (colon <= 0) {
+        throw new ProtocolException("Unexpected header line: " + line);
+      }
+      String field = line.substring(0, colon).trim();
+      String value = line.substring(colon + 1).trim();
+      previous = (List<String>) headers.computeIfAbsent(field, f -> new ArrayList<>(1));
+      previous.add(value);
+    }
+  }
+
+  /**
+   * Reads a line terminated by {@code LF} or {@code CRLF}, without the terminator.
+   *
+   * @return null if the stream ended before the line started.
+   */
+  static String readLine(InputStream in) throws IOException {
+    StringBuilder line = null;
+    for (int b; (b = in.read()) != -1;) {
+      if (line == null) {
+        line = new StringBuilder(64);
+      }
+      if (b == '\n') {
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+          line.setLength(length - 1);
+        }
+        return line.toString();
+      }
+      if (line.length() == MAX_LINE_LENGTH) {
+        throw new ProtocolException("Response line too long");
+      }
+      line.append((char) b);
+    }
+    if (line != null) {
+      throw new EOFException("Connection closed in the middle of a line");
+    }
+    return null;
+  }
+
+  private static boolean containsToken(Collection<String> values, String token) {
+    if (values == null) {
+      return false;
+    }
+    for (String value : values) {
+      if (containsToken(value, token)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean containsToken(String value, String token) {
+    for (String part : value.split(",")) {
+      if (part.trim().equalsIgnoreCase(token)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Sends a body of unknown length as chunks of up to {@value #CHUNK_SIZE} bytes.
+   */
+  private static final class ChunkedOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+    private int count;
+    private boolean closed;
+
+    ChunkedOutputStream(OutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (count == buffer.length) {
+        writeChunk();
+      }
+      buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
+      while (len > 0) {
+        if (count == buffer.length) {
+          writeChunk();
+        }
+        int n = Math.min(len, buffer.length - count);
+        System.arraycopy(b, off, buffer, count, n);
+        count += n;
+        off += n;
+        len -= n;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      writeChunk();
+      out.flush();
+    }
+
+    private void writeChunk() throws IOException {
+      if (count == 0) {
+        return;
+      }
+      out.write(Integer.toHexString(count).getBytes(StandardCharsets.ISO_8859_1));
+      out.write(CRLF);
+      out.write(buffer, 0, count);
+      out.write(CRLF);
+      count = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      writeChunk();
+      out.write('0');
+      out.write(CRLF);
+      out.write(CRLF);
+      closed = true;
+    }
+  }
+
+  /**
+   * Checks the body is as long as its {@code Content-Length} said.
+   */
+  private static final class FixedLengthOutputStream extends FilterOutputStream {
+
+    private long remaining;
+
+    FixedLengthOutputStream(OutputStream out, long contentLength) {
+      super(out);
+      this.remaining = contentLength;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (len > remaining) {
+        throw new ProtocolException("Request body exceeds its Content-Length");
+      }
+      out.write(b, off, len);
+      remaining -= len;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (remaining != 0) {
+        throw new ProtocolException("Request body is " + remaining + " bytes short");
+      }
+    }
+  }
+
+  /**
+   * Reads a body off a connection, handing the connection back to the pool once the body is
+   * exhausted. Closing before then discards what's left if it's already arrived, otherwise closes
+   * the connection.
+   */
+  private abstract static class BodyInputStream extends InputStream {
+
+    final Connection connection;
+    final InputStream in;
+    private final boolean keepAlive;
+    private final ConnectionPool pool;
+    private boolean done;
+
+    BodyInputStream(Connection connection, boolean keepAlive, ConnectionPool pool) {
+      this.connection = connection;
+      this.in = connection.in;
+      this.keepAlive = keepAlive;
+      this.pool = pool;
+    }
+
+    /** Reads the next bytes of the body, -1 once it's exhausted. */
+    abstract int readBody(byte[] b, int off, int len) throws IOException;
+
+    /** Bytes of the body that can be read without blocking. */
+    abstract int bodyAvailable() throws IOException;
+
+    /** Whether the body is known to be read completely, without another read. */
+    boolean exhausted() {
+      return false;
+    }
+
+    @Override
+    public final int read() throws IOException {
+      byte[] single = new byte[1];
+      int read = read(single, 0, 1);
+      return read == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public final int read(byte[] b, int off, int len) throws IOException {
+      if (done) {
+        return -1;
+      }
+      if (len == 0) {
+        return 0;
+      }
+      int read;
+      try {
+        read = readBody(b, off, len);
+      } catch (IOException | RuntimeException e) {
+        finish(false);
+        throw e;
+      }
+      if (read == -1 || exhausted()) {
+        // hands the connection back as soon as possible
+        finish(keepAlive);
+      }
+      return read;
+    }
+
+    @Override
+    public final int available() throws IOException {
+      return done ? 0 : bodyAvailable();
+    }
+
+    @Override
+    public final void close() throws IOException {
+      if (done) {
+        return;
+      }
+      if (keepAlive) {
+        // decoders often stop short of the end of the body, such as a chunked body's last chunk
+        byte[] discard = new byte[512];
+        try {
+          for (int discarded = 0; discarded < MAX_DISCARD && bodyAvailable() > 0;) {
+            int read = readBody(discard, 0, discard.length);
+            if (read == -1 || exhausted()) {
+              finish(true);
+              return;
+            }
+            discarded += read;
+          }
+        } catch (IOException | RuntimeException e) {
+          // not reusable then
+        }
+      }
+      finish(false);
+    }
+
+    private void finish(boolean reusable) {
+      if (!done) {
+        done = true;
+        pool.release(connection, reusable);
+      }
+    }
+  }
+
+  private static final class FixedLengthInputStream extends BodyInputStream {
+
+    private long remaining;
+
+    FixedLengthInputStream(Connection connection, boolean keepAlive, ConnectionPool pool,
+        long contentLength) {
+      super(connection, keepAlive, pool);
+      this.remaining = contentLength;
+    }
+
+    @Override
+    int readBody(byte[] b, int off, int len) throws IOException {
+      if (remaining == 0) {
+        return -1;
+      }
+      int read = in.read(b, off, (int) Math.min(len, remaining));
+      if (read == -1) {
+        throw new EOFException("Connection closed with " + remaining + " bytes of body unread");
+      }
+      remaining -= read;
+      return read;
+    }
+
+    @Override
+    boolean exhausted() {
+      return remaining == 0;
+    }
+
+    @Override
+    int bodyAvailable() throws IOException {
+      return (int) Math.min(in.available(), remaining);
+    }
+  }
+
+  private static final class ChunkedInputStream extends BodyInputStream {
+
+    private long chunkRemaining;
+    private boolean lastChunk;
+
+    ChunkedInputStream(Connection connection, boolean keepAlive, ConnectionPool pool) {
+      super(connection, keepAlive, pool);
+    }
+
+    @Override
+    int readBody(byte[] b, int off, int len) throws IOException {
+      if (chunkRemaining == 0) {
+        if (lastChunk || !nextChunk()) {
+          return -1;
+        }
+      }
+      int read = in.read(b, off, (int) Math.min(len, chunkRemaining));
+      if (read == -1) {
+        throw new EOFException("Connection closed in the middle of a chunk");
+      }
+      chunkRemaining -= read;
+      if (chunkRemaining == 0) {
+        String crlf = readLine(in);
+        if (crlf == null || !crlf.isEmpty()) {
+          throw new ProtocolException("Expected CRLF after chunk");
+        }
+      }
+      return read;
+    }
+
+    private boolean nextChunk() throws IOException {
+      String line = readLine(in);
+      if (line == null) {
+        throw new EOFException("Connection closed before the last chunk");
+      }
+      int extension = line.indexOf(';');
+      String size = (extension == -1 ? line : line.substring(0, extension)).trim();
+      try {
+        chunkRemaining = Long.parseLong(size, 16);
+      } catch (NumberFormatException e) {
+        throw new ProtocolException("Invalid chunk size: " + line);
+      }
+      if (chunkRemaining < 0) {
+        throw new ProtocolException("Invalid chunk size: " + line);
+      }
+      if (chunkRemaining == 0) {
+        lastChunk = true;
+        readHeaders(in); // trailers, ignored
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    int bodyAvailable() throws IOException {
+      if (lastChunk) {
+        return 0;
+      }
+      int available = in.available();
+      return chunkRemaining == 0 ? available : (int) Math.min(available, chunkRemaining);
+    }
+  }
+
+  private static final class UntilClosedInputStream extends BodyInputStream {
+
+    UntilClosedInputStream(Connection connection, ConnectionPool pool) {
+      super(connection, false, pool);
+    }
+
+    @Override
+    int readBody(byte[] b, int off, int len) throws IOException {
+      return in.read(b, off, len);
+    }
+
+    @Override
+    int bodyAvailable() throws IOException {
+      return in.available();
+    }
+  }
+}
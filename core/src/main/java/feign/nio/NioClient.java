@@ -0,0 +1,539 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import static feign.Util.CONTENT_ENCODING;
+import static feign.Util.CONTENT_LENGTH;
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+import static java.lang.String.format;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import feign.AsyncClient;
+import feign.Client;
+import feign.Experimental;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Request.Options;
+import feign.Response;
+import feign.nio.ConnectionPool.HostPool;
+
+/**
+ * An HTTP/1.1 client on {@link java.nio.channels.SocketChannel socket channels}, without
+ * dependencies. Unlike {@link Client.Default}, connections are pooled per client rather than per
+ * JVM, with limits per origin and in total, and {@link #stats() stats} to watch them by.
+ *
+ * <p>
+ * Requests that find the pool at its limit wait for a connection, up to the
+ * {@link Builder#poolWaitTimeout(long, TimeUnit) pool wait timeout}. As an {@link AsyncClient},
+ * requests don't hold a thread while they wait, for a connection or for the server to respond.
+ *
+ * <p>
+ * Close the client to close its connections.
+ */
+@Experimental
+public final class NioClient implements Client, AsyncClient<Object>, Closeable {
+
+  private static final int MAX_REDIRECTS = 20;
+
+  private final ConnectionPool pool;
+  private final long poolWaitTimeoutMillis;
+  private final Executor executor;
+  private final ExecutorService ownedExecutor;
+  private final Object loopLock = new Object();
+  private volatile SelectorLoop loop;
+
+  public NioClient() {
+    this(builder());
+  }
+
+  private NioClient(Builder builder) {
+    this.pool = new ConnectionPool(builder.maxConnections, builder.maxConnectionsPerHost,
+        builder.idleTimeoutNanos,
+        builder.sslSocketFactory != null
+            ? builder.sslSocketFactory
+            : HttpsURLConnection.getDefaultSSLSocketFactory(),
+        builder.hostnameVerifier);
+    this.poolWaitTimeoutMillis = builder.poolWaitTimeoutMillis;
+    if (builder.executor != null) {
+      this.executor = builder.executor;
+      this.ownedExecutor = null;
+    } else {
+      this.ownedExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory());
+      this.executor = ownedExecutor;
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public Response execute(Request request, Options options) throws IOException {
+    Request current = request;
+    for (int redirects = 0;; redirects++) {
+      Response response = exchange(current, options);
+      Request redirect = options.isFollowRedirects() && redirects < MAX_REDIRECTS
+          ? redirect(current, response)
+          : null;
+      if (redirect == null) {
+        return response;
+      }
+      discard(response);
+      current = redirect;
+    }
+  }
+
+  private Response exchange(Request request, Options options) throws IOException {
+    String url = request.url();
+    int originEnd = Address.originEnd(url);
+    HostPool host = pool.host(url, originEnd);
+    String target = Address.target(url, originEnd);
+    for (boolean retried = false;; retried = true) {
+      Connection leased = await(host, pool.acquire(host), options);
+      Connection connection = pool.connect(host, leased, options.connectTimeoutMillis());
+      try {
+        connection.responseStarted = false;
+        connection.readTimeout(options.readTimeoutMillis());
+        boolean keepAlive = Http1.writeRequest(connection, request, target);
+        return Http1.readResponse(connection, request, keepAlive, pool);
+      } catch (IOException e) {
+        pool.release(connection, false);
+        if (retried || !isStale(connection, request)) {
+          throw e;
+        }
+      } catch (RuntimeException e) {
+        pool.release(connection, false);
+        throw e;
+      }
+    }
+  }
+
+  private Connection await(HostPool host, CompletableFuture<Connection> lease, Options options)
+      throws IOException {
+    long timeout = poolWaitTimeout(options);
+    try {
+      return timeout == 0 ? lease.get() : lease.get(timeout, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      if (pool.abandon(lease)) {
+        throw new SocketTimeoutException(format(
+            "Timed out after %sms waiting for a connection to %s", timeout, host.address));
+      }
+      return lease.join(); // granted meanwhile
+    } catch (InterruptedException e) {
+      if (!pool.abandon(lease)) {
+        Connection granted = lease.join();
+        pool.release(host, granted, granted != null);
+      }
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for a connection to " + host.address);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException
+          ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    }
+  }
+
+  private long poolWaitTimeout(Options options) {
+    return poolWaitTimeoutMillis >= 0 ? poolWaitTimeoutMillis : options.connectTimeoutMillis();
+  }
+
+  /**
+   * An idle connection the server closed in the meantime: try again on a fresh one, as nothing was
+   * received.
+   */
+  private static boolean isStale(Connection connection, Request request) {
+    Request.Body body = request.requestBody();
+    return connection.reused && !connection.responseStarted
+        && (body == null || body.isReplayable());
+  }
+
+  @Override
+  public CompletableFuture<Response> execute(Request request,
+                                             Options options,
+                                             Optional<Object> requestContext) {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    try {
+      new AsyncExchange(request, options, result, 0, false).start();
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  /**
+   * One asynchronous request and response, on a connection of its own.
+   */
+  private final class AsyncExchange {
+
+    private final Request request;
+    private final Options options;
+    private final CompletableFuture<Response> result;
+    private final int redirects;
+    private final boolean retried;
+    private final HostPool host;
+    private final String target;
+    private volatile Connection connection;
+    private volatile SelectorLoop.Watch watch;
+    /** Once the response is being read, it owns the connection. Guarded by this. */
+    private boolean receiving;
+
+    AsyncExchange(Request request, Options options, CompletableFuture<Response> result,
+        int redirects, boolean retried) {
+      this.request = request;
+      this.options = options;
+      this.result = result;
+      this.redirects = redirects;
+      this.retried = retried;
+      int originEnd = Address.originEnd(request.url());
+      this.host = pool.host(request.url(), originEnd);
+      this.target = Address.target(request.url(), originEnd);
+    }
+
+    void start() {
+      CompletableFuture<Connection> lease = pool.acquire(host);
+      if (!lease.isDone()) {
+        long timeout = poolWaitTimeout(options);
+        SelectorLoop.Timer timer = timeout == 0 ? null : loop().schedule(() -> {
+          if (pool.abandon(lease)) {
+            result.completeExceptionally(new SocketTimeoutException(format(
+                "Timed out after %sms waiting for a connection to %s", timeout, host.address)));
+          }
+        }, timeout);
+        result.whenComplete((response, error) -> {
+          if (result.isCancelled()) {
+            pool.abandon(lease);
+          }
+        });
+        lease.whenComplete((leased, error) -> {
+          if (timer != null) {
+            timer.cancel();
+          }
+        });
+      }
+      lease.whenComplete((leased, error) -> {
+        if (error != null) {
+          result.completeExceptionally(error);
+        } else {
+          executor.execute(() -> send(leased));
+        }
+      });
+    }
+
+    private void send(Connection leased) {
+      if (result.isDone()) {
+        pool.release(host, leased, leased != null);
+        return;
+      }
+      Connection connection;
+      try {
+        connection = pool.connect(host, leased, options.connectTimeoutMillis());
+      } catch (IOException | RuntimeException e) {
+        result.completeExceptionally(e);
+        return;
+      }
+      this.connection = connection;
+      result.whenComplete((response, error) -> {
+        if (result.isCancelled()) {
+          cancel();
+        }
+      });
+      boolean keepAlive;
+      try {
+        connection.responseStarted = false;
+        connection.readTimeout(options.readTimeoutMillis());
+        keepAlive = Http1.writeRequest(connection, request, target);
+      } catch (IOException | RuntimeException e) {
+        failed(e);
+        return;
+      }
+      watch = loop().awaitReadable(connection.channel, options.readTimeoutMillis(),
+          () -> receive(keepAlive), this::failed);
+      if (result.isCancelled()) {
+        cancel(); // may have missed the watch
+      }
+    }
+
+    /** Fails the exchange, which then hands back the connection. */
+    private synchronized void cancel() {
+      if (!receiving) {
+        connection.close();
+        SelectorLoop.Watch watch = this.watch;
+        if (watch != null) {
+          watch.cancel(new InterruptedIOException("Canceled"));
+        }
+      }
+    }
+
+    private void receive(boolean keepAlive) {
+      synchronized (this) {
+        if (result.isDone()) {
+          failed(new InterruptedIOException("Canceled"));
+          return;
+        }
+        receiving = true;
+      }
+      Response response;
+      try {
+        response = Http1.readResponse(connection, request, keepAlive, pool);
+      } catch (IOException | RuntimeException e) {
+        failed(e);
+        return;
+      }
+      Request redirect = options.isFollowRedirects() && redirects < MAX_REDIRECTS
+          && !result.isDone()
+              ? redirect(request, response)
+              : null;
+      if (redirect != null) {
+        discard(response);
+        follow(redirect, redirects + 1, false);
+      } else if (!result.complete(response)) {
+        discard(response);
+      }
+    }
+
+    private void failed(Throwable error) {
+      pool.release(connection, false);
+      if (error instanceof IOException && !retried && !result.isDone()
+          && isStale(connection, request)) {
+        follow(request, redirects, true);
+      } else {
+        result.completeExceptionally(error);
+      }
+    }
+
+    private void follow(Request next, int redirects, boolean retried) {
+      try {
+        new AsyncExchange(next, options, result, redirects, retried).start();
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }
+  }
+
+  private SelectorLoop loop() {
+    SelectorLoop loop = this.loop;
+    if (loop == null) {
+      synchronized (loopLock) {
+        loop = this.loop;
+        if (loop == null) {
+          try {
+            this.loop = loop = new SelectorLoop(executor);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+      }
+    }
+    return loop;
+  }
+
+  /**
+   * The request to follow a redirect with, null if it shouldn't be. Like
+   * {@link java.net.HttpURLConnection}, doesn't follow redirects to another protocol.
+   */
+  private static Request redirect(Request request, Response response) {
+    int status = response.status();
+    if (status != 301 && status != 302 && status != 303 && status != 307 && status != 308) {
+      return null;
+    }
+    Collection<String> locations = response.headers().get("Location");
+    if (locations == null || locations.isEmpty()) {
+      return null;
+    }
+    String url;
+    try {
+      url = URI.create(request.url()).resolve(locations.iterator().next()).toString();
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    int schemeEnd = request.url().indexOf(':') + 1;
+    if (!url.regionMatches(true, 0, request.url(), 0, schemeEnd)) {
+      return null;
+    }
+    HttpMethod method = request.httpMethod();
+    if ((status == 303 && method != HttpMethod.HEAD)
+        || ((status == 301 || status == 302) && method == HttpMethod.POST)) {
+      return Request.create(HttpMethod.GET, url, withoutBodyHeaders(request),
+          Request.Body.empty(), request.requestTemplate());
+    }
+    Request.Body body = request.requestBody();
+    if (body != null && !body.isReplayable()) {
+      return null;
+    }
+    return Request.create(method, url, request.headers(), body, request.requestTemplate());
+  }
+
+  private static Map<String, Collection<String>> withoutBodyHeaders(Request request) {
+    Map<String, Collection<String>> result = new LinkedHashMap<>(request.headers());
+    result.keySet().removeIf(field -> field.equalsIgnoreCase(CONTENT_LENGTH)
+        || field.equalsIgnoreCase("Content-Type")
+        || field.equalsIgnoreCase(CONTENT_ENCODING));
+    return Collections.unmodifiableMap(result);
+  }
+
+  private static void discard(Response response) {
+    if (response.body() != null) {
+      response.close();
+    }
+  }
+
+  /**
+   * Connections to all origins.
+   */
+  public PoolStats stats() {
+    PoolStats total = new PoolStats(0, 0, 0, 0, 0, 0, 0);
+    for (PoolStats stats : pool.statsByOrigin().values()) {
+      total = total.plus(stats);
+    }
+    return total;
+  }
+
+  /**
+   * Connections per origin, such as {@code https://api.github.com}.
+   */
+  public Map<String, PoolStats> statsByOrigin() {
+    return Collections.unmodifiableMap(pool.statsByOrigin());
+  }
+
+  /**
+   * Closes idle connections, and those in use once their response is read. The client can't be used
+   * afterwards.
+   */
+  @Override
+  public void close() {
+    pool.close();
+    synchronized (loopLock) {
+      if (loop != null) {
+        loop.close();
+      }
+    }
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+    }
+  }
+
+  public static final class Builder {
+
+    private int maxConnections = 256;
+    private int maxConnectionsPerHost = 64;
+    private long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(1);
+    private long poolWaitTimeoutMillis = -1;
+    private SSLSocketFactory sslSocketFactory;
+    private HostnameVerifier hostnameVerifier;
+    private Executor executor;
+
+    Builder() {}
+
+    /**
+     * Connections open at once, to all origins. Defaults to 256.
+     */
+    public Builder maxConnections(int maxConnections) {
+      checkArgument(maxConnections > 0, "maxConnections must be positive");
+      this.maxConnections = maxConnections;
+      return this;
+    }
+
+    /**
+     * Connections open at once to one origin, scheme, host and port. Defaults to 64.
+     */
+    public Builder maxConnectionsPerHost(int maxConnectionsPerHost) {
+      checkArgument(maxConnectionsPerHost > 0, "maxConnectionsPerHost must be positive");
+      this.maxConnectionsPerHost = maxConnectionsPerHost;
+      return this;
+    }
+
+    /**
+     * How long a connection stays open without being used. Defaults to a minute.
+     */
+    public Builder idleTimeout(long timeout, TimeUnit unit) {
+      checkArgument(timeout > 0, "idleTimeout must be positive");
+      this.idleTimeoutNanos = unit.toNanos(timeout);
+      return this;
+    }
+
+    /**
+     * How long a request waits for a connection when the pool is at its limit, zero meaning for as
+     * long as it takes. Defaults to the request's {@link Options#connectTimeoutMillis() connect
+     * timeout}.
+     */
+    public Builder poolWaitTimeout(long timeout, TimeUnit unit) {
+      checkArgument(timeout >= 0, "poolWaitTimeout must not be negative");
+      this.poolWaitTimeoutMillis = unit.toMillis(timeout);
+      return this;
+    }
+
+    /**
+     * For https connections, defaults to {@link HttpsURLConnection#getDefaultSSLSocketFactory()}.
+     */
+    public Builder sslSocketFactory(SSLSocketFactory sslSocketFactory) {
+      this.sslSocketFactory = checkNotNull(sslSocketFactory, "sslSocketFactory");
+      return this;
+    }
+
+    /**
+     * Replaces the default check that an https server's certificate matches its host name.
+     */
+    public Builder hostnameVerifier(HostnameVerifier hostnameVerifier) {
+      this.hostnameVerifier = checkNotNull(hostnameVerifier, "hostnameVerifier");
+      return this;
+    }
+
+    /**
+     * Where asynchronous requests are sent and their responses read, once they arrive. Defaults to
+     * a pool of daemon threads, shut down when the client is closed.
+     */
+    public Builder executor(Executor executor) {
+      this.executor = checkNotNull(executor, "executor");
+      return this;
+    }
+
+    public NioClient build() {
+      return new NioClient(this);
+    }
+  }
+
+  private static final class DaemonThreadFactory implements java.util.concurrent.ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "feign-nio-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import feign.Experimental;
+
+/**
+ * A snapshot of a {@link NioClient}'s connections, either to one origin or to all of them.
+ */
+@Experimental
+public final class PoolStats {
+
+  private final int leased;
+  private final int idle;
+  private final int pending;
+  private final long created;
+  private final long reused;
+  private final long evicted;
+  private final long timeouts;
+
+  PoolStats(int leased, int idle, int pending, long created, long reused, long evicted,
+      long timeouts) {
+    this.leased = leased;
+    this.idle = idle;
+    this.pending = pending;
+    this.created = created;
+    this.reused = reused;
+    this.evicted = evicted;
+    this.timeouts = timeouts;
+  }
+
+  PoolStats plus(PoolStats other) {
+    return new PoolStats(leased + other.leased, idle + other.idle, pending + other.pending,
+        created + other.created, reused + other.reused, evicted + other.evicted,
+        timeouts + other.timeouts);
+  }
+
+  /**
+   * Open connections, whether in use or idle.
+   */
+  public int connections() {
+    return leased + idle;
+  }
+
+  /**
+   * Connections in use by a request, or being connected for one.
+   */
+  public int leased() {
+    return leased;
+  }
+
+  /**
+   * Open connections waiting for a request.
+   */
+  public int idle() {
+    return idle;
+  }
+
+  /**
+   * Requests waiting for a connection, because the pool is at its limit.
+   */
+  public int pending() {
+    return pending;
+  }
+
+  /**
+   * Connections opened so far.
+   */
+  public long created() {
+    return created;
+  }
+
+  /**
+   * Times an idle connection was used for another request.
+   */
+  public long reused() {
+    return reused;
+  }
+
+  /**
+   * Idle connections closed because they expired, went stale or made room for another origin.
+   */
+  public long evicted() {
+    return evicted;
+  }
+
+  /**
+   * Requests that gave up waiting for a connection.
+   */
+  public long timeouts() {
+    return timeouts;
+  }
+
+  @Override
+  public String toString() {
+    return "PoolStats{leased=" + leased + ", idle=" + idle + ", pending=" + pending
+        + ", created=" + created + ", reused=" + reused + ", evicted=" + evicted
+        + ", timeouts=" + timeouts + "}";
+  }
+}
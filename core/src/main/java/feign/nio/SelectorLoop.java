@@ -0,0 +1,267 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One thread waiting on a {@link Selector} for many connections, so asynchronous requests don't
+ * hold a thread while the server works on a response. What to do once a connection is readable runs
+ * on an {@link Executor}, never on the selector thread.
+ */
+final class SelectorLoop implements Closeable, Runnable {
+
+  private final Selector selector;
+  private final Executor executor;
+  private final Thread thread;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  // selector thread only
+  private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+  private volatile boolean closed;
+
+  SelectorLoop(Executor executor) throws IOException {
+    this.selector = Selector.open();
+    this.executor = executor;
+    this.thread = new Thread(this, "feign-nio-selector");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Runs {@code task} on the executor after {@code delayMillis}, unless the returned timer is
+   * cancelled first.
+   */
+  Timer schedule(Runnable task, long delayMillis) {
+    Timer timer = new Timer(() -> executor.execute(task),
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    submit(() -> timers.add(timer));
+    return timer;
+  }
+
+  /**
+   * Waits until {@code channel} has data to read, then switches it back to blocking mode and runs
+   * {@code onReadable}. Runs {@code onFailure} with a {@link SocketTimeoutException} if nothing
+   * arrives within {@code timeoutMillis}, zero meaning no timeout.
+   */
+  Watch awaitReadable(SocketChannel channel,
+                      int timeoutMillis,
+                      Runnable onReadable,
+                      Consumer<IOException> onFailure) {
+    Watch watch = new Watch(channel, onReadable, onFailure);
+    try {
+      channel.configureBlocking(false);
+    } catch (IOException e) {
+      onFailure.accept(e);
+      return watch;
+    }
+    submit(() -> {
+      try {
+        watch.key = register(channel, watch);
+      } catch (IOException | RuntimeException e) {
+        watch.fail(e instanceof IOException ? (IOException) e : new IOException(e));
+        return;
+      }
+      if (timeoutMillis > 0) {
+        watch.timer = new Timer(
+            () -> watch.fail(new SocketTimeoutException("Read timed out")),
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        timers.add(watch.timer);
+      }
+    });
+    return watch;
+  }
+
+  private SelectionKey register(SocketChannel channel, Watch watch) throws IOException {
+    try {
+      return channel.register(selector, SelectionKey.OP_READ, watch);
+    } catch (CancelledKeyException e) {
+      // the key of the previous exchange on this channel is still being deregistered
+      selector.selectNow();
+      return channel.register(selector, SelectionKey.OP_READ, watch);
+    }
+  }
+
+  private void submit(Runnable task) {
+    if (closed) {
+      throw new IllegalStateException("closed");
+    }
+    tasks.add(task);
+    selector.wakeup();
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!closed) {
+        long timeout = 0;
+        Timer next = timers.peek();
+        if (next != null) {
+          timeout = Math.max(1, TimeUnit.NANOSECONDS.toMillis(next.deadline - System.nanoTime()));
+        }
+        selector.select(timeout);
+        // after select, so keys cancelled last time round are deregistered
+        runTasks();
+        for (Iterator<SelectionKey> i = selector.selectedKeys().iterator(); i.hasNext();) {
+          SelectionKey key = i.next();
+          i.remove();
+          Watch watch = (Watch) key.attachment();
+          runSafely(watch::ready);
+        }
+        long now = System.nanoTime();
+        for (Timer timer; (timer = timers.peek()) != null && now - timer.deadline >= 0;) {
+          timers.poll();
+          if (!timer.cancelled) {
+            timer.cancelled = true;
+            runSafely(timer.task);
+          }
+        }
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      // closed
+    } finally {
+      runTasks();
+      for (SelectionKey key : selector.keys()) {
+        ((Watch) key.attachment()).fail(new IOException("Client closed"));
+      }
+      try {
+        selector.close();
+      } catch (IOException ignored) { // NOPMD
+      }
+    }
+  }
+
+  private void runTasks() {
+    for (Runnable task; (task = tasks.poll()) != null;) {
+      runSafely(task);
+    }
+  }
+
+  private static void runSafely(Runnable task) {
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      // such as an executor rejecting the task, which must not stop the loop
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    selector.wakeup();
+  }
+
+  /**
+   * A scheduled task, on the selector thread's queue.
+   */
+  static final class Timer implements Comparable<Timer> {
+
+    final Runnable task;
+    final long deadline;
+    volatile boolean cancelled;
+
+    Timer(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public int compareTo(Timer other) {
+      return Long.compare(deadline - other.deadline, 0);
+    }
+  }
+
+  /**
+   * A channel being waited on.
+   */
+  final class Watch {
+
+    final SocketChannel channel;
+    final Runnable onReadable;
+    final Consumer<IOException> onFailure;
+    SelectionKey key;
+    Timer timer;
+    private boolean done;
+
+    Watch(SocketChannel channel, Runnable onReadable, Consumer<IOException> onFailure) {
+      this.channel = channel;
+      this.onReadable = onReadable;
+      this.onFailure = onFailure;
+    }
+
+    /**
+     * Stops waiting, failing with {@code cause}, unless the channel was already readable.
+     */
+    void cancel(IOException cause) {
+      try {
+        submit(() -> fail(cause));
+      } catch (IllegalStateException closed) {
+        // failed already, when the loop closed
+      }
+    }
+
+    /** On the selector thread. */
+    void ready() {
+      if (finish()) {
+        executor.execute(onReadable);
+      }
+    }
+
+    /** On the selector thread. */
+    void fail(IOException e) {
+      if (finish()) {
+        executor.execute(() -> onFailure.accept(e));
+      }
+    }
+
+    private boolean finish() {
+      if (done) {
+        return false;
+      }
+      done = true;
+      if (key != null) {
+        key.cancel();
+      }
+      if (timer != null) {
+        timer.cancel();
+      }
+      try {
+        if (channel.isOpen()) {
+          // no valid key left, so the channel can block again
+          channel.configureBlocking(true);
+        }
+      } catch (IOException e) {
+        // reading will fail, and report it
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.singleflight;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import feign.Experimental;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Lets {@link SingleFlightCapability} send a single request for concurrent, identical calls of the
+ * annotated method, and share its response among them. Requests are identical when they have the
+ * same http method, url and headers, except for those {@link #ignoreHeaders() ignored}. Only
+ * {@code GET} and {@code HEAD} requests are combined.
+ */
+@Experimental
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface SingleFlight {
+
+  /**
+   * Names of headers, such as a request id, that may differ between requests sharing a response.
+   */
+  String[] ignoreHeaders() default {};
+}
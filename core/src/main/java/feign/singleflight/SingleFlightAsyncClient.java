@@ -0,0 +1,103 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.singleflight;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * The {@link AsyncClient} of {@link SingleFlightCapability}: the first of concurrent, identical
+ * calls sends the request, the others complete with its response. Cancelling the result of a call
+ * doesn't cancel the shared request.
+ */
+final class SingleFlightAsyncClient<C> implements AsyncClient<C> {
+
+  private final ConcurrentMap<String, CompletableFuture<Response>> flights =
+      new ConcurrentHashMap<>();
+  private final AsyncClient<C> delegate;
+  private final SingleFlightCapability capability;
+
+  SingleFlightAsyncClient(AsyncClient<C> delegate, SingleFlightCapability capability) {
+    this.delegate = delegate;
+    this.capability = capability;
+  }
+
+  @Override
+  public CompletableFuture<Response> execute(Request request,
+                                             Options options,
+                                             Optional<C> requestContext) {
+    final String key = SingleFlightCapability.key(request);
+    if (key == null) {
+      return delegate.execute(request, options, requestContext);
+    }
+    final CompletableFuture<Response> flight = new CompletableFuture<>();
+    final CompletableFuture<Response> inFlight = flights.putIfAbsent(key, flight);
+    if (inFlight != null) {
+      capability.flightJoined();
+      return answer(inFlight, request);
+    }
+
+    capability.flightStarted();
+    final CompletableFuture<Response> upstream;
+    try {
+      upstream = delegate.execute(request, options, requestContext);
+    } catch (RuntimeException e) {
+      flights.remove(key, flight);
+      flight.completeExceptionally(e);
+      throw e;
+    }
+    upstream.whenComplete((response, throwable) -> {
+      Response shared = null;
+      Throwable failure = throwable;
+      if (failure == null) {
+        try {
+          shared = SingleFlightCapability.shareable(response);
+        } catch (IOException | RuntimeException e) {
+          failure = e;
+        }
+      }
+      // calls from now on send a new request
+      flights.remove(key, flight);
+      if (failure != null) {
+        flight.completeExceptionally(failure);
+      } else {
+        flight.complete(shared);
+      }
+    });
+    return answer(flight, request);
+  }
+
+  /**
+   * A future of its own for each call, so that one call cancelling doesn't affect the others.
+   */
+  private static CompletableFuture<Response> answer(CompletableFuture<Response> flight,
+                                                    Request request) {
+    final CompletableFuture<Response> result = new CompletableFuture<>();
+    flight.whenComplete((shared, throwable) -> {
+      if (throwable != null) {
+        result.completeExceptionally(throwable);
+      } else {
+        result.complete(SingleFlightCapability.answer(shared, request));
+      }
+    });
+    return result;
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.singleflight;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import feign.AsyncClient;
+import feign.Capability;
+import feign.Client;
+import feign.Experimental;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Sends one request for concurrent, identical calls of methods annotated with {@link SingleFlight},
+ * and gives each caller a copy of its response. The response body is read into memory once, so that
+ * every caller can read it. Calls joining a request in flight get its outcome, whatever their own
+ * {@link Request.Options}; a failure is shared as well.
+ *
+ * <pre>
+ * GitHub github = Feign.builder()
+ *     .addCapability(new SingleFlightCapability())
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ *
+ * Works with both {@link feign.Feign} and {@link feign.AsyncFeign}.
+ */
+@Experimental
+public final class SingleFlightCapability implements Capability {
+
+  private final LongAdder flights = new LongAdder();
+  private final LongAdder joined = new LongAdder();
+
+  @Override
+  public Client enrich(Client client) {
+    return new SingleFlightClient(client, this);
+  }
+
+  @Override
+  public <C> AsyncClient<C> enrichAsync(AsyncClient<C> client) {
+    return new SingleFlightAsyncClient<>(client, this);
+  }
+
+  /**
+   * Number of requests sent for {@link SingleFlight} methods.
+   */
+  public long flightCount() {
+    return flights.sum();
+  }
+
+  /**
+   * Number of calls that got the response of a request already in flight, instead of sending their
+   * own.
+   */
+  public long joinedCount() {
+    return joined.sum();
+  }
+
+  void flightStarted() {
+    flights.increment();
+  }
+
+  void flightJoined() {
+    joined.increment();
+  }
+
+  /**
+   * Identifies requests that can share a response, {@code null} if {@code request} should be sent
+   * on its own.
+   */
+  static String key(Request request) {
+    if (request.httpMethod() != HttpMethod.GET && request.httpMethod() != HttpMethod.HEAD) {
+      return null;
+    }
+    final RequestTemplate template = request.requestTemplate();
+    final Method method = template != null && template.methodMetadata() != null
+        ? template.methodMetadata().method()
+        : null;
+    final SingleFlight singleFlight =
+        method != null ? method.getAnnotation(SingleFlight.class) : null;
+    if (singleFlight == null) {
+      return null;
+    }
+
+    final Map<String, Collection<String>> headers = new TreeMap<>();
+    for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+      if (!ignored(header.getKey(), singleFlight)) {
+        headers.put(header.getKey().toLowerCase(Locale.ROOT), header.getValue());
+      }
+    }
+    final StringBuilder key = new StringBuilder()
+        .append(request.httpMethod()).append(' ').append(request.url());
+    for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+      key.append('\n').append(header.getKey()).append(": ");
+      for (String value : header.getValue()) {
+        key.append(value).append('\n');
+      }
+    }
+    return key.toString();
+  }
+
+  private static boolean ignored(String header, SingleFlight singleFlight) {
+    for (String ignored : singleFlight.ignoreHeaders()) {
+      if (ignored.equalsIgnoreCase(header)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A response whose body every caller can read.
+   */
+  static Response shareable(Response response) throws IOException {
+    final Response.Body body = response.body();
+    if (body == null || body.isRepeatable()) {
+      return response;
+    }
+    try {
+      return response.toBuilder()
+          .body(Util.toByteArray(body.asInputStream(), body.length()))
+          .build();
+    } finally {
+      Util.ensureClosed(body);
+    }
+  }
+
+  /**
+   * The shared response, as an answer to {@code request}.
+   */
+  static Response answer(Response shared, Request request) {
+    return shared.request() == request ? shared : shared.toBuilder().request(request).build();
+  }
+}
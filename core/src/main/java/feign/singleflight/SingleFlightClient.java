@@ -0,0 +1,88 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.singleflight;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * The {@link Client} of {@link SingleFlightCapability}: the first of concurrent, identical calls
+ * sends the request, the others wait for its response.
+ */
+final class SingleFlightClient implements Client {
+
+  private final ConcurrentMap<String, CompletableFuture<Response>> flights =
+      new ConcurrentHashMap<>();
+  private final Client delegate;
+  private final SingleFlightCapability capability;
+
+  SingleFlightClient(Client delegate, SingleFlightCapability capability) {
+    this.delegate = delegate;
+    this.capability = capability;
+  }
+
+  @Override
+  public Response execute(Request request, Options options) throws IOException {
+    final String key = SingleFlightCapability.key(request);
+    if (key == null) {
+      return delegate.execute(request, options);
+    }
+    final CompletableFuture<Response> flight = new CompletableFuture<>();
+    final CompletableFuture<Response> inFlight = flights.putIfAbsent(key, flight);
+    if (inFlight != null) {
+      capability.flightJoined();
+      return SingleFlightCapability.answer(await(inFlight), request);
+    }
+
+    capability.flightStarted();
+    final Response shared;
+    try {
+      shared = SingleFlightCapability.shareable(delegate.execute(request, options));
+    } catch (IOException | RuntimeException | Error e) {
+      flights.remove(key, flight);
+      flight.completeExceptionally(e);
+      throw e;
+    }
+    // calls from now on send a new request
+    flights.remove(key, flight);
+    flight.complete(shared);
+    return shared;
+  }
+
+  private static Response await(CompletableFuture<Response> flight) throws IOException {
+    try {
+      return flight.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted waiting for a request in flight");
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw new IOException(cause.getMessage(), cause);
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw (Error) cause;
+    }
+  }
+}
@@ -13,34 +13,48 @@
  */
 package feign.template;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import feign.Util;
 
 public final class Expressions {
-  private static Map<Pattern, Class<? extends Expression>> expressions;
-
-  static {
-    expressions = new LinkedHashMap<>();
-
-    /*
-     * basic pattern for variable names. this is compliant with RFC 6570 Simple Expressions ONLY
-     * with the following additional values allowed without required pct-encoding:
-     *
-     * - brackets - dashes
-     *
-     * see https://tools.ietf.org/html/rfc6570#section-2.3 for more information.
-     */
-
-    expressions.put(Pattern.compile("^([+#./;?&]?)(.*)$"),
-        SimpleExpression.class);
-  }
+
+  /*
+   * expressions are an optional operator followed by the variable name and an optional pattern.
+   * variable names are compliant with RFC 6570 Simple Expressions ONLY with the following
+   * additional values allowed without required pct-encoding:
+   *
+   * - brackets - dashes
+   *
+   * see https://tools.ietf.org/html/rfc6570#section-2.3 for more information.
+   */
+  private static final String OPERATORS = "+#./;?&";
+
+  /*
+   * expressions are parsed each time a template is, including the headers and queries interceptors
+   * add to each request. parsed expressions are immutable, so they are shared. values can come from
+   * requests, so the cache starts over once full.
+   */
+  static final int MAXIMUM_CACHED_EXPRESSIONS = 1024;
+  private static final Map<String, Optional<Expression>> cache = new ConcurrentHashMap<>();
 
   public static Expression create(final String value) {
+    if (value == null) {
+      throw new IllegalArgumentException("an expression is required.");
+    }
+    Optional<Expression> expression = cache.get(value);
+    if (expression == null) {
+      expression = Optional.ofNullable(parse(value));
+      if (cache.size() >= MAXIMUM_CACHED_EXPRESSIONS) {
+        cache.clear();
+      }
+      cache.put(value, expression);
+    }
+    return expression.orElse(null);
+  }
+
+  private static Expression parse(final String value) {
 
     /* remove the start and end braces */
     final String expression = stripBraces(value);
@@ -48,44 +62,41 @@ public final class Expressions {
       throw new IllegalArgumentException("an expression is required.");
     }
 
-    Optional<Entry<Pattern, Class<? extends Expression>>> matchedExpressionEntry =
-        expressions.entrySet()
-            .stream()
-            .filter(entry -> entry.getKey().matcher(expression).matches())
-            .findFirst();
-
-    if (!matchedExpressionEntry.isPresent()) {
-      /* not a valid expression */
-      return null;
+    /* an expression is an optional operator followed by anything but line terminators */
+    for (int i = 0; i < expression.length(); i++) {
+      if (isLineTerminator(expression.charAt(i))) {
+        /* not a valid expression */
+        return null;
+      }
     }
+    int nameStart = OPERATORS.indexOf(expression.charAt(0)) != -1 ? 1 : 0;
 
-    Entry<Pattern, Class<? extends Expression>> matchedExpression = matchedExpressionEntry.get();
-    Pattern expressionPattern = matchedExpression.getKey();
-
-    /* create a new regular expression matcher for the expression */
-    String variableName = null;
+    /* we have a valid variable expression, extract the name after the operator */
+    String variableName = expression.substring(nameStart).trim();
     String variablePattern = null;
-    Matcher matcher = expressionPattern.matcher(expression);
-    if (matcher.matches()) {
-      /* we have a valid variable expression, extract the name from the first group */
-      variableName = matcher.group(2).trim();
-      if (variableName.contains(":")) {
-        /* split on the colon */
-        String[] parts = variableName.split(":");
-        variableName = parts[0];
-        variablePattern = parts[1];
-      }
+    if (variableName.indexOf(':') != -1) {
+      /* split on the colon */
+      String[] parts = variableName.split(":");
+      variableName = parts[0];
+      variablePattern = parts[1];
+    }
 
-      /* look for nested expressions */
-      if (variableName.contains("{")) {
-        /* nested, literal */
-        return null;
-      }
+    /* look for nested expressions */
+    if (variableName.indexOf('{') != -1) {
+      /* nested, literal */
+      return null;
     }
 
     return new SimpleExpression(variableName, variablePattern);
   }
 
+  /**
+   * Characters {@code .} does not match in a {@link java.util.regex.Pattern}.
+   */
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
   private static String stripBraces(String expression) {
     if (expression == null) {
       return null;
@@ -112,17 +123,16 @@ public final class Expressions {
 
     @Override
     String expand(Object variable, boolean encode) {
-      StringBuilder expanded = new StringBuilder();
+      /* values that need no encoding are returned as is, without copying */
+      String result;
       if (Iterable.class.isAssignableFrom(variable.getClass())) {
-        expanded.append(this.expandIterable((Iterable<?>) variable));
+        result = this.expandIterable((Iterable<?>) variable);
       } else {
-        expanded.append((encode) ? encode(variable) : variable);
+        result = (encode) ? encode(variable) : variable.toString();
       }
 
-      /* return the string value of the variable */
-      String result = expanded.toString();
       if (!this.matches(result)) {
-        throw new IllegalArgumentException("Value " + expanded
+        throw new IllegalArgumentException("Value " + result
             + " does not match the expression pattern: " + this.getPattern());
       }
       return result;
@@ -143,12 +143,24 @@ public final class HeaderTemplate extends Template {
     String result = super.expand(variables);
 
     /* remove any trailing commas */
-    while (result.endsWith(",")) {
-      result = result.replaceAll(",$", "");
+    int end = result.length();
+    while (end > 0 && result.charAt(end - 1) == ',') {
+      end--;
     }
 
     /* space all the commas now */
-    result = result.replaceAll(",", ", ");
-    return result;
+    int comma = result.indexOf(',');
+    if (comma == -1 || comma >= end) {
+      return (end == result.length()) ? result : result.substring(0, end);
+    }
+    StringBuilder spaced = new StringBuilder(end + 8);
+    for (int i = 0; i < end; i++) {
+      char c = result.charAt(i);
+      spaced.append(c);
+      if (c == ',') {
+        spaced.append(' ');
+      }
+    }
+    return spaced.toString();
   }
 }
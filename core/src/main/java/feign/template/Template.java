@@ -32,6 +32,7 @@ public class Template {
 
   private static final Logger logger = Logger.getLogger(Template.class.getName());
   private static final Pattern QUERY_STRING_PATTERN = Pattern.compile("(?<!\\{)(\\?)");
+  private static final String ENCODED_SLASH = "%2F";
   private final String template;
   private final boolean allowUnresolved;
   private final EncodingOptions encode;
@@ -129,9 +130,9 @@ public class Template {
       String expanded = expression.expand(
           value, this.encode.isEncodingRequired());
       if (expanded != null) {
-        if (!this.encodeSlash) {
+        if (!this.encodeSlash && expanded.contains(ENCODED_SLASH)) {
           logger.fine("Explicit slash decoding specified, decoding all slashes in uri");
-          expanded = expanded.replaceAll("%2F", "/");
+          expanded = expanded.replace(ENCODED_SLASH, "/");
         }
         resolved = expanded;
       }
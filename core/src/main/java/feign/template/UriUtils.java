@@ -14,17 +14,38 @@
 package feign.template;
 
 import feign.Util;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class UriUtils {
 
-  private static final Pattern PCT_ENCODED_PATTERN = Pattern.compile("%[0-9A-Fa-f][0-9A-Fa-f]");
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+  /* lookup tables for the US-ASCII characters, anything else is always pct-encoded */
+  private static final boolean[] UNRESERVED = new boolean[128];
+  private static final boolean[] RESERVED = new boolean[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      UNRESERVED[c] = true;
+    }
+    for (char c = 'A'; c <= 'Z'; c++) {
+      UNRESERVED[c] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      UNRESERVED[c] = true;
+    }
+    for (char c : "-._~".toCharArray()) {
+      UNRESERVED[c] = true;
+    }
+    for (char c : "!$&'()*+,;=".toCharArray()) {
+      RESERVED[c] = true;
+    }
+    for (char c : ":/?#[]@".toCharArray()) {
+      RESERVED[c] = true;
+    }
+  }
 
   /**
    * Determines if the value is already pct-encoded.
@@ -33,13 +54,21 @@ public class UriUtils {
    * @return {@literal true} if the value is already pct-encoded
    */
   public static boolean isEncoded(String value, Charset charset) {
-    for (byte b : value.getBytes(charset)) {
-      if (!isUnreserved((char) b) && b != '%') {
+    return isEncoded(value);
+  }
+
+  /**
+   * Only unreserved characters and at least one pct-encoded triplet.
+   */
+  private static boolean isEncoded(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (!isUnreserved(c) && c != '%') {
         /* break if there are any unreserved character */
         return false;
       }
     }
-    return PCT_ENCODED_PATTERN.matcher(value).find();
+    return indexOfPctEncoded(value, 0) != -1;
   }
 
   /**
@@ -63,6 +92,24 @@ public class UriUtils {
     return encodeChunk(value, charset, false);
   }
 
+  /**
+   * Uri Encode the value into {@code builder}, as {@link #encode(String, Charset)} does, without
+   * creating an intermediate String.
+   *
+   * @param value to encode.
+   * @param charset to use.
+   * @param builder to append the encoded value to.
+   */
+  public static void encode(String value, Charset charset, StringBuilder builder) {
+    int safe = safePrefix(value, false);
+    if (safe == value.length() || isEncoded(value)) {
+      builder.append(value);
+      return;
+    }
+    builder.append(value, 0, safe);
+    appendEncoded(value, safe, value.length(), charset, false, builder);
+  }
+
   public static String encode(String value, boolean allowReservedCharacters) {
     return encodeInternal(value, Util.UTF_8, allowReservedCharacters);
   }
@@ -112,9 +159,9 @@ public class UriUtils {
                                       Charset charset,
                                       boolean allowReservedCharacters) {
     /* value is encoded, we need to split it up and skip the parts that are already encoded */
-    Matcher matcher = PCT_ENCODED_PATTERN.matcher(value);
+    int encodedIndex = indexOfPctEncoded(value, 0);
 
-    if (!matcher.find()) {
+    if (encodedIndex == -1) {
       return encodeChunk(value, charset, true);
     }
 
@@ -122,22 +169,19 @@ public class UriUtils {
     StringBuilder encoded = new StringBuilder(length + 8);
     int index = 0;
     do {
-      /* split out the value before the encoded value */
-      String before = value.substring(index, matcher.start());
-
-      /* encode it */
-      encoded.append(encodeChunk(before, charset, allowReservedCharacters));
+      /* encode the value before the encoded value */
+      appendEncoded(value, index, encodedIndex, charset, allowReservedCharacters, encoded);
 
       /* append the encoded value */
-      encoded.append(matcher.group());
+      encoded.append(value, encodedIndex, encodedIndex + 3);
 
       /* update the string search index */
-      index = matcher.end();
-    } while (matcher.find());
+      index = encodedIndex + 3;
+      encodedIndex = indexOfPctEncoded(value, index);
+    } while (encodedIndex != -1);
 
     /* append the rest of the string */
-    String tail = value.substring(index, length);
-    encoded.append(encodeChunk(tail, charset, allowReservedCharacters));
+    appendEncoded(value, index, length, charset, allowReservedCharacters, encoded);
     return encoded.toString();
   }
 
@@ -146,75 +190,108 @@ public class UriUtils {
    *
    * @param value to encode.
    * @param charset to use.
-   * @return an encoded uri chunk.
+   * @return an encoded uri chunk, the value itself when nothing needs to be encoded.
    */
   private static String encodeChunk(String value, Charset charset, boolean allowReserved) {
-    if (isEncoded(value, charset)) {
+    int safe = safePrefix(value, allowReserved);
+    if (safe == value.length() || isEncoded(value)) {
       return value;
     }
 
-    byte[] data = value.getBytes(charset);
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      for (byte b : data) {
-        if (isUnreserved((char) b)) {
-          bos.write(b);
-        } else if (isReserved((char) b) && allowReserved) {
-          bos.write(b);
-        } else {
-          pctEncode(b, bos);
-        }
+    StringBuilder encoded = new StringBuilder(value.length() + 16);
+    encoded.append(value, 0, safe);
+    appendEncoded(value, safe, value.length(), charset, allowReserved, encoded);
+    return encoded.toString();
+  }
+
+  /**
+   * Length of the leading characters of the value that are kept as is.
+   */
+  private static int safePrefix(String value, boolean allowReserved) {
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (!isUnreserved(c) && !(allowReserved && isReserved(c))) {
+        return i;
       }
-      return new String(bos.toByteArray(), charset);
-    } catch (IOException ioe) {
-      throw new IllegalStateException("Error occurred during encoding of the uri: "
-          + ioe.getMessage(), ioe);
     }
+    return length;
   }
 
   /**
-   * Percent Encode the provided byte.
-   *
-   * @param data to encode
-   * @param bos with the output stream to use.
+   * Pct-encodes the characters of the value between {@code start} and {@code end}, keeping the
+   * unreserved characters and, if allowed, the reserved ones.
    */
-  private static void pctEncode(byte data, ByteArrayOutputStream bos) {
-    bos.write('%');
-    char hex1 = Character.toUpperCase(Character.forDigit((data >> 4) & 0xF, 16));
-    char hex2 = Character.toUpperCase(Character.forDigit(data & 0xF, 16));
-    bos.write(hex1);
-    bos.write(hex2);
+  private static void appendEncoded(String value,
+                                    int start,
+                                    int end,
+                                    Charset charset,
+                                    boolean allowReserved,
+                                    StringBuilder builder) {
+    int i = start;
+    while (i < end) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        appendByte((byte) c, allowReserved, builder);
+        i++;
+        continue;
+      }
+      /* only non us-ascii characters need the charset, encode them together */
+      int runEnd = i + 1;
+      while (runEnd < end && value.charAt(runEnd) >= 0x80) {
+        runEnd++;
+      }
+      for (byte b : value.substring(i, runEnd).getBytes(charset)) {
+        appendByte(b, allowReserved, builder);
+      }
+      i = runEnd;
+    }
   }
 
-
-
-  private static boolean isAlpha(int c) {
-    return (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z');
+  private static void appendByte(byte b, boolean allowReserved, StringBuilder builder) {
+    if (isUnreserved(b) || (allowReserved && isReserved(b))) {
+      builder.append((char) b);
+    } else {
+      pctEncode(b, builder);
+    }
   }
 
-  private static boolean isDigit(int c) {
-    return (c >= '0' && c <= '9');
+  /**
+   * Percent Encode the provided byte.
+   *
+   * @param data to encode
+   * @param builder to append to.
+   */
+  private static void pctEncode(byte data, StringBuilder builder) {
+    builder.append('%')
+        .append(HEX_DIGITS[(data >> 4) & 0xF])
+        .append(HEX_DIGITS[data & 0xF]);
   }
 
-  private static boolean isGenericDelimiter(int c) {
-    return (c == ':') || (c == '/') || (c == '?') || (c == '#') || (c == '[') || (c == ']')
-        || (c == '@');
+  /**
+   * Index of the first pct-encoded triplet, {@code %} followed by two hex digits, at or after
+   * {@code from}, or -1.
+   */
+  private static int indexOfPctEncoded(String value, int from) {
+    int last = value.length() - 3;
+    for (int i = value.indexOf('%', from); i != -1 && i <= last; i = value.indexOf('%', i + 1)) {
+      if (isHexDigit(value.charAt(i + 1)) && isHexDigit(value.charAt(i + 2))) {
+        return i;
+      }
+    }
+    return -1;
   }
 
-  private static boolean isSubDelimiter(int c) {
-    return (c == '!') || (c == '$') || (c == '&') || (c == '\'') || (c == '(') || (c == ')')
-        || (c == '*') || (c == '+') || (c == ',') || (c == ';') || (c == '=');
+  private static boolean isHexDigit(char c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
   }
 
   private static boolean isUnreserved(int c) {
-    return isAlpha(c) || isDigit(c) || c == '-' || c == '.' || c == '_' || c == '~';
+    return c >= 0 && c < 0x80 && UNRESERVED[c];
   }
 
   private static boolean isReserved(int c) {
-    return isGenericDelimiter(c) || isSubDelimiter(c);
-  }
-
-  private boolean isPchar(int c) {
-    return isUnreserved(c) || isSubDelimiter(c) || c == ':' || c == '@';
+    return c >= 0 && c < 0x80 && RESERVED[c];
   }
 
 }
@@ -37,7 +37,10 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Rule;
 import org.junit.Test;
@@ -78,6 +81,27 @@ public class AsyncFeignTest {
     assertThat(server.takeRequest()).hasPath("/?1=user&2=apple&2=pear");
   }
 
+  @Test
+  public void runsDefaultClientOnExecutorService() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+    AtomicInteger tasks = new AtomicInteger();
+    ExecutorService executorService =
+        new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+          @Override
+          protected void beforeExecute(Thread t, Runnable r) {
+            tasks.incrementAndGet();
+          }
+        };
+
+    TestInterfaceAsync api = AsyncFeign.<Void>asyncBuilder()
+        .executorService(executorService)
+        .target(TestInterfaceAsync.class, "http://localhost:" + server.getPort());
+
+    assertThat(api.post().get(5, TimeUnit.SECONDS)).isEqualTo("foo");
+    assertThat(tasks.get()).isEqualTo(1);
+    executorService.shutdown();
+  }
+
   @Test
   public void postTemplateParamsResolve() throws Exception {
     server.enqueue(new MockResponse().setBody("foo"));
@@ -0,0 +1,195 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncRetryerTest {
+
+  public interface Api {
+
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+  }
+
+  private final List<String> attemptThreads = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger attempts = new AtomicInteger();
+
+  /**
+   * Fails the first {@code failures} attempts with an {@link IOException}.
+   */
+  private AsyncClient<Object> failing(int failures) {
+    return (request, options, requestContext) -> {
+      attemptThreads.add(Thread.currentThread().getName());
+      final CompletableFuture<Response> result = new CompletableFuture<>();
+      if (attempts.incrementAndGet() <= failures) {
+        result.completeExceptionally(new IOException("connection reset"));
+      } else {
+        result.complete(Response.builder()
+            .status(200)
+            .headers(Collections.emptyMap())
+            .request(request)
+            .body("ok", StandardCharsets.UTF_8)
+            .build());
+      }
+      return result;
+    };
+  }
+
+  @Test
+  public void doesNotRetryByDefault() throws Exception {
+    final Api api = AsyncFeign.asyncBuilder()
+        .client(failing(1))
+        .target(Api.class, "http://localhost");
+
+    try {
+      api.get().get(1, TimeUnit.SECONDS);
+      fail("expected the IOException");
+    } catch (final ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+    assertThat(attempts.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void retriesOnTimerWithoutSleeping() throws Exception {
+    final Api api = AsyncFeign.asyncBuilder()
+        .client(failing(2))
+        .retryer(new Retryer.Default(1, 10, 5))
+        .target(Api.class, "http://localhost");
+
+    assertThat(api.get().get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+    assertThat(attempts.get()).isEqualTo(3);
+    assertThat(attemptThreads.get(0)).isEqualTo(Thread.currentThread().getName());
+    assertThat(attemptThreads.get(1)).isEqualTo("feign-scheduler");
+    assertThat(attemptThreads.get(2)).isEqualTo("feign-scheduler");
+  }
+
+  @Test
+  public void asksAsyncRetryerForDelay() throws Exception {
+    final List<RetryableException> failures = Collections.synchronizedList(new ArrayList<>());
+    final AsyncRetryer retryer = new AsyncRetryer() {
+
+      @Override
+      public long nextDelayMillis(RetryableException e) {
+        failures.add(e);
+        return 5;
+      }
+
+      @Override
+      public AsyncRetryer clone() {
+        return this;
+      }
+    };
+    final Api api = AsyncFeign.asyncBuilder()
+        .client(failing(1))
+        .retryer(retryer)
+        .target(Api.class, "http://localhost");
+
+    assertThat(api.get().get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+    assertThat(failures).hasSize(1);
+    assertThat(failures.get(0).getCause()).isInstanceOf(IOException.class);
+    assertThat(failures.get(0).method()).isEqualTo(Request.HttpMethod.GET);
+  }
+
+  @Test
+  public void propagatesOriginalExceptionWhenRetriesAreExhausted() throws Exception {
+    final Api api = AsyncFeign.asyncBuilder()
+        .client(failing(5))
+        .retryer(new Retryer.Default(1, 10, 3))
+        .target(Api.class, "http://localhost");
+
+    try {
+      api.get().get(1, TimeUnit.SECONDS);
+      fail("expected the IOException");
+    } catch (final ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(IOException.class);
+      assertThat(e.getCause().getMessage()).isEqualTo("connection reset");
+    }
+    assertThat(attempts.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void neverRetryPropagatesFirstFailure() throws Exception {
+    final Api api = AsyncFeign.asyncBuilder()
+        .client(failing(1))
+        .retryer(Retryer.NEVER_RETRY)
+        .target(Api.class, "http://localhost");
+
+    try {
+      api.get().get(1, TimeUnit.SECONDS);
+      fail("expected the IOException");
+    } catch (final ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+    assertThat(attempts.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void callsBlockingRetryerOnSeparateThreads() throws Exception {
+    final List<String> retryerThreads = Collections.synchronizedList(new ArrayList<>());
+    final Retryer blocking = new Retryer() {
+
+      @Override
+      public void continueOrPropagate(RetryableException e) {
+        retryerThreads.add(Thread.currentThread().getName());
+      }
+
+      @Override
+      public Retryer clone() {
+        return this;
+      }
+    };
+    final Api api = AsyncFeign.asyncBuilder()
+        .client(failing(2))
+        .retryer(blocking)
+        .target(Api.class, "http://localhost");
+
+    assertThat(api.get().get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+    assertThat(retryerThreads).containsExactly("feign-blocking", "feign-blocking");
+  }
+
+  @Test
+  public void asksSubclassesOfDefaultForDelayUnlessTheySleep() {
+    final Retryer clock = new Retryer.Default() {
+
+      @Override
+      protected long currentTimeMillis() {
+        return 0;
+      }
+    };
+    final Retryer sleeping = new Retryer.Default() {
+
+      @Override
+      public void continueOrPropagate(RetryableException e) {
+        super.continueOrPropagate(e);
+      }
+    };
+
+    assertThat(new RetryerAdapter(new Retryer.Default()).isBlocking()).isFalse();
+    assertThat(new RetryerAdapter(clock).isBlocking()).isFalse();
+    assertThat(new RetryerAdapter(sleeping).isBlocking()).isTrue();
+  }
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import feign.codec.Decoder;
+
+public class BatchedTest {
+
+  public interface Inventory {
+
+    @Batched(value = "getItems", maxSize = 10, maxDelayMillis = 1000)
+    @RequestLine("GET /items/{id}")
+    String getItem(@Param("id") String id);
+
+    @RequestLine("GET /items?id={ids}")
+    Map<String, String> getItems(@Param("ids") List<String> ids);
+
+    @Batched(value = "listItems", maxDelayMillis = 50)
+    @RequestLine("GET /items/{id}")
+    String getListedItem(@Param("id") String id);
+
+    @RequestLine("GET /items?id={ids}")
+    List<String> listItems(@Param("ids") List<String> ids);
+  }
+
+  public interface AsyncInventory {
+
+    @Batched(value = "getItems", maxSize = 4, maxDelayMillis = 1000)
+    @RequestLine("GET /items/{id}")
+    CompletableFuture<String> getItem(@Param("id") String id);
+
+    @RequestLine("GET /items?id={ids}")
+    CompletableFuture<Map<String, String>> getItems(@Param("ids") List<String> ids);
+  }
+
+  interface MissingBulkMethod {
+
+    @Batched("getItems")
+    @RequestLine("GET /items/{id}")
+    String getItem(@Param("id") String id);
+  }
+
+  private final List<Request> requests = Collections.synchronizedList(new ArrayList<>());
+  private final ExecutorService executor = Executors.newFixedThreadPool(10);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void combinesConcurrentCalls() throws Exception {
+    final Inventory inventory = Feign.builder()
+        .client(this::items)
+        .decoder(new ItemsDecoder())
+        .target(Inventory.class, "http://localhost");
+
+    final List<Future<String>> calls = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      final String id = String.valueOf(i);
+      calls.add(executor.submit(() -> inventory.getItem(id)));
+    }
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(calls.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("item" + i);
+    }
+    assertThat(requests).hasSize(1);
+    assertThat(requests.get(0).url()).startsWith("http://localhost/items?id=");
+  }
+
+  @Test
+  public void sendsBatchAfterDelay() {
+    final Inventory inventory = Feign.builder()
+        .client(this::items)
+        .decoder(new ItemsDecoder())
+        .target(Inventory.class, "http://localhost");
+
+    assertThat(inventory.getListedItem("1")).isEqualTo("item1");
+    assertThat(requests).hasSize(1);
+    assertThat(requests.get(0).url()).isEqualTo("http://localhost/items?id=1");
+  }
+
+  @Test
+  public void matchesListResultsByPosition() throws Exception {
+    final Inventory inventory = Feign.builder()
+        .client(this::items)
+        .decoder(new ItemsDecoder())
+        .target(Inventory.class, "http://localhost");
+
+    final List<Future<String>> calls = new ArrayList<>();
+    for (String id : Arrays.asList("a", "b", "a", "c")) {
+      calls.add(executor.submit(() -> inventory.getListedItem(id)));
+    }
+
+    assertThat(calls.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("itema");
+    assertThat(calls.get(1).get(5, TimeUnit.SECONDS)).isEqualTo("itemb");
+    assertThat(calls.get(2).get(5, TimeUnit.SECONDS)).isEqualTo("itema");
+    assertThat(calls.get(3).get(5, TimeUnit.SECONDS)).isEqualTo("itemc");
+  }
+
+  @Test
+  public void failsEveryCallOfBatch() throws Exception {
+    final Inventory inventory = Feign.builder()
+        .client((request, options) -> {
+          requests.add(request);
+          throw new IOException("connection reset");
+        })
+        .retryer(Retryer.NEVER_RETRY)
+        .target(Inventory.class, "http://localhost");
+
+    final List<Future<String>> calls = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      final String id = String.valueOf(i);
+      calls.add(executor.submit(() -> inventory.getItem(id)));
+    }
+
+    for (Future<String> call : calls) {
+      try {
+        call.get(5, TimeUnit.SECONDS);
+        fail("expected the bulk call to fail");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause())
+            .isInstanceOf(RetryableException.class)
+            .hasMessageContaining("connection reset");
+      }
+    }
+    assertThat(requests).hasSize(1);
+  }
+
+  @Test
+  public void combinesAsyncCalls() throws Exception {
+    final AsyncClient<Object> client = (request, options, requestContext) -> {
+      try {
+        return CompletableFuture.completedFuture(items(request, options));
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    };
+    final AsyncInventory inventory = AsyncFeign.asyncBuilder()
+        .client(client)
+        .decoder(new ItemsDecoder())
+        .target(AsyncInventory.class, "http://localhost");
+
+    final List<CompletableFuture<String>> calls = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      calls.add(inventory.getItem(String.valueOf(i)));
+    }
+
+    // the first four fill a batch, the last two are sent once the delay elapsed
+    assertThat(requests).hasSize(1);
+    for (int i = 0; i < 6; i++) {
+      assertThat(calls.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("item" + i);
+    }
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  public void requiresBulkMethod() {
+    try {
+      Feign.builder().target(MissingBulkMethod.class, "http://localhost");
+      fail("expected the missing bulk method to be reported");
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessageContaining("getItems(List)");
+    }
+  }
+
+  /**
+   * Answers {@code id=item<id>} lines for each id of the query.
+   */
+  private Response items(Request request, Request.Options options) throws IOException {
+    requests.add(request);
+    final String query = request.url().substring(request.url().indexOf('?') + 1);
+    final StringBuilder body = new StringBuilder();
+    for (String parameter : query.split("&")) {
+      final String id = parameter.substring("id=".length());
+      body.append(id).append("=item").append(id).append('\n');
+    }
+    return Response.builder()
+        .status(200)
+        .headers(Collections.emptyMap())
+        .request(request)
+        .body(body.toString(), StandardCharsets.UTF_8)
+        .build();
+  }
+
+  static final class ItemsDecoder implements Decoder {
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+      final Map<String, String> items = new LinkedHashMap<>();
+      for (String line : Util.toString(response.body().asReader(StandardCharsets.UTF_8))
+          .split("\n")) {
+        items.put(line.substring(0, line.indexOf('=')), line.substring(line.indexOf('=') + 1));
+      }
+      final Type raw = type instanceof ParameterizedType
+          ? ((ParameterizedType) type).getRawType()
+          : type;
+      return raw == Map.class ? items : new ArrayList<>(items.values());
+    }
+  }
+}
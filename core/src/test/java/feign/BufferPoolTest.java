@@ -0,0 +1,63 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import org.junit.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BufferPoolTest {
+
+  @Test
+  public void stripedPoolReusesReleasedBuffers() {
+    BufferPool pool = BufferPool.striped(16, 3);
+
+    byte[] buffer = pool.acquire();
+    assertThat(buffer).hasSize(16);
+    pool.release(buffer);
+
+    assertThat(pool.acquire()).isSameAs(buffer);
+    assertThat(pool.acquire()).isNotSameAs(buffer);
+  }
+
+  @Test
+  public void stripedPoolIgnoresForeignBuffers() {
+    BufferPool pool = BufferPool.striped(16, 1);
+
+    pool.release(new byte[8]);
+
+    assertThat(pool.acquire()).hasSize(16);
+  }
+
+  @Test
+  public void unpooledAllocatesEachTime() {
+    BufferPool pool = BufferPool.unpooled(16);
+
+    byte[] buffer = pool.acquire();
+    pool.release(buffer);
+
+    assertThat(pool.acquire()).isNotSameAs(buffer).hasSize(16);
+  }
+
+  @Test
+  public void sharedPoolCanBeReplaced() {
+    BufferPool original = BufferPool.shared();
+    try {
+      BufferPool unpooled = BufferPool.unpooled(32);
+      BufferPool.setShared(unpooled);
+      assertThat(BufferPool.shared()).isSameAs(unpooled);
+    } finally {
+      BufferPool.setShared(original);
+    }
+  }
+}
@@ -14,11 +14,14 @@
 package feign;
 
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import feign.Request.Options;
 
 public class CapabilityTest {
@@ -48,6 +51,22 @@ public class CapabilityTest {
 
   }
 
+  private static class SyncAndAsyncClient implements Client, AsyncClient<Object> {
+
+    @Override
+    public Response execute(Request request, Options options) throws IOException {
+      return null;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request,
+                                               Options options,
+                                               Optional<Object> requestContext) {
+      return null;
+    }
+
+  }
+
   @Test
   public void enrichClient() {
     Client enriched = Capability.enrich(new Client.Default(null, null), Arrays.asList(
@@ -66,4 +85,29 @@ public class CapabilityTest {
     assertThat(enriched, CoreMatchers.instanceOf(BClient.class));
   }
 
+  @Test
+  public void enrichesClientImplementingBothTypesByComponentType() {
+    final SyncAndAsyncClient client = new SyncAndAsyncClient();
+    final SyncAndAsyncClient enrichedSync = new SyncAndAsyncClient();
+    final SyncAndAsyncClient enrichedAsync = new SyncAndAsyncClient();
+    final Capability capability = new Capability() {
+      @Override
+      public Client enrich(Client client) {
+        return enrichedSync;
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public <C> AsyncClient<C> enrichAsync(AsyncClient<C> client) {
+        return (AsyncClient<C>) enrichedAsync;
+      }
+    };
+
+    assertThat(capability.enrich(client), sameInstance(enrichedSync));
+    assertThat(Capability.enrich(client, Client.class, Arrays.asList(capability)),
+        sameInstance(enrichedSync));
+    assertThat(Capability.enrich(client, AsyncClient.class, Arrays.asList(capability)),
+        sameInstance(enrichedAsync));
+  }
+
 }
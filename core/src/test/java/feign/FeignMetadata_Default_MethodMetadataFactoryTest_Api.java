@@ -0,0 +1,39 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Written by hand in the shape {@code feign-apt-generator} generates, for
+ * {@link MethodMetadataFactoryTest}.
+ */
+public final class FeignMetadata_Default_MethodMetadataFactoryTest_Api
+    extends MethodMetadataFactory {
+
+  public FeignMetadata_Default_MethodMetadataFactoryTest_Api() {
+    super("feign.Contract$Default");
+  }
+
+  @Override
+  public List<MethodMetadata> create() {
+    final MethodMetadata data = metadata(MethodMetadataFactoryTest.Api.class, "get", String.class);
+    data.template().method(Request.HttpMethod.GET);
+    data.template().uri("/generated/{id}");
+    nameParam(data, "id", 0);
+    parameter(data, 0);
+    return Collections.singletonList(validate(data));
+  }
+}
@@ -46,6 +46,7 @@ import static org.assertj.core.data.MapEntry.entry;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @SuppressWarnings("deprecation")
 public class FeignTest {
@@ -631,6 +632,46 @@ public class FeignTest {
     api.post();
   }
 
+  @Test
+  public void doesNotRetryStreamedBodiesThatArentReplayable() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 1"));
+    server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 2"));
+
+    TestInterface api = Feign.builder()
+        .retryer(new Retryer.Default(1, 1, 2))
+        .requestInterceptor(template -> template
+            .body(out -> out.write("foo".getBytes(UTF_8)), 3, false))
+        .errorDecoder((methodKey, response) -> new RetryableException(response.status(),
+            "play it again sam!", HttpMethod.POST, null, response.request()))
+        .target(TestInterface.class, "http://localhost:" + server.getPort());
+
+    try {
+      api.post();
+      fail("expected a RetryableException");
+    } catch (RetryableException expected) {
+      assertEquals(1, server.getRequestCount());
+    }
+    assertThat(server.takeRequest()).hasBody("foo");
+  }
+
+  @Test
+  public void retriesReplayableStreamedBodies() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 1"));
+    server.enqueue(new MockResponse().setBody("success!"));
+
+    TestInterface api = Feign.builder()
+        .retryer(new Retryer.Default(1, 1, 2))
+        .requestInterceptor(template -> template
+            .body(out -> out.write("foo".getBytes(UTF_8)), -1, true))
+        .errorDecoder((methodKey, response) -> new RetryableException(response.status(),
+            "play it again sam!", HttpMethod.POST, null, response.request()))
+        .target(TestInterface.class, "http://localhost:" + server.getPort());
+
+    assertEquals("success!", api.post());
+    assertThat(server.takeRequest()).hasBody("foo");
+    assertThat(server.takeRequest()).hasBody("foo");
+  }
+
   @Test
   public void whenReturnTypeIsResponseNoErrorHandling() {
     Map<String, Collection<String>> headers = new LinkedHashMap<>();
@@ -24,15 +24,19 @@ import org.junit.rules.RuleChain;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 import org.junit.runners.model.Statement;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import feign.Logger.Level;
+import static org.assertj.core.api.Assertions.assertThat;
 
 @RunWith(Enclosed.class)
 public class LoggerTest {
@@ -110,6 +114,128 @@ public class LoggerTest {
     }
   }
 
+  @RunWith(Parameterized.class)
+  public static class TeeResponseBodyTest extends LoggerTest {
+
+    private final Level logLevel;
+
+    public TeeResponseBodyTest(Level logLevel,
+        boolean logOnClose,
+        List<String> expectedMessages) {
+      this.logLevel = logLevel;
+      logger.teeResponseBody(3).logOnClose(logOnClose);
+      logger.expectMessages(expectedMessages);
+    }
+
+    @Parameters
+    public static Iterable<Object[]> data() {
+      return Arrays.asList(new Object[][] {
+          {Level.HEADERS, false, Arrays.asList(
+              "\\[SendsStuff#login\\] ---> POST http://localhost:[0-9]+/ HTTP/1.1",
+              "\\[SendsStuff#login\\] Content-Length: 80",
+              "\\[SendsStuff#login\\] Content-Type: application/json",
+              "\\[SendsStuff#login\\] ---> END HTTP \\(80-byte body\\)",
+              "\\[SendsStuff#login\\] <--- HTTP/1.1 200 OK \\([0-9]+ms\\)",
+              "\\[SendsStuff#login\\] content-length: 6",
+              "\\[SendsStuff#login\\] <--- END HTTP \\(streaming body, 0 bytes logged\\)")},
+          {Level.FULL, false, Arrays.asList(
+              "\\[SendsStuff#login\\] ---> POST http://localhost:[0-9]+/ HTTP/1.1",
+              "\\[SendsStuff#login\\] Content-Length: 80",
+              "\\[SendsStuff#login\\] Content-Type: application/json",
+              "\\[SendsStuff#login\\] ",
+              "\\[SendsStuff#login\\] \\{\"customer_name\": \"netflix\", \"user_name\": \"denominator\", \"password\": \"password\"\\}",
+              "\\[SendsStuff#login\\] ---> END HTTP \\(80-byte body\\)",
+              "\\[SendsStuff#login\\] <--- HTTP/1.1 200 OK \\([0-9]+ms\\)",
+              "\\[SendsStuff#login\\] content-length: 6",
+              "\\[SendsStuff#login\\] ",
+              "\\[SendsStuff#login\\] foo\\.\\.\\.",
+              "\\[SendsStuff#login\\] <--- END HTTP \\(streaming body, 3 bytes logged\\)")},
+          {Level.FULL, true, Arrays.asList(
+              "\\[SendsStuff#login\\] ---> POST http://localhost:[0-9]+/ HTTP/1.1",
+              "\\[SendsStuff#login\\] Content-Length: 80",
+              "\\[SendsStuff#login\\] Content-Type: application/json",
+              "\\[SendsStuff#login\\] ",
+              "\\[SendsStuff#login\\] \\{\"customer_name\": \"netflix\", \"user_name\": \"denominator\", \"password\": \"password\"\\}",
+              "\\[SendsStuff#login\\] ---> END HTTP \\(80-byte body\\)",
+              "\\[SendsStuff#login\\] <--- HTTP/1.1 200 OK \\([0-9]+ms\\)",
+              "\\[SendsStuff#login\\] content-length: 6",
+              "\\[SendsStuff#login\\] ",
+              "\\[SendsStuff#login\\] foo\\.\\.\\.",
+              "\\[SendsStuff#login\\] <--- END HTTP \\(6-byte body read in [0-9]+ms\\)")}
+      });
+    }
+
+    @Test
+    public void logsFirstBytesAndStreamsTheRest() {
+      server.enqueue(new MockResponse().setBody("foobar"));
+
+      SendsStuff api = Feign.builder()
+          .logger(logger)
+          .logLevel(logLevel)
+          .target(SendsStuff.class, "http://localhost:" + server.getPort());
+
+      assertThat(api.login("netflix", "denominator", "password")).isEqualTo("foobar");
+    }
+  }
+
+  @RunWith(JUnit4.class)
+  public static class TeeResponseBodyWithoutLoggingTest extends LoggerTest {
+
+    @Test
+    public void doesNotReadAheadWhenNothingIsLogged() throws IOException {
+      logger.teeResponseBody(0);
+      logger.expectMessages(Arrays.asList(
+          "\\[SendsStuff#login\\] <--- HTTP/1.1 200 OK \\([0-9]+ms\\)",
+          "\\[SendsStuff#login\\] ",
+          "\\[SendsStuff#login\\] <--- END HTTP \\(streaming body, 0 bytes logged\\)"));
+      ByteArrayInputStream body = new ByteArrayInputStream("foobar".getBytes(Util.UTF_8));
+      Response response = Response.builder()
+          .status(200)
+          .reason("OK")
+          .request(Request.create(Request.HttpMethod.POST, "/", Collections.emptyMap(), null,
+              Util.UTF_8, null))
+          .headers(Collections.emptyMap())
+          .body(body, 6)
+          .build();
+
+      Response logged =
+          logger.logAndRebufferResponse("SendsStuff#login()", Level.FULL, response, 0);
+
+      assertThat(body.available()).isEqualTo(6);
+      assertThat(Util.toString(logged.body().asReader(Util.UTF_8))).isEqualTo("foobar");
+    }
+  }
+
+  @RunWith(JUnit4.class)
+  public static class TeeResponseBodyOfUnknownLengthTest extends LoggerTest {
+
+    @Test
+    public void rebuffersBodyLongerThanFirstBuffer() throws IOException {
+      logger.teeResponseBody(1 << 20);
+      logger.expectMessages(Arrays.asList(
+          "\\[SendsStuff#login\\] <--- HTTP/1.1 200 OK \\([0-9]+ms\\)",
+          "\\[SendsStuff#login\\] ",
+          "\\[SendsStuff#login\\] x{20000}",
+          "\\[SendsStuff#login\\] <--- END HTTP \\(20000-byte body\\)"));
+      char[] data = new char[20_000];
+      Arrays.fill(data, 'x');
+      Response response = Response.builder()
+          .status(200)
+          .reason("OK")
+          .request(Request.create(Request.HttpMethod.POST, "/", Collections.emptyMap(), null,
+              Util.UTF_8, null))
+          .headers(Collections.emptyMap())
+          .body(new ByteArrayInputStream(new String(data).getBytes(Util.UTF_8)), null)
+          .build();
+
+      Response logged =
+          logger.logAndRebufferResponse("SendsStuff#login()", Level.FULL, response, 0);
+
+      assertThat(logged.body().length()).isEqualTo(20_000);
+      assertThat(Util.toString(logged.body().asReader(Util.UTF_8))).isEqualTo(new String(data));
+    }
+  }
+
   @RunWith(Parameterized.class)
   public static class ReasonPhraseOptional extends LoggerTest {
 
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class MethodMetadataCacheTest {
+
+  interface Api {
+
+    @RequestLine("GET /{id}")
+    @Headers("Accept: application/json")
+    String get(@Param("id") String id);
+  }
+
+  interface OtherApi {
+
+    @RequestLine("POST /")
+    void post(String body);
+  }
+
+  private final AtomicInteger parsed = new AtomicInteger();
+  private final Function<Class<?>, List<MethodMetadata>> parser = type -> {
+    parsed.incrementAndGet();
+    return new Contract.Default() {}.parseAndValidateMetadata(type);
+  };
+
+  @Test
+  public void parsesOncePerContractAndInterface() {
+    final MethodMetadataCache cache = new MethodMetadataCache(10);
+
+    cache.get(Contract.Default.class, Api.class, parser);
+    cache.get(Contract.Default.class, Api.class, parser);
+    cache.get(Contract.Default.class, OtherApi.class, parser);
+    cache.get(DeclarativeContract.class, Api.class, parser);
+
+    assertThat(parsed).hasValue(3);
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(3);
+    assertThat(cache.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void returnsCopies() {
+    final MethodMetadataCache cache = new MethodMetadataCache(10);
+
+    final MethodMetadata first = cache.get(Contract.Default.class, Api.class, parser).get(0);
+    first.returnType(Integer.class);
+    first.template().header("Accept", "text/plain");
+    first.indexToName().get(0).add("other");
+
+    final MethodMetadata second = cache.get(Contract.Default.class, Api.class, parser).get(0);
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.configKey()).isEqualTo("Api#get(String)");
+    assertThat(second.returnType()).isEqualTo(String.class);
+    assertThat(second.template().headers().get("Accept")).containsExactly("application/json");
+    assertThat(second.template().methodMetadata()).isSameAs(second);
+    assertThat(second.indexToName().get(0)).containsExactly("id");
+    assertThat(second.method()).isEqualTo(first.method());
+  }
+
+  @Test
+  public void dropsOldestEntriesWhenFull() {
+    final MethodMetadataCache cache = new MethodMetadataCache(1);
+
+    cache.get(Contract.Default.class, Api.class, parser);
+    cache.get(Contract.Default.class, OtherApi.class, parser);
+    cache.get(Contract.Default.class, Api.class, parser);
+
+    assertThat(parsed).hasValue(3);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void clear() {
+    final MethodMetadataCache cache = new MethodMetadataCache(10);
+    cache.get(Contract.Default.class, Api.class, parser);
+
+    cache.clear();
+    cache.get(Contract.Default.class, Api.class, parser);
+
+    assertThat(parsed).hasValue(2);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void doesNotCacheFailures() {
+    final MethodMetadataCache cache = new MethodMetadataCache(10);
+    final Function<Class<?>, List<MethodMetadata>> failing = type -> {
+      parsed.incrementAndGet();
+      throw new IllegalStateException("invalid");
+    };
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.get(Contract.Default.class, Api.class, failing);
+      } catch (IllegalStateException expected) {
+      }
+    }
+
+    assertThat(parsed).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void declarativeContractsShareCache() {
+    final long misses = MethodMetadataCache.shared().missCount();
+
+    final MethodMetadata first = new Contract.Default().parseAndValidateMetadata(OtherApi.class)
+        .get(0);
+    final MethodMetadata second = new Contract.Default().parseAndValidateMetadata(OtherApi.class)
+        .get(0);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(MethodMetadataCache.shared().missCount()).isLessThanOrEqualTo(misses + 1);
+  }
+
+  @Test
+  public void subclassesOfBuiltInContractsAreNotCached() {
+    final MethodMetadataCache shared = MethodMetadataCache.shared();
+    final long hits = shared.hitCount();
+    final long misses = shared.missCount();
+
+    new Contract.Default() {}.parseAndValidateMetadata(Api.class);
+    new Contract.Default() {}.parseAndValidateMetadata(Api.class);
+
+    assertThat(shared.hitCount()).isEqualTo(hits);
+    assertThat(shared.missCount()).isEqualTo(misses);
+  }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import java.util.List;
+
+public class MethodMetadataFactoryTest {
+
+  interface Api {
+
+    @RequestLine("GET /reflected/{id}")
+    String get(@Param("id") String id);
+  }
+
+  interface NotGenerated {
+
+    @RequestLine("GET /")
+    String get();
+  }
+
+  @Test
+  public void contractUsesGeneratedMetadata() {
+    final List<MethodMetadata> metadata =
+        new Contract.Default().parseAndValidateMetadata(Api.class);
+
+    assertThat(metadata).hasSize(1);
+    assertThat(metadata.get(0).configKey()).isEqualTo("Api#get(String)");
+    assertThat(metadata.get(0).returnType()).isEqualTo(String.class);
+    assertThat(metadata.get(0).template().url()).isEqualTo("/generated/{id}");
+    assertThat(metadata.get(0).indexToName()).containsKey(0);
+  }
+
+  @Test
+  public void createsNewMetadataEachTime() {
+    final Contract contract = new Contract.Default();
+
+    assertThat(contract.parseAndValidateMetadata(Api.class).get(0))
+        .isNotSameAs(contract.parseAndValidateMetadata(Api.class).get(0));
+  }
+
+  @Test
+  public void subclassesParseAnnotations() {
+    final List<MethodMetadata> metadata =
+        new Contract.Default() {}.parseAndValidateMetadata(Api.class);
+
+    assertThat(metadata.get(0).template().url()).isEqualTo("/reflected/{id}");
+  }
+
+  @Test
+  public void otherContractsParseAnnotations() {
+    assertThat(MethodMetadataFactory.find(DeclarativeContract.class, Api.class)).isNull();
+  }
+
+  @Test
+  public void parsesAnnotationsWithoutGeneratedMetadata() {
+    assertThat(MethodMetadataFactory.find(Contract.Default.class, NotGenerated.class)).isNull();
+    assertThat(new Contract.Default().parseAndValidateMetadata(NotGenerated.class))
+        .hasSize(1);
+  }
+
+  @Test
+  public void className() {
+    assertThat(MethodMetadataFactory.className("Default", "example.github.GitHubExample$GitHub"))
+        .isEqualTo("example.github.FeignMetadata_Default_GitHubExample_GitHub");
+    assertThat(MethodMetadataFactory.className("JAXRSContract", "Api"))
+        .isEqualTo("FeignMetadata_JAXRSContract_Api");
+  }
+}
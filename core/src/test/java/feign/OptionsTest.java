@@ -17,11 +17,20 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.net.SocketTimeoutException;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import feign.Target.HardCodedTarget;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * @author pengfei.zhao
@@ -66,4 +75,152 @@ public class OptionsTest {
 
     assertThat(api.get(new Request.Options(1000, 4 * 1000))).isEqualTo("foo");
   }
+
+  @Test
+  public void optionsIndexIsRecorded() {
+    final Contract contract = new Contract.Default();
+
+    assertThat(contract.parseAndValidateMetadata(OptionsInterface.class))
+        .extracting(MethodMetadata::optionsIndex)
+        .containsOnly(0, null);
+  }
+
+  @Test
+  public void nullOptionsUseDefault() throws Exception {
+    final Request.Options defaults = new Request.Options(1000, 1000);
+    final SynchronousMethodHandler handler = handler(defaults);
+    final Request.Options options = new Request.Options(1000, 4 * 1000);
+
+    assertThat(handler.findOptions(new Object[] {options})).isSameAs(options);
+    assertThat(handler.findOptions(new Object[] {null})).isSameAs(defaults);
+  }
+
+  @Test
+  public void optionsIndexIsFoundWithoutContractRecordingIt() {
+    final Contract contract = targetType -> new Contract.Default()
+        .parseAndValidateMetadata(targetType).stream()
+        .map(md -> md.optionsIndex(null))
+        .collect(Collectors.toList());
+    final AtomicReference<Request.Options> used = new AtomicReference<>();
+    final OptionsInterface api = Feign.builder()
+        .contract(contract)
+        .options(new Request.Options(1000, 1000))
+        .client((request, options) -> {
+          used.set(options);
+          return response(request);
+        })
+        .target(OptionsInterface.class, "http://localhost");
+    final Request.Options options = new Request.Options(1000, 4 * 1000);
+
+    assertThat(api.get(options)).isEqualTo("foo");
+    assertThat(used.get()).isSameAs(options);
+  }
+
+  @Test
+  public void findingOptionsDoesNotAllocate() throws Throwable {
+    final com.sun.management.ThreadMXBean threads = threadAllocations();
+    final Request.Options options = new Request.Options(1000, 4 * 1000);
+    final SynchronousMethodHandler handler = handler(new Request.Options(1000, 1000));
+    final Object[] argv = {options};
+    final long threadId = Thread.currentThread().getId();
+    final int calls = 10_000;
+
+    long allocated = Long.MAX_VALUE;
+    int found = 0;
+    // the smallest of several rounds, leaving out one-off costs such as class loading
+    for (int round = 0; round < 10; round++) {
+      final long before = threads.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < calls; i++) {
+        if (handler.findOptions(argv) == options) {
+          found++;
+        }
+      }
+      allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+    }
+
+    assertThat(found).isEqualTo(10 * calls);
+    // less than a byte per call
+    assertThat(allocated).isLessThan(calls);
+  }
+
+  @Test
+  public void invokeAllocatesLittleMoreThanSending() throws Throwable {
+    final com.sun.management.ThreadMXBean threads = threadAllocations();
+    final Request.Options options = new Request.Options(1000, 4 * 1000);
+    final SynchronousMethodHandler handler =
+        handler(new Request.Options(1000, 1000), (request, used) -> response(request));
+    final Object[] argv = {options};
+    final long threadId = Thread.currentThread().getId();
+    final int calls = 10_000;
+
+    // both paths compiled before measuring
+    for (int i = 0; i < 10 * calls; i++) {
+      handler.invoke(argv);
+      handler.executeAndDecode(resolvedTemplate(), options);
+    }
+    long invoke = Long.MAX_VALUE;
+    long sending = Long.MAX_VALUE;
+    // the smallest of several rounds, leaving out collections and recompilations
+    for (int round = 0; round < 10; round++) {
+      long before = threads.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < calls; i++) {
+        handler.invoke(argv);
+      }
+      invoke = Math.min(invoke, threads.getThreadAllocatedBytes(threadId) - before);
+
+      before = threads.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < calls; i++) {
+        handler.executeAndDecode(resolvedTemplate(), options);
+      }
+      sending = Math.min(sending, threads.getThreadAllocatedBytes(threadId) - before);
+    }
+
+    // the JIT may remove an object from one path and not the other, hence the tolerance of about
+    // one object per call; a stream in invoke allocates several
+    assertThat(invoke - sending).isLessThan(64L * calls);
+  }
+
+  private static com.sun.management.ThreadMXBean threadAllocations() {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threads.isThreadAllocatedMemorySupported()
+        && threads.isThreadAllocatedMemoryEnabled());
+    return threads;
+  }
+
+  private static RequestTemplate resolvedTemplate() {
+    return new RequestTemplate()
+        .method(Request.HttpMethod.GET)
+        .uri("/")
+        .resolve(Collections.emptyMap());
+  }
+
+  private static Response response(Request request) {
+    return Response.builder()
+        .status(200)
+        .request(request)
+        .headers(Collections.emptyMap())
+        .body("foo", Util.UTF_8)
+        .build();
+  }
+
+  private SynchronousMethodHandler handler(Request.Options defaults) throws Exception {
+    return handler(defaults, (request, options) -> null);
+  }
+
+  private SynchronousMethodHandler handler(Request.Options defaults, Client client) {
+    final MethodMetadata metadata = new Contract.Default()
+        .parseAndValidateMetadata(OptionsInterface.class).stream()
+        .filter(md -> md.optionsIndex() != null)
+        .findFirst()
+        .get();
+    return (SynchronousMethodHandler) new SynchronousMethodHandler.Factory(
+        client, Retryer.NEVER_RETRY, Collections.emptyList(),
+        new Logger.NoOpLogger(), Logger.Level.NONE, false, false,
+        ExceptionPropagationPolicy.NONE, false)
+            .create(new HardCodedTarget<>(OptionsInterface.class, "http://localhost"), metadata,
+                argv -> resolvedTemplate(), defaults, new Decoder.Default(),
+                new ErrorDecoder.Default());
+  }
 }
@@ -16,6 +16,7 @@ package feign;
 import feign.Request.HttpMethod;
 import org.assertj.core.util.Lists;
 import org.junit.Test;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -107,4 +108,28 @@ public class ResponseTest {
       assertThat(response.status()).isEqualTo(statusCode);
     });
   }
+
+  @Test
+  public void byteBufferBodyReadsBuffersInPlace() throws Exception {
+    ByteBuffer direct = ByteBuffer.allocateDirect(3);
+    direct.put("bar".getBytes(Util.UTF_8)).flip();
+    Response response = Response.builder()
+        .status(200)
+        .request(Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+        .body(Arrays.asList(ByteBuffer.wrap("foo".getBytes(Util.UTF_8)), ByteBuffer.allocate(0),
+            direct))
+        .build();
+
+    assertThat(response.body().length()).isEqualTo(6);
+    assertThat(response.body().isRepeatable()).isTrue();
+    assertThat(Util.toString(response.body().asReader(Util.UTF_8))).isEqualTo("foobar");
+    assertThat(Util.toByteArray(response.body().asInputStream()))
+        .isEqualTo("foobar".getBytes(Util.UTF_8));
+
+    List<ByteBuffer> buffers = ((Response.ByteBufferBody) response.body()).asByteBuffers();
+    assertThat(buffers).hasSize(3);
+    assertThat(buffers.get(0).isReadOnly()).isTrue();
+    assertThat(buffers.get(2).isDirect()).isTrue();
+    assertThat(direct.remaining()).isEqualTo(3);
+  }
 }
@@ -58,6 +58,17 @@ public class RetryerTest {
     retryer.continueOrPropagate(e);
   }
 
+  @Test
+  public void nextDelayMillisDoesNotSleep() {
+    RetryableException e = new RetryableException(-1, null, null, null, REQUEST);
+    Default retryer = new Retryer.Default();
+
+    assertEquals(150, retryer.nextDelayMillis(e));
+    assertEquals(225, retryer.nextDelayMillis(e));
+    assertEquals(3, retryer.attempt);
+    assertEquals(0, retryer.sleptForMillis);
+  }
+
   @Test
   public void considersRetryAfterButNotMoreThanMaxPeriod() {
     Default retryer = new Retryer.Default() {
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Canned responses, and an async client answering with them, for tests of capabilities that wrap
+ * the client.
+ */
+public final class StubResponses {
+
+  private StubResponses() {}
+
+  /**
+   * A {@code GET} to {@code url}, for building responses before any request was sent.
+   */
+  public static Request get(String url) {
+    return Request.create(Request.HttpMethod.GET, url, Collections.emptyMap(),
+        Request.Body.empty(), null);
+  }
+
+  /**
+   * A 200 response to {@code request} with a UTF-8 {@code body}.
+   */
+  public static Response response(Request request, String body) {
+    return response(request, 200, body);
+  }
+
+  /**
+   * A response to {@code request}, with a UTF-8 {@code body} unless null and the headers given as
+   * name, value pairs.
+   */
+  public static Response response(Request request, int status, String body, String... headers) {
+    return response(request, status, body, headers(headers));
+  }
+
+  /**
+   * A response to {@code request}, with a UTF-8 {@code body} unless null.
+   */
+  public static Response response(Request request,
+                                  int status,
+                                  String body,
+                                  Map<String, Collection<String>> headers) {
+    if (body == null) {
+      return build(request, status, null, null, headers);
+    }
+    final byte[] data = body.getBytes(StandardCharsets.UTF_8);
+    return build(request, status, new ByteArrayInputStream(data), data.length, headers);
+  }
+
+  /**
+   * A response to {@code request} streaming {@code body}, with the headers given as name, value
+   * pairs.
+   */
+  public static Response response(Request request,
+                                  int status,
+                                  InputStream body,
+                                  Integer length,
+                                  String... headers) {
+    return build(request, status, body, length, headers(headers));
+  }
+
+  /**
+   * An async client answering every request once {@code pending} completes, with its response bound
+   * to that request.
+   */
+  public static AsyncClient<Object> answering(CompletableFuture<Response> pending) {
+    return (request, options, requestContext) -> pending
+        .thenApply(response -> response.toBuilder().request(request).build());
+  }
+
+  private static Map<String, Collection<String>> headers(String... namesAndValues) {
+    final Map<String, Collection<String>> headers = new LinkedHashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      headers.put(namesAndValues[i], Arrays.asList(namesAndValues[i + 1]));
+    }
+    return headers;
+  }
+
+  private static Response build(Request request,
+                                int status,
+                                InputStream body,
+                                Integer length,
+                                Map<String, Collection<String>> headers) {
+    final Response.Builder response = Response.builder()
+        .status(status)
+        .headers(headers)
+        .request(request);
+    if (body != null) {
+      response.body(body, length);
+    }
+    return response.build();
+  }
+}
@@ -17,6 +17,7 @@ import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.rules.ExpectedException;
 import org.junit.Test;
+import java.io.ByteArrayInputStream;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Collection;
@@ -25,8 +26,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import feign.codec.Decoder;
+import static feign.Util.UTF_8;
 import static feign.Util.emptyToNull;
 import static feign.Util.removeValues;
 import static feign.Util.resolveLastTypeParameter;
@@ -257,4 +260,25 @@ public class UtilTest {
   static class ParameterizedSubtype implements Parameterized<String> {
 
   }
+
+  @Test
+  public void toByteArrayReadsWholeStream() throws Exception {
+    byte[] data = new byte[BufferPool.DEFAULT_BUFFER_SIZE * 3 + 7];
+    new Random(42).nextBytes(data);
+
+    assertThat(Util.toByteArray(new ByteArrayInputStream(data))).isEqualTo(data);
+    assertThat(Util.toByteArray(new ByteArrayInputStream(data, 0, 10))).hasSize(10);
+    assertThat(Util.toByteArray(new ByteArrayInputStream(new byte[0]))).isEmpty();
+  }
+
+  @Test
+  public void toByteArrayToleratesWrongExpectedLength() throws Exception {
+    byte[] data = "expected".getBytes(UTF_8);
+
+    assertThat(Util.toByteArray(new ByteArrayInputStream(data), data.length)).isEqualTo(data);
+    assertThat(Util.toByteArray(new ByteArrayInputStream(data), 3)).isEqualTo(data);
+    assertThat(Util.toByteArray(new ByteArrayInputStream(data), 100)).isEqualTo(data);
+    assertThat(Util.toByteArray(new ByteArrayInputStream(data), Integer.MAX_VALUE))
+        .isEqualTo(data);
+  }
 }
@@ -13,11 +13,15 @@
  */
 package feign.assertj;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import org.assertj.core.api.AbstractAssert;
 import org.assertj.core.data.MapEntry;
 import org.assertj.core.internal.ByteArrays;
 import org.assertj.core.internal.Maps;
 import org.assertj.core.internal.Objects;
+import feign.Request;
 import feign.RequestTemplate;
 import static feign.Util.UTF_8;
 
@@ -55,7 +59,7 @@ public final class RequestTemplateAssert
     if (actual.bodyTemplate() != null) {
       failWithMessage("\nExpecting bodyTemplate to be null, but was:<%s>", actual.bodyTemplate());
     }
-    objects.assertEqual(info, new String(actual.body(), UTF_8), utf8Expected);
+    objects.assertEqual(info, new String(body(), UTF_8), utf8Expected);
     return this;
   }
 
@@ -64,10 +68,28 @@ public final class RequestTemplateAssert
     if (actual.bodyTemplate() != null) {
       failWithMessage("\nExpecting bodyTemplate to be null, but was:<%s>", actual.bodyTemplate());
     }
-    arrays.assertContains(info, actual.body(), expected);
+    arrays.assertContains(info, body(), expected);
     return this;
   }
 
+  /**
+   * The body to send, written out when it is streamed.
+   */
+  @SuppressWarnings("deprecation")
+  private byte[] body() {
+    Request.Body body = actual.requestBody();
+    if (!body.isStreaming()) {
+      return actual.body();
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      body.writeTo(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
   public RequestTemplateAssert hasBodyTemplate(String expected) {
     isNotNull();
     if (actual.body() != null) {
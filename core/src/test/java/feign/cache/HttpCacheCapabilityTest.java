@@ -0,0 +1,289 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Feign;
+import feign.Headers;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.StubResponses;
+
+public class HttpCacheCapabilityTest {
+
+  public interface Api {
+
+    @RequestLine("GET /repos/{owner}")
+    String repos(@Param("owner") String owner);
+
+    @RequestLine("GET /repos/{owner}")
+    @Headers("Accept: {accept}")
+    String repos(@Param("owner") String owner, @Param("accept") String accept);
+
+    @RequestLine("GET /repos/{owner}")
+    @Headers("Cache-Control: no-cache")
+    String reposNoCache(@Param("owner") String owner);
+
+    @RequestLine("POST /repos/{owner}")
+    String create(@Param("owner") String owner);
+  }
+
+  public interface AsyncApi {
+
+    @RequestLine("GET /repos/{owner}")
+    CompletableFuture<String> repos(@Param("owner") String owner);
+  }
+
+  private final MutableClock clock = new MutableClock();
+  private final HttpCacheCapability cache = new HttpCacheCapability(2, clock);
+  private final List<Request> requests = new ArrayList<>();
+  private Function<Request, Response> server;
+
+  private final Api api = Feign.builder()
+      .client((request, options) -> {
+        requests.add(request);
+        return server.apply(request);
+      })
+      .addCapability(cache)
+      .target(Api.class, "http://localhost");
+
+  @Test
+  public void answersFreshResponsesFromCache() {
+    server = request -> response(request, 200, "[\"feign\"]", "Cache-Control", "max-age=60");
+
+    assertThat(api.repos("openfeign")).isEqualTo("[\"feign\"]");
+    clock.advance(59);
+    assertThat(api.repos("openfeign")).isEqualTo("[\"feign\"]");
+
+    assertThat(requests).hasSize(1);
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void honorsExpires() {
+    server = request -> response(request, 200, "[]",
+        "Date", date(0), "Expires", date(30));
+
+    api.repos("openfeign");
+    clock.advance(29);
+    api.repos("openfeign");
+    clock.advance(1);
+    api.repos("openfeign");
+
+    assertThat(requests).hasSize(2);
+    assertThat(cache.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void revalidatesStaleResponseWithETag() {
+    server = request -> response(request, 200, "[\"feign\"]",
+        "Cache-Control", "max-age=60", "ETag", "\"v1\"");
+    api.repos("openfeign");
+    clock.advance(60);
+
+    server = request -> response(request, 304, null, "Cache-Control", "max-age=60");
+    assertThat(api.repos("openfeign")).isEqualTo("[\"feign\"]");
+    assertThat(requests.get(1).headers()).containsEntry("If-None-Match",
+        Collections.singletonList("\"v1\""));
+
+    // the 304 refreshed the entry
+    clock.advance(30);
+    assertThat(api.repos("openfeign")).isEqualTo("[\"feign\"]");
+
+    assertThat(requests).hasSize(2);
+    assertThat(cache.revalidationCount()).isEqualTo(1);
+    assertThat(cache.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void revalidatesResponsesWithoutLifetimeOnEachUse() {
+    final String lastModified = date(-3600);
+    server = request -> response(request, 200, "[]", "Last-Modified", lastModified);
+    api.repos("openfeign");
+
+    server = request -> response(request, 304, null);
+    assertThat(api.repos("openfeign")).isEqualTo("[]");
+    assertThat(api.repos("openfeign")).isEqualTo("[]");
+
+    assertThat(requests).hasSize(3);
+    assertThat(requests.get(2).headers()).containsEntry("If-Modified-Since",
+        Collections.singletonList(lastModified));
+    assertThat(cache.revalidationCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void replacesChangedResponse() {
+    server = request -> response(request, 200, "[\"feign\"]", "ETag", "\"v1\"");
+    api.repos("openfeign");
+
+    server = request -> response(request, 200, "[\"feign\",\"form\"]",
+        "Cache-Control", "max-age=60", "ETag", "\"v2\"");
+    assertThat(api.repos("openfeign")).isEqualTo("[\"feign\",\"form\"]");
+    assertThat(api.repos("openfeign")).isEqualTo("[\"feign\",\"form\"]");
+
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  public void doesNotStoreNoStoreResponses() {
+    server = request -> response(request, 200, "[]",
+        "Cache-Control", "no-store, max-age=60", "ETag", "\"v1\"");
+
+    api.repos("openfeign");
+    api.repos("openfeign");
+
+    assertThat(requests).hasSize(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void requestNoCacheRevalidates() {
+    server = request -> response(request, 200, "[]",
+        "Cache-Control", "max-age=60", "ETag", "\"v1\"");
+    api.repos("openfeign");
+
+    server = request -> response(request, 304, null);
+    api.reposNoCache("openfeign");
+
+    assertThat(requests).hasSize(2);
+    assertThat(cache.revalidationCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void honorsVary() {
+    server = request -> response(request, 200, request.headers().get("Accept").iterator().next(),
+        "Cache-Control", "max-age=60", "Vary", "Accept");
+
+    assertThat(api.repos("openfeign", "application/json")).isEqualTo("application/json");
+    assertThat(api.repos("openfeign", "application/json")).isEqualTo("application/json");
+    assertThat(api.repos("openfeign", "application/xml")).isEqualTo("application/xml");
+
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  public void unsafeRequestEvictsEntry() {
+    server = request -> response(request, 200, "[]", "Cache-Control", "max-age=60");
+    api.repos("openfeign");
+
+    api.create("openfeign");
+    api.repos("openfeign");
+
+    assertThat(requests).hasSize(3);
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsed() {
+    server = request -> response(request, 200, "[]", "Cache-Control", "max-age=60");
+
+    api.repos("a");
+    api.repos("b");
+    api.repos("a");
+    api.repos("c");
+
+    assertThat(cache.evictionCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(2);
+    api.repos("a");
+    assertThat(requests).hasSize(3);
+    api.repos("b");
+    assertThat(requests).hasSize(4);
+  }
+
+  @Test
+  public void cachesAsyncResponses() throws Exception {
+    server = request -> response(request, 200, "[\"feign\"]",
+        "Cache-Control", "max-age=60", "ETag", "\"v1\"");
+    final AsyncClient<Object> client = (request, options, requestContext) -> {
+      requests.add(request);
+      return CompletableFuture.completedFuture(server.apply(request));
+    };
+    final AsyncApi asyncApi = AsyncFeign.asyncBuilder()
+        .client(client)
+        .addCapability(cache)
+        .target(AsyncApi.class, "http://localhost");
+
+    assertThat(asyncApi.repos("openfeign").get(1, TimeUnit.SECONDS)).isEqualTo("[\"feign\"]");
+    assertThat(asyncApi.repos("openfeign").get(1, TimeUnit.SECONDS)).isEqualTo("[\"feign\"]");
+    clock.advance(60);
+    server = request -> response(request, 304, null);
+    assertThat(asyncApi.repos("openfeign").get(1, TimeUnit.SECONDS)).isEqualTo("[\"feign\"]");
+
+    assertThat(requests).hasSize(2);
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.revalidationCount()).isEqualTo(1);
+  }
+
+  private String date(long secondsFromNow) {
+    return DateTimeFormatter.RFC_1123_DATE_TIME
+        .format(clock.instant().plusSeconds(secondsFromNow).atOffset(ZoneOffset.UTC));
+  }
+
+  /**
+   * A response dated now, unless {@code headers} give a date of their own.
+   */
+  private Response response(Request request, int status, String body, String... headers) {
+    final Map<String, Collection<String>> headerMap = new LinkedHashMap<>();
+    headerMap.put("Date", Collections.singletonList(date(0)));
+    for (int i = 0; i < headers.length; i += 2) {
+      headerMap.put(headers[i], Arrays.asList(headers[i + 1]));
+    }
+    return StubResponses.response(request, status, body, headerMap);
+  }
+
+  static final class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2020-06-01T10:15:30Z");
+
+    void advance(long seconds) {
+      instant = instant.plusSeconds(seconds);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
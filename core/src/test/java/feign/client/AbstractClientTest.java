@@ -383,6 +383,36 @@ public abstract class AbstractClientTest {
         .hasOneOfPath("/?foo=bar,baz", "/?foo=bar%2Cbaz");
   }
 
+  @Test
+  public void streamsRequestBodyOfKnownLength() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+
+    TestInterface api = newBuilder()
+        .requestInterceptor(template -> template
+            .body(out -> out.write("streamed".getBytes(UTF_8)), 8, false))
+        .target(TestInterface.class, "http://localhost:" + server.getPort());
+
+    assertThat(api.post("ignored").status()).isEqualTo(200);
+
+    RecordedRequest recordedRequest = server.takeRequest();
+    assertThat(recordedRequest.getHeader("Content-Length")).isEqualTo("8");
+    assertThat(recordedRequest.getBody().readUtf8()).isEqualTo("streamed");
+  }
+
+  @Test
+  public void streamsRequestBodyOfUnknownLength() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+
+    TestInterface api = newBuilder()
+        .requestInterceptor(template -> template
+            .body(out -> out.write("streamed".getBytes(UTF_8)), -1, false))
+        .target(TestInterface.class, "http://localhost:" + server.getPort());
+
+    assertThat(api.post("ignored").status()).isEqualTo(200);
+
+    assertThat(server.takeRequest().getBody().readUtf8()).isEqualTo("streamed");
+  }
+
   @SuppressWarnings("UnusedReturnValue")
   public interface TestInterface {
 
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.codec;
+
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import feign.Request;
+import feign.RequestTemplate;
+import static feign.Util.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamingEncoderTest {
+
+  private final StreamingEncoder encoder = new StreamingEncoder() {
+    @Override
+    public void encode(Object object, Type bodyType, OutputStream output) throws IOException {
+      output.write(object.toString().getBytes(UTF_8));
+    }
+  };
+
+  @Test
+  public void holdsBodyByDefault() {
+    RequestTemplate template = new RequestTemplate();
+    encoder.encode("buffered", String.class, template);
+
+    assertThat(new String(template.body(), UTF_8)).isEqualTo("buffered");
+    assertThat(template.requestCharset()).isEqualTo(UTF_8);
+  }
+
+  @Test
+  public void writesBodyAsRequestIsSentWhenStreamed() throws Exception {
+    RequestTemplate template = new RequestTemplate();
+    StreamingEncoder.streamed(encoder).encode("streamed", String.class, template);
+
+    assertThat(template.body()).isNull();
+    assertThat(template.headers()).doesNotContainKey("Content-Length");
+    assertThat(template.requestCharset()).isEqualTo(UTF_8);
+    assertThat(written(template)).isEqualTo("streamed");
+  }
+
+  @Test
+  public void streamedBodyIsReplayable() throws Exception {
+    RequestTemplate template = new RequestTemplate();
+    StreamingEncoder.streamed(encoder).encode("streamed", String.class, template);
+
+    assertThat(written(template)).isEqualTo("streamed");
+    assertThat(written(template)).isEqualTo("streamed");
+  }
+
+  @SuppressWarnings("deprecation")
+  private static String written(RequestTemplate template) throws IOException {
+    Request.Body body = template.requestBody();
+    assertThat(body.isStreaming()).isTrue();
+    assertThat(body.isReplayable()).isTrue();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    body.writeTo(out);
+    return new String(out.toByteArray(), UTF_8);
+  }
+}
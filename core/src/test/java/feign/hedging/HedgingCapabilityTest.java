@@ -0,0 +1,233 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hedging;
+
+import static feign.StubResponses.response;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.StubResponses;
+
+public class HedgingCapabilityTest {
+
+  public interface Api {
+
+    @RequestLine("GET /")
+    String get();
+
+    @RequestLine("POST /")
+    String post();
+  }
+
+  public interface AsyncApi {
+
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+  }
+
+  private final HedgingCapability hedging = new HedgingCapability();
+  private final AtomicInteger attempts = new AtomicInteger();
+  private final CountDownLatch slowAttempt = new CountDownLatch(1);
+  private final AtomicBoolean slowBodyClosed = new AtomicBoolean();
+  private volatile boolean firstAttemptSlow;
+
+  /**
+   * Answers right away, except for the first attempt once {@link #firstAttemptSlow} is set, which
+   * waits for {@link #slowAttempt}.
+   */
+  private final Client client = (request, options) -> {
+    if (firstAttemptSlow && attempts.incrementAndGet() == 1) {
+      try {
+        slowAttempt.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return closeTracked(request, "slow", slowBodyClosed);
+    }
+    return response(request, "fast");
+  };
+
+  @Test
+  public void hedgesSlowCall() throws Exception {
+    final Api api = Feign.builder()
+        .client(client)
+        .addCapability(hedging)
+        .target(Api.class, "http://localhost");
+    warmUp(api);
+    assertThat(hedging.hedgeDelayMillis("Api#get()")).isGreaterThanOrEqualTo(0);
+
+    firstAttemptSlow = true;
+    assertThat(api.get()).isEqualTo("fast");
+
+    assertThat(attempts).hasValue(2);
+    assertThat(hedging.hedgeCount()).isEqualTo(1);
+    assertThat(hedging.hedgeWinCount()).isEqualTo(1);
+
+    // the losing response is closed once it arrives
+    slowAttempt.countDown();
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!slowBodyClosed.get() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(slowBodyClosed.get()).isTrue();
+  }
+
+  @Test
+  public void recordsLatencyOfLosingAttempts() throws Exception {
+    final HedgingCapability capability = new HedgingCapability(0.9, 1.0);
+    final Set<Request> answered = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    final Api api = Feign.builder()
+        .client((request, options) -> {
+          // whichever attempt of a call is sent first is slow, and loses
+          if (firstAttemptSlow && answered.add(request)) {
+            try {
+              Thread.sleep(150);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          return response(request, "fast");
+        })
+        .addCapability(capability)
+        .target(Api.class, "http://localhost");
+    warmUp(api);
+
+    // 6 slow of the 32 samples, so the 90th percentile is one of them
+    firstAttemptSlow = true;
+    for (int i = 0; i < 6; i++) {
+      assertThat(api.get()).isEqualTo("fast");
+    }
+
+    assertThat(capability.hedgeCount()).isEqualTo(6);
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (capability.hedgeDelayMillis("Api#get()") < 150 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(capability.hedgeDelayMillis("Api#get()")).isGreaterThanOrEqualTo(150);
+  }
+
+  @Test
+  public void doesNotHedgeBeforeKnowingLatency() {
+    final Api api = Feign.builder()
+        .client(client)
+        .addCapability(hedging)
+        .target(Api.class, "http://localhost");
+    assertThat(hedging.hedgeDelayMillis("Api#get()")).isEqualTo(-1);
+
+    firstAttemptSlow = true;
+    slowAttempt.countDown();
+    assertThat(api.get()).isEqualTo("slow");
+
+    assertThat(hedging.hedgeCount()).isZero();
+  }
+
+  @Test
+  public void doesNotHedgeBeyondBudget() throws Exception {
+    final Api api = Feign.builder()
+        .client(client)
+        .addCapability(hedging)
+        .target(Api.class, "http://localhost");
+    // 20 calls at 5% save up a single hedge
+    warmUp(api);
+
+    firstAttemptSlow = true;
+    assertThat(api.get()).isEqualTo("fast");
+    attempts.set(0);
+    final CompletableFuture<String> unhedged = CompletableFuture.supplyAsync(api::get);
+    Thread.sleep(100);
+    assertThat(unhedged.isDone()).isFalse();
+
+    slowAttempt.countDown();
+    assertThat(unhedged.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    assertThat(hedging.hedgeCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void doesNotHedgePosts() throws Exception {
+    final Api api = Feign.builder()
+        .client(client)
+        .addCapability(hedging)
+        .target(Api.class, "http://localhost");
+    for (int i = 0; i < 40; i++) {
+      api.post();
+    }
+
+    firstAttemptSlow = true;
+    final CompletableFuture<String> post = CompletableFuture.supplyAsync(api::post);
+    Thread.sleep(100);
+    slowAttempt.countDown();
+
+    assertThat(post.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    assertThat(hedging.hedgeCount()).isZero();
+  }
+
+  @Test
+  public void cancelsLosingAsyncAttempt() throws Exception {
+    final CompletableFuture<Response> slow = new CompletableFuture<>();
+    final AsyncClient<Object> asyncClient = (request, options, requestContext) -> {
+      if (firstAttemptSlow && attempts.incrementAndGet() == 1) {
+        return slow;
+      }
+      return CompletableFuture
+          .completedFuture(response(request, "fast"));
+    };
+    final AsyncApi api = AsyncFeign.asyncBuilder()
+        .client(asyncClient)
+        .addCapability(hedging)
+        .target(AsyncApi.class, "http://localhost");
+    for (int i = 0; i < 20; i++) {
+      api.get().get(1, TimeUnit.SECONDS);
+    }
+
+    firstAttemptSlow = true;
+    assertThat(api.get().get(5, TimeUnit.SECONDS)).isEqualTo("fast");
+
+    assertThat(slow.isCancelled()).isTrue();
+    assertThat(hedging.hedgeWinCount()).isEqualTo(1);
+  }
+
+  private static void warmUp(Api api) {
+    for (int i = 0; i < 20; i++) {
+      api.get();
+    }
+  }
+
+  private static Response closeTracked(Request request, String body, AtomicBoolean closed) {
+    final InputStream data =
+        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)) {
+          @Override
+          public void close() {
+            closed.set(true);
+          }
+        };
+    return StubResponses.response(request, 200, data, body.length());
+  }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import static feign.StubResponses.response;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import feign.AsyncFeign;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.StubResponses;
+import feign.Retryer;
+
+public class ConcurrencyLimitCapabilityTest {
+
+  public interface Api {
+
+    @RequestLine("GET /")
+    String get();
+  }
+
+  public interface AsyncApi {
+
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+  }
+
+  /**
+   * A fixed limit, recording its samples.
+   */
+  static final class FixedLimit implements ConcurrencyLimit {
+
+    final List<Boolean> dropped = Collections.synchronizedList(new ArrayList<>());
+    private final int limit;
+
+    FixedLimit(int limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public int limit() {
+      return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+      this.dropped.add(dropped);
+    }
+  }
+
+  private static final String TARGET = "http://localhost:8080";
+
+  private final FixedLimit limit = new FixedLimit(2);
+  private final ConcurrencyLimitCapability capability = new ConcurrencyLimitCapability(() -> limit);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private final Client blockingClient = (request, options) -> {
+    try {
+      release.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return response(request, "ok");
+  };
+
+  @After
+  public void shutdown() {
+    release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void rejectsRequestsBeyondLimit() throws Exception {
+    final Api api = Feign.builder()
+        .client(blockingClient)
+        .retryer(Retryer.NEVER_RETRY)
+        .addCapability(capability)
+        .target(Api.class, TARGET + "/api");
+
+    final List<Future<String>> inFlight = new ArrayList<>();
+    inFlight.add(executor.submit(api::get));
+    inFlight.add(executor.submit(api::get));
+    awaitInFlight(2);
+
+    try {
+      api.get();
+      fail("expected the limit to be enforced");
+    } catch (ConcurrencyLimitExceededException e) {
+      assertThat(e.limit()).isEqualTo(2);
+      assertThat(e.method()).isEqualTo(Request.HttpMethod.GET);
+    }
+    assertThat(capability.rejectedCount()).isEqualTo(1);
+
+    release.countDown();
+    for (Future<String> call : inFlight) {
+      call.get(5, TimeUnit.SECONDS);
+    }
+    assertThat(capability.inFlight(TARGET)).isZero();
+    assertThat(limit.dropped).containsExactly(false, false);
+  }
+
+  @Test
+  public void countsFailuresAsDropped() {
+    final Api api = Feign.builder()
+        .client((request, options) -> {
+          if (limit.dropped.isEmpty()) {
+            throw new IOException("timeout");
+          }
+          return response(request, 503, "ok");
+        })
+        .retryer(Retryer.NEVER_RETRY)
+        .addCapability(capability)
+        .target(Api.class, TARGET);
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        api.get();
+        fail("expected a failure");
+      } catch (RuntimeException expected) {
+        // the limiter only sees the outcome
+      }
+    }
+
+    assertThat(limit.dropped).containsExactly(true, true);
+    assertThat(capability.inFlight(TARGET)).isZero();
+  }
+
+  @Test
+  public void limitsAsyncRequests() throws Exception {
+    final CompletableFuture<Response> pending = new CompletableFuture<>();
+    final AsyncApi api = AsyncFeign.asyncBuilder()
+        .client(StubResponses.answering(pending))
+        .addCapability(capability)
+        .target(AsyncApi.class, TARGET);
+
+    final CompletableFuture<String> first = api.get();
+    final CompletableFuture<String> second = api.get();
+    final CompletableFuture<String> rejected = api.get();
+
+    try {
+      rejected.get(1, TimeUnit.SECONDS);
+      fail("expected the limit to be enforced");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(ConcurrencyLimitExceededException.class);
+    }
+    assertThat(capability.inFlight(TARGET)).isEqualTo(2);
+
+    pending.complete(response(StubResponses.get(TARGET), "ok"));
+    first.get(1, TimeUnit.SECONDS);
+    second.get(1, TimeUnit.SECONDS);
+    assertThat(capability.inFlight(TARGET)).isZero();
+  }
+
+  @Test
+  public void limitsEachTarget() {
+    assertThat(ConcurrencyLimitCapability.target("https://api.github.com/repos?a=b"))
+        .isEqualTo("https://api.github.com");
+    assertThat(ConcurrencyLimitCapability.target("http://localhost:8080"))
+        .isEqualTo("http://localhost:8080");
+    assertThat(ConcurrencyLimitCapability.target("http://localhost:8080?q"))
+        .isEqualTo("http://localhost:8080");
+  }
+
+  private void awaitInFlight(int requests) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (capability.inFlight(TARGET) < requests && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
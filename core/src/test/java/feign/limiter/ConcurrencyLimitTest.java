@@ -0,0 +1,95 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrencyLimitTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Test
+  public void aimdGrowsWhileUsedAndBacksOffOnDrops() {
+    final AimdLimit aimd = new AimdLimit(10, 100, 0.5, SLOW);
+
+    aimd.onSample(FAST, 2, false);
+    assertThat(aimd.limit()).isEqualTo(10);
+    aimd.onSample(FAST, 5, false);
+    assertThat(aimd.limit()).isEqualTo(11);
+    aimd.onSample(FAST, 11, true);
+    assertThat(aimd.limit()).isEqualTo(5);
+    aimd.onSample(SLOW + 1, 5, false);
+    assertThat(aimd.limit()).isEqualTo(2);
+  }
+
+  @Test
+  public void vegasGrowsWithoutQueueingAndShrinksWithIt() {
+    final VegasLimit vegas = new VegasLimit(20, 100, 1000);
+
+    for (int i = 0; i < 10; i++) {
+      vegas.onSample(FAST, vegas.limit(), false);
+    }
+    final int grown = vegas.limit();
+    assertThat(grown).isGreaterThan(20);
+
+    for (int i = 0; i < 10; i++) {
+      vegas.onSample(SLOW, vegas.limit(), false);
+    }
+    assertThat(vegas.limit()).isLessThan(grown);
+  }
+
+  @Test
+  public void gradientShrinksWhenLatencyRises() {
+    final GradientLimit gradient = new GradientLimit(50, 100, 100);
+
+    for (int i = 0; i < 100; i++) {
+      gradient.onSample(FAST, gradient.limit(), false);
+    }
+    final int steady = gradient.limit();
+    for (int i = 0; i < 10; i++) {
+      gradient.onSample(SLOW, gradient.limit(), false);
+    }
+    assertThat(gradient.limit()).isLessThan(steady);
+  }
+
+  @Test
+  public void limitsStayWithinBounds() {
+    final ConcurrencyLimit[] limits = {new AimdLimit(), new VegasLimit(), new GradientLimit()};
+    for (ConcurrencyLimit limit : limits) {
+      for (int i = 0; i < 1000; i++) {
+        limit.onSample(SLOW, limit.limit(), true);
+      }
+      assertThat(limit.limit()).isEqualTo(1);
+      for (int i = 0; i < 10_000; i++) {
+        limit.onSample(FAST, limit.limit(), false);
+      }
+      assertThat(limit.limit()).isLessThanOrEqualTo(1000);
+      assertThat(limit.limit()).isGreaterThan(1);
+    }
+  }
+
+  @Test
+  public void ignoresSamplesWhileMostlyIdle() {
+    final ConcurrencyLimit[] limits = {new AimdLimit(), new VegasLimit(), new GradientLimit()};
+    for (ConcurrencyLimit limit : limits) {
+      for (int i = 0; i < 100; i++) {
+        limit.onSample(FAST, 1, false);
+      }
+      assertThat(limit.limit()).isEqualTo(20);
+    }
+  }
+}
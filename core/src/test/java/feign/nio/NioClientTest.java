@@ -0,0 +1,214 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.nio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.isA;
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import feign.Feign;
+import feign.Feign.Builder;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.Util;
+import feign.client.AbstractClientTest;
+import feign.client.TrustingSSLSocketFactory;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.SocketPolicy;
+
+public class NioClientTest extends AbstractClientTest {
+
+  private final NioClient client = NioClient.builder()
+      .sslSocketFactory(TrustingSSLSocketFactory.get("localhost"))
+      .maxConnectionsPerHost(1)
+      .poolWaitTimeout(100, TimeUnit.MILLISECONDS)
+      .build();
+
+  @After
+  public void closeClient() {
+    client.close();
+  }
+
+  @Override
+  public Builder newBuilder() {
+    return Feign.builder().client(client);
+  }
+
+  @Test
+  public void reusesConnections() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+    server.enqueue(new MockResponse().setChunkedBody("bar", 1));
+    server.enqueue(new MockResponse().setBody("baz"));
+
+    assertThat(read(client.execute(get("/"), new Request.Options()))).isEqualTo("foo");
+    assertThat(read(client.execute(get("/"), new Request.Options()))).isEqualTo("bar");
+    assertThat(read(client.execute(get("/"), new Request.Options()))).isEqualTo("baz");
+
+    assertEquals(0, server.takeRequest().getSequenceNumber());
+    assertEquals(1, server.takeRequest().getSequenceNumber());
+    assertEquals(2, server.takeRequest().getSequenceNumber());
+    PoolStats stats = client.stats();
+    assertThat(stats.created()).isEqualTo(1);
+    assertThat(stats.reused()).isEqualTo(2);
+    assertThat(stats.idle()).isEqualTo(1);
+    assertThat(stats.leased()).isZero();
+  }
+
+  @Test
+  public void timesOutWaitingForConnection() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+    server.enqueue(new MockResponse().setBody("bar"));
+
+    Response unread = client.execute(get("/"), new Request.Options());
+    try {
+      thrown.expect(SocketTimeoutException.class);
+      thrown.expectMessage("waiting for a connection");
+      client.execute(get("/"), new Request.Options());
+    } finally {
+      assertThat(client.stats().timeouts()).isEqualTo(1);
+      unread.close();
+    }
+  }
+
+  @Test
+  public void waitsForConnectionToBeHandedBack() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+    server.enqueue(new MockResponse().setBody("bar"));
+
+    // waits as long as the connect timeout, not to depend on how quickly the first is read
+    try (NioClient client = NioClient.builder().maxConnectionsPerHost(1).build()) {
+      Response first = client.execute(get("/"), new Request.Options());
+      CompletableFuture<Response> second =
+          client.execute(get("/"), new Request.Options(), Optional.empty());
+      assertThat(client.stats().pending()).isEqualTo(1);
+
+      assertThat(read(first)).isEqualTo("foo");
+      assertThat(read(second.get(1, TimeUnit.SECONDS))).isEqualTo("bar");
+      assertThat(client.stats().created()).isEqualTo(1);
+    }
+  }
+
+  /**
+   * The base test sends two conflicting {@code Content-Length} headers, which this client rejects
+   * rather than taking the last, so sends the long one alone.
+   */
+  @Override
+  public void testVeryLongResponseNullLength() {
+    server.enqueue(new MockResponse()
+        .setBody("AAAAAAAA")
+        .setHeader("Content-Length", Long.MAX_VALUE));
+    TestInterface api = newBuilder()
+        .target(TestInterface.class, "http://localhost:" + server.getPort());
+
+    Response response = api.post("foo");
+    // Response length greater than Integer.MAX_VALUE should be null
+    assertThat(response.body().length()).isNull();
+    response.close();
+  }
+
+  @Test
+  public void rejectsConflictingContentLengths() {
+    server.enqueue(new MockResponse()
+        .setBody("AAAAAAAA")
+        .addHeader("Content-Length", Long.MAX_VALUE));
+    TestInterface api = newBuilder()
+        .retryer(Retryer.NEVER_RETRY)
+        .target(TestInterface.class, "http://localhost:" + server.getPort());
+
+    thrown.expect(RetryableException.class);
+    thrown.expectCause(isA(ProtocolException.class));
+    api.post("foo");
+  }
+
+  @Test
+  public void executesAsynchronously() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo").addHeader("Foo: Bar"));
+
+    Response response =
+        client.execute(get("/"), new Request.Options(), Optional.empty()).get(1, TimeUnit.SECONDS);
+
+    assertThat(response.status()).isEqualTo(200);
+    assertThat(response.headers()).containsEntry("Foo", Collections.singletonList("Bar"));
+    assertThat(read(response)).isEqualTo("foo");
+  }
+
+  @Test
+  public void asyncReadTimeout() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo").setHeadersDelay(1, TimeUnit.SECONDS));
+
+    CompletableFuture<Response> response =
+        client.execute(get("/"), new Request.Options(1000, 50), Optional.empty());
+
+    thrown.expectCause(isA(SocketTimeoutException.class));
+    response.get(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void followsRedirects() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(302).addHeader("Location: /there"));
+    server.enqueue(new MockResponse().setBody("foo"));
+
+    Response response = client.execute(get("/"), new Request.Options());
+
+    assertThat(read(response)).isEqualTo("foo");
+    server.takeRequest();
+    assertThat(server.takeRequest().getPath()).isEqualTo("/there");
+  }
+
+  @Test
+  public void retriesStaleConnection() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo")
+        .setSocketPolicy(SocketPolicy.DISCONNECT_AT_END));
+    server.enqueue(new MockResponse().setBody("bar"));
+
+    assertThat(read(client.execute(get("/"), new Request.Options()))).isEqualTo("foo");
+    assertThat(read(client.execute(get("/"), new Request.Options()))).isEqualTo("bar");
+    assertThat(client.stats().created()).isEqualTo(2);
+  }
+
+  @Test
+  public void canOverrideSSLSocketFactory() throws Exception {
+    server.useHttps(TrustingSSLSocketFactory.get("localhost"), false);
+    server.enqueue(new MockResponse().setBody("foo"));
+
+    TestInterface api = newBuilder()
+        .target(TestInterface.class, "https://localhost:" + server.getPort());
+
+    assertThat(read(api.post("foo"))).isEqualTo("foo");
+  }
+
+  private Request get(String path) {
+    return Request.create(HttpMethod.GET, server.url(path).toString(),
+        Collections.emptyMap(), null, Util.UTF_8, null);
+  }
+
+  private static String read(Response response) throws IOException {
+    try {
+      return Util.toString(response.body().asReader(Util.UTF_8));
+    } finally {
+      response.close();
+    }
+  }
+}
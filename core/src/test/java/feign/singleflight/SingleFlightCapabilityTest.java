@@ -0,0 +1,238 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.singleflight;
+
+import static feign.StubResponses.response;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Body;
+import feign.Client;
+import feign.Feign;
+import feign.Headers;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.StubResponses;
+
+public class SingleFlightCapabilityTest {
+
+  public interface Api {
+
+    @SingleFlight(ignoreHeaders = "X-Request-Id")
+    @RequestLine("GET /repos/{owner}")
+    @Headers({"X-Request-Id: {requestId}", "Accept: {accept}"})
+    String repos(@Param("owner") String owner,
+                 @Param("requestId") String requestId,
+                 @Param("accept") String accept);
+
+    @RequestLine("GET /repos")
+    String unannotated();
+
+    @SingleFlight
+    @RequestLine("POST /repos")
+    @Body("{name}")
+    String create(@Param("name") String name);
+  }
+
+  public interface AsyncApi {
+
+    @SingleFlight
+    @RequestLine("GET /repos")
+    CompletableFuture<String> repos();
+  }
+
+  private static final int CALLS = 8;
+
+  private final SingleFlightCapability capability = new SingleFlightCapability();
+  private final AtomicInteger sent = new AtomicInteger();
+  private final ExecutorService executor = Executors.newFixedThreadPool(CALLS);
+
+  /**
+   * Answers once all other calls joined the request in flight, or after a second.
+   */
+  private final Client client = (request, options) -> {
+    sent.incrementAndGet();
+    awaitJoined(CALLS - 1);
+    return response(request, "[\"feign\"]");
+  };
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void sendsOneRequestForConcurrentCalls() throws Exception {
+    final Api api = Feign.builder()
+        .client(client)
+        .addCapability(capability)
+        .target(Api.class, "http://localhost");
+
+    final List<Future<String>> calls = new ArrayList<>();
+    for (int i = 0; i < CALLS; i++) {
+      final String requestId = String.valueOf(i);
+      calls.add(executor.submit(() -> api.repos("openfeign", requestId, "application/json")));
+    }
+
+    for (Future<String> call : calls) {
+      assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("[\"feign\"]");
+    }
+    assertThat(sent).hasValue(1);
+    assertThat(capability.flightCount()).isEqualTo(1);
+    assertThat(capability.joinedCount()).isEqualTo(CALLS - 1);
+  }
+
+  @Test
+  public void sendsNewRequestOnceResponded() {
+    final Api api = Feign.builder()
+        .client((request, options) -> {
+          sent.incrementAndGet();
+          return response(request, "[]");
+        })
+        .addCapability(capability)
+        .target(Api.class, "http://localhost");
+
+    api.repos("openfeign", "1", "application/json");
+    api.repos("openfeign", "2", "application/json");
+
+    assertThat(sent).hasValue(2);
+    assertThat(capability.joinedCount()).isZero();
+  }
+
+  @Test
+  public void keyIgnoresOnlyIgnoredHeaders() {
+    final List<Request> requests = new ArrayList<>();
+    final Api api = Feign.builder()
+        .client((request, options) -> {
+          requests.add(request);
+          return response(request, "[]");
+        })
+        .target(Api.class, "http://localhost");
+
+    api.repos("openfeign", "1", "application/json");
+    api.repos("openfeign", "2", "application/json");
+    api.repos("openfeign", "1", "application/xml");
+    api.repos("netflix", "1", "application/json");
+
+    final String key = SingleFlightCapability.key(requests.get(0));
+    assertThat(key).isNotNull();
+    assertThat(SingleFlightCapability.key(requests.get(1))).isEqualTo(key);
+    assertThat(SingleFlightCapability.key(requests.get(2))).isNotEqualTo(key);
+    assertThat(SingleFlightCapability.key(requests.get(3))).isNotEqualTo(key);
+  }
+
+  @Test
+  public void ignoresUnannotatedMethodsAndPosts() throws Exception {
+    final Api api = Feign.builder()
+        .client((request, options) -> {
+          sent.incrementAndGet();
+          return response(request, "[]");
+        })
+        .addCapability(capability)
+        .target(Api.class, "http://localhost");
+
+    final List<Future<String>> calls = new ArrayList<>();
+    for (int i = 0; i < CALLS; i++) {
+      calls.add(executor.submit(api::unannotated));
+      calls.add(executor.submit(() -> api.create("feign")));
+    }
+    for (Future<String> call : calls) {
+      call.get(5, TimeUnit.SECONDS);
+    }
+
+    assertThat(sent).hasValue(2 * CALLS);
+    assertThat(capability.flightCount()).isZero();
+  }
+
+  @Test
+  public void sharesFailure() throws Exception {
+    final Api api = Feign.builder()
+        .client((request, options) -> {
+          sent.incrementAndGet();
+          awaitJoined(CALLS - 1);
+          throw new IOException("connection reset");
+        })
+        .retryer(Retryer.NEVER_RETRY)
+        .addCapability(capability)
+        .target(Api.class, "http://localhost");
+
+    final List<Future<String>> calls = new ArrayList<>();
+    for (int i = 0; i < CALLS; i++) {
+      calls.add(executor.submit(() -> api.repos("openfeign", "1", "application/json")));
+    }
+
+    for (Future<String> call : calls) {
+      try {
+        call.get(5, TimeUnit.SECONDS);
+        fail("expected the shared failure");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause())
+            .isInstanceOf(RetryableException.class)
+            .hasMessageContaining("connection reset");
+      }
+    }
+    assertThat(sent).hasValue(1);
+  }
+
+  @Test
+  public void sendsOneRequestForConcurrentAsyncCalls() throws Exception {
+    final CompletableFuture<Response> pending = new CompletableFuture<>();
+    final AsyncClient<Object> stub = StubResponses.answering(pending);
+    final AsyncClient<Object> asyncClient = (request, options, requestContext) -> {
+      sent.incrementAndGet();
+      return stub.execute(request, options, requestContext);
+    };
+    final AsyncApi api = AsyncFeign.asyncBuilder()
+        .client(asyncClient)
+        .addCapability(capability)
+        .target(AsyncApi.class, "http://localhost");
+
+    final List<CompletableFuture<String>> calls = new ArrayList<>();
+    for (int i = 0; i < CALLS; i++) {
+      calls.add(api.repos());
+    }
+    calls.get(0).cancel(true);
+    pending.complete(response(StubResponses.get("http://localhost/repos"), "[\"feign\"]"));
+
+    for (CompletableFuture<String> call : calls.subList(1, CALLS)) {
+      assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("[\"feign\"]");
+    }
+    assertThat(sent).hasValue(1);
+    assertThat(capability.joinedCount()).isEqualTo(CALLS - 1);
+  }
+
+  private void awaitJoined(int calls) {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (capability.joinedCount() < calls && System.nanoTime() < deadline) {
+      Thread.yield();
+    }
+  }
+}
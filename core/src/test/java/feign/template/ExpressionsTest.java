@@ -0,0 +1,49 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.template;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+
+public class ExpressionsTest {
+
+  @Test
+  public void parsesNameAndPattern() {
+    Expression expression = Expressions.create("{+id:[0-9]+}");
+
+    assertThat(expression.getName()).isEqualTo("id");
+    assertThat(expression.getPattern().pattern()).isEqualTo("[0-9]+");
+  }
+
+  @Test
+  public void nestedExpressionsAreNotExpressions() {
+    assertThat(Expressions.create("{{id}}")).isNull();
+    assertThat(Expressions.create("{a\nb}")).isNull();
+  }
+
+  @Test
+  public void sharesParsedExpressions() {
+    assertThat(Expressions.create("{shared}")).isSameAs(Expressions.create("{shared}"));
+  }
+
+  @Test
+  public void cacheIsBounded() {
+    Expression first = Expressions.create("{bounded}");
+    for (int i = 0; i < Expressions.MAXIMUM_CACHED_EXPRESSIONS; i++) {
+      Expressions.create("{bounded" + i + "}");
+    }
+
+    assertThat(Expressions.create("{bounded}")).isNotSameAs(first);
+  }
+}
@@ -41,4 +41,41 @@ public class UriUtilsTest {
     String encoded = UriUtils.encode(withReserved, UTF_8, true);
     assertThat(encoded).isEqualTo("/api/user@host:port#section[a-z]/data");
   }
+
+  @Test
+  public void valuesWithoutCharactersToEncodeAreReturnedAsIs() {
+    String id = "3f2504e0-4f89-11d3-9a0c-0305e82c3301";
+    assertThat(UriUtils.encode(id, UTF_8)).isSameAs(id);
+
+    String path = "/api/user@host";
+    assertThat(UriUtils.encode(path, UTF_8, true)).isSameAs(path);
+  }
+
+  @Test
+  public void alreadyEncodedValuesAreNotEncodedAgain() {
+    assertThat(UriUtils.encode("Z%C3%BCrich%20Stra%C3%9Fe", UTF_8))
+        .isEqualTo("Z%C3%BCrich%20Stra%C3%9Fe");
+    assertThat(UriUtils.isEncoded("a%2Fb", UTF_8)).isTrue();
+    assertThat(UriUtils.isEncoded("a%2", UTF_8)).isFalse();
+    assertThat(UriUtils.isEncoded("a/%2F", UTF_8)).isFalse();
+  }
+
+  @Test
+  public void pctEncodeMultibyteCharacters() {
+    assertThat(UriUtils.encode("Z\u00fcrich \u6771\u4eac \ud83d\ude00", UTF_8))
+        .isEqualTo("Z%C3%BCrich%20%E6%9D%B1%E4%BA%AC%20%F0%9F%98%80");
+  }
+
+  @Test
+  public void pctEncodeAroundEncodedValues() {
+    assertThat(UriUtils.encode("%%41 b/c%2F", UTF_8, false)).isEqualTo("%25%41%20b%2Fc%2F");
+    assertThat(UriUtils.encode("%%41 b/c%2F", UTF_8, true)).isEqualTo("%25%41%20b/c%2F");
+  }
+
+  @Test
+  public void pctEncodeIntoBuilder() {
+    StringBuilder builder = new StringBuilder("q=");
+    UriUtils.encode("a b", UTF_8, builder);
+    assertThat(builder.toString()).isEqualTo("q=a%20b");
+  }
 }
@@ -17,6 +17,7 @@ package feign.metrics4;
 import java.lang.reflect.Type;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import feign.Request;
 import feign.RequestTemplate;
 import feign.codec.EncodeException;
 import feign.codec.Encoder;
@@ -49,11 +50,24 @@ public class MeteredEncoder implements Encoder {
       encoder.encode(object, bodyType, template);
     }
 
-    if (template.body() != null) {
+    final long requestSize = requestSize(template);
+    if (requestSize >= 0) {
       metricRegistry.histogram(
           metricName.metricName(template.methodMetadata(), template.feignTarget(), "request_size"),
-          metricSuppliers.histograms()).update(template.body().length);
+          metricSuppliers.histograms()).update(requestSize);
     }
   }
 
+  /**
+   * Size of the encoded body, {@code -1} without one, or when it's streamed with an unknown length.
+   */
+  @SuppressWarnings("deprecation")
+  private static long requestSize(RequestTemplate template) {
+    final Request.Body body = template.requestBody();
+    if (body.asBytes() == null && !body.isStreaming()) {
+      return -1;
+    }
+    return body.contentLength();
+  }
+
 }
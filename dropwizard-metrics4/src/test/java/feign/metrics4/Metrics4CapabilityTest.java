@@ -13,11 +13,19 @@
  */
 package feign.metrics4;
 
+import static feign.Util.UTF_8;
 import static org.hamcrest.Matchers.aMapWithSize;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.Test;
 import feign.Feign;
 import feign.RequestLine;
@@ -34,6 +42,13 @@ public class Metrics4CapabilityTest {
 
   }
 
+  public interface StreamingSource {
+
+    @RequestLine("POST /post")
+    String post(byte[] body);
+
+  }
+
   @Test
   public void addMetricsCapability() {
     final MetricRegistry registry = SharedMetricRegistries.getOrCreate("unit_test");
@@ -58,4 +73,42 @@ public class Metrics4CapabilityTest {
         containsString("get")));
   }
 
+  @Test
+  public void recordsSizeOfStreamedBody() {
+    final MetricRegistry registry = new MetricRegistry();
+
+    streamingSource(registry, 10).post("0123456789".getBytes(UTF_8));
+
+    final List<Histogram> requestSizes = requestSizes(registry);
+    assertThat(requestSizes, hasSize(1));
+    assertThat(requestSizes.get(0).getCount(), equalTo(1L));
+    assertThat(requestSizes.get(0).getSnapshot().getMax(), equalTo(10L));
+  }
+
+  @Test
+  public void skipsStreamedBodyOfUnknownSize() {
+    final MetricRegistry registry = new MetricRegistry();
+
+    streamingSource(registry, -1).post("0123456789".getBytes(UTF_8));
+
+    assertThat(requestSizes(registry), empty());
+  }
+
+  private static StreamingSource streamingSource(MetricRegistry registry, long contentLength) {
+    return Feign.builder()
+        .client(new MockClient()
+            .ok(HttpMethod.POST, "/post", "ok"))
+        .encoder((object, bodyType, template) -> template
+            .body(output -> output.write((byte[]) object), contentLength, true))
+        .addCapability(new Metrics4Capability(registry))
+        .target(new MockTarget<>(StreamingSource.class));
+  }
+
+  private static List<Histogram> requestSizes(MetricRegistry registry) {
+    return registry.getHistograms().entrySet().stream()
+        .filter(entry -> entry.getKey().contains("request_size"))
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+  }
+
 }
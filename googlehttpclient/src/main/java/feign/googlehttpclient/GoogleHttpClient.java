@@ -13,6 +13,7 @@
  */
 package feign.googlehttpclient;
 
+import com.google.api.client.http.AbstractHttpContent;
 import com.google.api.client.http.ByteArrayContent;
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpContent;
@@ -23,6 +24,7 @@ import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpResponse;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Map;
 import java.util.HashMap;
@@ -67,7 +69,7 @@ public class GoogleHttpClient implements Client {
       throws IOException {
     // Setup the request body
     HttpContent content = null;
-    if (inputRequest.length() > 0) {
+    if (inputRequest.length() > 0 || inputRequest.requestBody().isStreaming()) {
       final Collection<String> contentTypeValues = inputRequest.headers().get("Content-Type");
       String contentType = null;
       if (contentTypeValues != null && contentTypeValues.size() > 0) {
@@ -75,7 +77,11 @@ public class GoogleHttpClient implements Client {
       } else {
         contentType = "application/octet-stream";
       }
-      content = new ByteArrayContent(contentType, inputRequest.body());
+      if (inputRequest.requestBody().isStreaming()) {
+        content = new StreamingContent(contentType, inputRequest.requestBody());
+      } else {
+        content = new ByteArrayContent(contentType, inputRequest.body());
+      }
     }
 
     // Build the request
@@ -125,4 +131,32 @@ public class GoogleHttpClient implements Client {
     }
     return map;
   }
+
+  /**
+   * Writes a {@link Request.Body#isStreaming() streamed} body straight to the connection.
+   */
+  private static final class StreamingContent extends AbstractHttpContent {
+
+    private final Request.Body body;
+
+    StreamingContent(String mediaType, Request.Body body) {
+      super(mediaType);
+      this.body = body;
+    }
+
+    @Override
+    public long getLength() {
+      return body.contentLength();
+    }
+
+    @Override
+    public boolean retrySupported() {
+      return body.isReplayable();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      body.writeTo(out);
+    }
+  }
 }
@@ -14,13 +14,21 @@
 package feign.gson;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.TypeAdapter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import feign.RequestTemplate;
-import feign.codec.Encoder;
+import feign.codec.EncodeException;
+import feign.codec.StreamingEncoder;
+import static feign.Util.UTF_8;
 
-public class GsonEncoder implements Encoder {
+public class GsonEncoder implements StreamingEncoder {
 
   private final Gson gson;
 
@@ -40,4 +48,25 @@ public class GsonEncoder implements Encoder {
   public void encode(Object object, Type bodyType, RequestTemplate template) {
     template.body(gson.toJson(object, bodyType));
   }
+
+  @Override
+  public void encodeStreamed(Object object, Type bodyType, RequestTemplate template) {
+    template.body(output -> encode(object, bodyType, output), -1, true, UTF_8);
+  }
+
+  @Override
+  public void encode(Object object, Type bodyType, OutputStream output) throws IOException {
+    Writer writer = new OutputStreamWriter(output, UTF_8);
+    try {
+      gson.toJson(object, bodyType, writer);
+    } catch (JsonIOException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new EncodeException(e.getMessage(), e);
+    } catch (JsonParseException e) {
+      throw new EncodeException(e.getMessage(), e);
+    }
+    writer.flush();
+  }
 }
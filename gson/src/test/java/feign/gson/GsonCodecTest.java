@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import feign.RequestTemplate;
 import feign.Response;
+import feign.codec.StreamingEncoder;
 import static feign.Util.UTF_8;
 import static feign.assertj.FeignAssertions.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -68,6 +69,21 @@ public class GsonCodecTest {
         new GsonDecoder().decode(response, new TypeToken<Map<String, Object>>() {}.getType()), map);
   }
 
+  @Test
+  public void encodesStreamedBody() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("foo", 1);
+
+    RequestTemplate template = new RequestTemplate();
+    StreamingEncoder.streamed(new GsonEncoder()).encode(map, map.getClass(), template);
+
+    assertNull(template.body());
+    assertThat(template).hasBody("" //
+        + "{\n" //
+        + "  \"foo\": 1\n" //
+        + "}");
+  }
+
   @Test
   public void encodesFormParams() {
 
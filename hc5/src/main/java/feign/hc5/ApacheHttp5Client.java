@@ -20,6 +20,7 @@ import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.http.*;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
@@ -126,9 +127,11 @@ public final class ApacheHttp5Client implements Client {
     }
 
     // request body
-    // final Body requestBody = request.requestBody();
+    final Request.Body requestBody = request.requestBody();
     byte[] data = request.body();
-    if (data != null) {
+    if (requestBody.isStreaming()) {
+      requestBuilder.setEntity(new StreamingEntity(requestBody, getContentType(request)));
+    } else if (data != null) {
       HttpEntity entity;
       if (request.isBinary()) {
         entity = new ByteArrayEntity(data, null);
@@ -145,6 +148,47 @@ public final class ApacheHttp5Client implements Client {
     return requestBuilder.build();
   }
 
+  /**
+   * Writes a {@link Request.Body#isStreaming() streamed} body straight to the connection.
+   */
+  private static final class StreamingEntity extends AbstractHttpEntity {
+
+    private final Request.Body body;
+
+    StreamingEntity(Request.Body body, ContentType contentType) {
+      super(contentType, null, body.contentLength() < 0);
+      this.body = body;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+      return body.isReplayable();
+    }
+
+    @Override
+    public long getContentLength() {
+      return body.contentLength();
+    }
+
+    @Override
+    public InputStream getContent() {
+      throw new UnsupportedOperationException("streamed bodies can only be written");
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      body.writeTo(outStream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+      return false;
+    }
+
+    @Override
+    public void close() {}
+  }
+
   private ContentType getContentType(Request request) {
     ContentType contentType = null;
     for (final Map.Entry<String, Collection<String>> entry : request.headers().entrySet()) {
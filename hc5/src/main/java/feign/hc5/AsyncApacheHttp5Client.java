@@ -23,9 +23,19 @@ import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
 import org.apache.hc.core5.io.CloseMode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import feign.*;
 import feign.Request.Options;
 
@@ -35,7 +45,13 @@ import feign.Request.Options;
  *
  * <pre>
  * GitHub github = Feign.builder().client(new ApacheHttp5Client()).target(GitHub.class,
- * "https://api.github.com");
+ *     "https://api.github.com");
+ * </pre>
+ *
+ * <p>
+ * By default, request and response bodies are held in memory. Pass a buffer size to stream them
+ * instead: the response is then handed over once its head arrived, and the decoder reads the body
+ * as it comes in, holding at most about that many bytes.
  */
 /*
  */
@@ -44,6 +60,9 @@ public final class AsyncApacheHttp5Client implements AsyncClient<HttpClientConte
   private static final String ACCEPT_HEADER_NAME = "Accept";
 
   private final CloseableHttpAsyncClient client;
+  /** Zero when bodies are held in memory. */
+  private final int streamingBufferSize;
+  private final Executor executor;
 
   public AsyncApacheHttp5Client() {
     this(createStartedClient());
@@ -57,15 +76,55 @@ public final class AsyncApacheHttp5Client implements AsyncClient<HttpClientConte
 
   public AsyncApacheHttp5Client(CloseableHttpAsyncClient client) {
     this.client = client;
+    this.streamingBufferSize = 0;
+    this.executor = null;
+  }
+
+  /**
+   * Streams request and response bodies, holding at most about {@code streamingBufferSize} bytes of
+   * each.
+   */
+  @Experimental
+  public AsyncApacheHttp5Client(CloseableHttpAsyncClient client, int streamingBufferSize) {
+    this(client, streamingBufferSize, SharedExecutors.blocking());
+  }
+
+  /**
+   * Streams request and response bodies, holding at most about {@code streamingBufferSize} bytes of
+   * each.
+   *
+   * @param executor writes streamed request bodies, and hands responses over to the decoder, which
+   *        must not block the client's I/O threads.
+   */
+  @Experimental
+  public AsyncApacheHttp5Client(CloseableHttpAsyncClient client,
+      int streamingBufferSize,
+      Executor executor) {
+    if (streamingBufferSize <= 0) {
+      throw new IllegalArgumentException(
+          "streamingBufferSize must be positive: " + streamingBufferSize);
+    }
+    this.client = client;
+    this.streamingBufferSize = streamingBufferSize;
+    this.executor = executor;
   }
 
   @Override
   public CompletableFuture<Response> execute(Request request,
                                              Options options,
                                              Optional<HttpClientContext> requestContext) {
-    final SimpleHttpRequest httpUriRequest = toClassicHttpRequest(request, options);
-
+    if (streamingBufferSize > 0) {
+      return executeStreaming(request, options, requestContext);
+    }
     final CompletableFuture<Response> result = new CompletableFuture<>();
+    final SimpleHttpRequest httpUriRequest;
+    try {
+      httpUriRequest = toClassicHttpRequest(request, options);
+    } catch (final IOException e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+
     final FutureCallback<SimpleHttpResponse> callback = new FutureCallback<SimpleHttpResponse>() {
 
       @Override
@@ -91,6 +150,54 @@ public final class AsyncApacheHttp5Client implements AsyncClient<HttpClientConte
     return result;
   }
 
+  private CompletableFuture<Response> executeStreaming(Request request,
+                                                       Options options,
+                                                       Optional<HttpClientContext> requestContext) {
+    final CompletableFuture<Response> result = new CompletableFuture<>();
+    final BasicHttpRequest httpRequest =
+        new BasicHttpRequest(request.httpMethod().name(), URI.create(request.url()));
+    addHeaders(request, httpRequest);
+
+    final AsyncEntityProducer entityProducer;
+    if (request.requestBody().isStreaming()) {
+      entityProducer = new StreamingEntityProducer(request.requestBody(), getContentType(request),
+          streamingBufferSize, executor);
+    } else if (request.body() != null) {
+      entityProducer = new BasicAsyncEntityProducer(request.body(), getContentType(request));
+    } else {
+      entityProducer = null;
+    }
+
+    final StreamingResponseConsumer responseConsumer =
+        new StreamingResponseConsumer(request, streamingBufferSize, executor, result);
+    final Future<Response> exchange = client.execute(
+        new BasicRequestProducer(httpRequest, entityProducer),
+        responseConsumer,
+        configureTimeouts(options, requestContext.orElseGet(HttpClientContext::new)),
+        new FutureCallback<Response>() {
+
+          @Override
+          public void completed(Response response) {}
+
+          @Override
+          public void failed(Exception ex) {
+            result.completeExceptionally(ex);
+          }
+
+          @Override
+          public void cancelled() {
+            result.cancel(false);
+          }
+        });
+    responseConsumer.exchange(exchange);
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        exchange.cancel(true);
+      }
+    });
+    return result;
+  }
+
   protected HttpClientContext configureTimeouts(Request.Options options,
                                                 HttpClientContext context) {
     // per request timeouts
@@ -106,10 +213,30 @@ public final class AsyncApacheHttp5Client implements AsyncClient<HttpClientConte
   }
 
   SimpleHttpRequest toClassicHttpRequest(Request request,
-                                         Request.Options options) {
+                                         Request.Options options)
+      throws IOException {
     final SimpleHttpRequest httpRequest =
         new SimpleHttpRequest(request.httpMethod().name(), request.url());
+    addHeaders(request, httpRequest);
+
+    // request body
+    final Request.Body requestBody = request.requestBody();
+    byte[] data = request.body();
+    if (requestBody.isStreaming()) {
+      // simple requests hold their content in memory
+      final ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+          requestBody.contentLength() > 0 ? (int) requestBody.contentLength() : 32);
+      requestBody.writeTo(buffer);
+      data = buffer.toByteArray();
+    }
+    if (data != null) {
+      httpRequest.setBodyBytes(data, getContentType(request));
+    }
 
+    return httpRequest;
+  }
+
+  private void addHeaders(Request request, HttpRequest httpRequest) {
     // request headers
     boolean hasAcceptHeader = false;
     for (final Map.Entry<String, Collection<String>> headerEntry : request.headers().entrySet()) {
@@ -132,15 +259,6 @@ public final class AsyncApacheHttp5Client implements AsyncClient<HttpClientConte
     if (!hasAcceptHeader) {
       httpRequest.addHeader(ACCEPT_HEADER_NAME, "*/*");
     }
-
-    // request body
-    // final Body requestBody = request.requestBody();
-    final byte[] data = request.body();
-    if (data != null) {
-      httpRequest.setBodyBytes(data, getContentType(request));
-    }
-
-    return httpRequest;
   }
 
   private ContentType getContentType(Request request) {
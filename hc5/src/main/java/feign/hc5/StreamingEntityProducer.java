@@ -0,0 +1,190 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hc5;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import feign.Request;
+
+/**
+ * Produces a {@link Request.Body#isStreaming() streamed} body. The body writes to an output stream
+ * on {@code executor}, blocking once {@code bufferSize} bytes wait for the connection, which takes
+ * them on the I/O thread as it can send them.
+ */
+final class StreamingEntityProducer implements AsyncEntityProducer {
+
+  private final Request.Body body;
+  private final ContentType contentType;
+  private final int bufferSize;
+  private final Executor executor;
+
+  // guarded by this
+  private final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<>();
+  private int buffered;
+  private DataStreamChannel channel;
+  private boolean started;
+  private boolean written;
+  private boolean aborted;
+  private Exception failure;
+
+  StreamingEntityProducer(Request.Body body,
+      ContentType contentType,
+      int bufferSize,
+      Executor executor) {
+    this.body = body;
+    this.contentType = contentType;
+    this.bufferSize = bufferSize;
+    this.executor = executor;
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    // the chunks are handed out once
+    return false;
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType != null ? contentType.toString() : null;
+  }
+
+  @Override
+  public long getContentLength() {
+    return body.contentLength();
+  }
+
+  @Override
+  public String getContentEncoding() {
+    return null;
+  }
+
+  @Override
+  public boolean isChunked() {
+    return body.contentLength() < 0;
+  }
+
+  @Override
+  public Set<String> getTrailerNames() {
+    return null;
+  }
+
+  @Override
+  public synchronized int available() {
+    // before the first call to produce, and once written, there is something left to do
+    return buffered > 0 || (started && !written) ? buffered : 1;
+  }
+
+  @Override
+  public void produce(DataStreamChannel channel) throws IOException {
+    final boolean start;
+    synchronized (this) {
+      this.channel = channel;
+      start = !started;
+      started = true;
+      if (failure != null) {
+        throw new IOException("Failed to write the request body", failure);
+      }
+      while (!chunks.isEmpty()) {
+        final ByteBuffer chunk = chunks.peekFirst();
+        buffered -= channel.write(chunk);
+        if (chunk.hasRemaining()) {
+          break; // the channel is full, it asks for output again once it isn't
+        }
+        chunks.removeFirst();
+      }
+      notifyAll();
+      if (chunks.isEmpty() && written) {
+        channel.endStream();
+      }
+    }
+    if (start) {
+      executor.execute(this::write);
+    }
+  }
+
+  private void write() {
+    try (OutputStream out = new BufferedOutputStream(new ChunkOutputStream(), 8192)) {
+      body.writeTo(out);
+    } catch (final Exception e) {
+      synchronized (this) {
+        failure = e;
+      }
+    }
+    final DataStreamChannel channel;
+    synchronized (this) {
+      written = true;
+      channel = this.channel;
+    }
+    channel.requestOutput();
+  }
+
+  @Override
+  public void failed(Exception cause) {
+    releaseResources();
+  }
+
+  @Override
+  public synchronized void releaseResources() {
+    aborted = true;
+    chunks.clear();
+    buffered = 0;
+    notifyAll();
+  }
+
+  private final class ChunkOutputStream extends OutputStream {
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        final int length = Math.min(len, bufferSize);
+        final ByteBuffer chunk = ByteBuffer.allocate(length);
+        chunk.put(b, off, length).flip();
+        final DataStreamChannel channel;
+        synchronized (StreamingEntityProducer.this) {
+          while (buffered > 0 && buffered + length > bufferSize && !aborted) {
+            try {
+              StreamingEntityProducer.this.wait();
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new InterruptedIOException();
+            }
+          }
+          if (aborted) {
+            throw new IOException("request aborted");
+          }
+          chunks.addLast(chunk);
+          buffered += length;
+          channel = StreamingEntityProducer.this.channel;
+        }
+        channel.requestOutput();
+        off += length;
+        len -= length;
+      }
+    }
+  }
+}
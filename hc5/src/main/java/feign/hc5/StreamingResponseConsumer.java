@@ -0,0 +1,270 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hc5;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Hands a response over as soon as its head arrives, and feeds its body to the reader as it comes
+ * in. At most about {@code bufferSize} bytes are held: the connection is only asked for more once
+ * the reader made room for them.
+ *
+ * <p>
+ * The response is handed over on {@code executor}, never on the I/O thread, as the decoder blocks
+ * reading the body while the I/O thread delivers it.
+ */
+final class StreamingResponseConsumer implements AsyncResponseConsumer<Response> {
+
+  private final Request request;
+  private final int bufferSize;
+  private final Executor executor;
+  private final CompletableFuture<Response> result;
+
+  // guarded by this
+  private final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<>();
+  private int buffered;
+  /** Bytes the connection may still send without asking. */
+  private int window;
+  private CapacityChannel capacityChannel;
+  private boolean ended;
+  private boolean closed;
+  private Exception failure;
+
+  private volatile Future<?> exchange;
+  private volatile FutureCallback<Response> resultCallback;
+  private volatile Response response;
+
+  StreamingResponseConsumer(Request request,
+      int bufferSize,
+      Executor executor,
+      CompletableFuture<Response> result) {
+    this.request = request;
+    this.bufferSize = bufferSize;
+    this.executor = executor;
+    this.result = result;
+  }
+
+  /**
+   * The exchange to cancel when the body is closed before it was read to the end.
+   */
+  void exchange(Future<?> exchange) {
+    this.exchange = exchange;
+  }
+
+  @Override
+  public void consumeResponse(HttpResponse response,
+                              EntityDetails entityDetails,
+                              HttpContext context,
+                              FutureCallback<Response> resultCallback) {
+    final Map<String, Collection<String>> headers = new HashMap<>();
+    for (final Header header : response.getHeaders()) {
+      headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+    }
+    final Response.Builder builder = Response.builder()
+        .status(response.getCode())
+        .reason(response.getReasonPhrase())
+        .headers(headers)
+        .request(request);
+    if (entityDetails != null) {
+      final long length = entityDetails.getContentLength();
+      builder.body(new BodyInputStream(),
+          length >= 0 && length <= Integer.MAX_VALUE ? (int) length : null);
+    }
+    final Response feignResponse = builder.build();
+    if (entityDetails == null) {
+      resultCallback.completed(feignResponse);
+    } else {
+      this.response = feignResponse;
+      this.resultCallback = resultCallback;
+    }
+    executor.execute(() -> {
+      if (!result.complete(feignResponse)) {
+        feignResponse.close();
+      }
+    });
+  }
+
+  @Override
+  public void informationResponse(HttpResponse response, HttpContext context) {}
+
+  @Override
+  public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+    final int increment;
+    synchronized (this) {
+      this.capacityChannel = capacityChannel;
+      increment = grant();
+    }
+    if (increment > 0) {
+      capacityChannel.update(increment);
+    }
+  }
+
+  @Override
+  public void consume(ByteBuffer src) {
+    final int length = src.remaining();
+    synchronized (this) {
+      window = Math.max(0, window - length);
+      if (closed) {
+        src.position(src.limit());
+        return;
+      }
+      final ByteBuffer copy = ByteBuffer.allocate(length);
+      copy.put(src).flip();
+      chunks.addLast(copy);
+      buffered += length;
+      notifyAll();
+    }
+  }
+
+  @Override
+  public void streamEnd(List<? extends Header> trailers) {
+    synchronized (this) {
+      ended = true;
+      notifyAll();
+    }
+    if (resultCallback != null) {
+      resultCallback.completed(response);
+    }
+  }
+
+  @Override
+  public void failed(Exception cause) {
+    synchronized (this) {
+      if (failure == null) {
+        failure = cause;
+      }
+      notifyAll();
+    }
+    result.completeExceptionally(cause);
+  }
+
+  @Override
+  public void releaseResources() {
+    synchronized (this) {
+      capacityChannel = null;
+      notifyAll();
+    }
+  }
+
+  /**
+   * How much more the connection may send, so that buffered and in-flight bytes stay within
+   * {@code bufferSize}. Called holding the lock; the caller passes it to the capacity channel.
+   */
+  private int grant() {
+    if (capacityChannel == null || closed || ended) {
+      return 0;
+    }
+    final int increment = bufferSize - buffered - window;
+    if (increment <= 0) {
+      return 0;
+    }
+    window += increment;
+    return increment;
+  }
+
+  private final class BodyInputStream extends InputStream {
+
+    @Override
+    public int read() throws IOException {
+      final byte[] single = new byte[1];
+      return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      final int read;
+      final CapacityChannel channel;
+      final int increment;
+      synchronized (StreamingResponseConsumer.this) {
+        while (chunks.isEmpty()) {
+          if (closed) {
+            throw new IOException("stream closed");
+          }
+          if (failure != null) {
+            throw new IOException(failure.getMessage(), failure);
+          }
+          if (ended) {
+            return -1;
+          }
+          try {
+            StreamingResponseConsumer.this.wait();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+          }
+        }
+        final ByteBuffer chunk = chunks.peekFirst();
+        read = Math.min(len, chunk.remaining());
+        chunk.get(b, off, read);
+        if (!chunk.hasRemaining()) {
+          chunks.removeFirst();
+        }
+        buffered -= read;
+        channel = capacityChannel;
+        // ask for more once half of the buffer is free, instead of after every read
+        increment = buffered + window <= bufferSize / 2 ? grant() : 0;
+      }
+      if (increment > 0) {
+        channel.update(increment);
+      }
+      return read;
+    }
+
+    @Override
+    public int available() {
+      synchronized (StreamingResponseConsumer.this) {
+        return buffered;
+      }
+    }
+
+    @Override
+    public void close() {
+      final boolean abort;
+      synchronized (StreamingResponseConsumer.this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        abort = !ended && failure == null;
+        chunks.clear();
+        buffered = 0;
+        StreamingResponseConsumer.this.notifyAll();
+      }
+      final Future<?> exchange = StreamingResponseConsumer.this.exchange;
+      if (abort && exchange != null) {
+        // the rest of the body is not wanted, so the connection can't be reused
+        exchange.cancel(true);
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.hc5;
+
+import static feign.assertj.MockWebServerAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.assertj.core.data.MapEntry;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import feign.*;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+public class AsyncApacheHttp5StreamingTest {
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  private final CloseableHttpAsyncClient httpClient = HttpAsyncClients.custom().build();
+
+  public interface StreamingInterface {
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+
+    @RequestLine("GET /")
+    CompletableFuture<Response> response();
+
+    @RequestLine("POST /")
+    CompletableFuture<Void> post(Request.Body body);
+  }
+
+  private StreamingInterface api(int bufferSize) {
+    httpClient.start();
+    return AsyncFeign.<HttpClientContext>asyncBuilder()
+        .client(new AsyncApacheHttp5Client(httpClient, bufferSize))
+        .encoder((object, bodyType, template) -> template.body((Request.Body) object))
+        .target(StreamingInterface.class, "http://localhost:" + server.getPort());
+  }
+
+  @After
+  public void closeClient() throws Exception {
+    httpClient.close();
+  }
+
+  @Test
+  public void executesAsynchronously() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+
+    assertThat(api(1024).get().get(5, TimeUnit.SECONDS)).isEqualTo("foo");
+  }
+
+  @Test
+  public void readsBodyLargerThanBuffer() throws Exception {
+    final byte[] expected = new byte[256 * 1024];
+    Arrays.fill(expected, (byte) 'a');
+    server.enqueue(new MockResponse().setChunkedBody(new Buffer().write(expected), 4096));
+
+    final Response response = api(1024).response().get(5, TimeUnit.SECONDS);
+
+    assertThat(response.body().length()).isNull();
+    assertThat(Util.toByteArray(response.body().asInputStream())).isEqualTo(expected);
+  }
+
+  @Test
+  public void handsOverResponseWithoutBody() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(204));
+
+    final Response response = api(1024).response().get(5, TimeUnit.SECONDS);
+
+    assertThat(response.status()).isEqualTo(204);
+    assertThat(response.body()).isNull();
+  }
+
+  @Test
+  public void writesStreamedRequestBody() throws Exception {
+    server.enqueue(new MockResponse());
+    final byte[] expected = new byte[64 * 1024];
+    Arrays.fill(expected, (byte) 'b');
+
+    api(1024).post(Request.Body.create(out -> {
+      for (int i = 0; i < expected.length; i += 1000) {
+        out.write(expected, i, Math.min(1000, expected.length - i));
+      }
+    }, -1, false, null)).get(5, TimeUnit.SECONDS);
+
+    assertThat(server.takeRequest())
+        .hasHeaders(MapEntry.entry("Transfer-Encoding", Arrays.asList("chunked")))
+        .hasBody(expected);
+  }
+}
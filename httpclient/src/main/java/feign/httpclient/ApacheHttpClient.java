@@ -25,6 +25,7 @@ import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
@@ -33,6 +34,7 @@ import org.apache.http.util.EntityUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.net.URI;
@@ -132,7 +134,9 @@ public final class ApacheHttpClient implements Client {
     }
 
     // request body
-    if (request.body() != null) {
+    if (request.requestBody().isStreaming()) {
+      requestBuilder.setEntity(new StreamingEntity(request.requestBody()));
+    } else if (request.body() != null) {
       HttpEntity entity = null;
       if (request.charset() != null) {
         ContentType contentType = getContentType(request);
@@ -150,6 +154,44 @@ public final class ApacheHttpClient implements Client {
     return requestBuilder.build();
   }
 
+  /**
+   * Writes a {@link Request.Body#isStreaming() streamed} body straight to the connection.
+   */
+  private static final class StreamingEntity extends AbstractHttpEntity {
+
+    private final Request.Body body;
+
+    StreamingEntity(Request.Body body) {
+      this.body = body;
+      setChunked(body.contentLength() < 0);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+      return body.isReplayable();
+    }
+
+    @Override
+    public long getContentLength() {
+      return body.contentLength();
+    }
+
+    @Override
+    public InputStream getContent() {
+      throw new UnsupportedOperationException("streamed bodies can only be written");
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+      body.writeTo(outstream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+      return false;
+    }
+  }
+
   private ContentType getContentType(Request request) {
     ContentType contentType = null;
     for (Map.Entry<String, Collection<String>> entry : request.headers().entrySet())
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Collections;
@@ -47,6 +48,9 @@ public class JacksonDecoder implements Decoder {
   public Object decode(Response response, Type type) throws IOException {
     if (response.body() == null)
       return null;
+    if (response.body() instanceof Response.ByteBufferBody) {
+      return decode((Response.ByteBufferBody) response.body(), type);
+    }
     Reader reader = response.body().asReader(Util.UTF_8);
     if (!reader.markSupported()) {
       reader = new BufferedReader(reader, 1);
@@ -66,4 +70,22 @@ public class JacksonDecoder implements Decoder {
       throw e;
     }
   }
+
+  /**
+   * Parses the buffers as bytes, skipping the decoding to characters and any copy of the whole
+   * body.
+   */
+  private Object decode(Response.ByteBufferBody body, Type type) throws IOException {
+    if (Integer.valueOf(0).equals(body.length())) {
+      return null; // Eagerly returning null avoids "No content to map due to end-of-input"
+    }
+    try (InputStream input = body.asInputStream()) {
+      return mapper.readValue(input, mapper.constructType(type));
+    } catch (RuntimeJsonMappingException e) {
+      if (e.getCause() != null && e.getCause() instanceof IOException) {
+        throw IOException.class.cast(e.getCause());
+      }
+      throw e;
+    }
+  }
 }
@@ -19,14 +19,16 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import feign.RequestTemplate;
 import feign.codec.EncodeException;
-import feign.codec.Encoder;
+import feign.codec.StreamingEncoder;
 import feign.Util;
 
-public class JacksonEncoder implements Encoder {
+public class JacksonEncoder implements StreamingEncoder {
 
   private final ObjectMapper mapper;
 
@@ -54,4 +56,19 @@ public class JacksonEncoder implements Encoder {
       throw new EncodeException(e.getMessage(), e);
     }
   }
+
+  @Override
+  public void encodeStreamed(Object object, Type bodyType, RequestTemplate template) {
+    template.body(output -> encode(object, bodyType, output), -1, true, Util.UTF_8);
+  }
+
+  @Override
+  public void encode(Object object, Type bodyType, OutputStream output) throws IOException {
+    try {
+      JavaType javaType = mapper.getTypeFactory().constructType(bodyType);
+      mapper.writerFor(javaType).writeValue(output, object);
+    } catch (JsonProcessingException e) {
+      throw new EncodeException(e.getMessage(), e);
+    }
+  }
 }
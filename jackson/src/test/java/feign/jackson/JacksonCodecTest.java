@@ -28,6 +28,7 @@ import feign.Util;
 import org.junit.Test;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -37,6 +38,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import feign.RequestTemplate;
+import feign.codec.StreamingEncoder;
 import feign.Response;
 import static feign.Util.UTF_8;
 import static feign.assertj.FeignAssertions.assertThat;
@@ -72,6 +74,21 @@ public class JacksonCodecTest {
         + "}");
   }
 
+  @Test
+  public void encodesStreamedBody() {
+    Map<String, Object> map = new LinkedHashMap<String, Object>();
+    map.put("foo", 1);
+
+    RequestTemplate template = new RequestTemplate();
+    StreamingEncoder.streamed(new JacksonEncoder()).encode(map, map.getClass(), template);
+
+    assertNull(template.body());
+    assertThat(template).hasBody(""//
+        + "{" + System.lineSeparator() //
+        + "  \"foo\" : 1" + System.lineSeparator() //
+        + "}");
+  }
+
   @Test
   public void encodesFormParams() {
     Map<String, Object> form = new LinkedHashMap<String, Object>();
@@ -105,6 +122,38 @@ public class JacksonCodecTest {
         new JacksonDecoder().decode(response, new TypeReference<List<Zone>>() {}.getType()));
   }
 
+  @Test
+  public void decodesByteBufferBody() throws Exception {
+    List<Zone> zones = new LinkedList<>();
+    zones.add(new Zone("denominator.io."));
+    zones.add(new Zone("denominator.io.", "ABCD"));
+
+    byte[] json = zonesJson.getBytes(UTF_8);
+    ByteBuffer direct = ByteBuffer.allocateDirect(json.length - 10);
+    direct.put(json, 10, json.length - 10).flip();
+    Response response = Response.builder()
+        .status(200)
+        .reason("OK")
+        .request(Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+        .headers(Collections.emptyMap())
+        .body(Arrays.asList(ByteBuffer.wrap(json, 0, 10), direct))
+        .build();
+    assertEquals(zones,
+        new JacksonDecoder().decode(response, new TypeReference<List<Zone>>() {}.getType()));
+  }
+
+  @Test
+  public void emptyByteBufferBodyDecodesToNull() throws Exception {
+    Response response = Response.builder()
+        .status(204)
+        .reason("OK")
+        .request(Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+        .headers(Collections.emptyMap())
+        .body(Collections.<ByteBuffer>emptyList())
+        .build();
+    assertNull(new JacksonDecoder().decode(response, String.class));
+  }
+
   @Test
   public void nullBodyDecodesToNull() throws Exception {
     Response response = Response.builder()
@@ -13,8 +13,11 @@
  */
 package feign.http2client;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
@@ -25,14 +28,30 @@ import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import feign.*;
 import feign.Request.Options;
 
-public class Http2Client implements Client {
+public class Http2Client implements Client, AsyncClient<Object> {
+
+  /**
+   * Bodies up to this long are read into memory before the response completes, longer ones and
+   * those of unknown length are streamed as they are read.
+   */
+  private static final long MAX_BUFFERED_BODY_SIZE = 1024 * 1024;
 
   private final HttpClient client;
 
@@ -49,29 +68,134 @@ public class Http2Client implements Client {
 
   @Override
   public Response execute(Request request, Options options) throws IOException {
-    final HttpRequest httpRequest = newRequestBuilder(request).build();
+    final StreamingBodyPublisher streamingBody = request.requestBody().isStreaming()
+        ? new StreamingBodyPublisher(request.requestBody())
+        : null;
+    final HttpRequest httpRequest = newRequestBuilder(request, options, streamingBody).build();
 
-    HttpResponse<byte[]> httpResponse;
+    HttpResponse<Object> httpResponse;
     try {
-      httpResponse = client.send(httpRequest, BodyHandlers.ofByteArray());
+      if (streamingBody == null) {
+        httpResponse = client.send(httpRequest, Http2Client::bodySubscriber);
+      } else {
+        httpResponse = sendStreaming(httpRequest, streamingBody);
+      }
     } catch (final InterruptedException e) {
       throw new IOException("Invalid uri " + request.url(), e);
     }
+    return toResponse(request, httpResponse);
+  }
+
+  /**
+   * Sends the request without waiting for the response: the returned future completes once its
+   * headers arrive, or its whole body when it's {@link #MAX_BUFFERED_BODY_SIZE short}. A
+   * {@link Request.Body#isStreaming() streamed} body is written on the client's executor.
+   */
+  @Override
+  public CompletableFuture<Response> execute(Request request,
+                                             Options options,
+                                             Optional<Object> requestContext) {
+    final StreamingBodyPublisher streamingBody = request.requestBody().isStreaming()
+        ? new StreamingBodyPublisher(request.requestBody())
+        : null;
+    final HttpRequest httpRequest;
+    try {
+      httpRequest = newRequestBuilder(request, options, streamingBody).build();
+    } catch (final IOException | RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
 
-    final OptionalLong length = httpResponse.headers().firstValueAsLong("Content-Length");
+    final CompletableFuture<HttpResponse<Object>> httpResponse =
+        client.sendAsync(httpRequest, Http2Client::bodySubscriber);
+    if (streamingBody != null) {
+      bodyWriter().execute(() -> {
+        try {
+          streamingBody.write(httpResponse);
+        } catch (final IOException | RuntimeException e) {
+          // the server may answer without reading the whole body
+          httpResponse.completeExceptionally(e);
+        }
+      });
+    }
+    final CompletableFuture<Response> result =
+        httpResponse.thenApply(response -> toResponse(request, response));
+    result.whenComplete((response, error) -> {
+      if (result.isCancelled()) {
+        httpResponse.cancel(true);
+      }
+    });
+    return result;
+  }
 
-    final Response response = Response.builder()
-        .body(new ByteArrayInputStream(httpResponse.body()),
-            length.isPresent() ? (int) length.getAsLong() : null)
+  private Executor bodyWriter() {
+    return client.executor().orElse(SharedExecutors.blocking());
+  }
+
+  private Response toResponse(Request request, HttpResponse<Object> httpResponse) {
+    final Response.Builder response = Response.builder()
         .reason(httpResponse.headers().firstValue("Reason-Phrase").orElse("OK"))
         .request(request)
         .status(httpResponse.statusCode())
-        .headers(castMapCollectType(httpResponse.headers().map()))
-        .build();
-    return response;
+        .headers(castMapCollectType(httpResponse.headers().map()));
+    final Object body = httpResponse.body();
+    if (body instanceof InputStream) {
+      final OptionalLong length = httpResponse.headers().firstValueAsLong("Content-Length");
+      response.body((InputStream) body,
+          length.isPresent() && length.getAsLong() <= Integer.MAX_VALUE
+              ? (int) length.getAsLong()
+              : null);
+    } else {
+      @SuppressWarnings("unchecked")
+      final List<ByteBuffer> buffers = (List<ByteBuffer>) body;
+      response.body(buffers);
+    }
+    return response.build();
   }
 
-  private Builder newRequestBuilder(Request request) throws IOException {
+  /**
+   * Reads short bodies into buffers, streams the others.
+   */
+  private static BodySubscriber<Object> bodySubscriber(ResponseInfo responseInfo) {
+    final OptionalLong length = responseInfo.headers().firstValueAsLong("Content-Length");
+    if (length.isPresent() && length.getAsLong() <= MAX_BUFFERED_BODY_SIZE) {
+      return BodySubscribers.mapping(new ByteBuffersSubscriber(), Object.class::cast);
+    }
+    return BodySubscribers.mapping(BodySubscribers.ofInputStream(), Object.class::cast);
+  }
+
+  /**
+   * The body is written on the calling thread while the client sends it, so that no more than a
+   * buffer of it is held in memory.
+   */
+  private HttpResponse<Object> sendStreaming(HttpRequest httpRequest,
+                                             StreamingBodyPublisher streamingBody)
+      throws IOException, InterruptedException {
+    final CompletableFuture<HttpResponse<Object>> future =
+        client.sendAsync(httpRequest, Http2Client::bodySubscriber);
+    try {
+      streamingBody.write(future);
+    } catch (final IOException | RuntimeException e) {
+      // the server may answer without reading the whole body
+      if (!future.isDone() || future.isCompletedExceptionally()) {
+        future.cancel(true);
+        throw e;
+      }
+    }
+    try {
+      return future.get();
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private Builder newRequestBuilder(Request request,
+                                    Options options,
+                                    StreamingBodyPublisher streamingBody)
+      throws IOException {
     URI uri;
     try {
       uri = new URI(request.url());
@@ -81,7 +205,9 @@ public class Http2Client implements Client {
 
     final BodyPublisher body;
     final byte[] data = request.body();
-    if (data == null) {
+    if (streamingBody != null) {
+      body = streamingBody;
+    } else if (data == null) {
       body = BodyPublishers.noBody();
     } else {
       body = BodyPublishers.ofByteArray(data);
@@ -90,6 +216,10 @@ public class Http2Client implements Client {
     final Builder requestBuilder = HttpRequest.newBuilder()
         .uri(uri)
         .version(Version.HTTP_2);
+    if (options.readTimeoutMillis() > 0) {
+      // until the response headers arrive, connecting is limited by the HttpClient
+      requestBuilder.timeout(Duration.ofMillis(options.readTimeoutMillis()));
+    }
 
     final Map<String, Collection<String>> headers = filterRestrictedHeaders(request.headers());
     if (!headers.isEmpty()) {
@@ -156,4 +286,179 @@ public class Http2Client implements Client {
         .toArray(new String[0]);
   }
 
+  /**
+   * Keeps the buffers the client fills as they are, instead of joining them into an array.
+   */
+  private static final class ByteBuffersSubscriber implements BodySubscriber<List<ByteBuffer>> {
+
+    private final CompletableFuture<List<ByteBuffer>> body = new CompletableFuture<>();
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+
+    @Override
+    public CompletionStage<List<ByteBuffer>> getBody() {
+      return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+      buffers.addAll(items);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      body.complete(buffers);
+    }
+  }
+
+  /**
+   * Publishes a {@link Request.Body#isStreaming() streamed} body as the calling thread
+   * {@link #write(Future) writes} it, one buffer per demanded item.
+   */
+  private static final class StreamingBodyPublisher implements BodyPublisher {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final long DEMAND_POLL_MILLIS = 100;
+
+    private final Request.Body body;
+    private final Object lock = new Object();
+    private boolean subscribed;
+    private Flow.Subscriber<? super ByteBuffer> subscriber;
+    private long demand;
+    private boolean cancelled;
+
+    StreamingBodyPublisher(Request.Body body) {
+      this.body = body;
+    }
+
+    @Override
+    public long contentLength() {
+      return body.contentLength();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+      final boolean first;
+      synchronized (lock) {
+        first = !subscribed;
+        subscribed = true;
+      }
+      if (!first) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+          @Override
+          public void request(long n) {}
+
+          @Override
+          public void cancel() {}
+        });
+        subscriber.onError(new IllegalStateException("streamed bodies can only be sent once"));
+        return;
+      }
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+          synchronized (lock) {
+            demand = n <= 0 || demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            lock.notifyAll();
+          }
+        }
+
+        @Override
+        public void cancel() {
+          synchronized (lock) {
+            cancelled = true;
+            lock.notifyAll();
+          }
+        }
+      });
+      synchronized (lock) {
+        this.subscriber = subscriber;
+        lock.notifyAll();
+      }
+    }
+
+    /**
+     * Writes the body to the subscriber, until it completes or {@code response} is done.
+     */
+    void write(Future<?> response) throws IOException {
+      final OutputStream out = new BufferedOutputStream(new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+          write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          if (len > 0) {
+            awaitDemand(response).onNext(ByteBuffer.wrap(Arrays.copyOfRange(b, off, off + len)));
+          }
+        }
+      }, BUFFER_SIZE);
+      try {
+        body.writeTo(out);
+        out.flush();
+      } catch (final IOException | RuntimeException e) {
+        final Flow.Subscriber<? super ByteBuffer> current;
+        synchronized (lock) {
+          current = cancelled ? null : subscriber;
+        }
+        if (current != null) {
+          current.onError(e);
+        }
+        throw e;
+      }
+      awaitSubscriber(response).onComplete();
+    }
+
+    private Flow.Subscriber<? super ByteBuffer> awaitSubscriber(Future<?> response)
+        throws IOException {
+      synchronized (lock) {
+        while (subscriber == null && !cancelled) {
+          await(response);
+        }
+        if (cancelled) {
+          throw new IOException("request body was cancelled before it was written");
+        }
+        return subscriber;
+      }
+    }
+
+    private Flow.Subscriber<? super ByteBuffer> awaitDemand(Future<?> response)
+        throws IOException {
+      synchronized (lock) {
+        while ((subscriber == null || demand == 0) && !cancelled) {
+          await(response);
+        }
+        if (cancelled) {
+          throw new IOException("request body was cancelled before it was written");
+        }
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+        return subscriber;
+      }
+    }
+
+    private void await(Future<?> response) throws IOException {
+      if (response.isDone()) {
+        throw new IOException("response was received before the request body was written");
+      }
+      try {
+        lock.wait(DEMAND_POLL_MILLIS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("interrupted while writing the request body");
+      }
+    }
+  }
+
 }
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.http2client.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import feign.AsyncFeign;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import feign.http2client.Http2Client;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+public class Http2AsyncClientTest {
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  public interface AsyncInterface {
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+
+    @RequestLine("GET /")
+    CompletableFuture<Response> response();
+  }
+
+  private AsyncInterface api(Request.Options options) {
+    return AsyncFeign.<Object>asyncBuilder()
+        .client(new Http2Client())
+        .options(options)
+        .target(AsyncInterface.class, "http://localhost:" + server.getPort());
+  }
+
+  @Test
+  public void executesAsynchronously() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+
+    assertThat(api(new Request.Options()).get().get(5, TimeUnit.SECONDS)).isEqualTo("foo");
+  }
+
+  @Test
+  public void streamsBodiesOfUnknownLength() throws Exception {
+    server.enqueue(new MockResponse().setChunkedBody("foobar", 2));
+
+    Response response = api(new Request.Options()).response().get(5, TimeUnit.SECONDS);
+
+    assertThat(response.body().length()).isNull();
+    assertThat(Util.toString(response.body().asReader(Util.UTF_8))).isEqualTo("foobar");
+  }
+
+  @Test
+  public void appliesReadTimeoutPerRequest() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo").setHeadersDelay(1, TimeUnit.SECONDS));
+
+    CompletableFuture<String> result =
+        api(new Request.Options(1, TimeUnit.SECONDS, 200, TimeUnit.MILLISECONDS, true)).get();
+
+    try {
+      result.get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      // reported as a connect timeout when it expires before the connection is established
+      Throwable cause = e;
+      while (cause != null && !(cause instanceof HttpTimeoutException)) {
+        cause = cause.getCause();
+      }
+      assertThat(cause).isInstanceOf(HttpTimeoutException.class);
+      return;
+    }
+    throw new AssertionError("expected a timeout");
+  }
+}
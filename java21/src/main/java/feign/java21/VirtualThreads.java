@@ -0,0 +1,58 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.java21;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import feign.AsyncFeign;
+import feign.Experimental;
+
+/**
+ * Runs Feign's blocking {@link feign.Client clients} on virtual threads, so that a call in flight
+ * no longer holds a platform thread while it waits for the network. Ex.
+ *
+ * <pre>
+ * GitHub github = VirtualThreads.&lt;Void&gt;asyncBuilder().target(GitHub.class,
+ * "https://api.github.com");
+ * </pre>
+ *
+ * <p>
+ * A virtual thread that blocks inside a {@code synchronized} block, or a native frame, stays pinned
+ * to its carrier thread. Clients, encoders and decoders used this way should guard blocking calls
+ * with {@link java.util.concurrent.locks.ReentrantLock} instead.
+ */
+@Experimental
+public final class VirtualThreads {
+
+  private static final ExecutorService EXECUTOR = newVirtualThreadPerTaskExecutor();
+
+  private VirtualThreads() {}
+
+  /**
+   * An executor starting a virtual thread, named {@code feign-virtual-N}, per task. Tasks are not
+   * queued, so there is no bound on how many calls run at once.
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    return Executors
+        .newThreadPerTaskExecutor(Thread.ofVirtual().name("feign-virtual-", 0).factory());
+  }
+
+  /**
+   * An {@link AsyncFeign.AsyncBuilder} running the default client on a shared
+   * {@link #newVirtualThreadPerTaskExecutor() virtual thread per task executor}.
+   */
+  public static <C> AsyncFeign.AsyncBuilder<C> asyncBuilder() {
+    return AsyncFeign.<C>asyncBuilder().executorService(EXECUTOR);
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.java21;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.rules.ExternalResource;
+
+/**
+ * Fails a test when a virtual thread blocked while pinned to its carrier, for example inside a
+ * {@code synchronized} block, in a frame of one of the given packages. Pinning is reported by the
+ * {@code jdk.VirtualThreadPinned} JFR event, recorded here without a duration threshold. From JDK
+ * 24 on, {@code synchronized} no longer pins, so only native frames are reported there.
+ *
+ * <pre>
+ * &#64;Rule
+ * public final PinningDetector pinning = new PinningDetector("feign.");
+ * </pre>
+ */
+public final class PinningDetector extends ExternalResource {
+
+  private static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+
+  private final List<String> packagePrefixes;
+  private final List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+  private RecordingStream stream;
+
+  /**
+   * @param packagePrefixes such as {@code "feign."}, of the frames to look for in the stack of a
+   *        pinned thread.
+   */
+  public PinningDetector(String... packagePrefixes) {
+    this.packagePrefixes = Arrays.asList(packagePrefixes);
+  }
+
+  public void start() {
+    pinned.clear();
+    stream = new RecordingStream();
+    stream.enable(VIRTUAL_THREAD_PINNED).withThreshold(Duration.ZERO).withStackTrace();
+    stream.onEvent(VIRTUAL_THREAD_PINNED, event -> {
+      if (inPackages(event)) {
+        pinned.add(event);
+      }
+    });
+    stream.startAsync();
+  }
+
+  /**
+   * Stops recording, once all recorded events were looked at.
+   *
+   * @return the events of threads pinned in the given packages.
+   */
+  public List<RecordedEvent> stop() {
+    stream.stop();
+    stream.close();
+    return new ArrayList<>(pinned);
+  }
+
+  @Override
+  protected void before() {
+    start();
+  }
+
+  @Override
+  protected void after() {
+    final List<RecordedEvent> events = stop();
+    if (!events.isEmpty()) {
+      final StringBuilder message = new StringBuilder()
+          .append(events.size()).append(" virtual thread(s) pinned while blocking:");
+      for (final RecordedEvent event : events) {
+        message.append("\n\n").append(event);
+      }
+      throw new AssertionError(message);
+    }
+  }
+
+  private boolean inPackages(RecordedEvent event) {
+    if (event.getStackTrace() == null) {
+      return false;
+    }
+    for (final RecordedFrame frame : event.getStackTrace().getFrames()) {
+      if (frame.getMethod() == null) {
+        continue;
+      }
+      final String type = frame.getMethod().getType().getName();
+      for (final String prefix : packagePrefixes) {
+        if (type.startsWith(prefix)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.java21;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+public class PinningDetectorTest {
+
+  private final Object lock = new Object();
+
+  @Test
+  public void detectsThreadsPinnedInPackage() throws Exception {
+    // from JDK 24 on, blocking in synchronized blocks no longer pins
+    assumeTrue(Runtime.version().feature() < 24);
+    final PinningDetector detector = new PinningDetector("feign.");
+    detector.start();
+
+    sleepHoldingLock();
+
+    assertThat(detector.stop()).hasSize(1);
+  }
+
+  @Test
+  public void ignoresOtherPackages() throws Exception {
+    final PinningDetector detector = new PinningDetector("com.example.");
+    detector.start();
+
+    sleepHoldingLock();
+
+    assertThat(detector.stop()).isEmpty();
+  }
+
+  private void sleepHoldingLock() throws InterruptedException {
+    Thread.ofVirtual().start(() -> {
+      synchronized (lock) {
+        try {
+          Thread.sleep(10);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }).join();
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.java21;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import com.sun.net.httpserver.HttpServer;
+import feign.AsyncFeign;
+import feign.RequestLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * How long do {@link #concurrency} concurrent calls of the default client take, when run on a
+ * cached pool of platform threads, as {@link AsyncFeign} does by default, and when run on virtual
+ * threads? The local server answers each call after {@link #latencyMillis}.
+ *
+ * <p>
+ * Run with {@code mvn -pl java21 test-compile exec:exec -Dexec.classpathScope=test
+ * -Dexec.executable=java -Dexec.args="-cp %classpath feign.java21.VirtualThreadBenchmark"}.
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Dhttp.maxConnections=10000")
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+  private static final byte[] BODY = "ok".getBytes(StandardCharsets.UTF_8);
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  @Param("10000")
+  public int concurrency;
+
+  @Param("100")
+  public int latencyMillis;
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private ExecutorService clientExecutor;
+  private Api api;
+
+  public interface Api {
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    final InetAddress loopback = InetAddress.getLoopbackAddress();
+    server = HttpServer.create(new InetSocketAddress(loopback, 0), concurrency);
+    server.setExecutor(serverExecutor);
+    server.createContext("/", exchange -> {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, BODY.length);
+      try (OutputStream body = exchange.getResponseBody()) {
+        body.write(BODY);
+      }
+    });
+    server.start();
+
+    clientExecutor = threads.equals("virtual")
+        ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+        : Executors.newCachedThreadPool();
+    api = AsyncFeign.<Void>asyncBuilder()
+        .executorService(clientExecutor)
+        .target(Api.class,
+            "http://" + loopback.getHostAddress() + ":" + server.getAddress().getPort());
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop(0);
+    serverExecutor.shutdownNow();
+    clientExecutor.shutdownNow();
+  }
+
+  /**
+   * All calls are started before waiting for any.
+   */
+  @Benchmark
+  public void concurrentCalls() {
+    final CompletableFuture<?>[] calls = new CompletableFuture<?>[concurrency];
+    for (int i = 0; i < concurrency; i++) {
+      calls[i] = api.get();
+    }
+    CompletableFuture.allOf(calls).join();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(VirtualThreadBenchmark.class.getSimpleName())
+        .build())
+            .run();
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.java21;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Client;
+import feign.RequestLine;
+import feign.nio.NioClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class VirtualThreadsTest {
+
+  private static final int CALLS = 200;
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  @Rule
+  public final PinningDetector pinning = new PinningDetector("feign.");
+
+  private final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+  public interface Api {
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void runsClientOnVirtualThreads() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+    final AtomicBoolean virtual = new AtomicBoolean();
+    final Client.Default client = new Client.Default(null, null);
+
+    final Api api = AsyncFeign.<Void>asyncBuilder()
+        .client(new AsyncClient.Default<>((request, options) -> {
+          virtual.set(Thread.currentThread().isVirtual());
+          return client.execute(request, options);
+        }, executor))
+        .target(Api.class, "http://localhost:" + server.getPort());
+
+    assertThat(api.get().get(5, TimeUnit.SECONDS)).isEqualTo("foo");
+    assertThat(virtual.get()).isTrue();
+  }
+
+  @Test
+  public void defaultClientDoesNotPin() throws Exception {
+    respondToAll("foo");
+
+    assertAllSucceed(VirtualThreads.<Void>asyncBuilder()
+        .target(Api.class, "http://localhost:" + server.getPort()));
+  }
+
+  @Test
+  public void nioClientDoesNotPin() throws Exception {
+    respondToAll("foo");
+
+    try (NioClient client = NioClient.builder().maxConnectionsPerHost(16).build()) {
+      assertAllSucceed(AsyncFeign.<Void>asyncBuilder()
+          .client(new AsyncClient.Default<>(client, executor))
+          .target(Api.class, "http://localhost:" + server.getPort()));
+    }
+  }
+
+  private void respondToAll(String body) {
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        return new MockResponse().setBody(body).setBodyDelay(10, TimeUnit.MILLISECONDS);
+      }
+    });
+  }
+
+  private static void assertAllSucceed(Api api) throws Exception {
+    final List<CompletableFuture<String>> calls = new ArrayList<>();
+    for (int i = 0; i < CALLS; i++) {
+      calls.add(api.get());
+    }
+    for (final CompletableFuture<String> call : calls) {
+      assertThat(call.get(30, TimeUnit.SECONDS)).isEqualTo("foo");
+    }
+  }
+}
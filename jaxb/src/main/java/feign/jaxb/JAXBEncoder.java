@@ -13,13 +13,19 @@
  */
 package feign.jaxb;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import feign.RequestTemplate;
 import feign.codec.EncodeException;
-import feign.codec.Encoder;
+import feign.codec.StreamingEncoder;
+import static feign.Util.UTF_8;
 
 /**
  * Encodes requests using JAXB. <br>
@@ -41,7 +47,7 @@ import feign.codec.Encoder;
  * The JAXBContextFactory should be reused across requests as it caches the created JAXB contexts.
  * </p>
  */
-public class JAXBEncoder implements Encoder {
+public class JAXBEncoder implements StreamingEncoder {
 
   private final JAXBContextFactory jaxbContextFactory;
 
@@ -51,10 +57,7 @@ public class JAXBEncoder implements Encoder {
 
   @Override
   public void encode(Object object, Type bodyType, RequestTemplate template) {
-    if (!(bodyType instanceof Class)) {
-      throw new UnsupportedOperationException(
-          "JAXB only supports encoding raw types. Found " + bodyType);
-    }
+    checkRawType(bodyType);
     try {
       Marshaller marshaller = jaxbContextFactory.createMarshaller((Class<?>) bodyType);
       StringWriter stringWriter = new StringWriter();
@@ -64,4 +67,48 @@ public class JAXBEncoder implements Encoder {
       throw new EncodeException(e.toString(), e);
     }
   }
+
+  @Override
+  public void encodeStreamed(Object object, Type bodyType, RequestTemplate template) {
+    checkRawType(bodyType);
+    Charset charset = template.requestCharset();
+    template.body(output -> marshal(object, bodyType, output, charset), -1, true, charset);
+  }
+
+  /**
+   * Marshals {@code object} as UTF-8 text, declared as such whatever the {@code jaxb.encoding} of
+   * the marshaller.
+   */
+  @Override
+  public void encode(Object object, Type bodyType, OutputStream output) throws IOException {
+    checkRawType(bodyType);
+    marshal(object, bodyType, output, UTF_8);
+  }
+
+  /**
+   * Writes {@code object} in {@code charset}, which the XML declaration then names too.
+   */
+  private void marshal(Object object, Type bodyType, OutputStream output, Charset charset)
+      throws IOException {
+    Writer writer = new OutputStreamWriter(output, charset);
+    try {
+      Marshaller marshaller = jaxbContextFactory.createMarshaller((Class<?>) bodyType);
+      marshaller.setProperty(Marshaller.JAXB_ENCODING, charset.name());
+      marshaller.marshal(object, writer);
+    } catch (JAXBException e) {
+      if (e.getCause() instanceof IOException) {
+        // the connection failed, rather than the marshaller
+        throw (IOException) e.getCause();
+      }
+      throw new EncodeException(e.toString(), e);
+    }
+    writer.flush();
+  }
+
+  private static void checkRawType(Type bodyType) {
+    if (!(bodyType instanceof Class)) {
+      throw new UnsupportedOperationException(
+          "JAXB only supports encoding raw types. Found " + bodyType);
+    }
+  }
 }
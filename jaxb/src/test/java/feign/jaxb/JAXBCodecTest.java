@@ -16,12 +16,15 @@ package feign.jaxb;
 import static feign.Util.UTF_8;
 import static feign.assertj.FeignAssertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import feign.Request;
 import feign.Request.HttpMethod;
 import feign.RequestTemplate;
 import feign.Response;
 import feign.Util;
 import feign.codec.Encoder;
+import feign.codec.StreamingEncoder;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Collections;
@@ -54,6 +57,21 @@ public class JAXBCodecTest {
             "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><mockObject><value>Test</value></mockObject>");
   }
 
+  @Test
+  public void encodesStreamedXml() throws Exception {
+    MockObject mock = new MockObject();
+    mock.value = "Test";
+
+    RequestTemplate template = new RequestTemplate();
+    StreamingEncoder.streamed(new JAXBEncoder(new JAXBContextFactory.Builder().build()))
+        .encode(mock, MockObject.class, template);
+
+    assertNull(template.body());
+    assertThat(template)
+        .hasBody(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><mockObject><value>Test</value></mockObject>");
+  }
+
   @Test
   public void doesntEncodeParameterizedTypes() throws Exception {
     thrown.expect(UnsupportedOperationException.class);
@@ -88,6 +106,29 @@ public class JAXBCodecTest {
         + "standalone=\"yes\"?><mockObject><value>Test</value></mockObject>");
   }
 
+  @Test
+  public void streamedXmlDeclaresTheCharsetWritten() throws Exception {
+    JAXBContextFactory jaxbContextFactory =
+        new JAXBContextFactory.Builder().withMarshallerJAXBEncoding("UTF-16").build();
+
+    MockObject mock = new MockObject();
+    mock.value = "Test";
+
+    RequestTemplate template = new RequestTemplate();
+    StreamingEncoder.streamed(new JAXBEncoder(jaxbContextFactory))
+        .encode(mock, MockObject.class, template);
+
+    assertThat(template).hasBody("<?xml version=\"1.0\" encoding=\"UTF-8\" "
+        + "standalone=\"yes\"?><mockObject><value>Test</value></mockObject>");
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new JAXBEncoder(jaxbContextFactory).encode(mock, MockObject.class, output);
+
+    assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\" "
+        + "standalone=\"yes\"?><mockObject><value>Test</value></mockObject>",
+        new String(output.toByteArray(), UTF_8));
+  }
+
   @Test
   public void encodesXmlWithCustomJAXBSchemaLocation() throws Exception {
     JAXBContextFactory jaxbContextFactory =
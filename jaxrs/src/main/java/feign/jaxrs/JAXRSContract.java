@@ -41,6 +41,14 @@ public class JAXRSContract extends DeclarativeContract {
     return super.parseAndValidateMetadata(targetType, method);
   }
 
+  /**
+   * Subclasses may register more processors, so only this exact class is cached.
+   */
+  @Override
+  protected boolean cacheable() {
+    return getClass() == JAXRSContract.class;
+  }
+
   public JAXRSContract() {
     super.registerClassAnnotation(Path.class, (path, data) -> {
       if (path != null && !path.value().isEmpty()) {
@@ -32,4 +32,9 @@ public final class JAXRS2Contract extends JAXRSContract {
     super.registerParameterAnnotation(Context.class, (ann, data, i) -> data.ignoreParamater(i));
   }
 
+  @Override
+  protected boolean cacheable() {
+    return true;
+  }
+
 }
@@ -68,15 +68,18 @@ public class JAXRSClient implements Client {
         .build();
   }
 
-  private Entity<byte[]> createRequestEntity(feign.Request request) {
-    if (request.body() == null) {
+  private Entity<?> createRequestEntity(feign.Request request) {
+    final feign.Request.Body body = request.requestBody();
+    if (!body.isStreaming() && request.body() == null) {
       return null;
     }
 
-    return Entity.entity(
-        request.body(),
-        new Variant(mediaType(request.headers()), locale(request.headers()),
-            encoding(request.charset())));
+    final Variant variant = new Variant(mediaType(request.headers()), locale(request.headers()),
+        encoding(request.charset()));
+    if (body.isStreaming()) {
+      return Entity.entity((StreamingOutput) body::writeTo, variant);
+    }
+    return Entity.entity(request.body(), variant);
   }
 
   private Integer integerHeader(Response response, String header) {
@@ -15,6 +15,7 @@ package feign.micrometer;
 
 
 import java.lang.reflect.Type;
+import feign.Request;
 import feign.RequestTemplate;
 import feign.codec.EncodeException;
 import feign.codec.Encoder;
@@ -43,12 +44,25 @@ public class MeteredEncoder implements Encoder {
         metricName.tag(template.methodMetadata(), template.feignTarget()))
         .record(() -> encoder.encode(object, bodyType, template));
 
-    if (template.body() != null) {
+    final long requestSize = requestSize(template);
+    if (requestSize >= 0) {
       meterRegistry.summary(
           metricName.name("request_size"),
           metricName.tag(template.methodMetadata(), template.feignTarget()))
-          .record(template.body().length);
+          .record(requestSize);
     }
   }
 
+  /**
+   * Size of the encoded body, {@code -1} without one, or when it's streamed with an unknown length.
+   */
+  @SuppressWarnings("deprecation")
+  private static long requestSize(RequestTemplate template) {
+    final Request.Body body = template.requestBody();
+    if (body.asBytes() == null && !body.isStreaming()) {
+      return -1;
+    }
+    return body.contentLength();
+  }
+
 }
@@ -13,6 +13,7 @@
  */
 package feign.micrometer;
 
+import static feign.Util.UTF_8;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
@@ -21,10 +22,13 @@ import java.util.List;
 import org.junit.Test;
 import feign.Feign;
 import feign.RequestLine;
+import feign.codec.Encoder;
 import feign.mock.HttpMethod;
 import feign.mock.MockClient;
 import feign.mock.MockTarget;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.MockClock;
 import io.micrometer.core.instrument.simple.SimpleConfig;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -38,6 +42,13 @@ public class MicrometerCapabilityTest {
 
   }
 
+  public interface StreamingSource {
+
+    @RequestLine("POST /post")
+    String post(byte[] body);
+
+  }
+
   @Test
   public void addMetricsCapability() {
     SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, new MockClock());
@@ -69,4 +80,35 @@ public class MicrometerCapabilityTest {
         equalTo("")));
   }
 
+  @Test
+  public void recordsSizeOfStreamedBody() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, new MockClock());
+
+    streamingSource(registry, 10).post("0123456789".getBytes(UTF_8));
+
+    DistributionSummary requestSize = registry.find(Encoder.class.getName() + ".request_size")
+        .summary();
+    assertThat(requestSize.count(), equalTo(1L));
+    assertThat(requestSize.totalAmount(), equalTo(10.0));
+  }
+
+  @Test
+  public void skipsStreamedBodyOfUnknownSize() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, new MockClock());
+
+    streamingSource(registry, -1).post("0123456789".getBytes(UTF_8));
+
+    assertThat(registry.find(Encoder.class.getName() + ".request_size").summary(), nullValue());
+  }
+
+  private static StreamingSource streamingSource(MeterRegistry registry, long contentLength) {
+    return Feign.builder()
+        .client(new MockClient()
+            .ok(HttpMethod.POST, "/post", "ok"))
+        .encoder((object, bodyType, template) -> template
+            .body(output -> output.write((byte[]) object), contentLength, true))
+        .addCapability(new MicrometerCapability(registry))
+        .target(new MockTarget<>(StreamingSource.class));
+  }
+
 }
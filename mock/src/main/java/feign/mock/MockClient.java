@@ -14,6 +14,7 @@
 package feign.mock;
 
 import static feign.Util.UTF_8;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
@@ -61,6 +62,10 @@ public class MockClient implements Client {
   @Override
   public synchronized Response execute(Request request, Request.Options options)
       throws IOException {
+    if (request.requestBody().isStreaming()) {
+      // keep what a client would have sent, so that it can be matched and verified
+      request = buffered(request);
+    }
     RequestKey requestKey = RequestKey.create(request);
     Response.Builder responseBuilder;
     if (sequential) {
@@ -72,6 +77,13 @@ public class MockClient implements Client {
     return responseBuilder.request(request).build();
   }
 
+  private static Request buffered(Request request) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    request.requestBody().writeTo(body);
+    return Request.create(request.httpMethod(), request.url(), request.headers(),
+        body.toByteArray(), request.charset(), request.requestTemplate());
+  }
+
   private Response.Builder executeSequential(RequestKey requestKey) {
     Response.Builder responseBuilder;
     if (responseIterator == null) {
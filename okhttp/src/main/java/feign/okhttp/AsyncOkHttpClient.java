@@ -0,0 +1,106 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.okhttp;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import feign.AsyncClient;
+import feign.Experimental;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * An {@link AsyncClient} that {@link Call#enqueue(Callback) enqueues} Feign's http requests on
+ * <a href="http://square.github.io/okhttp/">OkHttp</a>'s dispatcher, so that no thread waits for a
+ * response. Cancelling the returned future cancels the call. Response bodies are not buffered, they
+ * are read from the connection by the decoder. Ex.
+ *
+ * <pre>
+ * GitHub github = AsyncFeign.asyncBuilder().client(new AsyncOkHttpClient()).target(GitHub.class,
+ *     "https://api.github.com");
+ * </pre>
+ *
+ * <p>
+ * The delegate's {@link okhttp3.Dispatcher} limits how many calls run at once, by default 64 in
+ * total and 5 per host; calls beyond that wait in its queue. Raise
+ * {@link okhttp3.Dispatcher#setMaxRequestsPerHost(int)} when making many parallel calls to one
+ * host.
+ */
+@Experimental
+public final class AsyncOkHttpClient implements AsyncClient<Object> {
+
+  private final DerivedClientCache derivedClients;
+
+  public AsyncOkHttpClient() {
+    this(new okhttp3.OkHttpClient());
+  }
+
+  public AsyncOkHttpClient(okhttp3.OkHttpClient delegate) {
+    this(delegate, DerivedClientCache.DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param maximumDerivedClients how many clients derived from {@code delegate} for differing
+   *        {@link feign.Request.Options} to keep, see {@link #derivedClients()}.
+   */
+  public AsyncOkHttpClient(okhttp3.OkHttpClient delegate, int maximumDerivedClients) {
+    this.derivedClients = new DerivedClientCache(delegate, maximumDerivedClients);
+  }
+
+  /**
+   * The clients derived from the delegate for {@link feign.Request.Options} that differ from its
+   * settings, with their hit and miss counts.
+   */
+  public DerivedClientCache derivedClients() {
+    return derivedClients;
+  }
+
+  @Override
+  public CompletableFuture<feign.Response> execute(feign.Request input,
+                                                   feign.Request.Options options,
+                                                   Optional<Object> requestContext) {
+    final Call call = derivedClients.get(options).newCall(OkHttpClient.toOkHttpRequest(input));
+    final CompletableFuture<feign.Response> result = new CompletableFuture<>();
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        call.cancel();
+      }
+    });
+    call.enqueue(new Callback() {
+      @Override
+      public void onFailure(Call call, IOException e) {
+        result.completeExceptionally(e);
+      }
+
+      @Override
+      public void onResponse(Call call, Response response) {
+        final feign.Response feignResponse;
+        try {
+          feignResponse = OkHttpClient.toFeignResponse(response, input);
+        } catch (IOException | RuntimeException e) {
+          response.close();
+          result.completeExceptionally(e);
+          return;
+        }
+        if (!result.complete(feignResponse)) {
+          // cancelled while the response was on its way
+          feignResponse.close();
+        }
+      }
+    });
+    return result;
+  }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.okhttp;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import feign.Experimental;
+import feign.Request.Options;
+
+/**
+ * The {@link okhttp3.OkHttpClient clients} an {@link OkHttpClient} derived from its delegate for
+ * {@link Options} that differ from the delegate's settings, keyed by connect timeout, read timeout
+ * and whether redirects are followed.
+ *
+ * <p>
+ * Derived clients are built with {@link okhttp3.OkHttpClient#newBuilder()}, so they share the
+ * delegate's dispatcher, connection pool and interceptors. At most {@link #maximumSize()} clients
+ * are kept; the oldest are dropped first.
+ */
+@Experimental
+public final class DerivedClientCache {
+
+  static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+  private final Map<Key, okhttp3.OkHttpClient> clients = new ConcurrentHashMap<>();
+  /** Insertion order of the cached clients, changed holding the cache lock. */
+  private final ArrayDeque<Key> order = new ArrayDeque<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final okhttp3.OkHttpClient delegate;
+  private final int maximumSize;
+
+  DerivedClientCache(okhttp3.OkHttpClient delegate, int maximumSize) {
+    if (maximumSize < 0) {
+      throw new IllegalArgumentException("maximumSize must not be negative: " + maximumSize);
+    }
+    this.delegate = delegate;
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * The client to use for {@code options}: the delegate itself when its settings match, a cached
+   * client otherwise.
+   */
+  okhttp3.OkHttpClient get(Options options) {
+    if (delegate.connectTimeoutMillis() == options.connectTimeoutMillis()
+        && delegate.readTimeoutMillis() == options.readTimeoutMillis()
+        && delegate.followRedirects() == options.isFollowRedirects()) {
+      return delegate;
+    }
+    final Key key = new Key(options.connectTimeoutMillis(), options.readTimeoutMillis(),
+        options.isFollowRedirects());
+    final okhttp3.OkHttpClient cached = clients.get(key);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    final okhttp3.OkHttpClient derived = delegate.newBuilder()
+        .connectTimeout(key.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+        .readTimeout(key.readTimeoutMillis, TimeUnit.MILLISECONDS)
+        .followRedirects(key.followRedirects)
+        .build();
+    return maximumSize > 0 ? put(key, derived) : derived;
+  }
+
+  private synchronized okhttp3.OkHttpClient put(Key key, okhttp3.OkHttpClient derived) {
+    final okhttp3.OkHttpClient existing = clients.putIfAbsent(key, derived);
+    if (existing != null) {
+      return existing; // derived concurrently by another thread
+    }
+    order.addLast(key);
+    while (order.size() > maximumSize) {
+      clients.remove(order.removeFirst());
+      evictions.increment();
+    }
+    return derived;
+  }
+
+  /**
+   * Number of lookups answered with a cached client.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Number of lookups that had to build a client.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Number of clients dropped to stay within {@link #maximumSize()}.
+   */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Number of cached clients.
+   */
+  public synchronized int size() {
+    return order.size();
+  }
+
+  public int maximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Drops all cached clients. Counts are kept.
+   */
+  public synchronized void clear() {
+    clients.clear();
+    order.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "DerivedClientCache{size=" + size() + ", maximumSize=" + maximumSize
+        + ", hitCount=" + hitCount() + ", missCount=" + missCount()
+        + ", evictionCount=" + evictionCount() + "}";
+  }
+
+  private static final class Key {
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final boolean followRedirects;
+
+    Key(int connectTimeoutMillis, int readTimeoutMillis, boolean followRedirects) {
+      this.connectTimeoutMillis = connectTimeoutMillis;
+      this.readTimeoutMillis = readTimeoutMillis;
+      this.followRedirects = followRedirects;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return connectTimeoutMillis == other.connectTimeoutMillis
+          && readTimeoutMillis == other.readTimeoutMillis
+          && followRedirects == other.followRedirects;
+    }
+
+    @Override
+    public int hashCode() {
+      return (31 * connectTimeoutMillis + readTimeoutMillis) * 2 + (followRedirects ? 1 : 0);
+    }
+  }
+}
@@ -19,10 +19,11 @@ import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import feign.Client;
+import feign.Experimental;
 import feign.Request.HttpMethod;
 import okhttp3.*;
+import okio.BufferedSink;
 
 /**
  * This module directs Feign's http requests to
@@ -35,14 +36,32 @@ import okhttp3.*;
  */
 public final class OkHttpClient implements Client {
 
-  private final okhttp3.OkHttpClient delegate;
+  private final DerivedClientCache derivedClients;
 
   public OkHttpClient() {
     this(new okhttp3.OkHttpClient());
   }
 
   public OkHttpClient(okhttp3.OkHttpClient delegate) {
-    this.delegate = delegate;
+    this(delegate, DerivedClientCache.DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param maximumDerivedClients how many clients derived from {@code delegate} for differing
+   *        {@link feign.Request.Options} to keep, see {@link #derivedClients()}.
+   */
+  @Experimental
+  public OkHttpClient(okhttp3.OkHttpClient delegate, int maximumDerivedClients) {
+    this.derivedClients = new DerivedClientCache(delegate, maximumDerivedClients);
+  }
+
+  /**
+   * The clients derived from the delegate for {@link feign.Request.Options} that differ from its
+   * settings, with their hit and miss counts.
+   */
+  @Experimental
+  public DerivedClientCache derivedClients() {
+    return derivedClients;
   }
 
   static Request toOkHttpRequest(feign.Request input) {
@@ -77,19 +96,58 @@ public final class OkHttpClient implements Client {
             || HttpMethod.PATCH == input.httpMethod();
     if (isMethodWithBody) {
       requestBuilder.removeHeader("Content-Type");
-      if (inputBody == null) {
+      if (inputBody == null && !input.requestBody().isStreaming()) {
         // write an empty BODY to conform with okhttp 2.4.0+
         // http://johnfeng.github.io/blog/2015/06/30/okhttp-updates-post-wouldnt-be-allowed-to-have-null-body/
         inputBody = new byte[0];
       }
     }
 
-    RequestBody body = inputBody != null ? RequestBody.create(mediaType, inputBody) : null;
+    RequestBody body;
+    if (input.requestBody().isStreaming()) {
+      body = new StreamingRequestBody(mediaType, input.requestBody());
+    } else {
+      body = inputBody != null ? RequestBody.create(mediaType, inputBody) : null;
+    }
     requestBuilder.method(input.httpMethod().name(), body);
     return requestBuilder.build();
   }
 
-  private static feign.Response toFeignResponse(Response response, feign.Request request)
+  /**
+   * Writes a {@link feign.Request.Body#isStreaming() streamed} body straight to the connection.
+   */
+  private static final class StreamingRequestBody extends RequestBody {
+
+    private final MediaType mediaType;
+    private final feign.Request.Body body;
+
+    StreamingRequestBody(MediaType mediaType, feign.Request.Body body) {
+      this.mediaType = mediaType;
+      this.body = body;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+      return body.contentLength();
+    }
+
+    @Override
+    public boolean isOneShot() {
+      return !body.isReplayable();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      body.writeTo(sink.outputStream());
+    }
+  }
+
+  static feign.Response toFeignResponse(Response response, feign.Request request)
       throws IOException {
     return feign.Response.builder()
         .status(response.code())
@@ -153,18 +211,7 @@ public final class OkHttpClient implements Client {
   @Override
   public feign.Response execute(feign.Request input, feign.Request.Options options)
       throws IOException {
-    okhttp3.OkHttpClient requestScoped;
-    if (delegate.connectTimeoutMillis() != options.connectTimeoutMillis()
-        || delegate.readTimeoutMillis() != options.readTimeoutMillis()
-        || delegate.followRedirects() != options.isFollowRedirects()) {
-      requestScoped = delegate.newBuilder()
-          .connectTimeout(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
-          .readTimeout(options.readTimeoutMillis(), TimeUnit.MILLISECONDS)
-          .followRedirects(options.isFollowRedirects())
-          .build();
-    } else {
-      requestScoped = delegate;
-    }
+    okhttp3.OkHttpClient requestScoped = derivedClients.get(options);
     Request request = toOkHttpRequest(input);
     Response response = requestScoped.newCall(request).execute();
     return toFeignResponse(response, input).toBuilder().request(input).build();
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2012-2020 The Feign Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package feign.okhttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import feign.AsyncFeign;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+public class AsyncOkHttpClientTest {
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+
+  public interface AsyncInterface {
+    @RequestLine("GET /")
+    CompletableFuture<String> get();
+
+    @RequestLine("GET /")
+    CompletableFuture<Response> response();
+  }
+
+  private AsyncInterface api(AsyncOkHttpClient client, Request.Options options) {
+    return AsyncFeign.<Object>asyncBuilder()
+        .client(client)
+        .options(options)
+        .target(AsyncInterface.class, "http://localhost:" + server.getPort());
+  }
+
+  @Test
+  public void executesAsynchronously() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+
+    AsyncInterface api = api(new AsyncOkHttpClient(), new Request.Options());
+
+    assertThat(api.get().get(5, TimeUnit.SECONDS)).isEqualTo("foo");
+  }
+
+  @Test
+  public void streamsResponseBody() throws Exception {
+    server.enqueue(new MockResponse().setChunkedBody("foobar", 2));
+
+    Response response =
+        api(new AsyncOkHttpClient(), new Request.Options()).response().get(5, TimeUnit.SECONDS);
+
+    assertThat(response.body().length()).isNull();
+    assertThat(Util.toString(response.body().asReader(Util.UTF_8))).isEqualTo("foobar");
+  }
+
+  @Test
+  public void appliesReadTimeout() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo").setHeadersDelay(1, TimeUnit.SECONDS));
+
+    AsyncOkHttpClient client = new AsyncOkHttpClient();
+    CompletableFuture<String> result =
+        api(client, new Request.Options(1, TimeUnit.SECONDS, 50, TimeUnit.MILLISECONDS, true))
+            .get();
+
+    try {
+      result.get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      // okhttp closes the socket on timeout, so that is the root cause
+      Throwable cause = e;
+      while (cause != null && !(cause instanceof SocketTimeoutException)) {
+        cause = cause.getCause();
+      }
+      assertThat(cause).isInstanceOf(SocketTimeoutException.class);
+      assertThat(client.derivedClients().missCount()).isEqualTo(1);
+      return;
+    }
+    throw new AssertionError("expected a timeout");
+  }
+
+  @Test
+  public void cancelsCall() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+    okhttp3.OkHttpClient delegate = new okhttp3.OkHttpClient();
+    CompletableFuture<Response> result =
+        api(new AsyncOkHttpClient(delegate), new Request.Options()).response();
+    server.takeRequest(5, TimeUnit.SECONDS);
+    assertThat(delegate.dispatcher().runningCallsCount()).isEqualTo(1);
+
+    result.cancel(true);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (delegate.dispatcher().runningCallsCount() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(delegate.dispatcher().runningCallsCount()).isZero();
+  }
+
+  @Test
+  public void failsOnNetworkError() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+    CompletableFuture<String> result = api(new AsyncOkHttpClient(), new Request.Options()).get();
+
+    try {
+      result.get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      assertThat(e).hasRootCauseInstanceOf(IOException.class);
+      return;
+    }
+    throw new AssertionError("expected a network error");
+  }
+}
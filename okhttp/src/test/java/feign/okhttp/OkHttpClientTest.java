@@ -28,6 +28,7 @@ import okhttp3.mockwebserver.MockResponse;
 import org.assertj.core.data.MapEntry;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /** Tests client-specific behavior, such as ensuring Content-Length is sent when specified. */
 public class OkHttpClientTest extends AbstractClientTest {
@@ -102,6 +103,48 @@ public class OkHttpClientTest extends AbstractClientTest {
   }
 
 
+  @Test
+  public void reusesDerivedClients() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+    server.enqueue(new MockResponse().setBody("bar"));
+
+    OkHttpClient client = new OkHttpClient(new okhttp3.OkHttpClient(), 1);
+    OkHttpClientTestInterface api = Feign.builder()
+        .client(client)
+        .options(new Request.Options(5, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, false))
+        .target(OkHttpClientTestInterface.class, "http://localhost:" + server.getPort());
+
+    assertEquals("foo", api.get().body().toString());
+    assertEquals("bar", api.get().body().toString());
+
+    assertThat(client.derivedClients().missCount()).isEqualTo(1);
+    assertThat(client.derivedClients().hitCount()).isEqualTo(1);
+    assertThat(client.derivedClients().size()).isEqualTo(1);
+  }
+
+  @Test
+  public void evictsOldestDerivedClient() throws Exception {
+    server.enqueue(new MockResponse().setBody("foo"));
+    server.enqueue(new MockResponse().setBody("bar"));
+
+    OkHttpClient client = new OkHttpClient(new okhttp3.OkHttpClient(), 1);
+    String url = "http://localhost:" + server.getPort();
+    Feign.builder()
+        .client(client)
+        .options(new Request.Options(5, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, false))
+        .target(OkHttpClientTestInterface.class, url)
+        .get();
+    Feign.builder()
+        .client(client)
+        .options(new Request.Options(6, TimeUnit.SECONDS, 6, TimeUnit.SECONDS, false))
+        .target(OkHttpClientTestInterface.class, url)
+        .get();
+
+    assertThat(client.derivedClients().missCount()).isEqualTo(2);
+    assertThat(client.derivedClients().evictionCount()).isEqualTo(1);
+    assertThat(client.derivedClients().size()).isEqualTo(1);
+  }
+
   public interface OkHttpClientTestInterface {
 
     @RequestLine("GET /")
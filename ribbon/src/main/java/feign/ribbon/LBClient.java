@@ -122,10 +122,20 @@ public final class LBClient extends
     Request toRequest() {
       // add header "Content-Length" according to the request body
       final byte[] body = request.body();
-      final int bodyLength = body != null ? body.length : 0;
+      final Request.Body requestBody = request.requestBody();
       // create a new Map to avoid side effect, not to change the old headers
       Map<String, Collection<String>> headers = new LinkedHashMap<String, Collection<String>>();
       headers.putAll(request.headers());
+      if (requestBody.isStreaming()) {
+        // streamed bodies are passed through, they can only be written by the client
+        if (requestBody.contentLength() >= 0) {
+          headers.put(Util.CONTENT_LENGTH,
+              Collections.singletonList(String.valueOf(requestBody.contentLength())));
+        }
+        return Request.create(request.httpMethod(), getUri().toASCIIString(), headers,
+            requestBody, request.requestTemplate());
+      }
+      final int bodyLength = body != null ? body.length : 0;
       headers.put(Util.CONTENT_LENGTH, Collections.singletonList(String.valueOf(bodyLength)));
       return Request.create(request.httpMethod(), getUri().toASCIIString(), headers, body,
           request.charset());
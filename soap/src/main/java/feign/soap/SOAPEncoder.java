@@ -15,6 +15,7 @@ package feign.soap;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -36,7 +37,7 @@ import javax.xml.transform.stream.StreamResult;
 import org.w3c.dom.Document;
 import feign.RequestTemplate;
 import feign.codec.EncodeException;
-import feign.codec.Encoder;
+import feign.codec.StreamingEncoder;
 import feign.jaxb.JAXBContextFactory;
 
 
@@ -83,7 +84,7 @@ import feign.jaxb.JAXBContextFactory;
  * The JAXBContextFactory should be reused across requests as it caches the created JAXB contexts.
  * </p>
  */
-public class SOAPEncoder implements Encoder {
+public class SOAPEncoder implements StreamingEncoder {
 
   private static final String DEFAULT_SOAP_PROTOCOL = SOAPConstants.SOAP_1_1_PROTOCOL;
 
@@ -111,6 +112,29 @@ public class SOAPEncoder implements Encoder {
 
   @Override
   public void encode(Object object, Type bodyType, RequestTemplate template) {
+    SOAPMessage soapMessage = toSOAPMessage(object, bodyType);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try {
+      writeTo(soapMessage, bos);
+    } catch (IOException e) {
+      throw new EncodeException(e.toString(), e);
+    }
+    template.body(new String(bos.toByteArray()));
+  }
+
+  @Override
+  public void encodeStreamed(Object object, Type bodyType, RequestTemplate template) {
+    // errors building the message are reported here, only writing it is left to the client
+    SOAPMessage soapMessage = toSOAPMessage(object, bodyType);
+    template.body(output -> writeTo(soapMessage, output), -1, true, charsetEncoding);
+  }
+
+  @Override
+  public void encode(Object object, Type bodyType, OutputStream output) throws IOException {
+    writeTo(toSOAPMessage(object, bodyType), output);
+  }
+
+  private SOAPMessage toSOAPMessage(Object object, Type bodyType) {
     if (!(bodyType instanceof Class)) {
       throw new UnsupportedOperationException(
           "SOAP only supports encoding raw types. Found " + bodyType);
@@ -124,18 +148,29 @@ public class SOAPEncoder implements Encoder {
           Boolean.toString(writeXmlDeclaration));
       soapMessage.setProperty(SOAPMessage.CHARACTER_SET_ENCODING, charsetEncoding.displayName());
       soapMessage.getSOAPBody().addDocument(document);
-      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      return soapMessage;
+    } catch (SOAPException | JAXBException | ParserConfigurationException e) {
+      throw new EncodeException(e.toString(), e);
+    }
+  }
+
+  private void writeTo(SOAPMessage soapMessage, OutputStream output) throws IOException {
+    try {
       if (formattedOutput) {
         Transformer t = TransformerFactory.newInstance().newTransformer();
         t.setOutputProperty(OutputKeys.INDENT, "yes");
         t.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-        t.transform(new DOMSource(soapMessage.getSOAPPart()), new StreamResult(bos));
+        t.transform(new DOMSource(soapMessage.getSOAPPart()), new StreamResult(output));
       } else {
-        soapMessage.writeTo(bos);
+        soapMessage.writeTo(output);
       }
-      template.body(new String(bos.toByteArray()));
-    } catch (SOAPException | JAXBException | ParserConfigurationException | IOException
-        | TransformerFactoryConfigurationError | TransformerException e) {
+    } catch (TransformerException e) {
+      if (e.getCause() instanceof IOException) {
+        // the connection failed, rather than the transformer
+        throw (IOException) e.getCause();
+      }
+      throw new EncodeException(e.toString(), e);
+    } catch (SOAPException | TransformerFactoryConfigurationError e) {
       throw new EncodeException(e.toString(), e);
     }
   }
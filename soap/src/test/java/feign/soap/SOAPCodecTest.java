@@ -16,6 +16,7 @@ package feign.soap;
 import static feign.Util.UTF_8;
 import static feign.assertj.FeignAssertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -36,6 +37,7 @@ import feign.RequestTemplate;
 import feign.Response;
 import feign.Util;
 import feign.codec.Encoder;
+import feign.codec.StreamingEncoder;
 import feign.jaxb.JAXBContextFactory;
 import feign.jaxb.JAXBDecoder;
 
@@ -70,6 +72,31 @@ public class SOAPCodecTest {
     assertThat(template).hasBody(soapEnvelop);
   }
 
+  @Test
+  public void encodesStreamedSoap() {
+    Encoder encoder = StreamingEncoder.streamed(new SOAPEncoder.Builder()
+        .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+        .build());
+
+    GetPrice mock = new GetPrice();
+    mock.item = new Item();
+    mock.item.value = "Apples";
+
+    RequestTemplate template = new RequestTemplate();
+    encoder.encode(mock, GetPrice.class, template);
+
+    assertNull(template.body());
+    assertThat(template).hasBody("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" +
+        "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\">" +
+        "<SOAP-ENV:Header/>" +
+        "<SOAP-ENV:Body>" +
+        "<GetPrice>" +
+        "<Item>Apples</Item>" +
+        "</GetPrice>" +
+        "</SOAP-ENV:Body>" +
+        "</SOAP-ENV:Envelope>");
+  }
+
   @Test
   public void doesntEncodeParameterizedTypes() throws Exception {
     thrown.expect(UnsupportedOperationException.class);
@@ -25,6 +25,14 @@ public class SpringContract extends DeclarativeContract {
   static final String ACCEPT = "Accept";
   static final String CONTENT_TYPE = "Content-Type";
 
+  /**
+   * Subclasses may register more processors, so only this exact class is cached.
+   */
+  @Override
+  protected boolean cacheable() {
+    return getClass() == SpringContract.class;
+  }
+
   public SpringContract() {
     registerClassAnnotation(RequestMapping.class, (requestMapping, data) -> {
       appendMappings(data, requestMapping.value());